@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -42,6 +42,7 @@ final class FileBuffersMessages extends NLS {
 	public static String ResourceTextFileBuffer_error_illegal_encoding_message_arg;
 	public static String ResourceTextFileBuffer_task_saving;
 	public static String ResourceTextFileBuffer_oom_on_file_read;
+	public static String ResourceTextFileBuffer_error_mapped_file_truncated;
 	public static String ResourceFileBuffer_task_creatingFileBuffer;
 	public static String JavaTextFileBuffer_error_closeStream;
 	public static String TextFileBufferManager_error_documentSetupFailed;
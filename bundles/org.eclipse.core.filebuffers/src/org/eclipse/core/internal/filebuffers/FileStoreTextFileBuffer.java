@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2023 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,7 @@
 package org.eclipse.core.internal.filebuffers;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -57,6 +58,7 @@ import org.eclipse.core.filebuffers.LocationKind;
 
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.source.IAnnotationModel;
 
@@ -206,31 +208,46 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 			return;
 
 		IDocument original= null;
+		SynchronizableDocument.ContentChange change= null;
 		fStatus= null;
 
 		try {
-			original= fManager.createEmptyDocument(getLocationOrName(), LocationKind.LOCATION);
 			cacheEncodingState();
-			setDocumentContent(original, fFileStore, fEncoding, fHasBOM, monitor);
+			change= computeMappedContentChange(monitor);
+			if (change == null) {
+				original= fManager.createEmptyDocument(getLocationOrName(), LocationKind.LOCATION);
+				setDocumentContent(original, fFileStore, fEncoding, fHasBOM, monitor);
+			}
 		} catch (CoreException x) {
 			fStatus= x.getStatus();
 		}
 
-		if (original == null)
+		if (original == null && change == null)
 			return;
 
-		String originalContents= original.get();
-		boolean replaceContents= !originalContents.equals(fDocument.get());
+		boolean replaceContents;
+		if (change != null)
+			replaceContents= !change.isEmpty();
+		else
+			replaceContents= !original.get().equals(fDocument.get()) || isMappedFileModified();
 
-		if (!replaceContents && !fCanBeSaved)
+		if (!replaceContents && !fCanBeSaved) {
+			if (change != null)
+				((SynchronizableDocument) fDocument).applyChange(change, IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP);
 			return;
+		}
 
 		fManager.fireStateChanging(this);
 		try {
 
-			if (replaceContents)  {
+			if (replaceContents)
 				fManager.fireBufferContentAboutToBeReplaced(this);
+			if (change != null) {
+				((SynchronizableDocument) fDocument).applyChange(change, IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP);
+			} else if (replaceContents) {
 				fDocument.set(original.get());
+				if (fDocument instanceof SynchronizableDocument document)
+					document.releaseMappedContent();
 			}
 
 			boolean fireDirtyStateChanged= fCanBeSaved;
@@ -305,9 +322,12 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 	@Override
 	protected void initializeFileBufferContent(IProgressMonitor monitor) throws CoreException {
 		try {
-			fDocument= fManager.createEmptyDocument(getLocationOrName(), LocationKind.LOCATION);
 			cacheEncodingState();
-			setDocumentContent(fDocument, fFileStore, fEncoding, fHasBOM, monitor);
+			fDocument= createMappedDocument(monitor);
+			if (fDocument == null) {
+				fDocument= fManager.createEmptyDocument(getLocationOrName(), LocationKind.LOCATION);
+				setDocumentContent(fDocument, fFileStore, fEncoding, fHasBOM, monitor);
+			}
 		} catch (CoreException x) {
 			fDocument= fManager.createEmptyDocument(getLocationOrName(), LocationKind.LOCATION);
 			fStatus= x.getStatus();
@@ -328,6 +348,13 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 		super.disconnected();
 	}
 
+	@Override
+	protected void dispose() {
+		if (fDocument instanceof SynchronizableDocument document)
+			document.releaseMappedContent();
+		super.dispose();
+	}
+
 	protected void cacheEncodingState() {
 		fEncoding= fExplicitEncoding;
 		fHasBOM= false;
@@ -380,17 +407,23 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 		encoder.onMalformedInput(CodingErrorAction.REPLACE);
 		encoder.onUnmappableCharacter(CodingErrorAction.REPORT);
 
-		byte[] bytes;
-		int bytesLength;
+		InputStream stream= null;
 
 		try {
-			ByteBuffer byteBuffer= encoder.encode(CharBuffer.wrap(fDocument.get()));
-			bytesLength= byteBuffer.limit();
-			if (byteBuffer.hasArray())
-				bytes= byteBuffer.array();
-			else {
-				bytes= new byte[bytesLength];
-				byteBuffer.get(bytes);
+			// the document must no longer read the mapped file once it gets overwritten
+			if (fDocument instanceof SynchronizableDocument document)
+				stream= document.detachMappedContent(charset);
+			if (stream == null) {
+				byte[] bytes;
+				ByteBuffer byteBuffer= encoder.encode(CharBuffer.wrap(fDocument.get()));
+				int bytesLength= byteBuffer.limit();
+				if (byteBuffer.hasArray())
+					bytes= byteBuffer.array();
+				else {
+					bytes= new byte[bytesLength];
+					byteBuffer.get(bytes);
+				}
+				stream= new ByteArrayInputStream(bytes, 0, bytesLength);
 			}
 		} catch (CharacterCodingException ex) {
 			Assert.isTrue(ex instanceof UnmappableCharacterException);
@@ -405,8 +438,6 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 			if (!overwrite)
 				checkSynchronizationState();
 
-			InputStream stream= new ByteArrayInputStream(bytes, 0, bytesLength);
-
 			/*
 			 * XXX:
 			 * This is a workaround for a corresponding bug in Java readers and writer,
@@ -430,7 +461,7 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 		} else {
 			fFileStore.getParent().mkdir(EFS.NONE, null);
 
-			try(OutputStream out= fFileStore.openOutputStream(EFS.NONE, null)) {
+			try(InputStream in= stream; OutputStream out= fFileStore.openOutputStream(EFS.NONE, null)) {
 				/*
 				 * XXX:
 				 * This is a workaround for a corresponding bug in Java readers and writer,
@@ -439,7 +470,7 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 				if (fHasBOM && StandardCharsets.UTF_8.name().equals(encoding))
 					out.write(IContentDescription.BOM_UTF_8);
 
-				out.write(bytes, 0, bytesLength);
+				in.transferTo(out);
 				out.flush();
 				out.close();
 			} catch (IOException x) {
@@ -524,6 +555,89 @@ public class FileStoreTextFileBuffer extends FileStoreFileBuffer implements ITex
 		}
 	}
 
+	/**
+	 * Creates a document which is backed by the memory-mapped file if the file is local, its
+	 * encoding is supported and it is larger than the configured threshold.
+	 *
+	 * @param monitor the progress monitor
+	 * @return the document or <code>null</code> if the file is not mapped
+	 * @exception CoreException if the local file cannot be determined
+	 * @see MappedFileContent
+	 */
+	private IDocument createMappedDocument(IProgressMonitor monitor) throws CoreException {
+		MappedFileContent content= openMappedContent(monitor);
+		if (content == null)
+			return null;
+		IDocument document= fManager.createMappedDocument(getLocationOrName(), LocationKind.LOCATION, content);
+		if (document == null)
+			content.close();
+		return document;
+	}
+
+	/**
+	 * Maps the file if it is local, its encoding is supported and it is larger than the configured
+	 * threshold.
+	 *
+	 * @param monitor the progress monitor
+	 * @return the mapped content or <code>null</code> if the file is not mapped
+	 * @exception CoreException if the local file cannot be determined
+	 * @see MappedFileContent
+	 */
+	private MappedFileContent openMappedContent(IProgressMonitor monitor) throws CoreException {
+		IFileInfo info= fFileStore.fetchInfo();
+		if (!info.exists() || !MappedFileContent.isApplicable(info.getLength(), fEncoding))
+			return null;
+
+		File file= fFileStore.toLocalFile(EFS.NONE, monitor);
+		if (file == null)
+			return null;
+
+		MappedFileContent content;
+		try {
+			content= MappedFileContent.open(file, fEncoding, fHasBOM && StandardCharsets.UTF_8.name().equals(fEncoding));
+		} catch (IOException x) {
+			// fall back to reading the file into the heap
+			return null;
+		}
+		if (content != null)
+			content.setTruncationHandler(this::handleMappedFileTruncated);
+		return content;
+	}
+
+	/**
+	 * Computes the change which turns the document into the current content of the file, if the
+	 * document is backed by a memory-mapped file and the file can still be mapped.
+	 *
+	 * @param monitor the progress monitor
+	 * @return the change or <code>null</code> if the file has to be read into the heap
+	 * @exception CoreException if the local file cannot be determined
+	 */
+	private SynchronizableDocument.ContentChange computeMappedContentChange(IProgressMonitor monitor) throws CoreException {
+		if (!(fDocument instanceof SynchronizableDocument document) || !document.canMapContent())
+			return null;
+		MappedFileContent content= openMappedContent(monitor);
+		return content != null ? document.computeChange(content) : null;
+	}
+
+	/**
+	 * Tells whether the memory-mapped file backing the document has been overwritten in place.
+	 *
+	 * @return <code>true</code> if the document may no longer read the content it has reported
+	 */
+	private boolean isMappedFileModified() {
+		return fDocument instanceof SynchronizableDocument document && document.isMappedFileModified();
+	}
+
+	/**
+	 * Reports the file as out of sync after the memory-mapped file backing the document has been
+	 * found truncated. The document has to be reverted to read the new content of the file.
+	 */
+	private void handleMappedFileTruncated() {
+		fSynchronizationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+		String message= NLSUtility.format(FileBuffersMessages.ResourceTextFileBuffer_error_mapped_file_truncated, fFileStore.toString());
+		fStatus= new Status(IStatus.ERROR, FileBuffersPlugin.PLUGIN_ID, IResourceStatus.OUT_OF_SYNC_LOCAL, message, null);
+	}
+
 	/**
 	 * Checks whether the given file is synchronized with the local file system.
 	 * If the file has been changed, a <code>CoreException</code> is thrown.
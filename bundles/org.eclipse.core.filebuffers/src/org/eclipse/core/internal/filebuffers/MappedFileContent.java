@@ -0,0 +1,526 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filebuffers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * The read-only content of a memory-mapped file, decoded lazily.
+ * <p>
+ * Opening the content scans the mapped bytes once to compute the number of characters, a sparse
+ * index from character offsets to byte offsets and a sparse index of line start offsets. No
+ * characters are decoded up front; {@link #charAt(int)} decodes small blocks on demand and keeps a
+ * few of them cached. Only single-byte encodings (ISO-8859-1, US-ASCII) and UTF-8 are supported.
+ * </p>
+ * <p>
+ * The mapping is used if the file is larger than the threshold given by the
+ * {@value #THRESHOLD_PROPERTY} system property (in bytes). The mode is disabled if the property is
+ * not set, and always on Windows, where a mapped file cannot be overwritten or deleted until the
+ * mapping is garbage collected. The content must be {@linkplain #close() closed} before the mapped
+ * file is overwritten, since it then refers to bytes which are no longer there.
+ * </p>
+ * <p>
+ * If the file is truncated by another process while it is mapped, the characters which can no
+ * longer be read are returned as replacement characters and the
+ * {@linkplain #setTruncationHandler(Runnable) truncation handler} is notified.
+ * </p>
+ *
+ * @see MappedFileLineTracker
+ */
+final class MappedFileContent implements CharSequence {
+
+	/** The system property holding the minimal file size in bytes for which files get mapped. */
+	static final String THRESHOLD_PROPERTY= "org.eclipse.core.filebuffers.mappedFileThreshold"; //$NON-NLS-1$
+
+	/** The number of line starts between two entries of the line index. */
+	static final int LINE_SAMPLE_RATE= 16;
+
+	/** The number of characters in a decoded block. */
+	private static final int BLOCK_SIZE= 4096;
+
+	/** The number of cached decoded blocks. */
+	private static final int CACHE_SIZE= 8;
+
+	/** The replacement character for malformed input. */
+	private static final char REPLACEMENT= '\uFFFD';
+
+	/**
+	 * Whether files are mapped at all. Not on Windows, where a mapped file cannot be overwritten
+	 * until the mapping is garbage collected.
+	 */
+	private static final boolean MAP_FILES= !Platform.OS_WIN32.equals(Platform.getOS());
+
+	/**
+	 * A decoded block of characters.
+	 */
+	private static final class Block {
+		final int fIndex;
+		final char[] fChars;
+
+		Block(int index, char[] chars) {
+			fIndex= index;
+			fChars= chars;
+		}
+	}
+
+	/** The mapped file, <code>null</code> once closed */
+	private MappedByteBuffer fBuffer;
+	/** The byte offset of the first character, i.e. behind the BOM */
+	private final int fStart;
+	/** Whether each byte represents one character */
+	private boolean fSingleByte;
+	/** The number of characters */
+	private int fLength;
+	/**
+	 * The byte offsets of the decoded blocks, only for multi-byte content. A negative value
+	 * <code>~offset</code> denotes a block starting with the low surrogate of the code point at
+	 * <code>offset</code>.
+	 */
+	private int[] fBlockOffsets;
+	/** The start offsets of every {@link #LINE_SAMPLE_RATE}th line */
+	private int[] fLineSamples;
+	/** The number of lines */
+	private int fNumberOfLines;
+	/** The cached decoded blocks */
+	private final Block[] fCache= new Block[CACHE_SIZE];
+	/** The next cache slot to replace */
+	private int fNextCacheSlot;
+	/** Whether the file has been found truncated */
+	private volatile boolean fTruncated;
+	/** The handler notified when the file is found truncated, may be <code>null</code> */
+	private volatile Runnable fTruncationHandler;
+	/** The mapped file, <code>null</code> if it is not checked for modifications */
+	private volatile File fFile;
+	/** The key identifying the mapped file, <code>null</code> if not available */
+	private Object fFileKey;
+	/** The size of the file when it was mapped */
+	private long fFileSize;
+	/** The last modification time of the file when it was mapped */
+	private FileTime fFileLastModified;
+
+	/**
+	 * Returns the size in bytes above which files are mapped.
+	 *
+	 * @return the threshold or <code>-1</code> if files are never mapped
+	 */
+	static long getThreshold() {
+		return Long.getLong(THRESHOLD_PROPERTY, -1L).longValue();
+	}
+
+	/**
+	 * Tells whether a file of the given size in the given encoding is mapped.
+	 *
+	 * @param size the size of the file in bytes
+	 * @param encoding the encoding of the file, may be <code>null</code>
+	 * @return <code>true</code> if the file should be opened with {@link #open(File, String, boolean)}
+	 */
+	static boolean isApplicable(long size, String encoding) {
+		long threshold= getThreshold();
+		return MAP_FILES && threshold >= 0 && size > threshold && size <= Integer.MAX_VALUE && getCharset(encoding) != null;
+	}
+
+	/**
+	 * Maps the given file.
+	 *
+	 * @param file the local file
+	 * @param encoding the encoding of the file
+	 * @param skipBOM whether the file starts with a UTF-8 BOM which is not part of the content
+	 * @return the mapped content or <code>null</code> if the file cannot be mapped
+	 * @throws IOException if mapping the file fails or the file is truncated while it is indexed
+	 */
+	static MappedFileContent open(File file, String encoding, boolean skipBOM) throws IOException {
+		Charset charset= getCharset(encoding);
+		if (charset == null)
+			return null;
+
+		BasicFileAttributes attributes= Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		try (FileChannel channel= FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size= channel.size();
+			if (size > Integer.MAX_VALUE)
+				return null;
+			MappedByteBuffer buffer= channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			int start= skipBOM && size >= 3 ? 3 : 0;
+			MappedFileContent content= new MappedFileContent(buffer, start, charset != StandardCharsets.UTF_8);
+			content.fFile= file;
+			content.fFileKey= attributes.fileKey();
+			content.fFileSize= size;
+			content.fFileLastModified= attributes.lastModifiedTime();
+			return content;
+		} catch (InternalError e) {
+			// the file has been truncated while it is indexed
+			throw new IOException(e);
+		}
+	}
+
+	private static Charset getCharset(String encoding) {
+		if (encoding == null)
+			return null;
+		try {
+			Charset charset= Charset.forName(encoding);
+			if (StandardCharsets.UTF_8.equals(charset))
+				return StandardCharsets.UTF_8;
+			if (StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset))
+				return StandardCharsets.ISO_8859_1;
+		} catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+			// not supported
+		}
+		return null;
+	}
+
+	private MappedFileContent(MappedByteBuffer buffer, int start, boolean singleByte) {
+		fBuffer= buffer;
+		fStart= start;
+		index(singleByte);
+	}
+
+	/**
+	 * Computes the length, the block index and the line index in a single pass over the bytes.
+	 * Line delimiters are single bytes in all supported encodings. UTF-8 content without any
+	 * non-ASCII byte is treated as single-byte content.
+	 *
+	 * @param singleByte whether the encoding is a single-byte encoding
+	 */
+	private void index(boolean singleByte) {
+		int end= fBuffer.limit();
+		int[] blocks= singleByte ? null : new int[16];
+		int blockCount= 0;
+		boolean multiByte= false;
+		int[] lines= new int[16];
+		lines[0]= 0;
+		int sampleCount= 1;
+		int lineCount= 1;
+
+		int length= 0;
+		int i= fStart;
+		while (i < end) {
+			byte b= fBuffer.get(i);
+			int sequence= 1;
+			int chars= 1;
+			if (b < 0 && !singleByte) {
+				multiByte= true;
+				sequence= sequenceLength(i, end);
+				chars= sequence == 4 ? 2 : 1;
+			}
+
+			if (blocks != null && (length + chars - 1) / BLOCK_SIZE >= blockCount) {
+				if (blockCount == blocks.length)
+					blocks= Arrays.copyOf(blocks, blockCount * 2);
+				// a block may start with the low surrogate of a supplementary code point
+				blocks[blockCount]= length % BLOCK_SIZE == 0 ? i : ~i;
+				blockCount++;
+			}
+
+			length+= chars;
+			i+= sequence;
+
+			// the line of a "\r\n" delimiter ends behind the '\n'
+			if (b == '\n' || b == '\r' && (i == end || fBuffer.get(i) != '\n')) {
+				if (lineCount % LINE_SAMPLE_RATE == 0) {
+					if (sampleCount == lines.length)
+						lines= Arrays.copyOf(lines, sampleCount * 2);
+					lines[sampleCount++]= length;
+				}
+				lineCount++;
+			}
+		}
+
+		fLength= length;
+		fSingleByte= !multiByte;
+		fBlockOffsets= multiByte ? Arrays.copyOf(blocks, blockCount) : null;
+		fLineSamples= Arrays.copyOf(lines, sampleCount);
+		fNumberOfLines= lineCount;
+	}
+
+	/**
+	 * Returns the length of the UTF-8 sequence starting at the given non-ASCII byte. Malformed
+	 * input is consumed byte by byte and decoded as replacement character.
+	 *
+	 * @param i the byte offset
+	 * @param end the end of the content
+	 * @return the number of bytes of the sequence
+	 */
+	private int sequenceLength(int i, int end) {
+		int b= fBuffer.get(i) & 0xFF;
+		int length;
+		int min= 0x80;
+		int max= 0xBF;
+		if (b >= 0xC2 && b <= 0xDF) {
+			length= 2;
+		} else if (b >= 0xE0 && b <= 0xEF) {
+			length= 3;
+			if (b == 0xE0)
+				min= 0xA0;
+			else if (b == 0xED)
+				max= 0x9F;
+		} else if (b >= 0xF0 && b <= 0xF4) {
+			length= 4;
+			if (b == 0xF0)
+				min= 0x90;
+			else if (b == 0xF4)
+				max= 0x8F;
+		} else {
+			return 1;
+		}
+		if (i + length > end)
+			return 1;
+		int second= fBuffer.get(i + 1) & 0xFF;
+		if (second < min || second > max)
+			return 1;
+		for (int k= 2; k < length; k++) {
+			if ((fBuffer.get(i + k) & 0xC0) != 0x80)
+				return 1;
+		}
+		return length;
+	}
+
+	@Override
+	public int length() {
+		return fLength;
+	}
+
+	/**
+	 * Sets the handler which is notified once if the mapped file is found truncated while it is
+	 * read. The handler is called on the reading thread, possibly while the lock of the document
+	 * is held.
+	 *
+	 * @param handler the handler, may be <code>null</code>
+	 */
+	void setTruncationHandler(Runnable handler) {
+		fTruncationHandler= handler;
+	}
+
+	/**
+	 * Tells whether the mapped file has been found truncated while it was read.
+	 *
+	 * @return <code>true</code> if some characters could not be read
+	 */
+	boolean isTruncated() {
+		return fTruncated;
+	}
+
+	/**
+	 * Tells whether the mapped file has been modified in place since it was mapped, e.g. by
+	 * another process. The characters read from this content may then differ from the ones read
+	 * before, without any notification. A file which has been deleted or replaced by another file
+	 * is not modified, its mapping keeps the original content.
+	 *
+	 * @return <code>true</code> if the size or the modification time of the file has changed
+	 */
+	boolean isFileModified() {
+		File file= fFile;
+		if (file == null)
+			return false;
+		BasicFileAttributes attributes;
+		try {
+			attributes= Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+		} catch (IOException e) {
+			// deleted
+			return false;
+		}
+		if (fFileKey != null && !fFileKey.equals(attributes.fileKey()))
+			return false;
+		return attributes.size() != fFileSize || !attributes.lastModifiedTime().equals(fFileLastModified);
+	}
+
+	/**
+	 * Stops checking the mapped file for modifications, e.g. because it is a private copy which
+	 * is deleted once it is mapped.
+	 */
+	void ignoreFileModifications() {
+		fFile= null;
+	}
+
+	/**
+	 * Releases the mapping and the decoded blocks. The content must not be accessed afterwards.
+	 */
+	void close() {
+		fBuffer= null;
+		Arrays.fill(fCache, null);
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= fLength)
+			throw new IndexOutOfBoundsException(index);
+		checkOpen();
+		try {
+			if (fSingleByte)
+				return (char) (fBuffer.get(fStart + index) & 0xFF);
+			return getBlock(index / BLOCK_SIZE).fChars[index % BLOCK_SIZE];
+		} catch (InternalError e) {
+			// the file has been truncated while it is mapped
+			handleTruncation();
+			return REPLACEMENT;
+		}
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > fLength || start > end)
+			throw new IndexOutOfBoundsException();
+		char[] chars= new char[end - start];
+		getChars(start, end, chars, 0);
+		return new String(chars);
+	}
+
+	@Override
+	public String toString() {
+		return subSequence(0, fLength).toString();
+	}
+
+	/**
+	 * Copies the characters in the given range into the destination array.
+	 *
+	 * @param start the start of the range
+	 * @param end the end of the range
+	 * @param dest the destination array
+	 * @param destOffset the start offset in the destination array
+	 */
+	void getChars(int start, int end, char[] dest, int destOffset) {
+		checkOpen();
+		int i= start;
+		try {
+			if (fSingleByte) {
+				for (; i < end; i++)
+					dest[destOffset + i - start]= (char) (fBuffer.get(fStart + i) & 0xFF);
+				return;
+			}
+			while (i < end) {
+				Block block= getBlock(i / BLOCK_SIZE);
+				int from= i % BLOCK_SIZE;
+				int count= Math.min(end - i, block.fChars.length - from);
+				System.arraycopy(block.fChars, from, dest, destOffset + i - start, count);
+				i+= count;
+			}
+		} catch (InternalError e) {
+			// the file has been truncated while it is mapped
+			handleTruncation();
+			Arrays.fill(dest, destOffset + i - start, destOffset + end - start, REPLACEMENT);
+		}
+	}
+
+	/**
+	 * Returns the number of lines of this content.
+	 *
+	 * @return the number of lines, at least 1
+	 */
+	int getNumberOfLines() {
+		return fNumberOfLines;
+	}
+
+	/**
+	 * Returns the start offset of the line <code>sample * LINE_SAMPLE_RATE</code>.
+	 *
+	 * @param sample the index of the sample
+	 * @return the offset of the sampled line
+	 */
+	int getLineSample(int sample) {
+		return fLineSamples[sample];
+	}
+
+	/**
+	 * Returns the index of the last line sample starting at or before the given offset.
+	 *
+	 * @param offset the character offset
+	 * @return the index of the sample
+	 */
+	int findLineSample(int offset) {
+		int index= Arrays.binarySearch(fLineSamples, offset);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	private void handleTruncation() {
+		if (fTruncated)
+			return;
+		fTruncated= true;
+		Runnable handler= fTruncationHandler;
+		if (handler != null)
+			handler.run();
+	}
+
+	private void checkOpen() {
+		if (fBuffer == null)
+			throw new IllegalStateException("The mapped file content has been closed"); //$NON-NLS-1$
+	}
+
+	private Block getBlock(int index) {
+		Block[] cache= fCache;
+		for (Block block : cache) {
+			if (block != null && block.fIndex == index)
+				return block;
+		}
+		Block block= new Block(index, decodeBlock(index));
+		int slot= fNextCacheSlot;
+		cache[slot]= block;
+		fNextCacheSlot= (slot + 1) % CACHE_SIZE;
+		return block;
+	}
+
+	private char[] decodeBlock(int index) {
+		int first= index * BLOCK_SIZE;
+		char[] chars= new char[Math.min(BLOCK_SIZE, fLength - first)];
+		int i= fBlockOffsets[index];
+		int count= 0;
+		if (i < 0) {
+			// skip the high surrogate which belongs to the previous block
+			i= ~i;
+			int codePoint= decode(i, 4);
+			chars[count++]= Character.lowSurrogate(codePoint);
+			i+= 4;
+		}
+		int end= fBuffer.limit();
+		while (count < chars.length) {
+			byte b= fBuffer.get(i);
+			if (b >= 0) {
+				chars[count++]= (char) b;
+				i++;
+				continue;
+			}
+			int sequence= sequenceLength(i, end);
+			if (sequence == 1) {
+				chars[count++]= REPLACEMENT;
+			} else if (sequence == 4) {
+				int codePoint= decode(i, 4);
+				chars[count++]= Character.highSurrogate(codePoint);
+				if (count < chars.length)
+					chars[count++]= Character.lowSurrogate(codePoint);
+			} else {
+				chars[count++]= (char) decode(i, sequence);
+			}
+			i+= sequence;
+		}
+		return chars;
+	}
+
+	private int decode(int i, int sequence) {
+		int codePoint= fBuffer.get(i) & (0xFF >> (sequence + 1));
+		for (int k= 1; k < sequence; k++)
+			codePoint= (codePoint << 6) | (fBuffer.get(i + k) & 0x3F);
+		return codePoint;
+	}
+}
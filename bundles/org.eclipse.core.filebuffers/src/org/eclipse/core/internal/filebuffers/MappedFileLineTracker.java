@@ -0,0 +1,322 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.filebuffers;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DefaultLineTracker;
+import org.eclipse.jface.text.ILineTracker;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.TextUtilities;
+
+
+/**
+ * A line tracker for the unmodified content of a memory-mapped file. Line information is computed
+ * from the sparse line index of the {@link MappedFileContent} by scanning at most
+ * {@link MappedFileContent#LINE_SAMPLE_RATE} lines of the content. Upon first modification, or
+ * when the content is about to be closed, the tracker is replaced by a {@link DefaultLineTracker},
+ * which is filled block by block so that the content is never decoded into a single string.
+ * <p>
+ * Recognizes the same line delimiters as the {@link DefaultLineTracker}: "\n", "\r", "\r\n".
+ * </p>
+ *
+ * @see MappedFileContent
+ */
+final class MappedFileLineTracker implements ILineTracker {
+
+	/** The number of characters passed at once to the tracker used after the first modification. */
+	private static final int DELEGATE_BLOCK_SIZE= 64 * 1024;
+
+	/** The mapped content */
+	private MappedFileContent fContent;
+	/** The number of lines with content or a delimiter, i.e. without a trailing empty line */
+	private int fTrackedLines;
+	/** The tracker used after the first modification, <code>null</code> before */
+	private ILineTracker fDelegate;
+
+	/**
+	 * Creates a new line tracker for the given content.
+	 *
+	 * @param content the mapped content
+	 */
+	MappedFileLineTracker(MappedFileContent content) {
+		setContent(content);
+	}
+
+	@Override
+	public String[] getLegalLineDelimiters() {
+		return TextUtilities.copy(DefaultLineTracker.DELIMITERS);
+	}
+
+	@Override
+	public String getLineDelimiter(int line) throws BadLocationException {
+		if (fDelegate != null)
+			return fDelegate.getLineDelimiter(line);
+
+		int lines= fTrackedLines;
+		if (line < 0 || line > lines)
+			throw new BadLocationException();
+		if (line >= fContent.getNumberOfLines() - 1)
+			return null;
+
+		int next= getLineStart(line + 1);
+		if (fContent.charAt(next - 1) == '\r')
+			return DefaultLineTracker.DELIMITERS[0];
+		if (next - 2 >= getLineStart(line) && fContent.charAt(next - 2) == '\r')
+			return DefaultLineTracker.DELIMITERS[2];
+		return DefaultLineTracker.DELIMITERS[1];
+	}
+
+	@Override
+	public int computeNumberOfLines(String text) {
+		int count= 0;
+		for (int i= 0, length= text.length(); i < length; i++) {
+			char c= text.charAt(i);
+			if (c == '\n') {
+				count++;
+			} else if (c == '\r') {
+				count++;
+				if (i + 1 < length && text.charAt(i + 1) == '\n')
+					i++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public int getNumberOfLines() {
+		if (fDelegate != null)
+			return fDelegate.getNumberOfLines();
+		return fContent.getNumberOfLines();
+	}
+
+	@Override
+	public int getNumberOfLines(int offset, int length) throws BadLocationException {
+		if (fDelegate != null)
+			return fDelegate.getNumberOfLines(offset, length);
+
+		if (offset < 0 || offset + length > fContent.length())
+			throw new BadLocationException();
+		if (length == 0)
+			return 1;
+		return getLineNumberOfOffset(offset + length) - getLineNumberOfOffset(offset) + 1;
+	}
+
+	@Override
+	public int getLineOffset(int line) throws BadLocationException {
+		if (fDelegate != null)
+			return fDelegate.getLineOffset(line);
+
+		if (line < 0 || line >= fContent.getNumberOfLines())
+			throw new BadLocationException();
+		return getLineStart(line);
+	}
+
+	@Override
+	public int getLineLength(int line) throws BadLocationException {
+		if (fDelegate != null)
+			return fDelegate.getLineLength(line);
+
+		int lines= fTrackedLines;
+		if (line < 0 || line > lines)
+			throw new BadLocationException();
+		if (line == lines)
+			return 0;
+		return getLineEnd(line) - getLineStart(line);
+	}
+
+	@Override
+	public int getLineNumberOfOffset(int offset) throws BadLocationException {
+		if (fDelegate != null)
+			return fDelegate.getLineNumberOfOffset(offset);
+
+		if (offset < 0) {
+			throw new BadLocationException("Negative offset : " + offset); //$NON-NLS-1$
+		} else if (offset > fContent.length()) {
+			throw new BadLocationException("Offset > length: " + offset + " > " + fContent.length()); //$NON-NLS-1$//$NON-NLS-2$
+		}
+		if (offset == fContent.length())
+			return fContent.getNumberOfLines() - 1;
+		return findLine(offset);
+	}
+
+	@Override
+	public IRegion getLineInformationOfOffset(int offset) throws BadLocationException {
+		if (fDelegate != null)
+			return fDelegate.getLineInformationOfOffset(offset);
+
+		return getLineInformation(getLineNumberOfOffset(offset));
+	}
+
+	@Override
+	public IRegion getLineInformation(int line) throws BadLocationException {
+		if (fDelegate != null)
+			return fDelegate.getLineInformation(line);
+
+		int lines= fTrackedLines;
+		if (line < 0 || line > lines)
+			throw new BadLocationException();
+		if (line == lines)
+			return new Region(fContent.length(), 0);
+
+		int start= getLineStart(line);
+		String delimiter= getLineDelimiter(line);
+		if (delimiter == null)
+			return new Region(start, fContent.length() - start);
+		return new Region(start, getLineStart(line + 1) - start - delimiter.length());
+	}
+
+	@Override
+	public void replace(int offset, int length, String text) throws BadLocationException {
+		if (fDelegate == null) {
+			if (length == 0 && (text == null || text.isEmpty())) {
+				if (offset < 0 || offset > fContent.length())
+					throw new BadLocationException();
+				return;
+			}
+			fDelegate= createDelegate();
+		}
+		fDelegate.replace(offset, length, text);
+	}
+
+	/**
+	 * Continues with the given content, which has the same characters as the current one. Does
+	 * nothing if the tracker is no longer using the mapped content.
+	 *
+	 * @param content the new mapped content
+	 */
+	void setContent(MappedFileContent content) {
+		if (fDelegate != null)
+			return;
+		fContent= content;
+		int lines= content.getNumberOfLines();
+		if (content.length() == 0)
+			fTrackedLines= 0;
+		else
+			fTrackedLines= getLineStart(lines - 1) == content.length() ? lines - 1 : lines;
+	}
+
+	/**
+	 * Starts over with the given content, which has the same characters as the document, also
+	 * if the tracker is no longer using the mapped content. Drops the tracker used after the
+	 * first modification.
+	 *
+	 * @param content the new mapped content
+	 */
+	void reset(MappedFileContent content) {
+		fDelegate= null;
+		setContent(content);
+	}
+
+	/**
+	 * Stops using the mapped content by switching to the tracker used after the first
+	 * modification. Must be called before the content is closed.
+	 */
+	void release() {
+		if (fDelegate == null)
+			fDelegate= createDelegate();
+	}
+
+	@Override
+	public void set(String text) {
+		if (fDelegate == null)
+			fDelegate= new DefaultLineTracker();
+		fDelegate.set(text);
+	}
+
+	/**
+	 * Creates the tracker used after the first modification and fills it with the mapped content.
+	 *
+	 * @return the new tracker
+	 */
+	private ILineTracker createDelegate() {
+		ILineTracker tracker= new DefaultLineTracker();
+		int length= fContent.length();
+		int offset= 0;
+		try {
+			while (offset < length) {
+				int end= Math.min(offset + DELEGATE_BLOCK_SIZE, length);
+				// keep a "\r\n" delimiter within one block
+				if (end < length && fContent.charAt(end - 1) == '\r')
+					end++;
+				tracker.replace(offset, 0, fContent.subSequence(offset, end).toString());
+				offset= end;
+			}
+		} catch (BadLocationException x) {
+			// cannot happen, the blocks are appended
+			throw new IllegalStateException(x);
+		}
+		return tracker;
+	}
+
+	/**
+	 * Returns the start offset of the given line.
+	 *
+	 * @param line a valid line number
+	 * @return the start offset of the line
+	 */
+	private int getLineStart(int line) {
+		int sample= line / MappedFileContent.LINE_SAMPLE_RATE;
+		int offset= fContent.getLineSample(sample);
+		for (int i= sample * MappedFileContent.LINE_SAMPLE_RATE; i < line; i++)
+			offset= getNextLineStart(offset);
+		return offset;
+	}
+
+	/**
+	 * Returns the end offset of the given line, including its delimiter.
+	 *
+	 * @param line a valid line number
+	 * @return the end offset of the line
+	 */
+	private int getLineEnd(int line) {
+		int next= getNextLineStart(getLineStart(line));
+		return next == -1 ? fContent.length() : next;
+	}
+
+	/**
+	 * Returns the line containing the given offset.
+	 *
+	 * @param offset an offset inside the content
+	 * @return the line containing the offset
+	 */
+	private int findLine(int offset) {
+		int sample= fContent.findLineSample(offset);
+		int line= sample * MappedFileContent.LINE_SAMPLE_RATE;
+		int next= getNextLineStart(fContent.getLineSample(sample));
+		while (next != -1 && next <= offset) {
+			line++;
+			next= getNextLineStart(next);
+		}
+		return line;
+	}
+
+	/**
+	 * Returns the start of the line following the line which starts at <code>offset</code>.
+	 *
+	 * @param offset the start of a line
+	 * @return the start of the next line, or <code>-1</code> if it is the last line
+	 */
+	private int getNextLineStart(int offset) {
+		int length= fContent.length();
+		for (int i= offset; i < length; i++) {
+			char c= fContent.charAt(i);
+			if (c == '\n')
+				return i + 1;
+			if (c == '\r')
+				return i + 1 < length && fContent.charAt(i + 1) == '\n' ? i + 2 : i + 1;
+		}
+		return -1;
+	}
+}
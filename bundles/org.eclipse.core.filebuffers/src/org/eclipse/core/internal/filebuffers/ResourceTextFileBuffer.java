@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2023 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.core.internal.filebuffers;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -37,6 +38,7 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResourceStatus;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
@@ -232,8 +234,11 @@ public class ResourceTextFileBuffer extends ResourceFileBuffer implements ITextF
 			}
 
 
-			fDocument= getManager().createEmptyDocument(fFile);
-			setDocumentContent(fDocument, fFile, fEncoding);
+			fDocument= createMappedDocument();
+			if (fDocument == null) {
+				fDocument= getManager().createEmptyDocument(fFile);
+				setDocumentContent(fDocument, fFile, fEncoding);
+			}
 
 		} catch (CoreException x) {
 			fDocument= getManager().createEmptyDocument(fFile);
@@ -241,6 +246,85 @@ public class ResourceTextFileBuffer extends ResourceFileBuffer implements ITextF
 		}
 	}
 
+	/**
+	 * Creates a document which is backed by the memory-mapped file if the file is local, its
+	 * encoding is supported and it is larger than the configured threshold.
+	 *
+	 * @return the document or <code>null</code> if the file is not mapped
+	 * @see MappedFileContent
+	 */
+	private IDocument createMappedDocument() {
+		MappedFileContent content= openMappedContent();
+		if (content == null)
+			return null;
+		IDocument document= getManager().createMappedDocument(fFile, content);
+		if (document == null)
+			content.close();
+		return document;
+	}
+
+	/**
+	 * Maps the file if it is local, its encoding is supported and it is larger than the configured
+	 * threshold.
+	 *
+	 * @return the mapped content or <code>null</code> if the file is not mapped
+	 * @see MappedFileContent
+	 */
+	private MappedFileContent openMappedContent() {
+		IPath location= fFile.getLocation();
+		if (location == null)
+			return null;
+
+		File file= location.toFile();
+		String encoding= fEncoding != null ? fEncoding : fManager.getDefaultEncoding();
+		if (!file.isFile() || !MappedFileContent.isApplicable(file.length(), encoding))
+			return null;
+
+		MappedFileContent content;
+		try {
+			content= MappedFileContent.open(file, encoding, fBOM != null && StandardCharsets.UTF_8.name().equals(encoding));
+		} catch (IOException x) {
+			// fall back to reading the file into the heap
+			return null;
+		}
+		if (content != null)
+			content.setTruncationHandler(this::handleMappedFileTruncated);
+		return content;
+	}
+
+	/**
+	 * Computes the change which turns the document into the current content of the file, if the
+	 * document is backed by a memory-mapped file and the file can still be mapped.
+	 *
+	 * @return the change or <code>null</code> if the file has to be read into the heap
+	 */
+	private SynchronizableDocument.ContentChange computeMappedContentChange() {
+		if (!(fDocument instanceof SynchronizableDocument document) || !document.canMapContent())
+			return null;
+		MappedFileContent content= openMappedContent();
+		return content != null ? document.computeChange(content) : null;
+	}
+
+	/**
+	 * Tells whether the memory-mapped file backing the document has been overwritten in place.
+	 *
+	 * @return <code>true</code> if the document may no longer read the content it has reported
+	 */
+	private boolean isMappedFileModified() {
+		return fDocument instanceof SynchronizableDocument document && document.isMappedFileModified();
+	}
+
+	/**
+	 * Reports the file as out of sync after the memory-mapped file backing the document has been
+	 * found truncated. The document is reloaded by the file synchronizer once the change is
+	 * noticed, unless it is dirty.
+	 */
+	private void handleMappedFileTruncated() {
+		fSynchronizationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+		String message= NLSUtility.format(FileBuffersMessages.ResourceTextFileBuffer_error_mapped_file_truncated, fFile.getFullPath().toString());
+		fStatus= new Status(IStatus.ERROR, FileBuffersPlugin.PLUGIN_ID, IResourceStatus.OUT_OF_SYNC_LOCAL, message, null);
+	}
+
 	/**
 	 * Caches the BOM of the underlying file.
 	 *
@@ -273,6 +357,8 @@ public class ResourceTextFileBuffer extends ResourceFileBuffer implements ITextF
 		}
 		if (fAnnotationModel != null)
 			fAnnotationModel.disconnect(fDocument);
+		if (fDocument instanceof SynchronizableDocument document)
+			document.releaseMappedContent();
 		fDocument= null;
 		super.dispose();
 	}
@@ -306,18 +392,23 @@ public class ResourceTextFileBuffer extends ResourceFileBuffer implements ITextF
 		encoder.onMalformedInput(CodingErrorAction.REPLACE);
 		encoder.onUnmappableCharacter(CodingErrorAction.REPORT);
 
-		InputStream stream;
+		InputStream stream= null;
 
 		try {
-			byte[] bytes;
-			ByteBuffer byteBuffer= encoder.encode(CharBuffer.wrap(fDocument.get()));
-			if (byteBuffer.hasArray())
-				bytes= byteBuffer.array();
-			else {
-				bytes= new byte[byteBuffer.limit()];
-				byteBuffer.get(bytes);
+			// the document must no longer read the mapped file once it gets overwritten
+			if (fDocument instanceof SynchronizableDocument document)
+				stream= document.detachMappedContent(charset);
+			if (stream == null) {
+				byte[] bytes;
+				ByteBuffer byteBuffer= encoder.encode(CharBuffer.wrap(fDocument.get()));
+				if (byteBuffer.hasArray())
+					bytes= byteBuffer.array();
+				else {
+					bytes= new byte[byteBuffer.limit()];
+					byteBuffer.get(bytes);
+				}
+				stream= new ByteArrayInputStream(bytes, 0, byteBuffer.limit());
 			}
-			stream= new ByteArrayInputStream(bytes, 0, byteBuffer.limit());
 		} catch (CharacterCodingException ex) {
 			Assert.isTrue(ex instanceof UnmappableCharacterException);
 			String message= NLSUtility.format(FileBuffersMessages.ResourceTextFileBuffer_error_charset_mapping_failed_message_arg, new Object[] {encoding,getLocation().toString()});
@@ -420,29 +511,44 @@ public class ResourceTextFileBuffer extends ResourceFileBuffer implements ITextF
 	@Override
 	protected void handleFileContentChanged(boolean revert, boolean updateModificationStamp) throws CoreException {
 
-		IDocument document= getManager().createEmptyDocument(fFile);
+		IDocument document= null;
+		SynchronizableDocument.ContentChange change= null;
 		IStatus status= null;
 
 		try {
 			cacheEncodingState();
-			setDocumentContent(document, fFile, fEncoding);
+			change= computeMappedContentChange();
+			if (change == null) {
+				document= getManager().createEmptyDocument(fFile);
+				setDocumentContent(document, fFile, fEncoding);
+			}
 		} catch (CoreException x) {
 			status= x.getStatus();
 		}
 
-		String newContent= document.get();
-		boolean replaceContent= updateModificationStamp || !newContent.equals(fDocument.get());
+		String newContent= null;
+		boolean replaceContent;
+		if (change != null) {
+			replaceContent= updateModificationStamp || !change.isEmpty();
+		} else {
+			newContent= document != null ? document.get() : ""; //$NON-NLS-1$
+			replaceContent= updateModificationStamp || !newContent.equals(fDocument.get()) || isMappedFileModified();
+		}
 
 		if (replaceContent)
 			fManager.fireBufferContentAboutToBeReplaced(this);
 
 		removeFileBufferContentListeners();
 		fSynchronizationStamp= fFile.getModificationStamp();
-		if (replaceContent) {
+		if (change != null) {
+			((SynchronizableDocument) fDocument).applyChange(change, replaceContent ? fSynchronizationStamp : IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP);
+		} else if (replaceContent) {
 			if (fDocument instanceof IDocumentExtension4)
 				((IDocumentExtension4)fDocument).set(newContent, fSynchronizationStamp);
 			else
 				fDocument.set(newContent);
+			if (fDocument instanceof SynchronizableDocument synchronizableDocument)
+				synchronizableDocument.releaseMappedContent();
 		}
 		fCanBeSaved= false;
 		fStatus= status;
@@ -132,6 +132,25 @@ public class ResourceTextFileBufferManager extends TextFileBufferManager {
 		else
 			document= new SynchronizableDocument();
 
+		return setUpDocument(file, document);
+	}
+
+	/**
+	 * Creates a new document for the given file which is backed by the given memory-mapped
+	 * content. Setup participants are run as for {@link #createEmptyDocument(IFile)}.
+	 *
+	 * @param file the file
+	 * @param content the mapped content of the file
+	 * @return the new document or <code>null</code> if a document factory is registered for the
+	 *         file
+	 */
+	IDocument createMappedDocument(final IFile file, MappedFileContent content) {
+		if (hasDocumentFactory(file))
+			return null;
+		return setUpDocument(file, new SynchronizableDocument(content, file.getModificationStamp()));
+	}
+
+	private IDocument setUpDocument(final IFile file, final IDocument document) {
 		// Set the initial line delimiter
 		if (document instanceof IDocumentExtension4) {
 			String initalLineDelimiter= getLineDelimiterPreference(file);
@@ -169,6 +188,18 @@ public class ResourceTextFileBufferManager extends TextFileBufferManager {
 		return document;
 	}
 
+	/**
+	 * Helper to get rid of deprecation warnings.
+	 *
+	 * @param file the file
+	 * @return <code>true</code> if a document factory is registered for the file
+	 * @deprecated As of 3.5
+	 */
+	@Deprecated
+	private boolean hasDocumentFactory(IFile file) {
+		return ((ResourceExtensionRegistry)fRegistry).getDocumentFactory(file) != null;
+	}
+
 	/**
 	 * Helper to get rid of deprecation warnings.
 	 *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,18 @@
  *******************************************************************************/
 package org.eclipse.core.internal.filebuffers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.UnmappableCharacterException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPartitioningException;
 import org.eclipse.jface.text.BadPositionCategoryException;
@@ -22,7 +34,10 @@ import org.eclipse.jface.text.DocumentRewriteSessionType;
 import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ISynchronizable;
+import org.eclipse.jface.text.ITextStore;
+import org.eclipse.jface.text.ITextStoreFactory;
 import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.PieceTableTextStore;
 import org.eclipse.jface.text.Position;
 
 
@@ -36,8 +51,330 @@ import org.eclipse.jface.text.Position;
  */
 public class SynchronizableDocument extends Document implements ISynchronizable {
 
+	/** The number of characters encoded at once when the mapped content is detached. */
+	private static final int DETACH_BLOCK_SIZE= 64 * 1024;
+
+	/** The number of characters compared or replaced at once when new mapped content is taken. */
+	private static final int CHANGE_BLOCK_SIZE= 64 * 1024;
+
+	/**
+	 * The change which turns the content of a document into new memory-mapped file content. Only
+	 * the range between the common prefix and the common suffix of both is replaced.
+	 */
+	static final class ContentChange {
+
+		/** The new content */
+		final MappedFileContent fContent;
+		/** The modification stamp of the document when the change was computed */
+		final long fDocumentStamp;
+		/** The offset of the changed range */
+		final int fOffset;
+		/** The length of the changed range in the document */
+		final int fLength;
+		/** The length of the changed range in the new content */
+		final int fNewLength;
+
+		ContentChange(MappedFileContent content, long documentStamp, int offset, int length, int newLength) {
+			fContent= content;
+			fDocumentStamp= documentStamp;
+			fOffset= offset;
+			fLength= length;
+			fNewLength= newLength;
+		}
+
+		/**
+		 * Tells whether the document already has the characters of the new content.
+		 *
+		 * @return <code>true</code> if nothing has to be replaced
+		 */
+		boolean isEmpty() {
+			return fLength == 0 && fNewLength == 0;
+		}
+	}
+
 	private Object fLockObject;
 
+	/** The memory-mapped file content this document was created with, <code>null</code> if none */
+	private MappedFileContent fMappedContent;
+
+	/**
+	 * Creates a new empty document.
+	 */
+	public SynchronizableDocument() {
+		super();
+	}
+
+	/**
+	 * Creates a new document whose content is the given memory-mapped file content. The content is
+	 * only decoded when accessed; the first modification keeps the unmodified parts referenced in
+	 * a {@link PieceTableTextStore}.
+	 *
+	 * @param content the mapped file content
+	 * @param modificationStamp the initial modification stamp or
+	 *            {@link IDocumentExtension4#UNKNOWN_MODIFICATION_STAMP}
+	 */
+	SynchronizableDocument(MappedFileContent content, long modificationStamp) {
+		super(ITextStoreFactory.PIECE_TABLE);
+		fMappedContent= content;
+		((PieceTableTextStore) getStore()).set(content);
+		setLineTracker(new MappedFileLineTracker(content));
+		if (modificationStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			try {
+				// an empty replace only updates the modification stamp
+				replace(0, 0, "", modificationStamp); //$NON-NLS-1$
+			} catch (BadLocationException e) {
+				// cannot happen
+			}
+		}
+	}
+
+	/**
+	 * Stops referring to the memory-mapped file content this document was created with and
+	 * returns the current content of the document encoded with the given charset. Must be called
+	 * before the mapped file is overwritten.
+	 * <p>
+	 * The content is encoded block by block into a temporary file, which is then mapped and backs
+	 * the document instead of the original file. This way the content is never copied into the
+	 * heap. The temporary file is deleted right away; its mapping and the returned stream stay
+	 * valid until they are closed. If the temporary file cannot be written or mapped, the parts of
+	 * the mapped content which are still part of the document are copied into the heap instead and
+	 * <code>null</code> is returned.
+	 * </p>
+	 *
+	 * @param charset the charset of the file
+	 * @return a stream on the encoded content, or <code>null</code> if the document is not backed
+	 *         by a mapped file or the content has been copied into the heap
+	 * @throws CharacterCodingException if some characters cannot be mapped with the charset; the
+	 *             document still refers to the mapped file in that case
+	 */
+	InputStream detachMappedContent(Charset charset) throws CharacterCodingException {
+		Object lockObject= getLockObject();
+		if (lockObject == null)
+			return doDetachMappedContent(charset);
+		synchronized (lockObject) {
+			return doDetachMappedContent(charset);
+		}
+	}
+
+	private InputStream doDetachMappedContent(Charset charset) throws CharacterCodingException {
+		if (fMappedContent == null)
+			return null;
+
+		CharsetEncoder encoder= charset.newEncoder();
+		encoder.onMalformedInput(CodingErrorAction.REPORT);
+		encoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+
+		Path copy= null;
+		try {
+			copy= Files.createTempFile("filebuffer", null); //$NON-NLS-1$
+			try (Writer writer= new OutputStreamWriter(Files.newOutputStream(copy), encoder)) {
+				ITextStore store= getStore();
+				int length= store.getLength();
+				for (int offset= 0; offset < length; offset+= DETACH_BLOCK_SIZE)
+					writer.write(store.get(offset, Math.min(DETACH_BLOCK_SIZE, length - offset)));
+			}
+			MappedFileContent content= MappedFileContent.open(copy.toFile(), charset.name(), false);
+			if (content != null) {
+				content.ignoreFileModifications();
+				InputStream stream= Files.newInputStream(copy);
+				((PieceTableTextStore) getStore()).set(content);
+				if (getTracker() instanceof MappedFileLineTracker tracker)
+					tracker.setContent(content);
+				closeMappedContent();
+				fMappedContent= content;
+				return stream;
+			}
+		} catch (UnmappableCharacterException e) {
+			throw e;
+		} catch (IOException e) {
+			// malformed content or no space for the copy, fall back to the heap
+		} finally {
+			if (copy != null) {
+				try {
+					Files.deleteIfExists(copy);
+				} catch (IOException e) {
+					copy.toFile().deleteOnExit();
+				}
+			}
+		}
+		doReleaseMappedContent();
+		return null;
+	}
+
+	/**
+	 * Copies the parts of the memory-mapped file content which are still part of the document
+	 * into the heap and closes the mapped content. The document stays valid, e.g. for clients
+	 * which still hold it after the file buffer has been disposed.
+	 */
+	void releaseMappedContent() {
+		Object lockObject= getLockObject();
+		if (lockObject == null) {
+			doReleaseMappedContent();
+			return;
+		}
+		synchronized (lockObject) {
+			doReleaseMappedContent();
+		}
+	}
+
+	private void doReleaseMappedContent() {
+		if (fMappedContent == null)
+			return;
+		((PieceTableTextStore) getStore()).release(fMappedContent);
+		if (getTracker() instanceof MappedFileLineTracker tracker)
+			tracker.release();
+		closeMappedContent();
+	}
+
+	private void closeMappedContent() {
+		if (fMappedContent != null) {
+			fMappedContent.close();
+			fMappedContent= null;
+		}
+	}
+
+	/**
+	 * Tells whether the document can take memory-mapped file content with
+	 * {@link #applyChange(ContentChange, long)}.
+	 *
+	 * @return <code>true</code> if the document has been created with mapped content
+	 */
+	boolean canMapContent() {
+		return getStore() instanceof PieceTableTextStore;
+	}
+
+	/**
+	 * Tells whether the file of the memory-mapped content the document refers to has been
+	 * modified since it was mapped. The document may then read characters which differ from the
+	 * ones it has reported.
+	 *
+	 * @return <code>true</code> if the mapped file has been modified
+	 * @see MappedFileContent#isFileModified()
+	 */
+	boolean isMappedFileModified() {
+		MappedFileContent content= fMappedContent;
+		return content != null && content.isFileModified();
+	}
+
+	/**
+	 * Computes the change which turns the content of this document into the given content. The
+	 * contents are compared block by block from both ends, so that neither is copied into the
+	 * heap. If the file mapped by this document has been modified in place, its characters can no
+	 * longer be compared and the whole content is changed.
+	 *
+	 * @param content the new content
+	 * @return the change
+	 */
+	ContentChange computeChange(MappedFileContent content) {
+		Object lockObject= getLockObject();
+		if (lockObject == null)
+			return doComputeChange(content);
+		synchronized (lockObject) {
+			return doComputeChange(content);
+		}
+	}
+
+	private ContentChange doComputeChange(MappedFileContent content) {
+		ITextStore store= getStore();
+		int length= store.getLength();
+		int newLength= content.length();
+		int prefix= 0;
+		int suffix= 0;
+		if (!isMappedFileModified()) {
+			char[] chars= new char[CHANGE_BLOCK_SIZE];
+			int max= Math.min(length, newLength);
+			while (prefix < max) {
+				int count= Math.min(CHANGE_BLOCK_SIZE, max - prefix);
+				String text= store.get(prefix, count);
+				content.getChars(prefix, prefix + count, chars, 0);
+				int common= 0;
+				while (common < count && text.charAt(common) == chars[common])
+					common++;
+				prefix+= common;
+				if (common < count)
+					break;
+			}
+			max-= prefix;
+			while (suffix < max) {
+				int count= Math.min(CHANGE_BLOCK_SIZE, max - suffix);
+				String text= store.get(length - suffix - count, count);
+				content.getChars(newLength - suffix - count, newLength - suffix, chars, 0);
+				int common= 0;
+				while (common < count && text.charAt(count - 1 - common) == chars[count - 1 - common])
+					common++;
+				suffix+= common;
+				if (common < count)
+					break;
+			}
+		}
+		return new ContentChange(content, getModificationStamp(), prefix, length - prefix - suffix, newLength - prefix - suffix);
+	}
+
+	/**
+	 * Applies the given change and continues with its content instead of the memory-mapped file
+	 * content this document referred to, which is closed. The changed range is replaced block by
+	 * block, so that only the changed characters are copied into the heap, and only until the
+	 * document refers to the new content. The change is computed again if the document has been
+	 * modified in the meantime.
+	 *
+	 * @param change the change computed by {@link #computeChange(MappedFileContent)}
+	 * @param modificationStamp the new modification stamp of the document, or
+	 *            {@link IDocumentExtension4#UNKNOWN_MODIFICATION_STAMP} to keep the stamp if the
+	 *            change is empty
+	 */
+	void applyChange(ContentChange change, long modificationStamp) {
+		Object lockObject= getLockObject();
+		if (lockObject == null) {
+			doApplyChange(change, modificationStamp);
+			return;
+		}
+		synchronized (lockObject) {
+			doApplyChange(change, modificationStamp);
+		}
+	}
+
+	private void doApplyChange(ContentChange change, long modificationStamp) {
+		if (change.fDocumentStamp != getModificationStamp())
+			change= doComputeChange(change.fContent);
+		MappedFileContent content= change.fContent;
+		if (fMappedContent != null)
+			// the new content is about to be taken, a truncated file is no longer reported
+			fMappedContent.setTruncationHandler(null);
+
+		if (!change.isEmpty() || modificationStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+			try {
+				int replaced= 0;
+				int inserted= 0;
+				do {
+					int offset= change.fOffset + inserted;
+					int length= Math.min(CHANGE_BLOCK_SIZE, change.fLength - replaced);
+					int newLength= Math.min(CHANGE_BLOCK_SIZE, change.fNewLength - inserted);
+					String text= content.subSequence(offset, offset + newLength).toString();
+					replaced+= length;
+					inserted+= newLength;
+					boolean last= replaced == change.fLength && inserted == change.fNewLength;
+					if (last && modificationStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP)
+						replace(offset, length, text, modificationStamp);
+					else
+						replace(offset, length, text);
+				} while (replaced < change.fLength || inserted < change.fNewLength);
+			} catch (BadLocationException e) {
+				// cannot happen, the change has been computed for the current content
+			}
+		}
+
+		// the document now has the characters of the new content
+		((PieceTableTextStore) getStore()).set(content);
+		if (getTracker() instanceof MappedFileLineTracker tracker)
+			tracker.reset(content);
+		else
+			setLineTracker(new MappedFileLineTracker(content));
+		if (fMappedContent != content) {
+			closeMappedContent();
+			fMappedContent= content;
+		}
+	}
+
 	@Override
 	public synchronized void setLockObject(Object lockObject) {
 		fLockObject= lockObject;
@@ -440,6 +440,26 @@ public class TextFileBufferManager implements ITextFileBufferManager {
 		else
 			document= new SynchronizableDocument();
 
+		return setUpDocument(document, location, locationKind);
+	}
+
+	/**
+	 * Creates a new document for the given location which is backed by the given memory-mapped
+	 * content. Setup participants are run as for {@link #createEmptyDocument(IPath, LocationKind)}.
+	 *
+	 * @param location the location of the file
+	 * @param locationKind the kind of the given location
+	 * @param content the mapped content of the file
+	 * @return the new document or <code>null</code> if a document factory is registered for the
+	 *         location
+	 */
+	IDocument createMappedDocument(final IPath location, final LocationKind locationKind, MappedFileContent content) {
+		if (hasDocumentFactory(location, locationKind))
+			return null;
+		return setUpDocument(new SynchronizableDocument(content, IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP), location, locationKind);
+	}
+
+	private IDocument setUpDocument(final IDocument document, final IPath location, final LocationKind locationKind) {
 		if (location == null)
 			return document;
 
@@ -480,6 +500,19 @@ public class TextFileBufferManager implements ITextFileBufferManager {
 		return document;
 	}
 
+	/**
+	 * Helper to get rid of deprecation warnings.
+	 *
+	 * @param location the location of the file
+	 * @param locationKind the kind of the given location
+	 * @return <code>true</code> if a document factory is registered for the location
+	 * @deprecated As of 3.5
+	 */
+	@Deprecated
+	private boolean hasDocumentFactory(IPath location, LocationKind locationKind) {
+		return location != null && fRegistry.getDocumentFactory(location, locationKind) != null;
+	}
+
 	/**
 	 * Helper to get rid of deprecation warnings.
 	 *
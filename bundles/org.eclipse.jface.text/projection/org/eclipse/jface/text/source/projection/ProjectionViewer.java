@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,9 @@ package org.eclipse.jface.text.source.projection;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 import org.eclipse.swt.SWTError;
 import org.eclipse.swt.custom.ST;
@@ -46,6 +49,7 @@ import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ISlaveDocumentManager;
 import org.eclipse.jface.text.ITextSelection;
 import org.eclipse.jface.text.ITextViewerExtension5;
+import org.eclipse.jface.text.MultiTextSelection;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextSelection;
@@ -272,6 +276,75 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 		}
 	}
 
+	/**
+	 * The master document ranges of a projection document, kept in a balanced tree ordered by
+	 * offset. Adding or removing a range costs <i>O(log n)</i> plus the number of ranges it joins
+	 * or splits. This allows to apply many projection commands before updating the projection
+	 * document in a single pass.
+	 *
+	 * @since 3.27
+	 */
+	private static class ProjectionRanges {
+
+		/** Maps the offsets of the ranges to their exclusive end offsets */
+		private final TreeMap<Integer, Integer> fRanges= new TreeMap<>();
+
+		ProjectionRanges(IRegion[] ranges) {
+			if (ranges != null) {
+				for (IRegion range : ranges)
+					add(range.getOffset(), range.getLength());
+			}
+		}
+
+		void add(int offset, int length) {
+			if (length <= 0)
+				return;
+
+			int end= offset + length;
+			Entry<Integer, Integer> left= fRanges.floorEntry(Integer.valueOf(offset));
+			if (left != null && left.getValue().intValue() >= offset) {
+				offset= left.getKey().intValue();
+				end= Math.max(end, left.getValue().intValue());
+			}
+
+			NavigableMap<Integer, Integer> joined= fRanges.subMap(Integer.valueOf(offset), true, Integer.valueOf(end), true);
+			if (!joined.isEmpty()) {
+				end= Math.max(end, joined.lastEntry().getValue().intValue());
+				joined.clear();
+			}
+			fRanges.put(Integer.valueOf(offset), Integer.valueOf(end));
+		}
+
+		void remove(int offset, int length) {
+			if (length <= 0)
+				return;
+
+			int end= offset + length;
+			Entry<Integer, Integer> left= fRanges.lowerEntry(Integer.valueOf(offset));
+			if (left != null && left.getValue().intValue() > offset) {
+				fRanges.put(left.getKey(), Integer.valueOf(offset));
+				if (left.getValue().intValue() > end)
+					fRanges.put(Integer.valueOf(end), left.getValue());
+			}
+
+			NavigableMap<Integer, Integer> removed= fRanges.subMap(Integer.valueOf(offset), true, Integer.valueOf(end), false);
+			if (!removed.isEmpty()) {
+				Integer lastEnd= removed.lastEntry().getValue();
+				removed.clear();
+				if (lastEnd.intValue() > end)
+					fRanges.put(Integer.valueOf(end), lastEnd);
+			}
+		}
+
+		IRegion[] toArray() {
+			IRegion[] regions= new IRegion[fRanges.size()];
+			int i= 0;
+			for (Entry<Integer, Integer> range : fRanges.entrySet())
+				regions[i++]= new Region(range.getKey().intValue(), range.getValue().intValue() - range.getKey().intValue());
+			return regions;
+		}
+	}
+
 	/** The projection annotation model used by this viewer. */
 	private ProjectionAnnotationModel fProjectionAnnotationModel;
 	/** The annotation model listener */
@@ -660,6 +733,50 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 		}
 	}
 
+	/**
+	 * Replaces the master ranges of the given projection document with the given ranges in a
+	 * single pass. While the modification is processed, the viewer no longer handles projection
+	 * changes, as it is causing them.
+	 *
+	 * @param projection the projection document
+	 * @param ranges the master ranges
+	 * @throws BadLocationException in case one of the ranges is invalid
+	 *
+	 * @see ProjectionDocument#replaceMasterDocumentRanges(IRegion[])
+	 * @since 3.27
+	 */
+	private void replaceMasterDocumentRanges(ProjectionDocument projection, ProjectionRanges ranges) throws BadLocationException {
+		try {
+			fHandleProjectionChanges= false;
+			projection.replaceMasterDocumentRanges(ranges.toArray());
+		} finally {
+			fHandleProjectionChanges= true;
+		}
+	}
+
+	/**
+	 * Adds or removes the given master range to or from the given ranges. Like
+	 * {@link #addMasterDocumentRange(ProjectionDocument, int, int)} the range is made strictly line
+	 * based.
+	 *
+	 * @param ranges the master ranges
+	 * @param master the master document
+	 * @param add <code>true</code> to add the range, <code>false</code> to remove it
+	 * @param offset the offset in the master document
+	 * @param length the length in the master document
+	 * @throws BadLocationException in case the specified range is invalid
+	 * @since 3.27
+	 */
+	private void changeMasterDocumentRange(ProjectionRanges ranges, IDocument master, boolean add, int offset, int length) throws BadLocationException {
+		int end= offset + length;
+		offset= toLineStart(master, offset, false);
+		length= toLineStart(master, end, true) - offset;
+		if (add)
+			ranges.add(offset, length);
+		else
+			ranges.remove(offset, length);
+	}
+
 	/**
 	 * Returns the first line offset &lt;= <code>offset</code>. If <code>testLastLine</code>
 	 * is <code>true</code> and the offset is on last line then <code>offset</code> is returned.
@@ -971,7 +1088,7 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 			if (commandQueue.passedRedrawCostsThreshold()) {
 				setRedraw(false);
 				try {
-					executeProjectionCommands(commandQueue, false);
+					executeProjectionCommandsInBatch(commandQueue);
 				} catch (IllegalArgumentException x) {
 					reinitializeProjection();
 				} finally {
@@ -1013,6 +1130,40 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 		commandQueue.clear();
 	}
 
+	/**
+	 * Executes the given projection commands by applying them to the master ranges of their
+	 * projection document first and by updating the projection document in a single pass
+	 * afterwards. As redrawing is disabled, the presentation invalidations are ignored.
+	 *
+	 * @param commandQueue the projection commands
+	 * @throws BadLocationException in case one of the commands is invalid
+	 * @since 3.27
+	 */
+	private void executeProjectionCommandsInBatch(ProjectionCommandQueue commandQueue) throws BadLocationException {
+
+		ProjectionDocument projection= null;
+		ProjectionRanges ranges= null;
+		Iterator<ProjectionCommand> e= commandQueue.iterator();
+		while (e.hasNext()) {
+			ProjectionCommand command= e.next();
+			if (command.fType == ProjectionCommand.INVALIDATE_PRESENTATION)
+				continue;
+
+			if (command.fProjection != projection) {
+				if (projection != null)
+					replaceMasterDocumentRanges(projection, ranges);
+				projection= command.fProjection;
+				ranges= new ProjectionRanges(projection.computeProjectedMasterRegions(0, projection.getMasterDocument().getLength()));
+			}
+			changeMasterDocumentRange(ranges, projection.getMasterDocument(), command.fType == ProjectionCommand.ADD, command.fOffset, command.fLength);
+		}
+
+		if (projection != null)
+			replaceMasterDocumentRanges(projection, ranges);
+
+		commandQueue.clear();
+	}
+
 	private ProjectionAnnotation[] computeCollapsedNestedAnnotations(int offset, int length) {
 		List<ProjectionAnnotation> annotations= new ArrayList<>(5);
 		Iterator<Annotation> e= fProjectionAnnotationModel.getAnnotationIterator(offset, length, false, false);
@@ -1193,14 +1344,14 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 			IDocument master= getDocument();
 			if (master != null) {
 				IDocument slave= manager.createSlaveDocument(master);
-				if (slave instanceof ProjectionDocument) {
+				if (slave instanceof ProjectionDocument)
 					projection= (ProjectionDocument) slave;
-					addMasterDocumentRange(projection, 0, master.getLength());
-				}
 			}
 		}
 
 		if (projection != null) {
+			IDocument master= projection.getMasterDocument();
+			ProjectionRanges ranges= new ProjectionRanges(new IRegion[] { new Region(0, master.getLength()) });
 			Iterator<Annotation> e= fProjectionAnnotationModel.getAnnotationIterator();
 			while (e.hasNext()) {
 				ProjectionAnnotation annotation= (ProjectionAnnotation) e.next();
@@ -1210,12 +1361,12 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 						IRegion[] regions= computeCollapsedRegions(position);
 						if (regions != null)
 							for (IRegion region : regions) {
-								removeMasterDocumentRange(projection, region.getOffset(), region.getLength());
+								changeMasterDocumentRange(ranges, master, false, region.getOffset(), region.getLength());
 						}
 					}
 				}
 			}
-
+			replaceMasterDocumentRanges(projection, ranges);
 		}
 
 		replaceVisibleDocument(projection);
@@ -1697,6 +1848,31 @@ public class ProjectionViewer extends SourceViewer implements ITextViewerExtensi
 		return -1;
 	}
 
+	@Override
+	protected int findAndSelectAll(String findString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) {
+
+		if (!isProjectionMode())
+			return super.findAndSelectAll(findString, caseSensitive, wholeWord, regExSearch);
+
+		if (getTextWidget() == null)
+			return -1;
+
+		try {
+
+			IRegion[] matchRegions= getFindReplaceDocumentAdapter().findAll(0, findString, caseSensitive, wholeWord, regExSearch);
+			if (matchRegions.length > 0) {
+				for (IRegion matchRegion : matchRegions)
+					exposeModelRange(matchRegion);
+				setSelection(new MultiTextSelection(getDocument(), matchRegions), false);
+			}
+			return matchRegions.length;
+
+		} catch (BadLocationException x) {
+		}
+
+		return -1;
+	}
+
 	@Override
 	protected int findAndSelectInRange(int startPosition, String findString, boolean forwardSearch, boolean caseSensitive, boolean wholeWord, int rangeOffset, int rangeLength, boolean regExSearch) {
 
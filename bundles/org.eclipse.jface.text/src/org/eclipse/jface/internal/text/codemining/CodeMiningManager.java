@@ -13,8 +13,10 @@
  */
 package org.eclipse.jface.internal.text.codemining;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -37,9 +39,15 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITextListener;
 import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.IViewportListener;
+import org.eclipse.jface.text.JFaceTextUtil;
 import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.codemining.ICodeMining;
 import org.eclipse.jface.text.codemining.ICodeMiningProvider;
 import org.eclipse.jface.text.codemining.LineContentCodeMining;
@@ -50,11 +58,26 @@ import org.eclipse.jface.text.source.inlined.InlinedAnnotationSupport;
 
 /**
  * Code Mining manager implementation.
+ * <p>
+ * In viewport scoped mode, only the minings of the visible lines and of one page above and below
+ * them are requested and resolved. The annotations of the other lines keep their last resolved
+ * minings and follow the document changes with their positions. Scrolling out of the requested
+ * lines triggers a new, delayed update, and each update cancels the provider requests of the
+ * previous one.
+ * </p>
  *
  * @since 3.13
  */
 public class CodeMiningManager implements Runnable {
 
+	/**
+	 * The delay in milliseconds after the last viewport change before the minings of the new
+	 * viewport are updated.
+	 *
+	 * @since 3.27
+	 */
+	private static final int VIEWPORT_UPDATE_DELAY= 200;
+
 	/**
 	 * The source viewer
 	 */
@@ -73,7 +96,70 @@ public class CodeMiningManager implements Runnable {
 	/**
 	 * The current progress monitor.
 	 */
-	private IProgressMonitor fMonitor;
+	private volatile IProgressMonitor fMonitor;
+
+	/**
+	 * Whether only the minings around the viewport are updated.
+	 *
+	 * @since 3.27
+	 */
+	private volatile boolean fViewportScoped;
+
+	/**
+	 * The first and last visible line, updated in the UI thread.
+	 *
+	 * @since 3.27
+	 */
+	private volatile int[] fVisibleLines;
+
+	/**
+	 * The region whose minings have been requested last or <code>null</code> if the minings of
+	 * the whole document have been requested.
+	 *
+	 * @since 3.27
+	 */
+	private volatile IRegion fRequestedRegion;
+
+	/**
+	 * The futures of the pending provider requests.
+	 *
+	 * @since 3.27
+	 */
+	private volatile List<CompletableFuture<List<? extends ICodeMining>>> fProviderFutures= Collections.emptyList();
+
+	/**
+	 * The code mining annotations which have been rendered last.
+	 *
+	 * @since 3.27
+	 */
+	private volatile Set<AbstractInlinedAnnotation> fAnnotations= Collections.emptySet();
+
+	/**
+	 * Updates the minings when the viewport leaves the requested region.
+	 *
+	 * @since 3.27
+	 */
+	private final IViewportListener fViewportListener= verticalOffset -> viewportChanged();
+
+	/**
+	 * Remembers the visible lines after text changes, which may change them without scrolling.
+	 *
+	 * @since 3.27
+	 */
+	private final ITextListener fTextListener= event -> updateVisibleLines();
+
+	/**
+	 * Updates the minings after the viewport changes have settled. Runs in the UI thread and
+	 * requests the minings in a background thread, as the providers may block.
+	 *
+	 * @since 3.27
+	 */
+	private final Runnable fViewportUpdater= () -> CompletableFuture.runAsync(() -> {
+		// the manager may have been uninstalled in the meantime
+		if (fViewportScoped) {
+			run();
+		}
+	});
 
 	/**
 	 * Constructor of codemining manager with the given arguments.
@@ -105,11 +191,42 @@ public class CodeMiningManager implements Runnable {
 		fCodeMiningProviders= Arrays.asList(codeMiningProviders);
 	}
 
+	/**
+	 * Sets whether only the minings of the lines around the viewport are requested and resolved.
+	 * Must be called in the UI thread.
+	 *
+	 * @param viewportScoped <code>true</code> to update only the minings around the viewport
+	 * @since 3.27
+	 */
+	public void setViewportScoped(boolean viewportScoped) {
+		if (fViewportScoped == viewportScoped)
+			return;
+
+		fViewportScoped= viewportScoped;
+		if (viewportScoped) {
+			fViewer.addViewportListener(fViewportListener);
+			fViewer.addTextListener(fTextListener);
+			updateVisibleLines();
+		} else {
+			fViewer.removeViewportListener(fViewportListener);
+			fViewer.removeTextListener(fTextListener);
+			cancelViewportUpdate();
+			fVisibleLines= null;
+		}
+	}
+
 	/**
 	 * Uninstalls this codemining manager.
 	 */
 	public void uninstall() {
+		if (fViewportScoped) {
+			fViewer.removeViewportListener(fViewportListener);
+			fViewer.removeTextListener(fTextListener);
+			cancelViewportUpdate();
+			fViewportScoped= false;
+		}
 		cancel();
+		fAnnotations= Collections.emptySet();
 		if (fInlinedAnnotationSupport != null) {
 			fInlinedAnnotationSupport.updateAnnotations(Collections.emptySet());
 		}
@@ -138,14 +255,24 @@ public class CodeMiningManager implements Runnable {
 		// Refresh the code minings by using the new progress monitor.
 		fMonitor= new CancellationExceptionMonitor();
 		IProgressMonitor monitor= fMonitor;
+		IRegion region= fViewportScoped ? getRequestedRegion() : null;
+		fRequestedRegion= region;
 		// Collect the code minings for the viewer
-		getCodeMinings(fViewer, fCodeMiningProviders, monitor).thenAccept(symbols -> {
+		List<CompletableFuture<List<? extends ICodeMining>>> futures= new ArrayList<>();
+		CompletableFuture<List<? extends ICodeMining>> codeMinings= getCodeMinings(fViewer, fCodeMiningProviders, region, monitor, futures);
+		if (region != null) {
+			fProviderFutures= futures;
+		}
+		codeMinings.thenAccept(symbols -> {
 			// check if request was canceled.
 			monitor.isCanceled();
+			if (region != null) {
+				symbols= filterCodeMinings(symbols, region);
+			}
 			// then group code minings by lines position
 			Map<Position, List<ICodeMining>> groups= groupByLines(symbols, fCodeMiningProviders);
 			// resolve and render code minings
-			renderCodeMinings(groups, fViewer, monitor);
+			renderCodeMinings(groups, fViewer, region, monitor);
 		});
 	}
 
@@ -157,6 +284,119 @@ public class CodeMiningManager implements Runnable {
 		if (fMonitor != null) {
 			fMonitor.setCanceled(true);
 		}
+		// Cancel the pending provider requests, their result is not needed anymore.
+		List<CompletableFuture<List<? extends ICodeMining>>> futures= fProviderFutures;
+		fProviderFutures= Collections.emptyList();
+		futures.forEach(future -> future.cancel(true));
+	}
+
+	/**
+	 * Remembers the visible lines and schedules an update if they are not inside the requested
+	 * region anymore. Called in the UI thread.
+	 *
+	 * @since 3.27
+	 */
+	private void viewportChanged() {
+		updateVisibleLines();
+		IRegion requested= fRequestedRegion;
+		int[] lines= fVisibleLines;
+		IDocument document= fViewer.getDocument();
+		if (requested == null || lines == null || document == null)
+			return;
+
+		try {
+			int start= document.getLineOffset(lines[0]);
+			IRegion last= document.getLineInformation(lines[1]);
+			if (start >= requested.getOffset() && last.getOffset() + last.getLength() <= requested.getOffset() + requested.getLength())
+				return;
+		} catch (BadLocationException e) {
+			// the document has changed, update the minings
+		}
+		// reschedules the update if already scheduled
+		fViewer.getTextWidget().getDisplay().timerExec(VIEWPORT_UPDATE_DELAY, fViewportUpdater);
+	}
+
+	/**
+	 * Cancels the scheduled viewport update.
+	 *
+	 * @since 3.27
+	 */
+	private void cancelViewportUpdate() {
+		if (fViewer.getTextWidget() != null && !fViewer.getTextWidget().isDisposed())
+			fViewer.getTextWidget().getDisplay().timerExec(-1, fViewportUpdater);
+	}
+
+	/**
+	 * Remembers the visible lines of the viewer. Called in the UI thread.
+	 *
+	 * @since 3.27
+	 */
+	private void updateVisibleLines() {
+		if (fViewer.getTextWidget() == null || fViewer.getTextWidget().isDisposed())
+			return;
+
+		int top= JFaceTextUtil.getPartialTopIndex(fViewer);
+		int bottom= JFaceTextUtil.getPartialBottomIndex(fViewer);
+		if (top >= 0 && bottom >= top)
+			fVisibleLines= new int[] { top, bottom };
+	}
+
+	/**
+	 * Returns the region whose minings are requested in viewport scoped mode: the visible lines
+	 * and one page of lines above and below them.
+	 *
+	 * @return the region whose minings are requested or <code>null</code> for the whole document
+	 * @since 3.27
+	 */
+	private IRegion getRequestedRegion() {
+		int[] lines= fVisibleLines;
+		IDocument document= fViewer.getDocument();
+		if (lines == null || document == null)
+			return null;
+
+		int page= lines[1] - lines[0] + 1;
+		int lastLine= document.getNumberOfLines() - 1;
+		int first= Math.min(Math.max(0, lines[0] - page), lastLine);
+		int last= Math.min(lines[1] + page, lastLine);
+		try {
+			int start= document.getLineOffset(first);
+			IRegion end= document.getLineInformation(last);
+			return new Region(start, end.getOffset() + end.getLength() - start);
+		} catch (BadLocationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the code minings inside the given region and disposes the others.
+	 *
+	 * @param codeMinings the code minings
+	 * @param region      the requested region
+	 * @return the code minings inside the region
+	 * @since 3.27
+	 */
+	private static List<? extends ICodeMining> filterCodeMinings(List<? extends ICodeMining> codeMinings, IRegion region) {
+		List<ICodeMining> filtered= new ArrayList<>(codeMinings.size());
+		for (ICodeMining mining : codeMinings) {
+			if (isInRegion(mining.getPosition(), region)) {
+				filtered.add(mining);
+			} else {
+				mining.dispose();
+			}
+		}
+		return filtered;
+	}
+
+	/**
+	 * Returns whether the given position starts inside the given region.
+	 *
+	 * @param position the position
+	 * @param region   the region
+	 * @return <code>true</code> if the position starts inside the region
+	 * @since 3.27
+	 */
+	private static boolean isInRegion(Position position, IRegion region) {
+		return position.getOffset() >= region.getOffset() && position.getOffset() <= region.getOffset() + region.getLength();
 	}
 
 	private static void logCodeMiningProviderException(Throwable e) {
@@ -181,15 +421,20 @@ public class CodeMiningManager implements Runnable {
 	 *
 	 * @param viewer    the text viewer.
 	 * @param providers the CodeMining list providers.
+	 * @param region    the region whose minings are requested or <code>null</code> for the whole
+	 *                  document
 	 * @param monitor   the progress monitor.
+	 * @param futures   the list to which the futures returned by the providers are added
 	 * @return the list of {@link CompletableFuture} which provides the list of {@link ICodeMining}
 	 *         for the given <code>viewer</code> by using the given providers.
 	 */
 	private static CompletableFuture<List<? extends ICodeMining>> getCodeMinings(ITextViewer viewer,
-			List<ICodeMiningProvider> providers, IProgressMonitor monitor) {
+			List<ICodeMiningProvider> providers, IRegion region, IProgressMonitor monitor,
+			List<CompletableFuture<List<? extends ICodeMining>>> futures) {
 		List<CompletableFuture<List<? extends ICodeMining>>> com= providers.stream()
-				.map(provider -> provider.provideCodeMinings(viewer, monitor))
+				.map(provider -> region != null ? provider.provideCodeMinings(viewer, region, monitor) : provider.provideCodeMinings(viewer, monitor))
 				.filter(c -> c != null)
+				.peek(futures::add)
 				.map(future -> future.exceptionally(e -> {
 					logCodeMiningProviderException(e);
 					return Collections.emptyList();
@@ -231,9 +476,11 @@ public class CodeMiningManager implements Runnable {
 	 *
 	 * @param groups  code minings grouped by lines position
 	 * @param viewer  the viewer
+	 * @param region  the region whose minings have been requested or <code>null</code> for the
+	 *                whole document
 	 * @param monitor the progress monitor
 	 */
-	private void renderCodeMinings(Map<Position, List<ICodeMining>> groups, ISourceViewer viewer,
+	private void renderCodeMinings(Map<Position, List<ICodeMining>> groups, ISourceViewer viewer, IRegion region,
 			IProgressMonitor monitor) {
 		// check if request was canceled.
 		monitor.isCanceled();
@@ -245,6 +492,20 @@ public class CodeMiningManager implements Runnable {
 		}
 		Set<ICodeMiningAnnotation> annotationsToRedraw= new HashSet<>();
 		Set<AbstractInlinedAnnotation> currentAnnotations= new HashSet<>();
+		// Index the existing annotations by their current position
+		Map<Position, AbstractInlinedAnnotation> existingAnnotations= new HashMap<>();
+		for (AbstractInlinedAnnotation ann : fAnnotations) {
+			Position p= ann.getPosition();
+			if (p.isDeleted() || ann.isMarkedDeleted()) {
+				continue;
+			}
+			if (region != null && !isInRegion(p, region)) {
+				// keep the last resolved minings outside of the requested region
+				currentAnnotations.add(ann);
+			} else {
+				existingAnnotations.putIfAbsent(new Position(p.getOffset(), p.getLength()), ann);
+			}
+		}
 		// Loop for grouped code minings
 		groups.entrySet().stream().forEach(g -> {
 			// check if request was canceled.
@@ -255,7 +516,7 @@ public class CodeMiningManager implements Runnable {
 			ICodeMining first= minings.get(0);
 			boolean inLineHeader= !minings.isEmpty() ? (first instanceof LineHeaderCodeMining) : true;
 			// Try to find existing annotation
-			AbstractInlinedAnnotation ann= fInlinedAnnotationSupport.findExistingAnnotation(pos);
+			AbstractInlinedAnnotation ann= existingAnnotations.get(pos);
 			if (ann == null) {
 				// The annotation doesn't exists, create it.
 				boolean afterPosition= false;
@@ -273,6 +534,7 @@ public class CodeMiningManager implements Runnable {
 		// check if request was canceled.
 		monitor.isCanceled();
 		fInlinedAnnotationSupport.updateAnnotations(currentAnnotations);
+		fAnnotations= currentAnnotations;
 		// redraw the existing codemining annotations since their content can change
 		annotationsToRedraw.stream().forEach(ICodeMiningAnnotation::redraw);
 	}
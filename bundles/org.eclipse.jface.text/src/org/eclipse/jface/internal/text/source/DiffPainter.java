@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2018 IBM Corporation and others.
+ * Copyright (c) 2006, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -85,6 +85,16 @@ public final class DiffPainter {
 	private final AnnotationListener fAnnotationListener= new AnnotationListener();
 	/** The shared color provider, possibly <code>null</code>. */
 	private final ISharedTextColors fSharedColors;
+	/**
+	 * Redraw runnable lock
+	 * @since 3.27
+	 */
+	private final Object fRunnableLock= new Object();
+	/**
+	 * Redraw runnable state
+	 * @since 3.27
+	 */
+	private boolean fIsRunnablePosted= false;
 
 	/**
 	 * Creates a new diff painter for a vertical ruler column.
@@ -355,12 +365,19 @@ public final class DiffPainter {
 	}
 
 	/**
-	 * Triggers a redraw in the display thread.
+	 * Triggers a redraw in the display thread. The differ may change its model many times while
+	 * the document is typed into or reinitialized, all changes until the redraw runs are coalesced
+	 * into a single redraw.
 	 */
 	private final void postRedraw() {
 		if (isConnected() && !fControl.isDisposed()) {
 			Display d= fDisplay;
 			if (d != null) {
+				synchronized (fRunnableLock) {
+					if (fIsRunnablePosted)
+						return;
+					fIsRunnablePosted= true;
+				}
 				d.asyncExec(this::redraw);
 			}
 		}
@@ -370,6 +387,9 @@ public final class DiffPainter {
 	 * Triggers redrawing of the column.
 	 */
 	private void redraw() {
+		synchronized (fRunnableLock) {
+			fIsRunnablePosted= false;
+		}
 		if (!fControl.isDisposed()) {
 			fColumn.redraw();
 		}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+/**
+ * Extension interface for {@link org.eclipse.jface.text.IFindReplaceTarget} providing methods to
+ * select and to replace all occurrences of a string in one operation.
+ *
+ * @since 3.27
+ */
+public interface IFindReplaceTargetExtension5 {
+
+	/**
+	 * Replaces all occurrences of the given string in this target. All occurrences are found
+	 * before the target is modified and the replacements form a single change that is undone in
+	 * one step.
+	 * <p>
+	 * This target must be editable. If the target cannot replace all occurrences in one
+	 * operation, for example because a scope is set, nothing happens and <code>-1</code> is
+	 * returned. Clients then have to replace the occurrences one by one.
+	 * </p>
+	 *
+	 * @param findString the specification of what should be found
+	 * @param replaceString the specification of the substitution text
+	 * @param caseSensitive <code>true</code> performs a case sensitive search, <code>false</code> an insensitive search
+	 * @param wholeWord if <code>true</code> only occurrences are reported in which the findString stands as a word by itself.
+	 * 				Must not be used in combination with <code>regExSearch</code>.
+	 * @param regExSearch if <code>true</code> findString represents a regular expression and
+	 * 				replaceString a regular expression replace pattern.
+	 * 				Must not be used in combination with <code>wholeWord</code>.
+	 * @return the number of replaced occurrences or <code>-1</code> if the occurrences have to
+	 *         be replaced one by one
+	 * @throws java.util.regex.PatternSyntaxException if regExSearch is <code>true</code> and findString or
+	 *             replaceString is an invalid regular expression
+	 */
+	int replaceAll(String findString, String replaceString, boolean caseSensitive, boolean wholeWord, boolean regExSearch);
+
+	/**
+	 * Selects all occurrences of the given string in this target. All occurrences are found in
+	 * one pass over the target before they are selected. If there is no occurrence, the selection
+	 * is not changed.
+	 * <p>
+	 * If the target cannot select all occurrences in one operation, for example because a scope
+	 * is set, nothing happens and <code>-1</code> is returned. Clients then have to find and
+	 * select the occurrences one by one.
+	 * </p>
+	 *
+	 * @param findString the specification of what should be found
+	 * @param caseSensitive <code>true</code> performs a case sensitive search, <code>false</code> an insensitive search
+	 * @param wholeWord if <code>true</code> only occurrences are reported in which the findString stands as a word by itself.
+	 * 				Must not be used in combination with <code>regExSearch</code>.
+	 * @param regExSearch if <code>true</code> findString represents a regular expression.
+	 * 				Must not be used in combination with <code>wholeWord</code>.
+	 * @return the number of selected occurrences or <code>-1</code> if the occurrences have to
+	 *         be selected one by one
+	 * @throws java.util.regex.PatternSyntaxException if regExSearch is <code>true</code> and findString is
+	 *             an invalid regular expression
+	 */
+	int selectAll(String findString, boolean caseSensitive, boolean wholeWord, boolean regExSearch);
+}
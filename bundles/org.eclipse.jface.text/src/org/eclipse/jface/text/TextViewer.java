@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -767,7 +767,7 @@ public class TextViewer extends Viewer implements
 	/**
 	 * This viewer's find/replace target.
 	 */
-	class FindReplaceTarget implements IFindReplaceTarget, IFindReplaceTargetExtension, IFindReplaceTargetExtension3, IFindReplaceTargetExtension4 {
+	class FindReplaceTarget implements IFindReplaceTarget, IFindReplaceTargetExtension, IFindReplaceTargetExtension3, IFindReplaceTargetExtension4, IFindReplaceTargetExtension5 {
 
 		/** The range for this target. */
 		private FindReplaceRange fRange;
@@ -816,6 +816,31 @@ public class TextViewer extends Viewer implements
 			}
 		}
 
+		@Override
+		public int replaceAll(String findString, String replaceString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) {
+			if (fRange != null || TextViewer.this.getVisibleDocument() == null)
+				return -1;
+
+			if (fUndoManager != null)
+				fUndoManager.beginCompoundChange();
+			try {
+				return TextViewer.this.getFindReplaceDocumentAdapter().replaceAll(0, findString, replaceString, caseSensitive, wholeWord, regExSearch);
+			} catch (BadLocationException x) {
+				return -1;
+			} finally {
+				if (fUndoManager != null)
+					fUndoManager.endCompoundChange();
+			}
+		}
+
+		@Override
+		public int selectAll(String findString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) {
+			if (fRange != null || TextViewer.this.getVisibleDocument() == null)
+				return -1;
+
+			return TextViewer.this.findAndSelectAll(findString, caseSensitive, wholeWord, regExSearch);
+		}
+
 		@Override
 		public boolean isEditable() {
 			return TextViewer.this.isEditable();
@@ -4627,6 +4652,34 @@ public class TextViewer extends Viewer implements
 		return -1;
 	}
 
+	/**
+	 * Adheres to the contract of {@link org.eclipse.jface.text.IFindReplaceTargetExtension5#selectAll(String, boolean, boolean, boolean)}
+	 * for a target without a scope.
+	 *
+	 * @param findString the string to find
+	 * @param caseSensitive <code>true</code> if case sensitive, <code>false</code> otherwise
+	 * @param wholeWord <code>true</code> if matches must be whole words, <code>false</code> otherwise
+	 * @param regExSearch <code>true</code> if <code>findString</code> is a regular expression, <code>false</code> otherwise
+	 * @return the number of selected matches or <code>-1</code> if the matches could not be selected
+	 * @since 3.27
+	 */
+	protected int findAndSelectAll(String findString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) {
+		if (fTextWidget == null)
+			return -1;
+
+		try {
+			IRegion[] matchRegions= getFindReplaceDocumentAdapter().findAll(0, findString, caseSensitive, wholeWord, regExSearch);
+			if (matchRegions.length > 0)
+				setSelectedRanges(Arrays.stream(matchRegions).map(this::widgetRange2ModelRange).toArray(IRegion[]::new));
+			return matchRegions.length;
+		} catch (BadLocationException x) {
+			if (TRACE_ERRORS)
+				System.out.println(JFaceTextMessages.getString("TextViewer.error.bad_location.findAndSelect")); //$NON-NLS-1$
+		}
+
+		return -1;
+	}
+
 	/**
 	 * Adheres to the contract of {@link org.eclipse.jface.text.IFindReplaceTargetExtension3#findAndSelect(int, String, boolean, boolean, boolean, boolean)}.
 	 *
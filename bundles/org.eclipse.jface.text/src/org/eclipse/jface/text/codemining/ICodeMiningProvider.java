@@ -18,6 +18,7 @@ import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextViewer;
 
 /**
@@ -41,6 +42,27 @@ public interface ICodeMiningProvider {
 	 */
 	CompletableFuture<List<? extends ICodeMining>> provideCodeMinings(ITextViewer viewer, IProgressMonitor monitor);
 
+	/**
+	 * Compute the list of code minings {@link ICodeMining} inside the given region. This is called
+	 * instead of {@link #provideCodeMinings(ITextViewer, IProgressMonitor)} when the viewer only
+	 * shows the minings of the lines around its viewport. Minings returned outside of the region
+	 * are ignored.
+	 * <p>
+	 * The default implementation computes the minings of the whole document. Implementors should
+	 * override it if they can compute the minings of a region faster.
+	 * </p>
+	 *
+	 * @param viewer the viewer in which the command was invoked.
+	 * @param region the region of the document whose minings are requested
+	 * @param monitor A progress monitor.
+	 * @return An array of future of code minings that resolves to such. The lack of a result can be
+	 *         signaled by returning null, or an empty array.
+	 * @since 3.27
+	 */
+	default CompletableFuture<List<? extends ICodeMining>> provideCodeMinings(ITextViewer viewer, IRegion region, IProgressMonitor monitor) {
+		return provideCodeMinings(viewer, monitor);
+	}
+
 	/**
 	 * Dispose code mining provider.
 	 */
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016 Red Hat Inc. and others.
+ * Copyright (c) 2016, 2026 Red Hat Inc. and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -70,6 +70,13 @@ class AsyncCompletionProposalPopup extends CompletionProposalPopup {
 
 	private PopupVisibleTimer fPopupVisibleTimer= new PopupVisibleTimer();
 
+	/**
+	 * The placeholder shown while the proposals are computed asynchronously, or <code>null</code>.
+	 *
+	 * @since 3.27
+	 */
+	private ComputingProposal fComputingProposal;
+
 	private static final class ComputingProposal implements ICompletionProposal, ICompletionProposalExtension {
 
 		private final int fOffset;
@@ -227,6 +234,7 @@ class AsyncCompletionProposalPopup extends CompletionProposalPopup {
 				createProposalSelector();
 			}
 			ComputingProposal computingProposal= new ComputingProposal(offset, populateFutures.size());
+			fComputingProposal= computingProposal;
 			fComputedProposals.add(0, computingProposal);
 			setProposals(fComputedProposals, false);
 			AtomicInteger remaining= new AtomicInteger(populateFutures.size());
@@ -264,7 +272,12 @@ class AsyncCompletionProposalPopup extends CompletionProposalPopup {
 									|| (!stillComputing && !fComputedProposals.isEmpty());
 
 							if ((autoActivated && hasProposals) || !autoActivated) {
-								setProposals(fComputedProposals, false);
+								if (fFilterOffset != offset) {
+									// characters have been typed meanwhile, only show the proposals still valid
+									filterProposals();
+								} else {
+									setProposals(fComputedProposals, false);
+								}
 								displayProposals(true);
 							} else if (isValid(fProposalShell) && (!fProposalShell.isVisible() || !hasProposals) && remaining.get() == 0) {
 								hide(); // we only tear down if the popup is not visible or it is visible but has no proposals.
@@ -345,12 +358,18 @@ class AsyncCompletionProposalPopup extends CompletionProposalPopup {
 
 	@Override
 	protected List<ICompletionProposal> computeFilteredProposals(int offset, DocumentEvent event) {
-		if (fAggregatedPopulateFuture != null && !fAggregatedPopulateFuture.isDone()) {
-			// user typed a char & computation still pending -> let all futures complete then invoke "filterProposals" upon completion
-			fAggregatedPopulateFuture.thenRun(this::filterProposals);
-			return fComputedProposals;
+		List<ICompletionProposal> filtered= super.computeFilteredProposals(offset, event);
+		ComputingProposal computingProposal= fComputingProposal;
+		if (filtered != null && computingProposal != null && fAggregatedPopulateFuture != null && !fAggregatedPopulateFuture.isDone()
+				&& !filtered.contains(computingProposal)) {
+			// user typed a char & computation still pending -> keep the placeholder, the proposals
+			// of the pending processors get filtered as they arrive
+			List<ICompletionProposal> proposals= new ArrayList<>(filtered.size() + 1);
+			proposals.add(computingProposal);
+			proposals.addAll(filtered);
+			return proposals;
 		}
-		return super.computeFilteredProposals(offset, event);
+		return filtered;
 	}
 
 	@Override
@@ -373,6 +392,7 @@ class AsyncCompletionProposalPopup extends CompletionProposalPopup {
 		List<CompletableFuture<List<ICompletionProposal>>> futures = new ArrayList<>(processors.size());
 		for (IContentAssistProcessor processor : processors) {
 			futures.add(CompletableFuture.supplyAsync(() -> {
+				long start= System.nanoTime();
 				AtomicReference<List<ICompletionProposal>> result= new AtomicReference<>();
 				SafeRunner.run(() -> {
 					ICompletionProposal[] proposals= processor.computeCompletionProposals(fViewer, invocationOffset);
@@ -383,6 +403,7 @@ class AsyncCompletionProposalPopup extends CompletionProposalPopup {
 					}
 				});
 				List<ICompletionProposal> proposals= result.get();
+				fireProposalsComputedEvent(processor, proposals == null ? 0 : proposals.size(), System.nanoTime() - start);
 				if (proposals == null) { // an error occurred during computeCompletionProposal,
 					// possible improvement: give user feedback by returning an error "proposal" shown
 					// in completion popup and providing details
@@ -394,6 +415,22 @@ class AsyncCompletionProposalPopup extends CompletionProposalPopup {
 		return futures;
 	}
 
+	/**
+	 * Notifies the completion listeners in the UI thread that the given processor has computed
+	 * its proposals.
+	 *
+	 * @param processor the processor
+	 * @param proposalCount the number of computed proposals
+	 * @param duration the time spent computing the proposals, in nanoseconds
+	 * @since 3.27
+	 */
+	private void fireProposalsComputedEvent(IContentAssistProcessor processor, int proposalCount, long duration) {
+		Control control= fContentAssistSubjectControlAdapter.getControl();
+		if (control != null && !control.isDisposed()) {
+			control.getDisplay().asyncExec(() -> fContentAssistant.fireProposalsComputedEvent(processor, proposalCount, duration));
+		}
+	}
+
 	private String getTokenContentType(int invocationOffset) throws BadLocationException {
 		if (fContentAssistSubjectControl != null) {
 			IDocument document= fContentAssistSubjectControl.getDocument();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,7 +24,9 @@ import static org.eclipse.jface.util.Util.isValid;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.osgi.util.TextProcessor;
@@ -395,6 +397,33 @@ class CompletionProposalPopup implements IContentAssistListener {
 	 * @since 3.1.1
 	 */
 	private final AtomicBoolean fIsFilterPending= new AtomicBoolean(false);
+	/**
+	 * The filtered proposals indexed by the text typed since the invocation offset. Typing more
+	 * characters only validates the proposals of the longest known prefix, and deleting them only
+	 * the proposals of the prefix which remains.
+	 *
+	 * @since 3.27
+	 */
+	private final Map<String, List<ICompletionProposal>> fFilteredProposalsByPrefix= new HashMap<>();
+	/**
+	 * The computed proposals the prefix index has been built for.
+	 *
+	 * @since 3.27
+	 */
+	private List<ICompletionProposal> fIndexedProposals;
+	/**
+	 * The number of computed proposals when the prefix index has been built, which grows while
+	 * asynchronous processors complete.
+	 *
+	 * @since 3.27
+	 */
+	private int fIndexedProposalCount;
+	/**
+	 * The invocation offset the prefix index has been built for.
+	 *
+	 * @since 3.27
+	 */
+	private int fIndexedInvocationOffset;
 	/**
 	 * The info message at the bottom of the popup, or <code>null</code> for no popup (if
 	 * ContentAssistant does not provide one).
@@ -1139,6 +1168,8 @@ class CompletionProposalPopup implements IContentAssistListener {
 
 		fFilteredProposals= null;
 		fComputedProposals= null;
+		fFilteredProposalsByPrefix.clear();
+		fIndexedProposals= null;
 
 		fContentAssistant.possibleCompletionsClosed();
 	}
@@ -1559,6 +1590,17 @@ class CompletionProposalPopup implements IContentAssistListener {
 		}
 
 		IDocument document= fContentAssistSubjectControlAdapter.getDocument();
+		String prefix= getTypedPrefix(document, offset);
+		if (updateProposalIndex()) {
+			// proposals have been added since the last filtering, the filtered ones miss them
+			proposals= fComputedProposals;
+			fIsFilteredSubset= false;
+		} else {
+			List<ICompletionProposal> indexed= getIndexedProposals(prefix);
+			if (indexed != null)
+				proposals= indexed;
+		}
+
 		int length= proposals.size();
 		List<ICompletionProposal> filtered= new ArrayList<>(length);
 		for (ICompletionProposal proposal : proposals) {
@@ -1591,9 +1633,69 @@ class CompletionProposalPopup implements IContentAssistListener {
 			}
 		}
 
+		if (prefix != null)
+			fFilteredProposalsByPrefix.put(prefix, filtered);
 		return filtered;
 	}
 
+	/**
+	 * Returns the text typed since the invocation offset.
+	 *
+	 * @param document the document
+	 * @param offset the current offset
+	 * @return the typed text or <code>null</code> if not available
+	 * @since 3.27
+	 */
+	private String getTypedPrefix(IDocument document, int offset) {
+		if (document == null)
+			return null;
+		try {
+			return document.get(fInvocationOffset, offset - fInvocationOffset);
+		} catch (BadLocationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Resets the prefix index if the computed proposals have changed since it has been built.
+	 *
+	 * @return <code>true</code> if proposals have been added to or removed from the computed
+	 *         proposals since the index has been built, <code>false</code> otherwise
+	 * @since 3.27
+	 */
+	private boolean updateProposalIndex() {
+		List<ICompletionProposal> computed= fComputedProposals;
+		int count= computed != null ? computed.size() : 0;
+		if (fIndexedProposals == computed && fIndexedProposalCount == count && fIndexedInvocationOffset == fInvocationOffset)
+			return false;
+
+		boolean modified= fIndexedProposals == computed && computed != null && fIndexedInvocationOffset == fInvocationOffset;
+		fFilteredProposalsByPrefix.clear();
+		fIndexedProposals= computed;
+		fIndexedProposalCount= count;
+		fIndexedInvocationOffset= fInvocationOffset;
+		return modified;
+	}
+
+	/**
+	 * Returns the smallest known superset of the proposals valid for the given typed text, i.e.
+	 * the filtered proposals of its longest prefix which has been filtered before.
+	 *
+	 * @param prefix the text typed since the invocation offset, may be <code>null</code>
+	 * @return the proposals to validate or <code>null</code> if none are known
+	 * @since 3.27
+	 */
+	private List<ICompletionProposal> getIndexedProposals(String prefix) {
+		if (prefix == null)
+			return null;
+		for (int i= prefix.length(); i > 0; i--) {
+			List<ICompletionProposal> proposals= fFilteredProposalsByPrefix.get(prefix.substring(0, i));
+			if (proposals != null)
+				return proposals;
+		}
+		return null;
+	}
+
 	/**
 	 * Requests the proposal shell to take focus.
 	 *
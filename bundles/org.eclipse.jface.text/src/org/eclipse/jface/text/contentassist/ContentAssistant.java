@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -2026,12 +2026,14 @@ public class ContentAssistant implements IContentAssistant, IContentAssistantExt
 					SafeRunner.run(new ExceptionLoggingSafeRunnable(COMPLETION_ERROR_MESSAGE_KEY) {
 						@Override
 						public void run() throws Exception {
+							long start= System.nanoTime();
 							ICompletionProposal[] proposals= ((ISubjectControlContentAssistProcessor) p)
 									.computeCompletionProposals(contentAssistSubjectControl, offset);
 							if (proposals != null) {
 								result.addAll(Arrays.asList(proposals));
 							}
 							fLastErrorMessage= p.getErrorMessage();
+							fireProposalsComputedEvent(p, proposals == null ? 0 : proposals.length, System.nanoTime() - start);
 						}
 					});
 				}
@@ -2061,11 +2063,13 @@ public class ContentAssistant implements IContentAssistant, IContentAssistantExt
 				@Override
 				public void run() throws Exception {
 					processors.forEach(p -> {
+						long start= System.nanoTime();
 						ICompletionProposal[] proposals= p.computeCompletionProposals(viewer, offset);
 						if (proposals != null) {
 							res.addAll(Arrays.asList(proposals));
 						}
 						fLastErrorMessage= p.getErrorMessage();
+						fireProposalsComputedEvent(p, proposals == null ? 0 : proposals.length, System.nanoTime() - start);
 					});
 				}
 			});
@@ -2630,6 +2634,26 @@ public class ContentAssistant implements IContentAssistant, IContentAssistantExt
 		}
 	}
 
+	/**
+	 * Fires an event after a processor has computed its proposals, see
+	 * {@link ICompletionListenerExtension3}.
+	 *
+	 * @param processor the processor which has computed the proposals
+	 * @param proposalCount the number of computed proposals
+	 * @param duration the time spent computing the proposals, in nanoseconds
+	 * @since 3.27
+	 */
+	void fireProposalsComputedEvent(IContentAssistProcessor processor, int proposalCount, long duration) {
+		ContentAssistEvent event= null;
+		for (ICompletionListener listener : fCompletionListeners) {
+			if (listener instanceof ICompletionListenerExtension3) {
+				if (event == null)
+					event= new ContentAssistEvent(this, processor);
+				((ICompletionListenerExtension3)listener).proposalsComputed(event, proposalCount, duration);
+			}
+		}
+	}
+
 	/*
 	 * @see org.eclipse.jface.text.contentassist.IContentAssistantExtension3#setInvocationTrigger(org.eclipse.jface.bindings.keys.KeySequence)
 	 * @since 3.2
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.contentassist;
+
+
+/**
+ * Extends {@link org.eclipse.jface.text.contentassist.ICompletionListener} with a notification
+ * each time a processor has computed its proposals, which allows to find the processors slowing
+ * down content assist.
+ * <p>
+ * Clients may implement this interface.
+ * </p>
+ *
+ * @since 3.27
+ */
+public interface ICompletionListenerExtension3 {
+
+	/**
+	 * Called in the UI thread after a processor has computed its completion proposals. With
+	 * asynchronous content assist the proposals of the processors are computed concurrently and
+	 * the notifications arrive in the order the processors complete.
+	 *
+	 * @param event the content assist event, its processor is the one which has computed the
+	 *            proposals
+	 * @param proposalCount the number of computed proposals
+	 * @param duration the time the processor has spent computing the proposals, in nanoseconds
+	 */
+	void proposalsComputed(ContentAssistEvent event, int proposalCount, long duration);
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,8 +16,15 @@ package org.eclipse.jface.text.hyperlink;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StyledText;
@@ -29,10 +36,12 @@ import org.eclipse.swt.events.MouseEvent;
 import org.eclipse.swt.events.MouseListener;
 import org.eclipse.swt.events.MouseMoveListener;
 import org.eclipse.swt.events.MouseTrackListener;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.SafeRunner;
 
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextListener;
@@ -115,6 +124,215 @@ public class HyperlinkManager implements ITextListener, Listener, KeyListener, M
 	public static final DETECTION_STRATEGY LONGEST_REGION_FIRST= new DETECTION_STRATEGY("first with longest region"); //$NON-NLS-1$
 
 
+	/**
+	 * A detection of the hyperlinks at a location by detectors running concurrently on the
+	 * {@link HyperlinkManager#fgExecutor detector pool}. The results are merged in the UI thread
+	 * as they arrive.
+	 *
+	 * @since 3.27
+	 */
+	private final class HyperlinkDetection {
+
+		/** The region in which the hyperlinks are detected. */
+		private final IRegion fRegion;
+		/** The key modifier mask the detectors have been chosen for. */
+		private final int fStateMask;
+		/** The detectors. */
+		private final IHyperlinkDetector[] fDetectors;
+		/** The futures of the detectors. */
+		private final CompletableFuture<?>[] fFutures;
+		/** The hyperlinks detected by each detector, accessed in the UI thread only. */
+		private final IHyperlink[][] fResults;
+		/** Whether each detector has answered or timed out, accessed in the UI thread only. */
+		private final boolean[] fDone;
+		/** Whether this detection has been canceled. */
+		private volatile boolean fCanceled;
+
+		HyperlinkDetection(IRegion region, int stateMask, IHyperlinkDetector[] detectors) {
+			fRegion= region;
+			fStateMask= stateMask;
+			fDetectors= detectors;
+			fFutures= new CompletableFuture<?>[detectors.length];
+			fResults= new IHyperlink[detectors.length][];
+			fDone= new boolean[detectors.length];
+		}
+
+		/**
+		 * Starts the detectors. A detector which is still running for an earlier location is
+		 * called once it has finished.
+		 *
+		 * @param display the display in which the results are merged
+		 */
+		void start(Display display) {
+			boolean canShowMultipleHyperlinks= fHyperlinkPresenter.canShowMultipleHyperlinks();
+			for (int i= 0; i < fDetectors.length; i++) {
+				int index= i;
+				DetectorCall call= new DetectorCall(this, fDetectors[i], fTextViewer, canShowMultipleHyperlinks, fDetectionTimeout);
+				fFutures[i]= call.fFuture;
+				call.fFuture.whenComplete((hyperlinks, error) -> {
+					if (!fCanceled && !display.isDisposed())
+						display.asyncExec(() -> detected(index, error == null ? hyperlinks : null));
+				});
+				schedule(call);
+			}
+		}
+
+		/**
+		 * Merges the hyperlinks detected by a detector and shows the hyperlinks found so far.
+		 *
+		 * @param index the index of the detector
+		 * @param hyperlinks the detected hyperlinks or <code>null</code> if none
+		 */
+		private void detected(int index, IHyperlink[] hyperlinks) {
+			if (fCanceled || fDetection != this)
+				return;
+
+			Assert.isLegal(hyperlinks == null || hyperlinks.length > 0);
+			fResults[index]= hyperlinks;
+			fDone[index]= true;
+
+			boolean done= true;
+			List<IHyperlink> allHyperlinks= new ArrayList<>();
+			for (int i= 0; i < fDetectors.length; i++) {
+				if (!fDone[i]) {
+					done= false;
+					// the first hyperlink must come from the first detector finding one
+					if (fDetectionStrategy == FIRST)
+						break;
+				} else if (fResults[i] != null) {
+					if (fDetectionStrategy == FIRST) {
+						allHyperlinks.add(fResults[i][0]);
+						break;
+					}
+					allHyperlinks.addAll(Arrays.asList(fResults[i]));
+				}
+			}
+
+			// keep showing the previous hyperlinks until there are new ones or all detectors are done
+			if (allHyperlinks.isEmpty() && !done)
+				return;
+
+			fActiveHyperlinks= selectHyperlinks(allHyperlinks);
+			showHyperlinks(false);
+		}
+
+		/**
+		 * Tells whether this detection detects the hyperlinks at the given offset for the given key
+		 * modifier mask.
+		 *
+		 * @param offset the offset
+		 * @param stateMask the key modifier mask
+		 * @return <code>true</code> if the hyperlinks at the given offset are detected
+		 */
+		boolean isAt(int offset, int stateMask) {
+			return fRegion.getOffset() == offset && fStateMask == stateMask;
+		}
+
+		/**
+		 * Cancels this detection. Detectors which have not started yet are not called anymore,
+		 * the results of the others are ignored.
+		 */
+		void cancel() {
+			fCanceled= true;
+			for (CompletableFuture<?> future : fFutures) {
+				if (future != null)
+					future.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * A call of a hyperlink detector on the {@link HyperlinkManager#fgExecutor detector pool}. The
+	 * timeout starts when the detector is called, not when the call is scheduled.
+	 *
+	 * @since 3.27
+	 */
+	private final class DetectorCall implements Runnable {
+
+		/** The detection this call belongs to. */
+		private final HyperlinkDetection fOwner;
+		/** The detector. */
+		private final IHyperlinkDetector fDetector;
+		/** The text viewer passed to the detector. */
+		private final ITextViewer fViewer;
+		/** Whether the presenter can show multiple hyperlinks. */
+		private final boolean fCanShowMultipleHyperlinks;
+		/** The time in milliseconds the detector may take. */
+		private final long fTimeout;
+		/** The future completed with the detected hyperlinks or <code>null</code> if none. */
+		private final CompletableFuture<IHyperlink[]> fFuture= new CompletableFuture<>();
+		/** The call of the same detector waiting for this one, guarded by the running detectors. */
+		private DetectorCall fNext;
+		/** Whether the detector has not answered within the timeout, guarded by the running detectors. */
+		private boolean fOverdue;
+
+		DetectorCall(HyperlinkDetection owner, IHyperlinkDetector detector, ITextViewer viewer, boolean canShowMultipleHyperlinks, long timeout) {
+			fOwner= owner;
+			fDetector= detector;
+			fViewer= viewer;
+			fCanShowMultipleHyperlinks= canShowMultipleHyperlinks;
+			fTimeout= timeout;
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (fOwner.fCanceled || fFuture.isDone())
+					return;
+				CompletableFuture.delayedExecutor(fTimeout, TimeUnit.MILLISECONDS).execute(this::timedOut);
+				IHyperlink[][] hyperlinks= new IHyperlink[1][];
+				SafeRunner.run(() -> hyperlinks[0]= fDetector.detectHyperlinks(fViewer, fOwner.fRegion, fCanShowMultipleHyperlinks));
+				fFuture.complete(hyperlinks[0]);
+			} finally {
+				finished(this);
+			}
+		}
+
+		/**
+		 * Gives up waiting for the detector. The call waiting for this one is given up as well.
+		 */
+		private void timedOut() {
+			DetectorCall next;
+			synchronized (fRunningDetectors) {
+				if (fRunningDetectors.get(fDetector) != this)
+					return;
+				fOverdue= true;
+				next= fNext;
+				fNext= null;
+			}
+			fFuture.complete(null);
+			if (next != null)
+				next.fFuture.complete(null);
+		}
+	}
+
+	/**
+	 * The default time in milliseconds a hyperlink detector may take while hovering, see
+	 * {@link #setDetectionTimeout(long)}.
+	 *
+	 * @since 3.27
+	 */
+	private static final long DETECTION_TIMEOUT= Long.getLong("org.eclipse.jface.text.hyperlink.detectionTimeout", 0).longValue(); //$NON-NLS-1$
+
+	/**
+	 * The pool of low priority daemon threads running the hyperlink detectors while hovering. Idle
+	 * threads terminate after a while.
+	 *
+	 * @since 3.27
+	 */
+	private static final ThreadPoolExecutor fgExecutor;
+	static {
+		AtomicInteger count= new AtomicInteger();
+		int threads= Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+		fgExecutor= new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread= new Thread(runnable, "Hyperlink Detector #" + count.incrementAndGet()); //$NON-NLS-1$
+			thread.setPriority(Thread.MIN_PRIORITY);
+			thread.setDaemon(true);
+			return thread;
+		});
+		fgExecutor.allowCoreThreadTimeOut(true);
+	}
+
 	/** The text viewer on which this hyperlink manager works. */
 	private ITextViewer fTextViewer;
 	/** The session is active. */
@@ -134,6 +352,26 @@ public class HyperlinkManager implements ITextListener, Listener, KeyListener, M
 	private IHyperlinkPresenter fHyperlinkPresenter;
 	/** The detection strategy. */
 	private final DETECTION_STRATEGY fDetectionStrategy;
+	/**
+	 * The time in milliseconds a detector may take while hovering, or <code>0</code> if the
+	 * detectors run in the UI thread.
+	 *
+	 * @since 3.27
+	 */
+	private long fDetectionTimeout= DETECTION_TIMEOUT;
+	/**
+	 * The running detection while hovering or <code>null</code> if none.
+	 *
+	 * @since 3.27
+	 */
+	private HyperlinkDetection fDetection;
+	/**
+	 * The running or scheduled call of each detector on the detector pool. A detector is never
+	 * called again before it has finished, even if it has timed out.
+	 *
+	 * @since 3.27
+	 */
+	private final Map<IHyperlinkDetector, DetectorCall> fRunningDetectors= new HashMap<>();
 
 
 	/**
@@ -216,6 +454,33 @@ public class HyperlinkManager implements ITextListener, Listener, KeyListener, M
 		fHyperlinkStateMask= eventStateMask;
 	}
 
+	/**
+	 * Sets the time in milliseconds each hyperlink detector may take to detect the hyperlinks
+	 * while the mouse is moved with a hyperlink modifier pressed.
+	 * <p>
+	 * If the timeout is positive, the detectors run concurrently on a shared pool of background
+	 * threads instead of one after the other in the UI thread, so that a slow detector does not
+	 * block the UI. The hyperlinks are shown as the detectors find them, and a detector which does
+	 * not answer within the timeout, counted from the moment it is called, is ignored for that
+	 * location. A detector is not called again before its previous call has returned. Moving the
+	 * mouse to another location cancels the detection. Clicking a hyperlink and
+	 * {@link #openHyperlink()} still detect the hyperlinks in the UI thread.
+	 * </p>
+	 * <p>
+	 * Only use a positive timeout if all detectors can be called outside the UI thread. The
+	 * default is <code>0</code>, unless set with the system property
+	 * <code>org.eclipse.jface.text.hyperlink.detectionTimeout</code>.
+	 * </p>
+	 *
+	 * @param timeout the timeout in milliseconds, or <code>0</code> to detect the hyperlinks in
+	 *            the UI thread
+	 * @since 3.27
+	 */
+	public void setDetectionTimeout(long timeout) {
+		Assert.isLegal(timeout >= 0);
+		fDetectionTimeout= timeout;
+	}
+
 	/**
 	 * Uninstalls this hyperlink manager.
 	 */
@@ -244,6 +509,7 @@ public class HyperlinkManager implements ITextListener, Listener, KeyListener, M
 	 * Deactivates the currently shown hyperlinks.
 	 */
 	protected void deactivate() {
+		cancelDetection();
 		fHyperlinkPresenter.hideHyperlinks();
 		fActive= false;
 	}
@@ -270,19 +536,11 @@ public class HyperlinkManager implements ITextListener, Listener, KeyListener, M
 	 * @since 3.7
 	 */
 	private IHyperlink[] findHyperlinks(IRegion region) {
+		cancelDetection();
 		List<IHyperlink> allHyperlinks= new ArrayList<>(fHyperlinkDetectors.length * 2);
 		synchronized (fHyperlinkDetectors) {
 			for (IHyperlinkDetector detector : fHyperlinkDetectors) {
-				if (detector == null)
-					continue;
-
-				if (detector instanceof IHyperlinkDetectorExtension2) {
-					int stateMask= ((IHyperlinkDetectorExtension2)detector).getStateMask();
-					if (stateMask != -1 && stateMask != fActiveHyperlinkStateMask)
-						continue;
-					else if (stateMask == -1 && fActiveHyperlinkStateMask != fHyperlinkStateMask)
-					continue;
-				} else if (fActiveHyperlinkStateMask != fHyperlinkStateMask)
+				if (!isActive(detector))
 					continue;
 
 				boolean canShowMultipleHyperlinks= fHyperlinkPresenter.canShowMultipleHyperlinks();
@@ -301,6 +559,40 @@ public class HyperlinkManager implements ITextListener, Listener, KeyListener, M
 			}
 		}
 
+		return selectHyperlinks(allHyperlinks);
+	}
+
+	/**
+	 * Tells whether the given detector is active for the active key modifier mask.
+	 *
+	 * @param detector the detector, may be <code>null</code>
+	 * @return <code>true</code> if the detector has to be asked for hyperlinks
+	 * @since 3.27
+	 */
+	private boolean isActive(IHyperlinkDetector detector) {
+		if (detector == null)
+			return false;
+
+		if (detector instanceof IHyperlinkDetectorExtension2) {
+			int stateMask= ((IHyperlinkDetectorExtension2)detector).getStateMask();
+			if (stateMask != -1 && stateMask != fActiveHyperlinkStateMask)
+				return false;
+			else if (stateMask == -1 && fActiveHyperlinkStateMask != fHyperlinkStateMask)
+				return false;
+		} else if (fActiveHyperlinkStateMask != fHyperlinkStateMask)
+			return false;
+
+		return true;
+	}
+
+	/**
+	 * Applies the detection strategy to the detected hyperlinks.
+	 *
+	 * @param allHyperlinks the hyperlinks in the order of their detectors, the list is modified
+	 * @return the array of hyperlinks to show or <code>null</code> if none
+	 * @since 3.27
+	 */
+	private IHyperlink[] selectHyperlinks(List<IHyperlink> allHyperlinks) {
 		if (allHyperlinks.isEmpty())
 			return null;
 
@@ -321,6 +613,103 @@ public class HyperlinkManager implements ITextListener, Listener, KeyListener, M
 
 	}
 
+	/**
+	 * Starts detecting the hyperlinks at the current offset on the detector pool, unless they are
+	 * already being detected.
+	 *
+	 * @since 3.27
+	 */
+	private void startDetection() {
+		int offset= getCurrentTextOffset();
+		if (fDetection != null && fDetection.isAt(offset, fActiveHyperlinkStateMask))
+			return;
+
+		cancelDetection();
+		if (offset == -1) {
+			fActiveHyperlinks= null;
+			showHyperlinks(false);
+			return;
+		}
+
+		List<IHyperlinkDetector> detectors= new ArrayList<>(fHyperlinkDetectors.length);
+		synchronized (fHyperlinkDetectors) {
+			for (IHyperlinkDetector detector : fHyperlinkDetectors) {
+				if (isActive(detector))
+					detectors.add(detector);
+			}
+		}
+		if (detectors.isEmpty()) {
+			fActiveHyperlinks= null;
+			showHyperlinks(false);
+			return;
+		}
+
+		fDetection= new HyperlinkDetection(new Region(offset, 0), fActiveHyperlinkStateMask, detectors.toArray(new IHyperlinkDetector[detectors.size()]));
+		fDetection.start(fTextViewer.getTextWidget().getDisplay());
+	}
+
+	/**
+	 * Cancels the running detection, if any.
+	 *
+	 * @since 3.27
+	 */
+	private void cancelDetection() {
+		if (fDetection != null) {
+			fDetection.cancel();
+			fDetection= null;
+		}
+	}
+
+	/**
+	 * Runs the given detector call on the detector pool. A detector is called for one location at a
+	 * time: if it is still running, the call waits until it has finished and replaces any other
+	 * waiting call of that detector. If the running call has not answered within the timeout, the
+	 * detector is skipped.
+	 *
+	 * @param call the detector call
+	 * @since 3.27
+	 */
+	private void schedule(DetectorCall call) {
+		boolean execute= false;
+		DetectorCall skipped= null;
+		synchronized (fRunningDetectors) {
+			DetectorCall running= fRunningDetectors.get(call.fDetector);
+			if (running == null) {
+				fRunningDetectors.put(call.fDetector, call);
+				execute= true;
+			} else if (running.fOverdue) {
+				skipped= call;
+			} else {
+				skipped= running.fNext;
+				running.fNext= call;
+			}
+		}
+		if (skipped != null)
+			skipped.fFuture.complete(null);
+		if (execute)
+			fgExecutor.execute(call);
+	}
+
+	/**
+	 * Runs the call waiting for the detector of the given call, if any.
+	 *
+	 * @param call the call which has finished
+	 * @since 3.27
+	 */
+	private void finished(DetectorCall call) {
+		DetectorCall next;
+		synchronized (fRunningDetectors) {
+			next= call.fNext;
+			call.fNext= null;
+			if (next == null)
+				fRunningDetectors.remove(call.fDetector);
+			else
+				fRunningDetectors.put(call.fDetector, next);
+		}
+		if (next != null)
+			fgExecutor.execute(next);
+	}
+
 	/**
 	 * Computes the length of the longest detected hyperlink.
 	 *
@@ -454,6 +843,11 @@ public class HyperlinkManager implements ITextListener, Listener, KeyListener, M
 			return;
 		}
 
+		if (fDetectionTimeout > 0) {
+			startDetection();
+			return;
+		}
+
 		fActiveHyperlinks= findHyperlinks();
 		showHyperlinks(false);
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,7 @@ import java.util.Iterator;
 import java.util.Map;
 
 import org.eclipse.swt.custom.StyleRange;
+import org.eclipse.swt.widgets.Display;
 
 import org.eclipse.core.runtime.Assert;
 
@@ -30,9 +31,12 @@ import org.eclipse.jface.text.DocumentPartitioningChangedEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentExtension3;
 import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IDocumentPartitioner;
+import org.eclipse.jface.text.IDocumentPartitionerExtension4;
 import org.eclipse.jface.text.IDocumentPartitioningListener;
 import org.eclipse.jface.text.IDocumentPartitioningListenerExtension;
 import org.eclipse.jface.text.IDocumentPartitioningListenerExtension2;
+import org.eclipse.jface.text.IPartitioningProgressListener;
 import org.eclipse.jface.text.IPositionUpdater;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextInputListener;
@@ -40,6 +44,7 @@ import org.eclipse.jface.text.ITextListener;
 import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.ITextViewerExtension5;
 import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextEvent;
 import org.eclipse.jface.text.TextPresentation;
@@ -56,6 +61,18 @@ import org.eclipse.jface.text.TypedPosition;
  * document change rather than just the portion overlapping with the viewer's
  * viewport.
  * <p>
+ * The only exception are documents whose partitioner computes the partitioning
+ * in the background, see {@link IDocumentPartitionerExtension4}. Damage behind
+ * the partitioning watermark and behind the viewer's viewport is not repaired
+ * until the partitioner has progressed accordingly.
+ * </p>
+ * <p>
+ * With incremental repair enabled, see {@link #setIncrementalRepair(boolean)},
+ * large damage is repaired for the viewer's viewport first, and the remaining
+ * damage is repaired in batches which are interleaved with other events of the
+ * UI thread.
+ * </p>
+ * <p>
  * Usually, clients instantiate this class and configure it before using it.
  * </p>
  */
@@ -64,13 +81,20 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	/** Prefix of the name of the position category for tracking damage regions. */
 	protected final static String TRACKED_PARTITION= "__reconciler_tracked_partition"; //$NON-NLS-1$
 
+	/**
+	 * The number of characters repaired per batch when repairing incrementally.
+	 * @since 3.27
+	 */
+	private static final int REPAIR_BATCH_SIZE= 16 * 1024;
+
 
 	/**
 	 * Internal listener class.
 	 */
 	class InternalListener implements
 			ITextInputListener, IDocumentListener, ITextListener,
-			IDocumentPartitioningListener, IDocumentPartitioningListenerExtension, IDocumentPartitioningListenerExtension2 {
+			IDocumentPartitioningListener, IDocumentPartitioningListenerExtension, IDocumentPartitioningListenerExtension2,
+			IPartitioningProgressListener {
 
 		/** Set to <code>true</code> if between a document about to be changed and a changed event. */
 		private boolean fDocumentChanging= false;
@@ -83,6 +107,9 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 		@Override
 		public void inputDocumentAboutToBeChanged(IDocument oldDocument, IDocument newDocument) {
 			if (oldDocument != null) {
+				setProgressingPartitioner(null);
+				fPendingDamage= null;
+
 				try {
 
 					fViewer.removeTextListener(this);
@@ -115,6 +142,7 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 				newDocument.addDocumentPartitioningListener(this);
 				newDocument.addDocumentListener(this);
 				fViewer.addTextListener(this);
+				fDisplay= fViewer.getTextWidget() != null ? fViewer.getTextWidget().getDisplay() : null;
 
 				setDocumentToDamagers(newDocument);
 				setDocumentToRepairers(newDocument);
@@ -218,6 +246,12 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 			fChangedDocumentPartitions= null;
 		}
 
+		@Override
+		public void partitioningProgressed(IDocumentPartitioner partitioner, IRegion region) {
+			// called while the document is locked, potentially in a background thread
+			schedulePendingRepair();
+		}
+
 		/**
 		 * Translates the given text event into the corresponding range of the viewer's document.
 		 *
@@ -265,6 +299,32 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	 * @since 3.0
 	 */
 	private String fPartitioning;
+	/**
+	 * The partitioner computing the partitioning in the background, <code>null</code> if none.
+	 * @since 3.27
+	 */
+	private IDocumentPartitionerExtension4 fProgressingPartitioner;
+	/**
+	 * The damage which is not repaired until the partitioning has progressed,
+	 * <code>null</code> if none.
+	 * @since 3.27
+	 */
+	private Position fPendingDamage;
+	/**
+	 * The display of the viewer's text widget.
+	 * @since 3.27
+	 */
+	private volatile Display fDisplay;
+	/**
+	 * Indicates whether the repair of the pending damage is scheduled.
+	 * @since 3.27
+	 */
+	private volatile boolean fPendingRepairScheduled;
+	/**
+	 * Indicates whether damage outside the viewport is repaired incrementally.
+	 * @since 3.27
+	 */
+	private boolean fIsIncrementalRepair= false;
 
 	/**
 	 * Creates a new presentation reconciler. There are no damagers or repairers
@@ -298,6 +358,25 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 		return fPartitioning;
 	}
 
+	/**
+	 * Tells this presentation reconciler whether to repair large damage incrementally. If enabled,
+	 * damage covering more than the viewer's viewport, for example after setting the input
+	 * document or after a change of the partitioning, is repaired for the viewport right away.
+	 * The rest of the damage is repaired afterwards in batches of limited size, each running as a
+	 * separate runnable on the UI thread, so that the viewer stays responsive while the presentation
+	 * of a large document is computed.
+	 * <p>
+	 * Damagers and repairers are still only called in the UI thread, so they need not be thread
+	 * safe. Incremental repair is disabled by default.
+	 * </p>
+	 *
+	 * @param incremental <code>true</code> to repair large damage incrementally
+	 * @since 3.27
+	 */
+	public void setIncrementalRepair(boolean incremental) {
+		fIsIncrementalRepair= incremental;
+	}
+
 	/**
 	 * Registers the given presentation damager for a particular content type.
 	 * If there is already a damager registered for this type, the old damager
@@ -546,12 +625,183 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 	 */
 	private void processDamage(IRegion damage, IDocument document) {
 		if (damage != null && damage.getLength() > 0) {
+			damage= deferDamage(damage, document);
+			if (damage == null)
+				return;
 			TextPresentation p= createPresentation(damage, document);
 			if (p != null)
 				applyTextRegionCollection(p);
 		}
 	}
 
+	/**
+	 * Defers the part of the given damage which lies behind the partitioning watermark
+	 * and behind the viewer's viewport until the partitioning has progressed. When
+	 * repairing incrementally, the part of large damage outside the viewer's viewport
+	 * is deferred as well.
+	 *
+	 * @param damage the damage to be repaired
+	 * @param document the document whose presentation must be repaired
+	 * @return the damage to be repaired now or <code>null</code> if none
+	 * @since 3.27
+	 */
+	private IRegion deferDamage(IRegion damage, IDocument document) {
+		IDocumentPartitioner partitioner= null;
+		if (document instanceof IDocumentExtension3)
+			partitioner= ((IDocumentExtension3) document).getDocumentPartitioner(getDocumentPartitioning());
+		else if (IDocumentExtension3.DEFAULT_PARTITIONING.equals(getDocumentPartitioning()))
+			partitioner= document.getDocumentPartitioner();
+		setProgressingPartitioner(partitioner instanceof IDocumentPartitionerExtension4 ? (IDocumentPartitionerExtension4) partitioner : null);
+
+		int start= damage.getOffset();
+		int end= damage.getOffset() + damage.getLength();
+		int repairOffset= start;
+		int deferredOffset= end;
+		if (fProgressingPartitioner != null) {
+			int watermark= fProgressingPartitioner.getPartitioningWatermark();
+			if (end > watermark)
+				deferredOffset= Math.max(watermark, fViewer.getBottomIndexEndOffset() + 1);
+		}
+		if (fIsIncrementalRepair && fDisplay != null && damage.getLength() > REPAIR_BATCH_SIZE) {
+			// the deferred damage may include the viewport if the damage starts before it,
+			// in that case the viewport is repaired twice
+			repairOffset= Math.max(start, fViewer.getTopIndexStartOffset());
+			deferredOffset= Math.min(deferredOffset, Math.max(repairOffset, fViewer.getBottomIndexEndOffset() + 1));
+		}
+		if (repairOffset == start && deferredOffset >= end)
+			return damage;
+
+		int pendingOffset= repairOffset > start ? start : deferredOffset;
+		int pendingEnd= end;
+		try {
+			if (fPendingDamage != null) {
+				pendingOffset= Math.min(pendingOffset, fPendingDamage.getOffset());
+				pendingEnd= Math.max(pendingEnd, fPendingDamage.getOffset() + fPendingDamage.getLength());
+				document.removePosition(fPositionCategory, fPendingDamage);
+			}
+			fPendingDamage= new Position(pendingOffset, pendingEnd - pendingOffset);
+			document.addPosition(fPositionCategory, fPendingDamage);
+		} catch (BadLocationException x) {
+			fPendingDamage= null;
+			return damage;
+		} catch (BadPositionCategoryException x) {
+			// should not happen on input documents
+			fPendingDamage= null;
+			return damage;
+		}
+
+		schedulePendingRepair();
+
+		if (repairOffset >= deferredOffset)
+			return null;
+		return new Region(repairOffset, deferredOffset - repairOffset);
+	}
+
+	/**
+	 * Schedules the repair of the pending damage in the UI thread unless it is already
+	 * scheduled.
+	 *
+	 * @since 3.27
+	 */
+	private void schedulePendingRepair() {
+		Display display= fDisplay;
+		if (display != null && !display.isDisposed() && !fPendingRepairScheduled) {
+			fPendingRepairScheduled= true;
+			display.asyncExec(() -> {
+				fPendingRepairScheduled= false;
+				repairPendingDamage();
+			});
+		}
+	}
+
+	/**
+	 * Repairs the part of the pending damage which lies before the partitioning watermark.
+	 * When repairing incrementally, at most one batch is repaired and the repair of the rest
+	 * is scheduled.
+	 *
+	 * @since 3.27
+	 */
+	private void repairPendingDamage() {
+		IDocument document= fViewer.getDocument();
+		if (document == null || fPendingDamage == null)
+			return;
+
+		int offset= fPendingDamage.getOffset();
+		int end= fPendingDamage.getOffset() + fPendingDamage.getLength();
+		int repairEnd= end;
+		if (fProgressingPartitioner != null)
+			repairEnd= Math.min(repairEnd, fProgressingPartitioner.getPartitioningWatermark());
+		boolean isBatch= fIsIncrementalRepair && repairEnd - offset > REPAIR_BATCH_SIZE;
+		if (isBatch)
+			repairEnd= getBatchEnd(document, offset + REPAIR_BATCH_SIZE, repairEnd);
+		if (repairEnd <= offset && !fPendingDamage.isDeleted())
+			return;
+
+		try {
+			document.removePosition(fPositionCategory, fPendingDamage);
+			if (fPendingDamage.isDeleted()) {
+				fPendingDamage= null;
+				return;
+			}
+			fPendingDamage= null;
+			if (repairEnd < end) {
+				fPendingDamage= new Position(repairEnd, end - repairEnd);
+				document.addPosition(fPositionCategory, fPendingDamage);
+			}
+		} catch (BadLocationException x) {
+			fPendingDamage= null;
+		} catch (BadPositionCategoryException x) {
+			// should not happen on input documents
+			fPendingDamage= null;
+		}
+
+		TextPresentation p= createPresentation(new Region(offset, repairEnd - offset), document);
+		if (p != null)
+			applyTextRegionCollection(p);
+
+		if (isBatch && fPendingDamage != null)
+			schedulePendingRepair();
+	}
+
+	/**
+	 * Returns the end of a batch, i.e. the end of the line containing the given offset, but not
+	 * behind the given limit.
+	 *
+	 * @param document the document
+	 * @param offset the offset at which the batch should end
+	 * @param limit the offset the batch must not exceed
+	 * @return the end of the batch
+	 * @since 3.27
+	 */
+	private int getBatchEnd(IDocument document, int offset, int limit) {
+		try {
+			IRegion line= document.getLineInformationOfOffset(offset);
+			int lineEnd= line.getOffset() + line.getLength();
+			String delimiter= document.getLineDelimiter(document.getLineOfOffset(offset));
+			if (delimiter != null)
+				lineEnd+= delimiter.length();
+			return Math.min(limit, lineEnd);
+		} catch (BadLocationException x) {
+			return limit;
+		}
+	}
+
+	/**
+	 * Sets the partitioner from which partitioning progress is received.
+	 *
+	 * @param partitioner the partitioner or <code>null</code> if none
+	 * @since 3.27
+	 */
+	private void setProgressingPartitioner(IDocumentPartitionerExtension4 partitioner) {
+		if (fProgressingPartitioner == partitioner)
+			return;
+		if (fProgressingPartitioner != null)
+			fProgressingPartitioner.removePartitioningProgressListener(fInternalListener);
+		fProgressingPartitioner= partitioner;
+		if (fProgressingPartitioner != null)
+			fProgressingPartitioner.addPartitioningProgressListener(fInternalListener);
+	}
+
 	/**
 	 * Applies the given text presentation to the text viewer the presentation
 	 * reconciler is installed on.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,13 @@
  *******************************************************************************/
 package org.eclipse.jface.text.reconciler;
 
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.events.FocusEvent;
+import org.eclipse.swt.events.FocusListener;
+
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -39,6 +46,11 @@ import org.eclipse.jface.text.ITextViewer;
  * It is the clients responsibility to stop a reconciler using its {@link #uninstall()}
  * method. Unstopped reconcilers do not free their resources.
  * <p>
+ * By default, each reconciler uses a dedicated background thread. A reconciler can instead run its
+ * reconcile passes as tasks on an executor shared by all reconcilers, see
+ * {@link #setRunInSharedExecutor(boolean)}.
+ * </p>
+ * <p>
  * It is subclass responsibility to specify how dirty regions are processed.
  * </p>
  *
@@ -50,10 +62,76 @@ import org.eclipse.jface.text.ITextViewer;
 abstract public class AbstractReconciler implements IReconciler {
 
 
+	/**
+	 * The background reconciling activity.
+	 *
+	 * @since 3.27
+	 */
+	interface BackgroundActivity {
+
+		/**
+		 * Returns whether a reconciling strategy is active right now.
+		 *
+		 * @return <code>true</code> if a activity is active
+		 */
+		boolean isActive();
+
+		/**
+		 * Returns whether some changes need to be processed.
+		 *
+		 * @return <code>true</code> if changes wait to be processed
+		 */
+		boolean isDirty();
+
+		/**
+		 * Returns whether the activity has been started and not yet terminated.
+		 *
+		 * @return <code>true</code> if the activity is alive
+		 */
+		boolean isAlive();
+
+		/**
+		 * Starts the activity.
+		 *
+		 * @throws IllegalThreadStateException if the activity has already been started
+		 */
+		void start();
+
+		/**
+		 * Cancels the activity.
+		 */
+		void cancel();
+
+		/**
+		 * Suspends the caller of this method until the activity has emptied the dirty region
+		 * queue.
+		 */
+		void suspendCallerWhileDirty();
+
+		/**
+		 * Resets the activity as the text viewer has been changed.
+		 */
+		void reset();
+
+		/**
+		 * Tells the activity that it should not delay any further as someone waits for it.
+		 *
+		 * @see AbstractReconciler#signalWaitForFinish()
+		 */
+		void wakeUp();
+
+		/**
+		 * Tells whether the code is running in the reconciling activity.
+		 *
+		 * @return <code>true</code> if the current thread runs the reconciling activity
+		 */
+		boolean isCurrentThread();
+	}
+
 	/**
 	 * Background thread for the reconciling activity.
 	 */
-	class BackgroundThread extends Thread {
+	class BackgroundThread extends Thread implements BackgroundActivity {
 
 		/** Has the reconciler been canceled. */
 		private boolean fCanceled= false;
@@ -81,6 +159,7 @@ abstract public class AbstractReconciler implements IReconciler {
 		 *
 		 * @return <code>true</code> if a activity is active
 		 */
+		@Override
 		public boolean isActive() {
 			return fIsActive;
 		}
@@ -91,6 +170,7 @@ abstract public class AbstractReconciler implements IReconciler {
 		 * @return <code>true</code> if changes wait to be processed
 		 * @since 3.0
 		 */
+		@Override
 		public synchronized boolean isDirty() {
 			return fIsDirty;
 		}
@@ -98,6 +178,7 @@ abstract public class AbstractReconciler implements IReconciler {
 		/**
 		 * Cancels the background thread.
 		 */
+		@Override
 		public void cancel() {
 			fCanceled= true;
 			IProgressMonitor pm= fProgressMonitor;
@@ -112,25 +193,25 @@ abstract public class AbstractReconciler implements IReconciler {
 		 * Suspends the caller of this method until this background thread has
 		 * emptied the dirty region queue.
 		 */
+		@Override
 		public void suspendCallerWhileDirty() {
-			AbstractReconciler.this.signalWaitForFinish();
-			boolean isDirty;
-			do {
-				synchronized (fDirtyRegionQueue) {
-					isDirty= fDirtyRegionQueue.getSize() > 0;
-					if (isDirty) {
-						try {
-							fDirtyRegionQueue.wait();
-						} catch (InterruptedException x) {
-						}
-					}
-				}
-			} while (isDirty);
+			waitWhileDirty();
+		}
+
+		@Override
+		public void wakeUp() {
+			// the thread is notified through the dirty region queue
+		}
+
+		@Override
+		public boolean isCurrentThread() {
+			return Thread.currentThread() == this;
 		}
 
 		/**
 		 * Reset the background thread as the text viewer has been changed,
 		 */
+		@Override
 		public void reset() {
 
 			if (fDelay > 0) {
@@ -220,6 +301,273 @@ abstract public class AbstractReconciler implements IReconciler {
 		}
 	}
 
+	/**
+	 * Reconciling activity running as tasks on the shared {@link ReconcilerExecutor}. It behaves
+	 * like {@link BackgroundThread} but does not occupy a thread while waiting for changes or for
+	 * the delay to expire. Each task processes one dirty region and then yields the thread to the
+	 * other reconcilers. There is at most one pending task per reconciler, so that changes arriving
+	 * while a task is pending are coalesced into that task.
+	 *
+	 * @since 3.27
+	 */
+	class BackgroundTask implements BackgroundActivity, Runnable {
+
+		/** Has the activity been started. */
+		private boolean fStarted= false;
+		/** Has the activity been canceled. */
+		private boolean fCanceled= false;
+		/** Has a task terminated abnormally. */
+		private boolean fTerminated= false;
+		/** Has the initial process been run. */
+		private boolean fInitialProcessed= false;
+		/** Some changes need to be processed. */
+		private boolean fIsDirty= false;
+		/** Is a reconciling strategy active. */
+		private volatile boolean fIsActive= false;
+		/** Should the tasks overtake the tasks of other reconcilers. */
+		private volatile boolean fPrioritized= false;
+		/** Is a task scheduled or queued. */
+		private boolean fPending= false;
+		/** The future of the scheduled task, <code>null</code> if none or if already queued. */
+		private ScheduledFuture<?> fFuture;
+		/** The earliest time in nanoseconds the next task may process changes. */
+		private long fNotBefore;
+		/** The thread running the current task, <code>null</code> if no task is running. */
+		private volatile Thread fRunningThread;
+
+		@Override
+		public boolean isActive() {
+			return fIsActive;
+		}
+
+		@Override
+		public synchronized boolean isDirty() {
+			return fIsDirty;
+		}
+
+		@Override
+		public synchronized boolean isAlive() {
+			return fStarted && !fCanceled && !fTerminated;
+		}
+
+		@Override
+		public void start() {
+			synchronized (this) {
+				if (fStarted)
+					throw new IllegalThreadStateException();
+				fStarted= true;
+			}
+			schedule(waitFinish ? 0 : fDelay);
+		}
+
+		@Override
+		public void cancel() {
+			synchronized (this) {
+				fCanceled= true;
+				if (fFuture != null) {
+					fFuture.cancel(false);
+					fFuture= null;
+				}
+			}
+			IProgressMonitor pm= fProgressMonitor;
+			if (pm != null)
+				pm.setCanceled(true);
+			synchronized (fDirtyRegionQueue) {
+				fDirtyRegionQueue.notifyAll();
+			}
+		}
+
+		@Override
+		public void suspendCallerWhileDirty() {
+			waitWhileDirty();
+		}
+
+		@Override
+		public void reset() {
+			synchronized (this) {
+				fIsDirty= true;
+			}
+
+			informNotFinished();
+			reconcilerReset();
+
+			schedule(waitFinish ? 0 : fDelay);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * A pending task waiting for its delay to expire is queued right away.
+		 */
+		@Override
+		public void wakeUp() {
+			synchronized (this) {
+				if (fFuture == null || !fFuture.cancel(false))
+					return;
+				fFuture= null;
+			}
+			ReconcilerExecutor.getDefault().execute(this, fPrioritized);
+		}
+
+		@Override
+		public boolean isCurrentThread() {
+			return Thread.currentThread() == fRunningThread;
+		}
+
+		/**
+		 * Sets whether the tasks of this reconciler should overtake the tasks of other
+		 * reconcilers.
+		 *
+		 * @param prioritized <code>true</code> if the tasks should be prioritized
+		 */
+		void setPrioritized(boolean prioritized) {
+			fPrioritized= prioritized;
+		}
+
+		/**
+		 * Makes sure that a task runs after the given delay. If a task is already pending, the
+		 * pending task is delayed instead of scheduling another one.
+		 *
+		 * @param delay the delay in milliseconds
+		 */
+		private void schedule(long delay) {
+			synchronized (this) {
+				if (!fStarted || fCanceled)
+					return;
+
+				fNotBefore= System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+				if (fRunningThread != null)
+					return; // the running task schedules the next one
+
+				if (fPending) {
+					// a pending task re-checks the delay before processing anything
+					if (delay > 0 || fFuture == null || !fFuture.cancel(false))
+						return;
+				}
+
+				fPending= true;
+				fFuture= null;
+				if (delay > 0) {
+					fFuture= ReconcilerExecutor.getDefault().schedule(this::queue, TimeUnit.MILLISECONDS.toNanos(delay));
+					return;
+				}
+			}
+			ReconcilerExecutor.getDefault().execute(this, fPrioritized);
+		}
+
+		/**
+		 * Queues the scheduled task once its delay has expired.
+		 */
+		private void queue() {
+			synchronized (this) {
+				fFuture= null;
+			}
+			ReconcilerExecutor.getDefault().execute(this, fPrioritized);
+		}
+
+		/**
+		 * Runs one step of the reconciling activity, i.e. the initial process or the
+		 * processing of the next dirty region, and schedules the next step if needed.
+		 */
+		@Override
+		public void run() {
+			synchronized (this) {
+				fPending= false;
+				if (fCanceled)
+					return;
+
+				long remaining= fNotBefore - System.nanoTime();
+				if (remaining > 0 && !waitFinish) {
+					fPending= true;
+					fFuture= ReconcilerExecutor.getDefault().schedule(this::queue, remaining);
+					return;
+				}
+				fRunningThread= Thread.currentThread();
+			}
+
+			boolean completed= false;
+			try {
+				step();
+				completed= true;
+			} finally {
+				synchronized (this) {
+					fRunningThread= null;
+					fTerminated= !completed;
+				}
+			}
+
+			// checked and reset under the lock of signalWaitForFinish() to not lose its signal
+			boolean dirty;
+			long delay;
+			synchronized (fDirtyRegionQueue) {
+				dirty= isDirty();
+				if (!dirty)
+					waitFinish= false; // signalWaitForFinish() was called but nothing todo
+				delay= waitFinish ? 0 : fDelay;
+			}
+			if (dirty)
+				schedule(delay);
+		}
+
+		/**
+		 * Runs the initial process or processes the next dirty region.
+		 */
+		private void step() {
+			if (!fInitialProcessed) {
+				fInitialProcessed= true;
+				initialProcess();
+				return;
+			}
+
+			if (!isDirty())
+				return;
+
+			DirtyRegion r= null;
+			synchronized (fDirtyRegionQueue) {
+				r= fDirtyRegionQueue.removeNextDirtyRegion();
+			}
+
+			fIsActive= true;
+
+			fProgressMonitor.setCanceled(false);
+
+			process(r);
+
+			synchronized (fDirtyRegionQueue) {
+				if (0 == fDirtyRegionQueue.getSize()) {
+					synchronized (this) {
+						fIsDirty= fProgressMonitor.isCanceled();
+					}
+					fDirtyRegionQueue.notifyAll();
+				}
+			}
+
+			fIsActive= false;
+		}
+	}
+
+	/**
+	 * Focus listener prioritizing the reconciling of the focused viewer.
+	 *
+	 * @since 3.27
+	 */
+	class FocusTracker implements FocusListener {
+
+		@Override
+		public void focusGained(FocusEvent e) {
+			setPrioritized(true);
+		}
+
+		@Override
+		public void focusLost(FocusEvent e) {
+			setPrioritized(false);
+		}
+
+		private void setPrioritized(boolean prioritized) {
+			if (fThread instanceof BackgroundTask task)
+				task.setPrioritized(prioritized);
+		}
+	}
+
 	/**
 	 * Internal document listener and text input listener.
 	 */
@@ -233,7 +581,7 @@ abstract public class AbstractReconciler implements IReconciler {
 		public void documentChanged(DocumentEvent e) {
 
 			if (fThread.isActive() || !fThread.isDirty() && fThread.isAlive()) {
-				if (!fIsAllowedToModifyDocument && Thread.currentThread() == fThread)
+				if (!fIsAllowedToModifyDocument && fThread.isCurrentThread())
 					throw new UnsupportedOperationException("The reconciler thread is not allowed to modify the document"); //$NON-NLS-1$
 				aboutToBeReconciledInternal();
 			}
@@ -295,10 +643,16 @@ abstract public class AbstractReconciler implements IReconciler {
 		}
 	}
 
+	/**
+	 * Whether reconcilers run as tasks on the shared executor by default.
+	 * @since 3.27
+	 */
+	private static final boolean RUN_IN_SHARED_EXECUTOR= Boolean.getBoolean("org.eclipse.jface.text.reconciler.runInSharedExecutor"); //$NON-NLS-1$
+
 	/** Queue to manage the changes applied to the text viewer. */
 	private DirtyRegionQueue fDirtyRegionQueue;
-	/** The background thread. */
-	private BackgroundThread fThread;
+	/** The background thread or task. */
+	private BackgroundActivity fThread;
 	/** Internal document and text input listener. */
 	private Listener fListener;
 	/** The background thread delay. */
@@ -314,7 +668,16 @@ abstract public class AbstractReconciler implements IReconciler {
 	 * @since 3.2
 	 */
 	private boolean fIsAllowedToModifyDocument= true;
-
+	/**
+	 * Tells whether this reconciler runs as tasks on the shared executor.
+	 * @since 3.27
+	 */
+	private boolean fRunInSharedExecutor= RUN_IN_SHARED_EXECUTOR;
+	/**
+	 * The focus listener prioritizing this reconciler, <code>null</code> if none is installed.
+	 * @since 3.27
+	 */
+	private FocusTracker fFocusTracker;
 
 	/** The text viewer's document. */
 	private IDocument fDocument;
@@ -391,6 +754,33 @@ abstract public class AbstractReconciler implements IReconciler {
 		fIsAllowedToModifyDocument= isAllowedToModify;
 	}
 
+	/**
+	 * Tells the reconciler whether it should run its reconcile passes as tasks on an executor
+	 * shared by all reconcilers instead of using a dedicated background thread. This must be called
+	 * before the reconciler is installed.
+	 * <p>
+	 * The shared executor uses a bounded number of threads. A reconciler does not occupy a thread
+	 * while it waits for changes, changes arriving while a reconcile pass is pending are coalesced
+	 * into that pass, and the reconciler of the focused text viewer is served first. Each task
+	 * processes one dirty region, so that reconcilers with long queues do not starve the others.
+	 * The contract for the reconciling strategies does not change, but subclasses must not rely on
+	 * the identity of the thread calling {@link #process(DirtyRegion)} other than through
+	 * {@link #isRunningInReconcilerThread()}.
+	 * </p>
+	 * <p>
+	 * The default is <code>false</code> unless the system property
+	 * <code>org.eclipse.jface.text.reconciler.runInSharedExecutor</code> is set to
+	 * <code>true</code>.
+	 * </p>
+	 *
+	 * @param runInSharedExecutor <code>true</code> if the reconciler should run on the shared
+	 *            executor
+	 * @since 3.27
+	 */
+	public void setRunInSharedExecutor(boolean runInSharedExecutor) {
+		fRunInSharedExecutor= runInSharedExecutor;
+	}
+
 	/**
 	 * Sets the progress monitor of this reconciler.
 	 *
@@ -449,11 +839,18 @@ abstract public class AbstractReconciler implements IReconciler {
 		synchronized (this) {
 			if (fThread != null)
 				return;
-			fThread= new BackgroundThread(getClass().getName());
+			fThread= fRunInSharedExecutor ? new BackgroundTask() : new BackgroundThread(getClass().getName());
 		}
 
 		fDirtyRegionQueue= new DirtyRegionQueue();
 
+		StyledText textWidget= textViewer.getTextWidget();
+		if (fRunInSharedExecutor && textWidget != null && !textWidget.isDisposed()) {
+			fFocusTracker= new FocusTracker();
+			textWidget.addFocusListener(fFocusTracker);
+			fFocusTracker.setPrioritized(textWidget.isFocusControl());
+		}
+
 		fListener= new Listener();
 		fViewer.addTextInputListener(fListener);
 
@@ -481,9 +878,16 @@ abstract public class AbstractReconciler implements IReconciler {
 			}
 			fListener= null;
 
+			if (fFocusTracker != null) {
+				StyledText textWidget= fViewer.getTextWidget();
+				if (textWidget != null && !textWidget.isDisposed())
+					textWidget.removeFocusListener(fFocusTracker);
+				fFocusTracker= null;
+			}
+
 			synchronized (this) {
 				// http://dev.eclipse.org/bugs/show_bug.cgi?id=19135
-				BackgroundThread bt= fThread;
+				BackgroundActivity bt= fThread;
 				fThread= null;
 				bt.cancel();
 			}
@@ -550,6 +954,31 @@ abstract public class AbstractReconciler implements IReconciler {
 			waitFinish= true;
 			fDirtyRegionQueue.notifyAll(); // notify AbstractReconciler#delay about waitFinish
 		}
+		BackgroundActivity activity= fThread;
+		if (activity != null)
+			activity.wakeUp();
+	}
+
+	/**
+	 * Suspends the caller of this method until the background activity has emptied the dirty
+	 * region queue.
+	 *
+	 * @since 3.27
+	 */
+	private void waitWhileDirty() {
+		signalWaitForFinish();
+		boolean isDirty;
+		do {
+			synchronized (fDirtyRegionQueue) {
+				isDirty= fDirtyRegionQueue.getSize() > 0;
+				if (isDirty) {
+					try {
+						fDirtyRegionQueue.wait();
+					} catch (InterruptedException x) {
+					}
+				}
+			}
+		} while (isDirty);
 	}
 
 	private void informNotFinished() {
@@ -641,6 +1070,7 @@ abstract public class AbstractReconciler implements IReconciler {
 	 * @since 3.4
 	 */
 	protected boolean isRunningInReconcilerThread() {
-		return Thread.currentThread() == fThread;
+		BackgroundActivity activity= fThread;
+		return activity != null && activity.isCurrentThread();
 	}
 }
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.reconciler;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Executor shared by all reconcilers which run their reconcile passes as tasks instead of using a
+ * dedicated background thread.
+ * <p>
+ * The tasks run on a bounded pool of low priority daemon threads. Idle threads terminate after a
+ * while, so that the executor does not keep any thread alive while nothing has to be reconciled.
+ * Tasks waiting for a thread are ordered by priority first and by the time they have been queued
+ * second, i.e. prioritized tasks overtake all others, but tasks of the same priority run in
+ * order. Delays are handled by a single timer thread which hands the tasks over to the pool when
+ * they are due.
+ * </p>
+ *
+ * @see AbstractReconciler#setRunInSharedExecutor(boolean)
+ * @since 3.27
+ */
+final class ReconcilerExecutor {
+
+	/**
+	 * A queued task with its priority.
+	 */
+	private static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+
+		/** The sequence used to order tasks of the same priority. */
+		private static final AtomicLong fgSequence= new AtomicLong();
+
+		/** The task to run. */
+		private final Runnable fTask;
+		/** Whether the task is prioritized. */
+		private final boolean fPrioritized;
+		/** The sequence number of the task. */
+		private final long fSequence;
+
+		PrioritizedTask(Runnable task, boolean prioritized) {
+			fTask= task;
+			fPrioritized= prioritized;
+			fSequence= fgSequence.getAndIncrement();
+		}
+
+		@Override
+		public void run() {
+			fTask.run();
+		}
+
+		@Override
+		public int compareTo(PrioritizedTask other) {
+			if (fPrioritized != other.fPrioritized)
+				return fPrioritized ? -1 : 1;
+			return Long.compare(fSequence, other.fSequence);
+		}
+	}
+
+	/**
+	 * Creates named low priority daemon threads.
+	 */
+	private static final class ReconcilerThreadFactory implements ThreadFactory {
+
+		/** The name prefix of the created threads. */
+		private final String fName;
+		/** The number of created threads. */
+		private final AtomicInteger fCount= new AtomicInteger();
+
+		ReconcilerThreadFactory(String name) {
+			fName= name;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread= new Thread(runnable, fName + " #" + fCount.incrementAndGet()); //$NON-NLS-1$
+			thread.setPriority(Thread.MIN_PRIORITY);
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/** The number of seconds an idle thread is kept alive. */
+	private static final long KEEP_ALIVE= 30;
+
+	/** The shared instance. */
+	private static final ReconcilerExecutor fgDefault= new ReconcilerExecutor(Math.max(2, Runtime.getRuntime().availableProcessors() / 4));
+
+	/** The pool running the tasks. */
+	private final ThreadPoolExecutor fExecutor;
+	/** The timer delaying the tasks. */
+	private final ScheduledThreadPoolExecutor fTimer;
+
+	/**
+	 * Creates a new executor.
+	 *
+	 * @param threads the maximal number of threads running tasks
+	 */
+	private ReconcilerExecutor(int threads) {
+		fExecutor= new ThreadPoolExecutor(threads, threads, KEEP_ALIVE, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), new ReconcilerThreadFactory("Reconciler")); //$NON-NLS-1$
+		fExecutor.allowCoreThreadTimeOut(true);
+		fTimer= new ScheduledThreadPoolExecutor(1, new ReconcilerThreadFactory("Reconciler Timer")); //$NON-NLS-1$
+		fTimer.setKeepAliveTime(KEEP_ALIVE, TimeUnit.SECONDS);
+		fTimer.allowCoreThreadTimeOut(true);
+		fTimer.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Returns the executor shared by all reconcilers.
+	 *
+	 * @return the shared executor
+	 */
+	static ReconcilerExecutor getDefault() {
+		return fgDefault;
+	}
+
+	/**
+	 * Queues the given task for execution.
+	 *
+	 * @param task the task to run
+	 * @param prioritized <code>true</code> if the task should run before all non prioritized tasks
+	 */
+	void execute(Runnable task, boolean prioritized) {
+		fExecutor.execute(new PrioritizedTask(task, prioritized));
+	}
+
+	/**
+	 * Runs the given command after the given delay on the timer thread. The command is expected to
+	 * return quickly, usually it just queues a task using {@link #execute(Runnable, boolean)}.
+	 *
+	 * @param command the command to run
+	 * @param delay the delay in nanoseconds
+	 * @return the future of the delayed command
+	 */
+	ScheduledFuture<?> schedule(Runnable command, long delay) {
+		return fTimer.schedule(command, delay, TimeUnit.NANOSECONDS);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,14 +16,13 @@ package org.eclipse.jface.text.source;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -42,7 +41,9 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.Platform;
 
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IPaintPositionManager;
 import org.eclipse.jface.text.IPainter;
 import org.eclipse.jface.text.IRegion;
@@ -337,6 +338,150 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		 * @since 3.0
 		 */
 		private Object fPaintingStrategy;
+		/**
+		 * The cached line segments of this decoration as pairs of offset, relative to the
+		 * decoration's position, and length, or <code>null</code> if not yet computed.
+		 * @since 3.27
+		 */
+		private int[] fSegments;
+		/**
+		 * The length of the decoration's position for which the segments have been computed.
+		 * @since 3.27
+		 */
+		private int fSegmentsLength;
+	}
+
+	/**
+	 * Index of decorations by position, used to find the decorations touching a given range
+	 * without visiting all decorations. The index refers to the positions of a decorations map and
+	 * has to be rebuilt when the map is replaced. Document changes move the positions in place
+	 * without changing their order, so lookups read the current offsets. Only the maximal length
+	 * is not updated: a length grows at most by the length of the text inserted since the index
+	 * has been built, which lookups add to the stored maximum. Once that growth gets too large, or
+	 * positions may have been deleted and are no longer moved, the index is rebuilt.
+	 *
+	 * @since 3.27
+	 */
+	private static class DecorationIndex {
+
+		/** The maximal length of decorations which are looked up by their offset. */
+		private static final int MAX_INDEXED_LENGTH= 512;
+
+		/** The inserted text length after which the index is rebuilt. */
+		private static final int MAX_GROWTH= 4096;
+
+		/** The decorations map this index has been built from. */
+		private final Map<Annotation, Decoration> fDecorations;
+		/** The decorations up to the maximal indexed length, sorted by offset. */
+		private final List<Entry<Annotation, Decoration>> fEntries;
+		/** The positions of the sorted decorations. */
+		private final Position[] fPositions;
+		/** The maximal length of the sorted decorations when the index has been built. */
+		private int fMaxLength;
+		/** The decorations longer than the maximal indexed length. */
+		private final List<Entry<Annotation, Decoration>> fLongEntries= new ArrayList<>();
+		/** The length of the text inserted into the document since the index has been built. */
+		private int fGrowth;
+		/** Whether positions may have been deleted since the index has been built. */
+		private boolean fHasDeletedPositions;
+
+		/**
+		 * Creates a new index for the given decorations.
+		 *
+		 * @param decorations the decorations map
+		 * @param previous the previous index or <code>null</code>, used to speed up sorting if it
+		 *            has been built from the same decorations map
+		 */
+		DecorationIndex(Map<Annotation, Decoration> decorations, DecorationIndex previous) {
+			fDecorations= decorations;
+
+			List<Entry<Annotation, Decoration>> all;
+			if (previous != null && previous.fDecorations == decorations) {
+				// document changes mostly preserve the order of the positions, hence sorting is cheap
+				all= new ArrayList<>(previous.fEntries.size() + previous.fLongEntries.size());
+				all.addAll(previous.fEntries);
+				all.addAll(previous.fLongEntries);
+			} else {
+				all= new ArrayList<>(decorations.entrySet());
+			}
+
+			fEntries= new ArrayList<>(all.size());
+			for (Entry<Annotation, Decoration> entry : all) {
+				// deleted positions are no longer moved by the document and would break the order
+				if (entry.getValue().fPosition.isDeleted())
+					continue;
+				if (entry.getValue().fPosition.getLength() > MAX_INDEXED_LENGTH)
+					fLongEntries.add(entry);
+				else
+					fEntries.add(entry);
+			}
+			fEntries.sort(Comparator.comparingInt(entry -> entry.getValue().fPosition.getOffset()));
+
+			fPositions= new Position[fEntries.size()];
+			for (int i= 0; i < fPositions.length; i++) {
+				fPositions[i]= fEntries.get(i).getValue().fPosition;
+				fMaxLength= Math.max(fMaxLength, fPositions[i].getLength());
+			}
+		}
+
+		/**
+		 * Tells whether this index is valid for the given decorations map.
+		 *
+		 * @param decorations the decorations map
+		 * @return <code>true</code> if this index can be used
+		 */
+		boolean isValid(Map<Annotation, Decoration> decorations) {
+			return fDecorations == decorations && fGrowth <= MAX_GROWTH && !fHasDeletedPositions;
+		}
+
+		/**
+		 * Records a document change, before the positions are updated.
+		 *
+		 * @param length the length of the replaced text
+		 * @param textLength the length of the inserted text
+		 */
+		void documentAboutToBeChanged(int length, int textLength) {
+			// only a removal which strictly contains a position deletes it
+			if (length > 1)
+				fHasDeletedPositions= true;
+			fGrowth= (int) Math.min((long) fGrowth + textLength, Integer.MAX_VALUE);
+		}
+
+		/**
+		 * Adds the decorations which touch or overlap the given range to the given list. Deleted
+		 * positions are skipped.
+		 *
+		 * @param offset the offset of the range
+		 * @param length the length of the range
+		 * @param result the list to add the decorations to
+		 */
+		void collect(int offset, int length, List<Entry<Annotation, Decoration>> result) {
+			int end= offset + length;
+			long from= (long) offset - fMaxLength - fGrowth;
+			int low= 0;
+			int high= fPositions.length;
+			while (low < high) {
+				int mid= (low + high) >>> 1;
+				if (fPositions[mid].getOffset() < from)
+					low= mid + 1;
+				else
+					high= mid;
+			}
+			for (int i= low; i < fPositions.length; i++) {
+				Position position= fPositions[i];
+				if (position.isDeleted())
+					continue;
+				if (position.getOffset() > end)
+					break;
+				if (position.getOffset() + position.getLength() >= offset)
+					result.add(fEntries.get(i));
+			}
+			for (Entry<Annotation, Decoration> entry : fLongEntries) {
+				Position position= entry.getValue().fPosition;
+				if (!position.isDeleted() && position.getOffset() <= end && offset <= position.getOffset() + position.getLength())
+					result.add(entry);
+			}
+		}
 	}
 
 
@@ -374,6 +519,40 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 	 * @since 3.0
 	 */
 	private Object fHighlightedDecorationsMapLock= new Object();
+	/**
+	 * The index of the decorations map, guarded by the decorations map lock.
+	 * @since 3.27
+	 */
+	private DecorationIndex fDecorationIndex;
+	/**
+	 * The index of the highlighted decorations map, guarded by the highlighted decorations map lock.
+	 * @since 3.27
+	 */
+	private DecorationIndex fHighlightedDecorationIndex;
+	/**
+	 * The document whose changes invalidate the cached line segments of the decorations and are
+	 * recorded in the indices of the decorations.
+	 * @since 3.27
+	 */
+	private IDocument fDocument;
+	/**
+	 * The document listener invalidating the cached line segments of the decorations.
+	 * @since 3.27
+	 */
+	private IDocumentListener fDocumentListener;
+	/**
+	 * The start of the document range changed since the cached line segments touching it have
+	 * been invalidated, or <code>-1</code> if there is no such change. Guarded by
+	 * <code>fDecorationMapLock</code>.
+	 * @since 3.27
+	 */
+	private int fChangedRangeStart= -1;
+	/**
+	 * The end of the document range changed since the cached line segments touching it have
+	 * been invalidated. Guarded by <code>fDecorationMapLock</code>.
+	 * @since 3.27
+	 */
+	private int fChangedRangeEnd;
 	/**
 	 * Maps an annotation type to its registered color.
 	 *
@@ -545,9 +724,11 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 			// annotation model is null -> clear all
 			synchronized (fDecorationMapLock) {
 				fDecorationsMap.clear();
+				fDecorationIndex= null;
 			}
 			synchronized (fHighlightedDecorationsMapLock) {
 				fHighlightedDecorationsMap.clear();
+				fHighlightedDecorationIndex= null;
 			}
 			return;
 		}
@@ -581,12 +762,13 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 			if (DEBUG && event == null)
 				System.out.println("AP: INTERNAL CHANGE"); //$NON-NLS-1$
 
-			Iterator<Entry<Annotation, Decoration>> iter= decorationsMap.entrySet().iterator();
-			while (iter.hasNext()) {
-				Entry<Annotation, Decoration> entry= iter.next();
-				Annotation annotation= entry.getKey();
-				Decoration decoration= entry.getValue();
-				drawDecoration(decoration, null, annotation, clippingRegion, document);
+			// only decorations in the clipping region have to be cleared
+			DecorationIndex index= getDecorationIndex();
+			if (index != null && clippingRegion != null) {
+				List<Entry<Annotation, Decoration>> decorations= new ArrayList<>();
+				index.collect(clippingRegion.getOffset(), clippingRegion.getLength(), decorations);
+				for (Entry<Annotation, Decoration> entry : decorations)
+					drawDecoration(entry.getValue(), null, entry.getKey(), clippingRegion, document);
 			}
 
 			decorationsMap.clear();
@@ -708,11 +890,13 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 
 		synchronized (fDecorationMapLock) {
 			fDecorationsMap= decorationsMap;
+			fDecorationIndex= null;
 			updateDrawRanges(drawRangeStart, drawRangeEnd, isWorldChange);
 		}
 
 		synchronized (fHighlightedDecorationsMapLock) {
 			fHighlightedDecorationsMap= highlightedDecorationsMap;
+			fHighlightedDecorationIndex= null;
 			updateHighlightRanges(highlightAnnotationRangeStart, highlightAnnotationRangeEnd, isWorldChange);
 		}
 	}
@@ -860,6 +1044,7 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 			decoration= new Decoration();
 
 		decoration.fPosition= position;
+		decoration.fSegments= null;
 		decoration.fColor= color;
 		if (fAnnotationAccess instanceof IAnnotationAccessExtension) {
 			IAnnotationAccessExtension extension= (IAnnotationAccessExtension) fAnnotationAccess;
@@ -982,16 +1167,20 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 
 	@Override
 	public void applyTextPresentation(TextPresentation tp) {
-		Set<Entry<Annotation, Decoration>> decorations;
+		DecorationIndex index;
 
 		synchronized (fHighlightedDecorationsMapLock) {
 			if (fHighlightedDecorationsMap == null || fHighlightedDecorationsMap.isEmpty())
 				return;
 
-			decorations= new HashSet<>(fHighlightedDecorationsMap.entrySet());
+			if (fHighlightedDecorationIndex == null || !fHighlightedDecorationIndex.isValid(fHighlightedDecorationsMap))
+				fHighlightedDecorationIndex= new DecorationIndex(fHighlightedDecorationsMap, fHighlightedDecorationIndex);
+			index= fHighlightedDecorationIndex;
 		}
 
 		IRegion region= tp.getExtent();
+		List<Entry<Annotation, Decoration>> decorations= new ArrayList<>();
+		index.collect(region.getOffset(), region.getLength(), decorations);
 
 		if (DEBUG)
 			System.out.println("AP: applying text presentation offset: " + region.getOffset() + ", length= " + region.getLength()); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1279,15 +1468,18 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 			fAnnotationType2PaintingStrategyId= null;
 		}
 
+		setDocument(null);
 		fTextWidget= null;
 		fSourceViewer= null;
 		fAnnotationAccess= null;
 		fModel= null;
 		synchronized (fDecorationMapLock) {
 			fDecorationsMap= null;
+			fDecorationIndex= null;
 		}
 		synchronized (fHighlightedDecorationsMapLock) {
 			fHighlightedDecorationsMap= null;
+			fHighlightedDecorationIndex= null;
 		}
 	}
 
@@ -1362,12 +1554,12 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 
 		final GC gc= event != null ? event.gc : null;
 
-		// Clone decorations
-		Collection<Entry<Annotation, Decoration>> decorations;
-		synchronized (fDecorationMapLock) {
-			decorations= new ArrayList<>(fDecorationsMap.size());
-			decorations.addAll(fDecorationsMap.entrySet());
-		}
+		// Collect the decorations in the clipping region
+		DecorationIndex index= getDecorationIndex();
+		if (index == null)
+			return;
+		List<Entry<Annotation, Decoration>> decorations= new ArrayList<>();
+		index.collect(vOffset, vLength, decorations);
 
 		/*
 		 * Create a new list of annotations to be drawn, since removing from decorations is more
@@ -1378,7 +1570,7 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 			Annotation a= entry.getKey();
 			Decoration pp = entry.getValue();
 			// prune any annotation that is not drawable or does not need drawing
-			if (!(a.isMarkedDeleted() || skip(a) || !regionsTouchOrOverlap(pp.fPosition.getOffset(), pp.fPosition.getLength(), vOffset, vLength))) {
+			if (!(a.isMarkedDeleted() || skip(a))) {
 				// ensure sized appropriately
 				for (int i= toBeDrawn.size(); i <= pp.fLayer; i++)
 					toBeDrawn.add(new LinkedList<>());
@@ -1408,12 +1600,45 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		int clippingLength= clippingRegion.getLength();
 
 		Position p= pp.fPosition;
+		int[] segments= getSegments(pp, document);
+		if (segments == null)
+			return;
+
+		for (int i= 0; i < segments.length; i+= 2) {
+			int paintStart= p.getOffset() + segments[i];
+			int paintLength= segments[i + 1];
+			if (regionsTouchOrOverlap(paintStart, paintLength, clippingOffset, clippingLength)) {
+				IRegion widgetRange= getWidgetRange(paintStart, paintLength);
+				if (widgetRange != null) {
+					drawingStrategy.draw(annotation, gc, fTextWidget, widgetRange.getOffset(), widgetRange.getLength(), pp.fColor);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the line segments of the given decoration as pairs of offset, relative to the
+	 * decoration's position, and length. The segments are cached in the decoration until a
+	 * document change touches the decoration.
+	 *
+	 * @param decoration the decoration
+	 * @param document the document
+	 * @return the line segments or <code>null</code> if they cannot be computed
+	 * @since 3.27
+	 */
+	private int[] getSegments(Decoration decoration, IDocument document) {
+		Position p= decoration.fPosition;
+		if (decoration.fSegments != null && decoration.fSegmentsLength == p.getLength() && !touchesChangedRange(p))
+			return decoration.fSegments;
+
 		try {
 
 			int startLine= document.getLineOfOffset(p.getOffset());
 			int lastInclusive= Math.max(p.getOffset(), p.getOffset() + p.getLength() - 1);
 			int endLine= document.getLineOfOffset(lastInclusive);
 
+			int[] segments= new int[2 * (endLine - startLine + 1)];
+			int count= 0;
 			for (int i= startLine; i <= endLine; i++) {
 				int lineOffset= document.getLineOffset(i);
 				int paintStart= Math.max(lineOffset, p.getOffset());
@@ -1425,19 +1650,176 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 					// textWidget.redrawRange with length 0 is ignored and no redraw takes place
 					paintLength= lineDelimiter.length();
 				}
-				if (paintLength >= 0 && regionsTouchOrOverlap(paintStart, paintLength, clippingOffset, clippingLength)) {
+				if (paintLength >= 0) {
 					// otherwise inside a line delimiter
-					IRegion widgetRange= getWidgetRange(paintStart, paintLength);
-					if (widgetRange != null) {
-						drawingStrategy.draw(annotation, gc, fTextWidget, widgetRange.getOffset(), widgetRange.getLength(), pp.fColor);
-					}
+					segments[count++]= paintStart - p.getOffset();
+					segments[count++]= paintLength;
 				}
 			}
+			if (count < segments.length)
+				segments= Arrays.copyOf(segments, count);
+
+			decoration.fSegments= segments;
+			decoration.fSegmentsLength= p.getLength();
+			return segments;
 
 		} catch (BadLocationException x) {
+			return null;
 		}
 	}
 
+	/**
+	 * Returns the index of the decorations map.
+	 *
+	 * @return the index or <code>null</code> if this painter has been disposed
+	 * @since 3.27
+	 */
+	private DecorationIndex getDecorationIndex() {
+		synchronized (fDecorationMapLock) {
+			if (fDecorationsMap == null)
+				return null;
+			if (fDecorationIndex == null || !fDecorationIndex.isValid(fDecorationsMap))
+				fDecorationIndex= new DecorationIndex(fDecorationsMap, fDecorationIndex);
+			invalidateSegments(fDecorationIndex);
+			return fDecorationIndex;
+		}
+	}
+
+	/**
+	 * Sets the document whose changes invalidate the cached line segments of the decorations and
+	 * are recorded in the indices of the decorations.
+	 *
+	 * @param document the document or <code>null</code>
+	 * @since 3.27
+	 */
+	private void setDocument(IDocument document) {
+		if (fDocument == document)
+			return;
+
+		if (fDocument != null)
+			fDocument.removeDocumentListener(fDocumentListener);
+		fDocument= document;
+		// the changes of the new document have not been recorded in the indices
+		synchronized (fDecorationMapLock) {
+			fDecorationIndex= null;
+		}
+		synchronized (fHighlightedDecorationsMapLock) {
+			fHighlightedDecorationIndex= null;
+		}
+		if (fDocument != null) {
+			if (fDocumentListener == null) {
+				fDocumentListener= new IDocumentListener() {
+					@Override
+					public void documentAboutToBeChanged(DocumentEvent event) {
+						String text= event.getText();
+						recordDocumentChange(event.getLength(), text != null ? text.length() : 0);
+					}
+
+					@Override
+					public void documentChanged(DocumentEvent event) {
+						String text= event.getText();
+						addChangedRange(event.getOffset(), event.getLength(), text != null ? text.length() : 0);
+					}
+				};
+			}
+			fDocument.addDocumentListener(fDocumentListener);
+		}
+	}
+
+	/**
+	 * Records a document change in the indices of the decorations, before the positions are
+	 * updated.
+	 *
+	 * @param length the length of the replaced text
+	 * @param textLength the length of the inserted text
+	 * @since 3.27
+	 */
+	private void recordDocumentChange(int length, int textLength) {
+		synchronized (fDecorationMapLock) {
+			if (fDecorationIndex != null)
+				fDecorationIndex.documentAboutToBeChanged(length, textLength);
+		}
+		synchronized (fHighlightedDecorationsMapLock) {
+			if (fHighlightedDecorationIndex != null)
+				fHighlightedDecorationIndex.documentAboutToBeChanged(length, textLength);
+		}
+	}
+
+	/**
+	 * Adds a document change to the changed range. The range is kept in the coordinates of the
+	 * current document, so ranges of earlier changes are moved by later ones. The cached line
+	 * segments touching the range are only invalidated when the decorations are looked up next,
+	 * which avoids building the index of the decorations for every document change.
+	 *
+	 * @param offset the offset of the replaced text
+	 * @param length the length of the replaced text
+	 * @param textLength the length of the inserted text
+	 * @since 3.27
+	 */
+	private void addChangedRange(int offset, int length, int textLength) {
+		synchronized (fDecorationMapLock) {
+			int start= offset;
+			int end= offset + textLength;
+			if (fChangedRangeStart != -1) {
+				start= Math.min(start, shiftOffset(fChangedRangeStart, offset, length, textLength));
+				end= Math.max(end, shiftOffset(fChangedRangeEnd, offset, length, textLength));
+			}
+			fChangedRangeStart= start;
+			fChangedRangeEnd= end;
+		}
+	}
+
+	/**
+	 * Returns the offset after the given document change of an offset before the change.
+	 *
+	 * @param position the offset before the change
+	 * @param offset the offset of the replaced text
+	 * @param length the length of the replaced text
+	 * @param textLength the length of the inserted text
+	 * @return the offset after the change
+	 * @since 3.27
+	 */
+	private static int shiftOffset(int position, int offset, int length, int textLength) {
+		if (position <= offset)
+			return position;
+		if (position >= offset + length)
+			return position - length + textLength;
+		return offset + textLength;
+	}
+
+	/**
+	 * Tells whether the given position touches the range changed since the cached line segments
+	 * have last been invalidated.
+	 *
+	 * @param position the position of a decoration
+	 * @return <code>true</code> if the cached line segments of the position may be outdated
+	 * @since 3.27
+	 */
+	private boolean touchesChangedRange(Position position) {
+		synchronized (fDecorationMapLock) {
+			return fChangedRangeStart != -1 && position.getOffset() <= fChangedRangeEnd && fChangedRangeStart - 2 <= position.getOffset() + position.getLength();
+		}
+	}
+
+	/**
+	 * Invalidates the cached line segments of the decorations touching the range changed since
+	 * the last call. Must be called while holding <code>fDecorationMapLock</code>.
+	 *
+	 * @param index the index of the decorations, valid for the current document
+	 * @since 3.27
+	 */
+	private void invalidateSegments(DecorationIndex index) {
+		if (fChangedRangeStart == -1)
+			return;
+
+		// the last segment of a decoration depends on the line delimiter following it
+		List<Entry<Annotation, Decoration>> decorations= new ArrayList<>();
+		index.collect(fChangedRangeStart - 2, fChangedRangeEnd - fChangedRangeStart + 2, decorations);
+		for (Entry<Annotation, Decoration> entry : decorations)
+			entry.getValue().fSegments= null;
+		fChangedRangeStart= -1;
+	}
+
 	/**
 	 * Computes the model (document) region that is covered by the paint event's clipping region. If
 	 * <code>event</code> is <code>null</code>, the model range covered by the visible editor
@@ -1605,6 +1987,7 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 			fIsActive= false;
 			disablePainting(redraw);
 			setModel(null);
+			setDocument(null);
 			catchupWithModel(null);
 		}
 	}
@@ -1644,6 +2027,7 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 			IAnnotationModel model= findAnnotationModel(fSourceViewer);
 			if (model != null) {
 				fIsActive= true;
+				setDocument(fSourceViewer.getDocument());
 				setModel(model);
 			}
 		} else if (isRepaintReason(reason))
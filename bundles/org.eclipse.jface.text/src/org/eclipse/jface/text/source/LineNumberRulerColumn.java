@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -379,12 +379,30 @@ public class LineNumberRulerColumn implements IVerticalRulerColumn {
 	private int fLastTopPixel = -1;
 	/** Last top model line. */
 	private int fLastTopModelLine;
-	/** Last number of lines visible. */
-	private int fLastNumberOfLines;
 	/** Last bottom model line. */
 	private int fLastBottomModelLine;
 	/** Last canvas height used. */
 	private int fLastHeight= -1;
+	/**
+	 * The pixels of the lines from the last top to the last bottom model line, used to check
+	 * whether the painted lines can be reused when scrolling.
+	 *
+	 * @since 3.27
+	 */
+	private int[] fLastLinePixels;
+	/**
+	 * The image the newly exposed lines are painted into when scrolling, kept across scrolls.
+	 *
+	 * @since 3.27
+	 */
+	private Image fScrollBuffer;
+	/**
+	 * Flag indicating whether the painted lines have to be painted again, e.g. because the
+	 * colors or the font have changed.
+	 *
+	 * @since 3.27
+	 */
+	private boolean fIsContentChanged= true;
 	/**
 	 * Redraw runnable lock
 	 * @since 3.0
@@ -428,6 +446,7 @@ public class LineNumberRulerColumn implements IVerticalRulerColumn {
 	 */
 	public void setForeground(Color foreground) {
 		fForeground= foreground;
+		fIsContentChanged= true;
 	}
 
 	/**
@@ -447,6 +466,7 @@ public class LineNumberRulerColumn implements IVerticalRulerColumn {
 	 */
 	public void setBackground(Color background) {
 		fBackground= background;
+		fIsContentChanged= true;
 		if (fCanvas != null && !fCanvas.isDisposed())
 			fCanvas.setBackground(getBackground(fCanvas.getDisplay()));
 	}
@@ -547,6 +567,7 @@ public class LineNumberRulerColumn implements IVerticalRulerColumn {
 		if (fCanvas == null || fCanvas.isDisposed())
 			return;
 
+		fIsContentChanged= true;
 		GC gc= new GC(fCanvas);
 		try {
 
@@ -651,6 +672,10 @@ public class LineNumberRulerColumn implements IVerticalRulerColumn {
 			fBuffer.dispose();
 			fBuffer= null;
 		}
+		if (fScrollBuffer != null) {
+			fScrollBuffer.dispose();
+			fScrollBuffer= null;
+		}
 	}
 
 	/**
@@ -671,6 +696,10 @@ public class LineNumberRulerColumn implements IVerticalRulerColumn {
 			if (r.width != size.x || r.height != size.y) {
 				fBuffer.dispose();
 				fBuffer= null;
+				if (fScrollBuffer != null) {
+					fScrollBuffer.dispose();
+					fScrollBuffer= null;
+				}
 			}
 		}
 
@@ -679,12 +708,12 @@ public class LineNumberRulerColumn implements IVerticalRulerColumn {
 			return;
 		}
 
-		boolean bufferStillValid = fBuffer != null;
+		boolean bufferStillValid = fBuffer != null && !fIsContentChanged;
+		fIsContentChanged= false;
 		if (fBuffer == null) {
 			fBuffer= new Image(fCanvas.getDisplay(), size.x, size.y);
 		}
 		GC bufferGC= new GC(fBuffer);
-		Image newBuffer= null;
 		try {
 			int topPixel= fCachedTextWidget.getTopPixel();
 			int bufferY= 0;
@@ -696,7 +725,7 @@ public class LineNumberRulerColumn implements IVerticalRulerColumn {
 			int bottomWidgetLine= JFaceTextUtil.modelLineToWidgetLine(fCachedTextViewer, bottomModelLine);
 			boolean atEnd= bottomWidgetLine + 1 >= fCachedTextWidget.getLineCount();
 			int height= size.y;
-			if (dy != 0 && !atEnd && bufferStillValid && fLastTopPixel >= 0 && numberOfLines > 1 && numberOfLines == fLastNumberOfLines) {
+			if (dy != 0 && !atEnd && bufferStillValid && fLastTopPixel >= 0 && numberOfLines > 1 && isScrolledBy(dy, topModelLine, bottomModelLine)) {
 				int bottomPixel= fCachedTextWidget.getLinePixel(bottomWidgetLine + 1);
 				if (dy > 0 && bottomPixel < size.y) {
 					// Can occur on GTK with static scrollbars; see bug 551320.
@@ -741,21 +770,23 @@ public class LineNumberRulerColumn implements IVerticalRulerColumn {
 			}
 			fLastTopPixel= topPixel;
 			fLastTopModelLine= topModelLine;
-			fLastNumberOfLines= numberOfLines;
 			fLastBottomModelLine= bottomModelLine;
 			fLastHeight= height;
+			fLastLinePixels= getModelLinePixels(topModelLine, bottomModelLine);
 			if (dy != 0) {
-				// Some rulers may paint outside the line region. Let them paint in a new image,
+				// Some rulers may paint outside the line region. Let them paint in a separate image,
 				// the copy the wanted bits.
-				newBuffer= new Image(fCanvas.getDisplay(), size.x, size.y);
-				GC localGC= new GC(newBuffer);
+				if (fScrollBuffer == null) {
+					fScrollBuffer= new Image(fCanvas.getDisplay(), size.x, size.y);
+				}
+				GC localGC= new GC(fScrollBuffer);
 				try {
 					initializeGC(localGC, 0, bufferY, size.x, bufferH);
 					doPaint(localGC, visibleLines);
 				} finally {
 					localGC.dispose();
 				}
-				bufferGC.drawImage(newBuffer, 0, bufferY, size.x, bufferH, 0, bufferY, size.x, bufferH);
+				bufferGC.drawImage(fScrollBuffer, 0, bufferY, size.x, bufferH, 0, bufferY, size.x, bufferH);
 				if (dy > 0 && bufferY + bufferH < size.y) {
 					// Scrolled down in the text, but didn't use the full height of the Canvas: clear
 					// the rest. Occurs on GTK with static scrollbars; the area cleared here is the
@@ -770,13 +801,74 @@ public class LineNumberRulerColumn implements IVerticalRulerColumn {
 			}
 		} finally {
 			bufferGC.dispose();
-			if (newBuffer != null) {
-				newBuffer.dispose();
-			}
 		}
 		dest.drawImage(fBuffer, 0, 0);
 	}
 
+	/**
+	 * Tells whether the lines painted last time have only been moved by the given number of
+	 * pixels, so that they can be copied rather than painted again. This is not the case if the
+	 * height of a line has changed or if lines have been added or removed above them.
+	 *
+	 * @param dy the number of pixels the text has been scrolled by
+	 * @param topModelLine the top visible model line
+	 * @param bottomModelLine the bottom visible model line
+	 * @return <code>true</code> if the lines visible before and after scrolling have been moved
+	 *         by <code>dy</code>
+	 * @since 3.27
+	 */
+	private boolean isScrolledBy(int dy, int topModelLine, int bottomModelLine) {
+		if (fLastLinePixels == null)
+			return false;
+
+		int first= Math.max(topModelLine, fLastTopModelLine);
+		int last= Math.min(bottomModelLine, fLastBottomModelLine);
+		if (first > last || last - fLastTopModelLine >= fLastLinePixels.length)
+			return false;
+
+		for (int line= first; line <= last; line++) {
+			int lastPixel= fLastLinePixels[line - fLastTopModelLine];
+			int pixel= getModelLinePixel(line);
+			if (lastPixel == Integer.MIN_VALUE || pixel == Integer.MIN_VALUE) {
+				if (lastPixel != pixel)
+					return false;
+			} else if (pixel != lastPixel - dy) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the pixels of the given model lines.
+	 *
+	 * @param topModelLine the first model line
+	 * @param bottomModelLine the last model line
+	 * @return the pixels of the lines, see {@link #getModelLinePixel(int)}
+	 * @since 3.27
+	 */
+	private int[] getModelLinePixels(int topModelLine, int bottomModelLine) {
+		int[] pixels= new int[Math.max(0, bottomModelLine - topModelLine + 1)];
+		for (int i= 0; i < pixels.length; i++)
+			pixels[i]= getModelLinePixel(topModelLine + i);
+		return pixels;
+	}
+
+	/**
+	 * Returns the pixel of the given model line relative to the top of the client area.
+	 *
+	 * @param modelLine the model line
+	 * @return the pixel of the line or {@link Integer#MIN_VALUE} if the line is not shown in the
+	 *         widget
+	 * @since 3.27
+	 */
+	private int getModelLinePixel(int modelLine) {
+		int widgetLine= JFaceTextUtil.modelLineToWidgetLine(fCachedTextViewer, modelLine);
+		if (widgetLine == -1)
+			return Integer.MIN_VALUE;
+		return fCachedTextWidget.getLinePixel(widgetLine);
+	}
+
 	private void initializeGC(GC gc, int x, int y, int width, int height) {
 		gc.setFont(fCanvas.getFont());
 		if (fForeground != null) {
@@ -977,6 +1069,7 @@ public class LineNumberRulerColumn implements IVerticalRulerColumn {
 	@Override
 	public void setFont(Font font) {
 		fFont= font;
+		fIsContentChanged= true;
 		if (fCanvas != null && !fCanvas.isDisposed()) {
 			fCanvas.setFont(fFont);
 			updateNumberOfDigits();
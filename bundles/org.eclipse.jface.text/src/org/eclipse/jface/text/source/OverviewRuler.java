@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -1036,11 +1036,20 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			line= d.getLineInformation(lineNumbers[lineNumbers.length - 1]);
 			int end= line.getOffset() + line.getLength();
 
+			// only the annotations touching the lines are candidates, ask the model for them once
+			List<Annotation> candidates= null;
+			if (fModel instanceof IAnnotationModelExtension3)
+				candidates= ((IAnnotationModelExtension3) fModel).getAnnotations(Math.max(0, start - 1), end - start + 2, true, true);
+
 			for (int i= fAnnotationsSortedByLayer.size() -1; i >= 0; i--) {
 
 				Object annotationType= fAnnotationsSortedByLayer.get(i);
 
-				Iterator<Annotation> e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY);
+				Iterator<Annotation> e;
+				if (candidates != null)
+					e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY, candidates.iterator());
+				else
+					e= new FilterIterator(annotationType, FilterIterator.PERSISTENT | FilterIterator.TEMPORARY);
 				while (e.hasNext() && found == null) {
 					Annotation a= e.next();
 					if (a.isMarkedDeleted())
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2024 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -393,6 +393,12 @@ public class SourceViewer extends TextViewer
 	 * @since 3.13
 	 */
 	private CodeMiningManager fCodeMiningManager;
+	/**
+	 * Whether only the code minings around the viewport are updated.
+	 *
+	 * @since 3.27
+	 */
+	private boolean fCodeMiningViewportScoped;
 
 	private final List<ITextViewerLifecycle> lifecycles;
 
@@ -1317,6 +1323,7 @@ public class SourceViewer extends TextViewer
 			}
 			if (fCodeMiningManager == null) {
 				fCodeMiningManager= new CodeMiningManager(this, fInlinedAnnotationSupport, fCodeMiningProviders);
+				fCodeMiningManager.setViewportScoped(fCodeMiningViewportScoped);
 			}
 			// now trigger an update
 			updateCodeMinings();
@@ -1335,6 +1342,26 @@ public class SourceViewer extends TextViewer
 		}
 	}
 
+	/**
+	 * Sets whether only the code minings of the lines around the viewport are requested and
+	 * resolved. The other lines keep their last resolved code minings until they are scrolled
+	 * into view. This is meant for large documents whose code minings are expensive to compute.
+	 * The default is <code>false</code>.
+	 *
+	 * @param viewportScoped <code>true</code> to update only the code minings around the
+	 *            viewport
+	 * @see org.eclipse.jface.text.codemining.ICodeMiningProvider#provideCodeMinings(org.eclipse.jface.text.ITextViewer,
+	 *      IRegion, org.eclipse.core.runtime.IProgressMonitor)
+	 * @since 3.27
+	 */
+	public void setCodeMiningViewportScoped(boolean viewportScoped) {
+		fCodeMiningViewportScoped= viewportScoped;
+		if (fCodeMiningManager != null) {
+			fCodeMiningManager.setViewportScoped(viewportScoped);
+			updateCodeMinings();
+		}
+	}
+
 	@Override
 	public void setCodeMiningAnnotationPainter(AnnotationPainter painter) {
 		fAnnotationPainter= painter;
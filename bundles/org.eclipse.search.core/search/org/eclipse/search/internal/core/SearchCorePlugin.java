@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Red Hat Inc and others.
+ * Copyright (c) 2023, 2026 Red Hat Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ import org.eclipse.core.runtime.Status;
 
 import org.eclipse.search.internal.core.text.DirtyFileProvider;
 import org.eclipse.search.internal.core.text.TextSearchEngineRegistry;
+import org.eclipse.search.internal.core.text.TrigramIndexManager;
 
 public class SearchCorePlugin extends Plugin {
 	/**
@@ -36,6 +37,7 @@ public class SearchCorePlugin extends Plugin {
 	private TextSearchEngineRegistry fTextSearchEngineRegistry;
 	private DirtyFileProvider fDirtyFileSearchParticipant;
 	private DirtyFileSearchParticipantServiceTracker fDirtyFileSearchParticipantTracker;
+	private TrigramIndexManager fTrigramIndexManager;
 
 	/**
 	 * @return Returns the search plugin instance.
@@ -58,7 +60,12 @@ public class SearchCorePlugin extends Plugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
-		// do nothing
+		synchronized (this) {
+			if (fTrigramIndexManager != null) {
+				fTrigramIndexManager.shutdown();
+				fTrigramIndexManager = null;
+			}
+		}
 	}
 
 	public TextSearchEngineRegistry getTextSearchEngineRegistry() {
@@ -76,6 +83,20 @@ public class SearchCorePlugin extends Plugin {
 		return fDirtyFileSearchParticipant;
 	}
 
+	/**
+	 * Returns the manager of the trigram index of the workspace, the index is loaded and kept up
+	 * to date from the first call on.
+	 *
+	 * @return the trigram index manager
+	 */
+	public synchronized TrigramIndexManager getTrigramIndexManager() {
+		if (fTrigramIndexManager == null) {
+			fTrigramIndexManager = new TrigramIndexManager(getStateLocation().append("trigram.index").toFile()); //$NON-NLS-1$
+			fTrigramIndexManager.startup();
+		}
+		return fTrigramIndexManager;
+	}
+
 	/**
 	 * Log status to platform log
 	 * 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,13 +17,20 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.content.IContentDescription;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
 
 public class FileCharSequenceProvider {
 
@@ -36,9 +43,39 @@ public class FileCharSequenceProvider {
 	private static int NUMBER_OF_BUFFERS = 3;
 	public static int BUFFER_SIZE = 2 << 18; // public for testing
 
+	/**
+	 * The number of bytes at the start of a file in which a null byte marks the file as binary.
+	 */
+	private static final int PAGE_SIZE = 4096;
+
+	/**
+	 * Whether large local files are mapped into memory. Not on Windows, where a mapped file
+	 * cannot be deleted until the mapping is garbage collected.
+	 */
+	private static final boolean MAP_FILES = !Platform.OS_WIN32.equals(Platform.getOS());
+
 	private FileCharSequence fReused= null;
 
 	public CharSequence newCharSequence(IFile file) throws CoreException, IOException {
+		return newCharSequence(file, false);
+	}
+
+	/**
+	 * Returns the content of the given file.
+	 *
+	 * @param file the file
+	 * @param textOnly <code>true</code> if the caller skips the file if it has a null character
+	 *            in its first {@link #BUFFER_SIZE} characters. The content of such a file may
+	 *            then be returned without decoding it.
+	 * @return the content of the file
+	 * @throws CoreException if the file cannot be accessed
+	 * @throws IOException if the file cannot be read
+	 */
+	public CharSequence newCharSequence(IFile file, boolean textOnly) throws CoreException, IOException {
+		CharSequence mapped = MAP_FILES ? toMappedSequence(file, textOnly) : null;
+		if (mapped != null) {
+			return mapped;
+		}
 		String string = toShortString(file);
 		if (string != null) {
 			return string;
@@ -58,6 +95,17 @@ public class FileCharSequenceProvider {
 		return curr;
 	}
 
+	/**
+	 * Returns whether the given content returned by this provider can be read by several
+	 * threads at the same time.
+	 *
+	 * @param seq the content
+	 * @return <code>true</code> if the content can be shared between threads
+	 */
+	public static boolean isThreadSafe(CharSequence seq) {
+		return seq instanceof String || seq instanceof MappedCharSequence;
+	}
+
 	public void releaseCharSequence(CharSequence seq) throws IOException {
 		if (seq instanceof FileCharSequence) {
 			FileCharSequence curr= (FileCharSequence) seq;
@@ -139,6 +187,69 @@ public class FileCharSequenceProvider {
 	}
 
 
+	/**
+	 * The content of a memory mapped file whose characters are its bytes, which is the case
+	 * for ISO-8859-1 and for ASCII content in an ASCII compatible encoding.
+	 */
+	private static final class MappedCharSequence implements CharSequence {
+
+		private final ByteBuffer fBuffer;
+		private final int fOffset;
+		private final int fLength;
+
+		public MappedCharSequence(ByteBuffer buffer, int offset, int length) {
+			fBuffer= buffer;
+			fOffset= offset;
+			fLength= length;
+		}
+
+		@Override
+		public int length() {
+			return fLength;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0) {
+				throw new IndexOutOfBoundsException("index must be larger than 0"); //$NON-NLS-1$
+			}
+			if (index >= fLength) {
+				throw new IndexOutOfBoundsException("index must be smaller than length"); //$NON-NLS-1$
+			}
+			try {
+				return (char) (fBuffer.get(fOffset + index) & 0xFF);
+			} catch (InternalError e) {
+				// the file has been truncated while it is mapped
+				throw new FileCharSequenceException(new IOException(e));
+			}
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			if (end < start) {
+				throw new IndexOutOfBoundsException("end cannot be smaller than start"); //$NON-NLS-1$
+			}
+			if (start < 0) {
+				throw new IndexOutOfBoundsException("start must be larger than 0"); //$NON-NLS-1$
+			}
+			if (end > fLength) {
+				throw new IndexOutOfBoundsException("end must be smaller or equal than length"); //$NON-NLS-1$
+			}
+			return new MappedCharSequence(fBuffer, fOffset + start, end - start);
+		}
+
+		@Override
+		public String toString() {
+			byte[] bytes= new byte[fLength];
+			try {
+				fBuffer.get(fOffset, bytes);
+			} catch (InternalError e) {
+				throw new FileCharSequenceException(new IOException(e));
+			}
+			return new String(bytes, StandardCharsets.ISO_8859_1);
+		}
+	}
+
 	private static final class Buffer {
 		private final char[] fBuf;
 		private int fOffset;
@@ -510,6 +621,76 @@ public class FileCharSequenceProvider {
 		}
 	}
 
+	/*
+	 * Maps a large local file into memory if its bytes are its characters. Avoids decoding the
+	 * content and copying it into the buffer chain.
+	 */
+	private static CharSequence toMappedSequence(IFile file, boolean textOnly) {
+		IPath location = file.getLocation();
+		if (location == null) {
+			return null;
+		}
+		long size = location.toFile().length();
+		if (size < MAX_BUFFER_LENGTH || size > Integer.MAX_VALUE || !file.isSynchronized(IResource.DEPTH_ZERO)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(location.toPath(), StandardOpenOption.READ)) {
+			String charset = file.getCharset();
+			boolean isLatin1 = StandardCharsets.ISO_8859_1.name().equals(charset);
+			boolean isUTF8 = StandardCharsets.UTF_8.name().equals(charset);
+			if (!isLatin1 && !isUTF8 && !StandardCharsets.US_ASCII.name().equals(charset)) {
+				return null;
+			}
+			int length = (int) Math.min(size, channel.size());
+			ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, length);
+			int offset = 0;
+			if (isUTF8 && startsWith(buffer, IContentDescription.BOM_UTF_8)) {
+				offset = IContentDescription.BOM_UTF_8.length;
+			}
+			// a binary file is skipped by the caller, whatever its characters are
+			if (!isLatin1 && !(textOnly && containsNull(buffer, offset, Math.min(length, offset + PAGE_SIZE)))
+					&& !isAscii(buffer, offset, length)) {
+				return null;
+			}
+			return new MappedCharSequence(buffer, offset, length - offset);
+		} catch (CoreException | IOException | RuntimeException | InternalError e) {
+			// read it through the workspace
+			return null;
+		}
+	}
+
+	private static boolean startsWith(ByteBuffer buffer, byte[] start) {
+		if (buffer.limit() < start.length) {
+			return false;
+		}
+		for (int i = 0; i < start.length; i++) {
+			if (buffer.get(i) != start[i])
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean containsNull(ByteBuffer buffer, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (buffer.get(i) == 0)
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean isAscii(ByteBuffer buffer, int start, int end) {
+		int i = start;
+		for (; i + Long.BYTES <= end; i += Long.BYTES) {
+			if ((buffer.getLong(i) & 0x8080808080808080L) != 0)
+				return false;
+		}
+		for (; i < end; i++) {
+			if (buffer.get(i) < 0)
+				return false;
+		}
+		return true;
+	}
+
 	private static boolean startsWith(byte[] a, byte[] start) {
 		if (a.length < start.length) {
 			return false;
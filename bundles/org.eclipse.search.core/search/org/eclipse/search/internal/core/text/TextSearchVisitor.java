@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2023 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,17 +16,24 @@
 package org.eclipse.search.internal.core.text;
 
 import java.io.CharConversionException;
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.UnsupportedCharsetException;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -72,11 +79,49 @@ public class TextSearchVisitor {
 	private static final int NUMBER_OF_LOGICAL_THREADS= Runtime.getRuntime().availableProcessors();
 
 	/**
-	 * Queue of files to be searched. IFile pointing to the same local file are
+	 * Files with at least twice as many characters are split into chunks of about this size which
+	 * are searched by several jobs.
+	 */
+	private static final int CHUNK_SIZE= 1 << 22;
+
+	/**
+	 * The maximal number of characters a chunk is extended to end at a line delimiter.
+	 */
+	private static final int MAX_LINE_LENGTH= 1 << 12;
+
+	/**
+	 * Queue of files to be searched, largest first. IFile pointing to the same local file are
 	 * grouped together
 	 **/
 	private final Queue<List<IFile>> fileBatches;
 
+	/**
+	 * Chunks of large files waiting to be searched, taken by the jobs before the next file.
+	 * Guarded by itself.
+	 */
+	private final Deque<SearchChunk> fChunks= new ArrayDeque<>();
+
+	/**
+	 * The number of files which are currently searched in chunks, guarded by fChunks. Jobs
+	 * which run out of files wait for their chunks.
+	 */
+	private int fChunkedFileCount;
+
+	/**
+	 * Whether large files are split into chunks, only if several jobs search.
+	 */
+	private boolean fIsChunking;
+
+	/**
+	 * The size of the chunks large files are split into.
+	 */
+	private int fChunkSize= CHUNK_SIZE;
+
+	/**
+	 * Whether large files are split into chunks also if only one job searches.
+	 */
+	private boolean fIsAlwaysChunking;
+
 	public static class ReusableMatchAccess extends TextSearchMatchAccess {
 
 		private int fOffset;
@@ -122,6 +167,63 @@ public class TextSearchVisitor {
 		}
 	}
 
+	/**
+	 * A part of a large file. A chunk is searched by any job, the job which has split the file
+	 * stitches the matches of its chunks together.
+	 */
+	private final class SearchChunk {
+		private final CharSequence fContent;
+		private final int fStart;
+		private final int fEnd;
+		private final CountDownLatch fDone;
+		private final AtomicBoolean fIsClaimed= new AtomicBoolean();
+
+		/** The start and end offsets of the matches starting in the chunk */
+		private int[] fMatches= new int[16];
+		private int fMatchCount;
+		private Throwable fError;
+
+		public SearchChunk(CharSequence content, int start, int end, CountDownLatch done) {
+			fContent= content;
+			fStart= start;
+			fEnd= end;
+			fDone= done;
+		}
+
+		/**
+		 * Finds the matches which start in this chunk, unless another job already does.
+		 * The search starts at the beginning of the chunk and sees the whole content, so
+		 * that the matches are the ones a search of the whole content finds if it has no
+		 * match which extends into this chunk.
+		 */
+		public void run() {
+			if (!fIsClaimed.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				Matcher matcher= fSearchPattern.matcher(fContent);
+				boolean found= matcher.find(fStart);
+				while (found && matcher.start() < fEnd && !fProgressMonitor.isCanceled()) {
+					add(matcher.start(), matcher.end());
+					found= matcher.find();
+				}
+			} catch (RuntimeException | Error e) {
+				fError= e;
+			} finally {
+				fDone.countDown();
+			}
+		}
+
+		private void add(int start, int end) {
+			if (fMatchCount * 2 == fMatches.length) {
+				fMatches= Arrays.copyOf(fMatches, fMatches.length * 2);
+			}
+			fMatches[fMatchCount * 2]= start;
+			fMatches[fMatchCount * 2 + 1]= end;
+			fMatchCount++;
+		}
+	}
+
 	/**
 	 * A JobGroup for text searches across multiple files.
 	 */
@@ -167,8 +269,20 @@ public class TextSearchVisitor {
 							SearchCoreMessages.TextSearchEngine_statusMessage, null);
 			SubMonitor subMonitor = SubMonitor.convert(inner, fileBatches.size() / jobCount); // approximate
 			this.fileCharSequenceProvider= new FileCharSequenceProvider();
-			List<IFile> sameFiles;
-			while (((sameFiles = fileBatches.poll()) != null) && !fFatalError && !fProgressMonitor.isCanceled()) {
+			while (!fFatalError && !fProgressMonitor.isCanceled()) {
+				// help with the chunks of large files first so that they are done early
+				SearchChunk chunk= pollChunk();
+				if (chunk != null) {
+					chunk.run();
+					continue;
+				}
+				List<IFile> sameFiles= fileBatches.poll();
+				if (sameFiles == null) {
+					if (waitForChunks()) {
+						continue;
+					}
+					break;
+				}
 				IStatus status = processFile(sameFiles, subMonitor.split(1));
 				// Only accumulate interesting status
 				if (!status.isOK())
@@ -209,7 +323,7 @@ public class TextSearchVisitor {
 							// fail fast for binary file types without opening the file
 							return Status.OK_STATUS;
 						}
-						charsequence = fileCharSequenceProvider.newCharSequence(file);
+						charsequence = fileCharSequenceProvider.newCharSequence(file, reportTextOnly);
 						if (reportTextOnly && hasBinaryContent(charsequence)) {
 							return Status.OK_STATUS;
 						}
@@ -286,6 +400,35 @@ public class TextSearchVisitor {
 	}
 
 
+	private SearchChunk pollChunk() {
+		synchronized (fChunks) {
+			return fChunks.poll();
+		}
+	}
+
+	/**
+	 * Waits for chunks while other jobs search large files.
+	 *
+	 * @return <code>false</code> if no file is searched in chunks
+	 */
+	private boolean waitForChunks() {
+		synchronized (fChunks) {
+			if (fChunkedFileCount == 0) {
+				return false;
+			}
+			if (fChunks.isEmpty()) {
+				try {
+					// time only relevant for noticing cancellation
+					fChunks.wait(100);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
 	private final TextSearchRequestor fCollector;
 	private final Pattern fSearchPattern;
 
@@ -313,6 +456,17 @@ public class TextSearchVisitor {
 		fileBatches = new ConcurrentLinkedQueue<>();
 	}
 
+	/**
+	 * Splits files with at least twice as many characters as the given size into chunks of about
+	 * that size, also if only one job searches. Allows tests to search in chunks on any machine.
+	 *
+	 * @param chunkSize the size of the chunks
+	 */
+	public void setChunkSize(int chunkSize) {
+		fChunkSize= chunkSize;
+		fIsAlwaysChunking= true;
+	}
+
 	public IStatus search(IFile[] files, IProgressMonitor monitor) {
 		if (files.length == 0) {
 			return fStatus;
@@ -322,9 +476,7 @@ public class TextSearchVisitor {
 			fNumberOfScannedFiles = 0;
 			fCurrentFile = null;
 		}
-		int threadsNeeded = Math.min(files.length, NUMBER_OF_LOGICAL_THREADS);
-		// All but 1 threads should search. 1 thread does the UI updates:
-		int jobCount = fCollector.canRunInParallel() && threadsNeeded > 1 ? threadsNeeded - 1 : 1;
+		int jobCount = 1;
 		long startTime= TRACING ? System.currentTimeMillis() : 0;
 
 		try {
@@ -351,9 +503,28 @@ public class TextSearchVisitor {
 					filesByLocation.computeIfAbsent(key, k -> new ArrayList<>()).add(file);
 
 				}
-				localFilesByLocation.values().forEach(fileBatches::offer);
+				// search the largest files first, so that no job is left with a large file at the end
+				List<List<IFile>> localFiles= new ArrayList<>(localFilesByLocation.values());
+				long[] sizes= new long[localFiles.size()];
+				Integer[] order= new Integer[localFiles.size()];
+				long numberOfChunks= remoteFilesByLocation.size();
+				for (int i= 0; i < sizes.length; i++) {
+					File localFile= localFiles.get(i).get(0).getLocation().toFile();
+					sizes[i]= localFile.length();
+					order[i]= Integer.valueOf(i);
+					numberOfChunks+= Math.max(1, sizes[i] / fChunkSize);
+				}
+				Arrays.sort(order, Comparator.comparingLong((Integer i) -> sizes[i.intValue()]).reversed());
+				for (Integer i : order) {
+					fileBatches.offer(localFiles.get(i.intValue()));
+				}
 				remoteFilesByLocation.values().forEach(fileBatches::offer);
 				int numberOfFilesToScan = fileBatches.size();
+
+				int threadsNeeded = (int) Math.min(numberOfChunks, NUMBER_OF_LOGICAL_THREADS);
+				// All but 1 threads should search. 1 thread does the UI updates:
+				jobCount = fCollector.canRunInParallel() && threadsNeeded > 1 ? threadsNeeded - 1 : 1;
+				fIsChunking= (jobCount > 1 || fIsAlwaysChunking) && !fSearchPattern.pattern().contains("\\G"); //$NON-NLS-1$
 				fProgressMonitor.beginTask(taskName, numberOfFilesToScan);
 
 				// Seed count over 1 can cause endless waits, see bug 543629
@@ -478,6 +649,9 @@ public class TextSearchVisitor {
 	}
 
 	private List<TextSearchMatchAccess> locateMatches(IFile file, CharSequence searchInput, Matcher matcher, IProgressMonitor monitor) throws CoreException {
+		if (fIsChunking && FileCharSequenceProvider.isThreadSafe(searchInput) && searchInput.length() >= 2 * fChunkSize) {
+			return locateMatchesInChunks(file, searchInput, matcher);
+		}
 		List<TextSearchMatchAccess> occurences= null;
 		matcher.reset(searchInput);
 		// Check for cancellation before calling matcher.find() since that call
@@ -505,6 +679,120 @@ public class TextSearchVisitor {
 	}
 
 
+	/**
+	 * Finds the matches in a large file by splitting it into chunks at line delimiters which are
+	 * searched by all jobs. The matches are the same as the ones found when searching the whole
+	 * content and are reported in the calling job.
+	 *
+	 * @param file the file
+	 * @param searchInput the content of the file, can be read from several threads
+	 * @param matcher the matcher of the calling job
+	 * @return the matches
+	 * @throws CoreException if the requestor fails
+	 */
+	private List<TextSearchMatchAccess> locateMatchesInChunks(IFile file, CharSequence searchInput, Matcher matcher) throws CoreException {
+		int length= searchInput.length();
+		List<Integer> starts= new ArrayList<>();
+		for (int start= 0; start < length;) {
+			starts.add(Integer.valueOf(start));
+			start= length - start < 2 * fChunkSize ? length : getLineEnd(searchInput, start + fChunkSize, length);
+		}
+		CountDownLatch done= new CountDownLatch(starts.size());
+		List<SearchChunk> chunks= new ArrayList<>(starts.size());
+		for (int i= 0; i < starts.size(); i++) {
+			int end= i + 1 < starts.size() ? starts.get(i + 1).intValue() : length;
+			chunks.add(new SearchChunk(searchInput, starts.get(i).intValue(), end, done));
+		}
+
+		synchronized (fChunks) {
+			fChunkedFileCount++;
+			fChunks.addAll(chunks);
+			fChunks.notifyAll();
+		}
+		try {
+			for (SearchChunk chunk : chunks) {
+				chunk.run();
+			}
+			done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return Collections.emptyList();
+		} finally {
+			synchronized (fChunks) {
+				fChunkedFileCount--;
+				fChunks.notifyAll();
+			}
+		}
+		for (SearchChunk chunk : chunks) {
+			if (chunk.fError instanceof RuntimeException e) {
+				throw e;
+			} else if (chunk.fError instanceof Error e) {
+				throw e;
+			}
+		}
+
+		List<TextSearchMatchAccess> occurences= new ArrayList<>();
+		int lastStart= -1;
+		int lastEnd= -1;
+		for (SearchChunk chunk : chunks) {
+			int next= 0;
+			// a search of the whole content continues after the last match
+			int from= lastStart == lastEnd ? lastEnd + 1 : lastEnd;
+			if (from > chunk.fStart) {
+				// the last match extends into the chunk, search from its end until a match
+				// of the chunk is found again
+				boolean found= from <= length && matcher.reset(searchInput).find(from);
+				while (found && matcher.start() < chunk.fEnd && !fProgressMonitor.isCanceled()) {
+					int start= matcher.start();
+					int end= matcher.end();
+					while (next < chunk.fMatchCount && chunk.fMatches[next * 2] < start) {
+						next++;
+					}
+					if (next < chunk.fMatchCount && chunk.fMatches[next * 2] == start && chunk.fMatches[next * 2 + 1] == end) {
+						break;
+					}
+					if (!addMatch(file, searchInput, start, end, occurences)) {
+						return occurences;
+					}
+					lastStart= start;
+					lastEnd= end;
+					found= matcher.find();
+				}
+				if (!found || matcher.start() >= chunk.fEnd) {
+					continue;
+				}
+			}
+			for (; next < chunk.fMatchCount; next++) {
+				lastStart= chunk.fMatches[next * 2];
+				lastEnd= chunk.fMatches[next * 2 + 1];
+				if (!addMatch(file, searchInput, lastStart, lastEnd, occurences)) {
+					return occurences;
+				}
+			}
+		}
+		return occurences;
+	}
+
+	private boolean addMatch(IFile file, CharSequence searchInput, int start, int end, List<TextSearchMatchAccess> occurences) throws CoreException {
+		if (end == start) { // don't report 0-length matches
+			return true;
+		}
+		ReusableMatchAccess access= new ReusableMatchAccess();
+		access.initialize(file, start, end - start, searchInput);
+		occurences.add(access);
+		return fCollector.acceptPatternMatch(access);
+	}
+
+	private static int getLineEnd(CharSequence searchInput, int offset, int length) {
+		int limit= Math.min(length, offset + MAX_LINE_LENGTH);
+		for (int i= offset; i < limit; i++) {
+			if (searchInput.charAt(i) == '\n') {
+				return i + 1;
+			}
+		}
+		return offset;
+	}
+
 	private String getExceptionMessage(Exception e) {
 		String message= e.getLocalizedMessage();
 		if (message == null) {
@@ -0,0 +1,920 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.core.text;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * An inverted index from the trigrams, the sequences of three characters, of the files in the
+ * workspace to the files which contain them. A file can only contain a match of a pattern if it
+ * contains all trigrams of the literal strings that every match of the pattern has to contain, so
+ * the index narrows the files a text search has to read. The matches are still found by reading
+ * the candidate files, the index only has to answer a superset.
+ * <p>
+ * The characters are case folded so that the same index serves case sensitive and case
+ * insensitive searches. Each file is identified by an id, the ids of the files are handed out in
+ * increasing order and never reused until the index is compacted. This keeps the posting lists
+ * of the trigrams sorted when a file is added, so they are stored as delta encoded var-ints that
+ * are only appended to. A removed file only releases its id, the posting lists are cleaned up
+ * when enough ids have been released and the index gets compacted.
+ * </p>
+ * <p>
+ * Saving writes a snapshot of the index, so searches and updates are only blocked while the
+ * snapshot is taken, not while the file is written.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public final class TrigramIndex {
+
+	private static final int MAGIC= 0x54524947; // "TRIG"
+	private static final int VERSION= 1;
+
+	/** The number of trigrams collected before they are sorted and merged */
+	private static final int TRIGRAM_BUFFER_SIZE= 1 << 16;
+	/** The minimal number of removed ids that makes a compaction worthwhile */
+	private static final int MIN_COMPACT_COUNT= 1024;
+
+	/**
+	 * Statistics about the size and freshness of a trigram index.
+	 */
+	public static final class Statistics {
+
+		private final int fFileCount;
+		private final int fTrigramCount;
+		private final long fPostingCount;
+		private final long fPostingSize;
+		private final long fIndexFileSize;
+		private final long fLastModified;
+		private final long fLastSaved;
+		private final int fPendingFileCount;
+
+		Statistics(int fileCount, int trigramCount, long postingCount, long postingSize, long indexFileSize, long lastModified, long lastSaved, int pendingFileCount) {
+			fFileCount= fileCount;
+			fTrigramCount= trigramCount;
+			fPostingCount= postingCount;
+			fPostingSize= postingSize;
+			fIndexFileSize= indexFileSize;
+			fLastModified= lastModified;
+			fLastSaved= lastSaved;
+			fPendingFileCount= pendingFileCount;
+		}
+
+		/**
+		 * @return the number of indexed files
+		 */
+		public int getFileCount() {
+			return fFileCount;
+		}
+
+		/**
+		 * @return the number of distinct trigrams in the indexed files
+		 */
+		public int getTrigramCount() {
+			return fTrigramCount;
+		}
+
+		/**
+		 * @return the number of entries in all posting lists, including entries of removed files
+		 *         which have not been compacted yet
+		 */
+		public long getPostingCount() {
+			return fPostingCount;
+		}
+
+		/**
+		 * @return the size of the encoded posting lists in bytes
+		 */
+		public long getPostingSize() {
+			return fPostingSize;
+		}
+
+		/**
+		 * @return the size of the index file in bytes when the index has last been saved or
+		 *         loaded, <code>0</code> if it has never been saved
+		 */
+		public long getIndexFileSize() {
+			return fIndexFileSize;
+		}
+
+		/**
+		 * @return the time in milliseconds when a file has last been added to or removed from
+		 *         the index, <code>0</code> if never
+		 */
+		public long getLastModified() {
+			return fLastModified;
+		}
+
+		/**
+		 * @return the time in milliseconds when the index has last been saved or loaded,
+		 *         <code>0</code> if never
+		 */
+		public long getLastSaved() {
+			return fLastSaved;
+		}
+
+		/**
+		 * @return the number of files which are known to be missing in or outdated in the index
+		 */
+		public int getPendingFileCount() {
+			return fPendingFileCount;
+		}
+
+		@Override
+		public String toString() {
+			return fFileCount + " files, " + fTrigramCount + " trigrams, " + fPostingCount + " postings in " + fPostingSize //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ " bytes, " + fIndexFileSize + " bytes on disk, " + fPendingFileCount + " files pending"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	/**
+	 * The indexed state of a file.
+	 */
+	private static final class FileEntry {
+		final int fId;
+		final long fModificationStamp;
+		final long fLocalTimeStamp;
+
+		FileEntry(int id, long modificationStamp, long localTimeStamp) {
+			fId= id;
+			fModificationStamp= modificationStamp;
+			fLocalTimeStamp= localTimeStamp;
+		}
+	}
+
+	/**
+	 * The ids of the files containing a trigram, in increasing order and encoded as the var-int
+	 * deltas to the previous id.
+	 */
+	private static final class Postings {
+		byte[] fData= new byte[4];
+		int fLength;
+		int fCount;
+		int fLastId= -1;
+
+		void add(int id) {
+			if (fLength + 5 > fData.length)
+				fData= Arrays.copyOf(fData, Math.max(fData.length * 2, fLength + 5));
+			int delta= id - fLastId;
+			while ((delta & ~0x7F) != 0) {
+				fData[fLength++]= (byte) (delta | 0x80);
+				delta>>>= 7;
+			}
+			fData[fLength++]= (byte) delta;
+			fLastId= id;
+			fCount++;
+		}
+
+		Postings copy() {
+			// the data is only appended to or replaced, so the copy can share it
+			Postings copy= new Postings();
+			copy.fData= fData;
+			copy.fLength= fLength;
+			copy.fCount= fCount;
+			copy.fLastId= fLastId;
+			return copy;
+		}
+
+		int[] decode() {
+			int[] ids= new int[fCount];
+			int id= -1;
+			int offset= 0;
+			for (int i= 0; i < fCount; i++) {
+				int delta= 0;
+				int shift= 0;
+				byte b;
+				do {
+					b= fData[offset++];
+					delta|= (b & 0x7F) << shift;
+					shift+= 7;
+				} while (b < 0);
+				id+= delta;
+				ids[i]= id;
+			}
+			return ids;
+		}
+	}
+
+	/**
+	 * The state of an index to save, see {@link TrigramIndex#save(File)}.
+	 */
+	private static final class Snapshot {
+		final String[] fPaths;
+		final FileEntry[] fEntries;
+		final int[] fTrigrams;
+		final Postings[] fPostings;
+		final long fModificationCount;
+
+		Snapshot(String[] paths, FileEntry[] entries, int[] trigrams, Postings[] postings, long modificationCount) {
+			fPaths= paths;
+			fEntries= entries;
+			fTrigrams= trigrams;
+			fPostings= postings;
+			fModificationCount= modificationCount;
+		}
+	}
+
+	private final Map<String, FileEntry> fFiles= new HashMap<>();
+	private final Map<Integer, Postings> fPostings= new HashMap<>();
+	/** The paths of the files by id, <code>null</code> for removed files */
+	private String[] fPaths= new String[64];
+	private int fNextId;
+	private int fRemovedCount;
+	private long fLastModified;
+	private long fLastSaved;
+	private long fIndexFileSize;
+	private boolean fIsChanged;
+	/** The number of changes, used to tell whether a saved snapshot is still current */
+	private long fModificationCount;
+	/** Serializes {@link #save(File)}, which does not hold the lock of the index while writing */
+	private final Object fSaveLock= new Object();
+
+	/**
+	 * Returns whether the given file is indexed with the given time stamps.
+	 *
+	 * @param path the full path of the file
+	 * @param modificationStamp the modification stamp of the file
+	 * @param localTimeStamp the local time stamp of the file
+	 * @return <code>true</code> if the index is up to date for the file
+	 */
+	public synchronized boolean isUpToDate(String path, long modificationStamp, long localTimeStamp) {
+		FileEntry entry= fFiles.get(path);
+		return entry != null && entry.fModificationStamp == modificationStamp && entry.fLocalTimeStamp == localTimeStamp;
+	}
+
+	/**
+	 * Adds a file to the index, replacing a previously indexed state of the file.
+	 *
+	 * @param path the full path of the file
+	 * @param modificationStamp the modification stamp of the indexed content
+	 * @param localTimeStamp the local time stamp of the indexed content
+	 * @param trigrams the sorted and distinct trigrams of the content as computed by
+	 *            {@link #getTrigrams(CharSequence)}
+	 */
+	public synchronized void put(String path, long modificationStamp, long localTimeStamp, int[] trigrams) {
+		removeEntry(path);
+		int id= fNextId++;
+		if (id == fPaths.length)
+			fPaths= Arrays.copyOf(fPaths, fPaths.length * 2);
+		fPaths[id]= path;
+		fFiles.put(path, new FileEntry(id, modificationStamp, localTimeStamp));
+		for (int trigram : trigrams)
+			fPostings.computeIfAbsent(Integer.valueOf(trigram), t -> new Postings()).add(id);
+		changed();
+	}
+
+	/**
+	 * Removes a file from the index.
+	 *
+	 * @param path the full path of the file
+	 */
+	public synchronized void remove(String path) {
+		if (removeEntry(path))
+			changed();
+	}
+
+	/**
+	 * Removes all files from the index except the given ones.
+	 *
+	 * @param paths the full paths of the files to keep
+	 */
+	public synchronized void retainAll(Set<String> paths) {
+		boolean isChanged= false;
+		for (Iterator<Map.Entry<String, FileEntry>> iter= fFiles.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<String, FileEntry> entry= iter.next();
+			if (!paths.contains(entry.getKey())) {
+				iter.remove();
+				fPaths[entry.getValue().fId]= null;
+				fRemovedCount++;
+				isChanged= true;
+			}
+		}
+		if (isChanged)
+			changed();
+	}
+
+	private boolean removeEntry(String path) {
+		FileEntry entry= fFiles.remove(path);
+		if (entry == null)
+			return false;
+		fPaths[entry.fId]= null;
+		fRemovedCount++;
+		return true;
+	}
+
+	private void changed() {
+		fIsChanged= true;
+		fModificationCount++;
+		fLastModified= System.currentTimeMillis();
+		if (fRemovedCount >= MIN_COMPACT_COUNT && fRemovedCount > fFiles.size())
+			compact();
+	}
+
+	/**
+	 * Returns the paths of the indexed files which contain all given trigrams.
+	 *
+	 * @param trigrams the trigrams
+	 * @return the full paths of the files containing all trigrams
+	 */
+	public synchronized Set<String> getCandidates(int[] trigrams) {
+		Postings[] postings= new Postings[trigrams.length];
+		for (int i= 0; i < trigrams.length; i++) {
+			postings[i]= fPostings.get(Integer.valueOf(trigrams[i]));
+			if (postings[i] == null)
+				return new HashSet<>();
+		}
+		// intersect the shortest lists first to keep the intermediate results small
+		Arrays.sort(postings, Comparator.comparingInt(p -> p.fCount));
+
+		int[] ids= postings.length > 0 ? postings[0].decode() : allIds();
+		int count= ids.length;
+		for (int i= 1; i < postings.length && count > 0; i++)
+			count= retain(ids, count, postings[i].decode());
+
+		Set<String> result= new HashSet<>();
+		for (int i= 0; i < count; i++) {
+			String path= fPaths[ids[i]];
+			if (path != null)
+				result.add(path);
+		}
+		return result;
+	}
+
+	private int[] allIds() {
+		int[] ids= new int[fNextId];
+		for (int i= 0; i < ids.length; i++)
+			ids[i]= i;
+		return ids;
+	}
+
+	/**
+	 * Keeps the ids which are also contained in the other ids.
+	 *
+	 * @param ids the sorted ids, the retained ones are moved to the front
+	 * @param count the number of ids
+	 * @param others the other sorted ids
+	 * @return the number of retained ids
+	 */
+	private static int retain(int[] ids, int count, int[] others) {
+		int retained= 0;
+		int j= 0;
+		for (int i= 0; i < count && j < others.length; i++) {
+			while (j < others.length && others[j] < ids[i])
+				j++;
+			if (j < others.length && others[j] == ids[i])
+				ids[retained++]= ids[i];
+		}
+		return retained;
+	}
+
+	/**
+	 * Drops the removed files from the posting lists and renumbers the files densely.
+	 */
+	private void compact() {
+		int[] newIds= new int[fNextId];
+		String[] paths= new String[Math.max(64, fFiles.size())];
+		int count= 0;
+		for (int id= 0; id < fNextId; id++) {
+			if (fPaths[id] != null) {
+				paths[count]= fPaths[id];
+				newIds[id]= count++;
+			} else {
+				newIds[id]= -1;
+			}
+		}
+
+		for (Iterator<Postings> iter= fPostings.values().iterator(); iter.hasNext();) {
+			Postings postings= iter.next();
+			Postings compacted= new Postings();
+			for (int id : postings.decode()) {
+				if (newIds[id] != -1)
+					compacted.add(newIds[id]);
+			}
+			if (compacted.fCount == 0) {
+				iter.remove();
+			} else {
+				postings.fData= compacted.fData;
+				postings.fLength= compacted.fLength;
+				postings.fCount= compacted.fCount;
+				postings.fLastId= compacted.fLastId;
+			}
+		}
+
+		for (Map.Entry<String, FileEntry> entry : fFiles.entrySet()) {
+			FileEntry file= entry.getValue();
+			entry.setValue(new FileEntry(newIds[file.fId], file.fModificationStamp, file.fLocalTimeStamp));
+		}
+		fPaths= paths;
+		fNextId= count;
+		fRemovedCount= 0;
+	}
+
+	/**
+	 * Returns the paths of all indexed files.
+	 *
+	 * @return the full paths of the indexed files
+	 */
+	public synchronized Set<String> getFiles() {
+		return new HashSet<>(fFiles.keySet());
+	}
+
+	/**
+	 * Returns whether the index has been changed since it has last been saved or loaded.
+	 *
+	 * @return <code>true</code> if the index has unsaved changes
+	 */
+	public synchronized boolean isChanged() {
+		return fIsChanged;
+	}
+
+	/**
+	 * Returns statistics about the size and freshness of this index.
+	 *
+	 * @param pendingFileCount the number of files waiting to be indexed
+	 * @return the statistics
+	 */
+	public synchronized Statistics getStatistics(int pendingFileCount) {
+		long postingCount= 0;
+		long postingSize= 0;
+		for (Postings postings : fPostings.values()) {
+			postingCount+= postings.fCount;
+			postingSize+= postings.fLength;
+		}
+		return new Statistics(fFiles.size(), fPostings.size(), postingCount, postingSize, fIndexFileSize, fLastModified, fLastSaved, pendingFileCount);
+	}
+
+	/**
+	 * Writes this index to the given file. The index is first written to a temporary file which
+	 * then replaces the given file, so that the file is not corrupted if saving fails. Only
+	 * taking a snapshot of the index blocks other threads, the file is written without holding
+	 * the lock of the index. Ids of removed files which have not been compacted yet are written
+	 * as empty paths.
+	 *
+	 * @param file the file to write to
+	 * @throws IOException if writing fails
+	 */
+	public void save(File file) throws IOException {
+		synchronized (fSaveLock) {
+			Snapshot snapshot= snapshot();
+			File tmp= new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+			try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(snapshot.fPaths.length);
+				for (int id= 0; id < snapshot.fPaths.length; id++) {
+					FileEntry entry= snapshot.fEntries[id];
+					out.writeUTF(entry != null ? snapshot.fPaths[id] : ""); //$NON-NLS-1$
+					out.writeLong(entry != null ? entry.fModificationStamp : 0);
+					out.writeLong(entry != null ? entry.fLocalTimeStamp : 0);
+				}
+				out.writeInt(snapshot.fTrigrams.length);
+				for (int i= 0; i < snapshot.fTrigrams.length; i++) {
+					Postings postings= snapshot.fPostings[i];
+					out.writeInt(snapshot.fTrigrams[i]);
+					out.writeInt(postings.fCount);
+					out.writeInt(postings.fLastId);
+					out.writeInt(postings.fLength);
+					out.write(postings.fData, 0, postings.fLength);
+				}
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			long size= file.length();
+			synchronized (this) {
+				fIndexFileSize= size;
+				fLastSaved= System.currentTimeMillis();
+				if (fModificationCount == snapshot.fModificationCount)
+					fIsChanged= false;
+			}
+		}
+	}
+
+	private synchronized Snapshot snapshot() {
+		String[] paths= Arrays.copyOf(fPaths, fNextId);
+		FileEntry[] entries= new FileEntry[fNextId];
+		for (int id= 0; id < fNextId; id++) {
+			if (paths[id] != null)
+				entries[id]= fFiles.get(paths[id]);
+		}
+		int[] trigrams= new int[fPostings.size()];
+		Postings[] postings= new Postings[trigrams.length];
+		int i= 0;
+		for (Map.Entry<Integer, Postings> entry : fPostings.entrySet()) {
+			trigrams[i]= entry.getKey().intValue();
+			postings[i]= entry.getValue().copy();
+			i++;
+		}
+		return new Snapshot(paths, entries, trigrams, postings, fModificationCount);
+	}
+
+	/**
+	 * Reads an index from the given file.
+	 *
+	 * @param file the file written by {@link #save(File)}
+	 * @return the index
+	 * @throws IOException if reading fails or the file has not been written by this version
+	 */
+	public static TrigramIndex load(File file) throws IOException {
+		TrigramIndex index= new TrigramIndex();
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION)
+				throw new IOException("Unsupported trigram index format: " + file); //$NON-NLS-1$
+			int fileCount= in.readInt();
+			index.fPaths= new String[Math.max(64, fileCount)];
+			for (int id= 0; id < fileCount; id++) {
+				String path= in.readUTF();
+				long modificationStamp= in.readLong();
+				long localTimeStamp= in.readLong();
+				if (path.isEmpty()) {
+					// the id of a removed file
+					index.fRemovedCount++;
+					continue;
+				}
+				index.fPaths[id]= path;
+				index.fFiles.put(path, new FileEntry(id, modificationStamp, localTimeStamp));
+			}
+			index.fNextId= fileCount;
+			int trigramCount= in.readInt();
+			for (int i= 0; i < trigramCount; i++) {
+				Postings postings= new Postings();
+				int trigram= in.readInt();
+				postings.fCount= in.readInt();
+				postings.fLastId= in.readInt();
+				postings.fLength= in.readInt();
+				if (postings.fCount < 0 || postings.fLastId >= fileCount || postings.fLength < postings.fCount)
+					throw new IOException("Corrupt trigram index: " + file); //$NON-NLS-1$
+				postings.fData= new byte[postings.fLength];
+				in.readFully(postings.fData);
+				index.fPostings.put(Integer.valueOf(trigram), postings);
+			}
+		}
+		index.fIndexFileSize= file.length();
+		index.fLastSaved= System.currentTimeMillis();
+		return index;
+	}
+
+	/**
+	 * Returns the trigrams of the given text.
+	 *
+	 * @param text the text
+	 * @return the sorted and distinct trigrams of the text
+	 */
+	public static int[] getTrigrams(CharSequence text) {
+		int length= text.length();
+		if (length < 3)
+			return new int[0];
+
+		int[] result= new int[0];
+		int[] buffer= new int[Math.min(TRIGRAM_BUFFER_SIZE, length - 2)];
+		int count= 0;
+		char c1= fold(text.charAt(0));
+		char c2= fold(text.charAt(1));
+		for (int i= 2; i < length; i++) {
+			char c3= fold(text.charAt(i));
+			if (count == buffer.length) {
+				result= merge(result, buffer, count);
+				count= 0;
+			}
+			buffer[count++]= trigram(c1, c2, c3);
+			c1= c2;
+			c2= c3;
+		}
+		return merge(result, buffer, count);
+	}
+
+	/**
+	 * Merges the given trigrams into the given sorted and distinct trigrams.
+	 *
+	 * @param sorted the sorted and distinct trigrams
+	 * @param trigrams the trigrams to add, will be sorted
+	 * @param count the number of trigrams to add
+	 * @return the sorted and distinct union
+	 */
+	private static int[] merge(int[] sorted, int[] trigrams, int count) {
+		Arrays.sort(trigrams, 0, count);
+		int[] result= new int[sorted.length + count];
+		int length= 0;
+		int i= 0;
+		int j= 0;
+		while (i < sorted.length || j < count) {
+			int next;
+			if (j == count || i < sorted.length && sorted[i] <= trigrams[j])
+				next= sorted[i++];
+			else
+				next= trigrams[j++];
+			if (length == 0 || result[length - 1] != next)
+				result[length++]= next;
+		}
+		return length == result.length ? result : Arrays.copyOf(result, length);
+	}
+
+	/**
+	 * Folds the case of the given character in the same way as a case insensitive
+	 * {@link Pattern} with {@link Pattern#UNICODE_CASE} compares characters.
+	 *
+	 * @param c the character
+	 * @return the folded character
+	 */
+	private static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	/**
+	 * Returns the key of a trigram of folded characters. The key is unique for ASCII characters,
+	 * other trigrams may collide which only adds candidates.
+	 *
+	 * @param c1 the first character
+	 * @param c2 the second character
+	 * @param c3 the third character
+	 * @return the trigram key
+	 */
+	private static int trigram(char c1, char c2, char c3) {
+		return c1 << 14 ^ c2 << 7 ^ c3;
+	}
+
+	/**
+	 * Returns the trigrams every match of the given pattern contains. The pattern is analyzed
+	 * conservatively: only literal parts of the pattern outside of groups and character classes
+	 * that are not made optional by a quantifier are considered. Patterns with alternatives at
+	 * the top level, comments or canonical equivalence are not analyzed.
+	 *
+	 * @param pattern the pattern
+	 * @return the sorted and distinct trigrams or <code>null</code> if no trigrams are known to
+	 *         be contained in each match
+	 */
+	public static int[] getRequiredTrigrams(Pattern pattern) {
+		List<String> literals= getRequiredLiterals(pattern);
+		if (literals == null)
+			return null;
+		int[] result= new int[0];
+		for (String literal : literals) {
+			int[] trigrams= getTrigrams(literal);
+			result= merge(result, trigrams, trigrams.length);
+		}
+		return result.length > 0 ? result : null;
+	}
+
+	/**
+	 * Returns literal strings every match of the given pattern contains.
+	 *
+	 * @param pattern the pattern
+	 * @return the literals which are at least three characters long or <code>null</code> if
+	 *         the pattern cannot be analyzed
+	 */
+	static List<String> getRequiredLiterals(Pattern pattern) {
+		int flags= pattern.flags();
+		String regex= pattern.pattern();
+		if ((flags & Pattern.LITERAL) != 0)
+			return regex.length() >= 3 ? List.of(regex) : List.of();
+		if ((flags & (Pattern.COMMENTS | Pattern.CANON_EQ)) != 0)
+			return null;
+
+		List<String> literals= new ArrayList<>();
+		StringBuilder run= new StringBuilder();
+		int length= regex.length();
+		int i= 0;
+		while (i < length) {
+			char c= regex.charAt(i);
+			switch (c) {
+				case '\\':
+					if (i + 1 == length)
+						return null;
+					char escaped= regex.charAt(i + 1);
+					if (escaped == 'Q') {
+						int end= regex.indexOf("\\E", i + 2); //$NON-NLS-1$
+						if (end == -1)
+							end= length;
+						run.append(regex, i + 2, end);
+						i= Math.min(end + 2, length);
+					} else if (Character.isLetterOrDigit(escaped)) {
+						// character classes, boundaries, back references and escaped characters
+						addLiteral(run, literals);
+						i= skipEscape(regex, i);
+						if (i == -1)
+							return null;
+					} else {
+						run.append(escaped);
+						i+= 2;
+					}
+					break;
+				case '[':
+					addLiteral(run, literals);
+					i= skipCharacterClass(regex, i);
+					if (i == -1)
+						return null;
+					break;
+				case '(':
+					if (regex.startsWith("(?", i) && hasCommentsFlag(regex, i + 2)) //$NON-NLS-1$
+						return null;
+					addLiteral(run, literals);
+					i= skipGroup(regex, i);
+					if (i == -1)
+						return null;
+					break;
+				case '|':
+					return null;
+				case '*':
+				case '?':
+				case '{':
+					// the quantified character may not be contained in the match
+					if (run.length() > 0)
+						run.setLength(run.length() - 1);
+					addLiteral(run, literals);
+					if (c == '{') {
+						i= regex.indexOf('}', i);
+						if (i == -1)
+							return null;
+					}
+					i= skipQuantifierMode(regex, i + 1);
+					break;
+				case '+':
+					addLiteral(run, literals);
+					i= skipQuantifierMode(regex, i + 1);
+					break;
+				case '.':
+				case '^':
+				case '$':
+					addLiteral(run, literals);
+					i++;
+					break;
+				default:
+					run.append(c);
+					i++;
+					break;
+			}
+		}
+		addLiteral(run, literals);
+		return literals;
+	}
+
+	private static void addLiteral(StringBuilder run, Collection<String> literals) {
+		if (run.length() >= 3)
+			literals.add(run.toString());
+		run.setLength(0);
+	}
+
+	private static boolean hasCommentsFlag(String regex, int start) {
+		for (int i= start; i < regex.length(); i++) {
+			char c= regex.charAt(i);
+			if (c == 'x')
+				return true;
+			if (c == ':' || c == ')' || !Character.isLetter(c) && c != '-')
+				return false;
+		}
+		return false;
+	}
+
+	/**
+	 * Skips an escape sequence starting with a backslash followed by a letter or digit.
+	 *
+	 * @param regex the regular expression
+	 * @param start the offset of the backslash
+	 * @return the offset after the escape sequence or <code>-1</code> if it is incomplete
+	 */
+	private static int skipEscape(String regex, int start) {
+		int i= start + 2;
+		int length= regex.length();
+		switch (regex.charAt(start + 1)) {
+			case 'x':
+				if (i < length && regex.charAt(i) == '{')
+					return skipTo(regex, i, '}');
+				return Math.min(i + 2, length);
+			case 'u':
+				return Math.min(i + 4, length);
+			case 'c':
+				return Math.min(i + 1, length);
+			case 'p':
+			case 'P':
+			case 'N':
+				if (i < length && regex.charAt(i) == '{')
+					return skipTo(regex, i, '}');
+				return Math.min(i + 1, length);
+			case 'k':
+				return skipTo(regex, i, '>');
+			default:
+				// octal escapes and back references
+				while (i < length && Character.isDigit(regex.charAt(i)))
+					i++;
+				return i;
+		}
+	}
+
+	private static int skipTo(String regex, int start, char c) {
+		int end= regex.indexOf(c, start);
+		return end == -1 ? -1 : end + 1;
+	}
+
+	/**
+	 * Skips the lazy or possessive mode of a quantifier.
+	 *
+	 * @param regex the regular expression
+	 * @param start the offset after the quantifier
+	 * @return the offset after the mode
+	 */
+	private static int skipQuantifierMode(String regex, int start) {
+		if (start < regex.length() && (regex.charAt(start) == '?' || regex.charAt(start) == '+'))
+			return start + 1;
+		return start;
+	}
+
+	/**
+	 * Skips a character class.
+	 *
+	 * @param regex the regular expression
+	 * @param start the offset of the opening bracket
+	 * @return the offset after the closing bracket or <code>-1</code> if it is not closed
+	 */
+	private static int skipCharacterClass(String regex, int start) {
+		int length= regex.length();
+		int i= start + 1;
+		if (i < length && regex.charAt(i) == '^')
+			i++;
+		if (i < length && regex.charAt(i) == ']')
+			i++;
+		int depth= 1;
+		while (i < length) {
+			char c= regex.charAt(i);
+			if (c == '\\') {
+				if (regex.startsWith("\\Q", i)) { //$NON-NLS-1$
+					i= regex.indexOf("\\E", i + 2); //$NON-NLS-1$
+					if (i == -1)
+						return -1;
+				}
+				i+= 2;
+			} else {
+				if (c == '[') {
+					depth++;
+				} else if (c == ']' && --depth == 0) {
+					return i + 1;
+				}
+				i++;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Skips a group.
+	 *
+	 * @param regex the regular expression
+	 * @param start the offset of the opening parenthesis
+	 * @return the offset after the closing parenthesis or <code>-1</code> if it is not closed
+	 */
+	private static int skipGroup(String regex, int start) {
+		int length= regex.length();
+		int depth= 0;
+		int i= start;
+		while (i < length) {
+			char c= regex.charAt(i);
+			if (c == '\\') {
+				if (regex.startsWith("\\Q", i)) { //$NON-NLS-1$
+					i= regex.indexOf("\\E", i + 2); //$NON-NLS-1$
+					if (i == -1)
+						return -1;
+				}
+				i+= 2;
+			} else if (c == '[') {
+				i= skipCharacterClass(regex, i);
+				if (i == -1)
+					return -1;
+			} else {
+				if (c == '(') {
+					depth++;
+				} else if (c == ')' && --depth == 0) {
+					return i + 1;
+				}
+				i++;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.core.text;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceProxy;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.filebuffers.LocationKind;
+
+import org.eclipse.jface.text.IDocument;
+
+import org.eclipse.search.internal.core.SearchCoreMessages;
+import org.eclipse.search.internal.core.SearchCorePlugin;
+
+/**
+ * Keeps a {@link TrigramIndex} of the files in the workspace up to date and stores it in the
+ * state location of the plug-in.
+ * <p>
+ * The index is loaded when the manager is started. The files which have been changed since the
+ * index has been saved are found by comparing the time stamps of all files in the workspace,
+ * afterwards the index is updated from the resource deltas. The files are read in a background
+ * job, a search does not wait for it: files which are not indexed yet are always searched.
+ * </p>
+ * <p>
+ * Changes are saved by another job at most once per {@link #SAVE_DELAY} and when the manager is
+ * shut down.
+ * </p>
+ */
+public class TrigramIndexManager implements IResourceChangeListener {
+
+	/** Files larger than this are not indexed but always searched */
+	private static final long MAX_FILE_SIZE= 32 * 1024 * 1024;
+
+	/** The time in milliseconds changes are collected before the index is saved */
+	private static final long SAVE_DELAY= 60 * 1000;
+
+	private final File fIndexFile;
+	private TrigramIndex fIndex;
+	private final Job fJob;
+	private final Job fSaveJob;
+	private final FileCharSequenceProvider fFileCharSequenceProvider= new FileCharSequenceProvider();
+
+	/** The files to (re-)index, guarded by fLock */
+	private final Set<IFile> fPendingFiles= new LinkedHashSet<>();
+	/** The containers whose files have to be re-indexed, guarded by fLock */
+	private final Set<IContainer> fPendingContainers= new LinkedHashSet<>();
+	/** Whether the workspace has to be compared with the index, guarded by fLock */
+	private boolean fIsCheckNeeded= true;
+	private final Object fLock= new Object();
+
+	/**
+	 * Creates a new manager.
+	 *
+	 * @param indexFile the file to store the index in
+	 */
+	public TrigramIndexManager(File indexFile) {
+		fIndexFile= indexFile;
+		fJob= new Job(SearchCoreMessages.TrigramIndexManager_job_name) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				return update(monitor);
+			}
+		};
+		fJob.setSystem(true);
+		fJob.setPriority(Job.DECORATE);
+		fSaveJob= new Job(SearchCoreMessages.TrigramIndexManager_save_job_name) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				save();
+				return Status.OK_STATUS;
+			}
+		};
+		fSaveJob.setSystem(true);
+		fSaveJob.setPriority(Job.DECORATE);
+	}
+
+	/**
+	 * Loads the index and starts to keep it up to date.
+	 */
+	public void startup() {
+		try {
+			fIndex= TrigramIndex.load(fIndexFile);
+		} catch (NoSuchFileException e) {
+			fIndex= new TrigramIndex();
+		} catch (IOException e) {
+			// unknown format or corrupt, start over
+			SearchCorePlugin.log(e);
+			fIndex= new TrigramIndex();
+		}
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+		fJob.schedule();
+	}
+
+	/**
+	 * Stops updating the index and saves it.
+	 */
+	public void shutdown() {
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+		fJob.cancel();
+		fSaveJob.cancel();
+		try {
+			fJob.join();
+			fSaveJob.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		save();
+	}
+
+	private void save() {
+		if (!fIndex.isChanged())
+			return;
+		try {
+			fIndex.save(fIndexFile);
+		} catch (IOException e) {
+			SearchCorePlugin.log(e);
+		}
+	}
+
+	/**
+	 * Returns statistics about the size and freshness of the index.
+	 *
+	 * @return the statistics
+	 */
+	public TrigramIndex.Statistics getStatistics() {
+		int pendingCount;
+		synchronized (fLock) {
+			pendingCount= fPendingFiles.size();
+		}
+		return fIndex.getStatistics(pendingCount);
+	}
+
+	/**
+	 * Returns the files which can contain matches of the given pattern. These are the files
+	 * which contain the trigrams required by the pattern, the files which have not been indexed
+	 * with their current content and the files with unsaved changes.
+	 *
+	 * @param files the files to search
+	 * @param pattern the pattern to search
+	 * @param dirtyDiscovery the provider of the files with unsaved changes in editors or
+	 *            <code>null</code>
+	 * @return the files to search
+	 */
+	public IFile[] getCandidates(IFile[] files, Pattern pattern, DirtyFileProvider dirtyDiscovery) {
+		int[] trigrams= pattern.pattern().isEmpty() ? null : TrigramIndex.getRequiredTrigrams(pattern);
+		if (trigrams == null)
+			return files;
+
+		long startTime= TextSearchVisitor.TRACING ? System.currentTimeMillis() : 0;
+		Map<IFile, IDocument> dirtyFiles= dirtyDiscovery != null ? dirtyDiscovery.dirtyFiles() : null;
+		if (dirtyFiles == null)
+			dirtyFiles= Collections.emptyMap();
+		Set<String> candidates= fIndex.getCandidates(trigrams);
+		List<IFile> result= new ArrayList<>();
+		List<IFile> outdated= new ArrayList<>();
+		for (IFile file : files) {
+			String path= file.getFullPath().toString();
+			if (!fIndex.isUpToDate(path, file.getModificationStamp(), file.getLocalTimeStamp())) {
+				outdated.add(file);
+				result.add(file);
+			} else if (candidates.contains(path) || dirtyFiles.containsKey(file) || isDirty(file)) {
+				result.add(file);
+			}
+		}
+		if (!outdated.isEmpty())
+			schedule(outdated, null);
+
+		if (TextSearchVisitor.TRACING) {
+			Object[] args= { Integer.valueOf(result.size()), Integer.valueOf(files.length), Integer.valueOf(outdated.size()), Long.valueOf(System.currentTimeMillis() - startTime), getStatistics() };
+			System.out.println(MessageFormat.format(
+					"[TrigramIndex] {0} of {1} files are candidates, {2} not indexed: {3}ms ({4})", args)); //$NON-NLS-1$
+		}
+		return result.toArray(new IFile[result.size()]);
+	}
+
+	private static boolean isDirty(IFile file) {
+		ITextFileBuffer buffer= FileBuffers.getTextFileBufferManager().getTextFileBuffer(file.getFullPath(), LocationKind.IFILE);
+		return buffer != null && buffer.isDirty();
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta= event.getDelta();
+		if (delta == null)
+			return;
+
+		List<IFile> files= new ArrayList<>();
+		List<IContainer> containers= new ArrayList<>();
+		boolean[] isCheckNeeded= { false };
+		try {
+			delta.accept(child -> {
+				IResource resource= child.getResource();
+				int flags= child.getFlags();
+				switch (resource.getType()) {
+					case IResource.FILE:
+						if (child.getKind() != IResourceDelta.CHANGED || (flags & (IResourceDelta.CONTENT | IResourceDelta.REPLACED | IResourceDelta.ENCODING | IResourceDelta.LOCAL_CHANGED)) != 0)
+							files.add((IFile) resource);
+						return false;
+					case IResource.PROJECT:
+						if ((flags & IResourceDelta.OPEN) != 0) {
+							// opening and closing does not report the files
+							isCheckNeeded[0]= true;
+							return false;
+						}
+						//$FALL-THROUGH$
+					default:
+						if ((flags & IResourceDelta.ENCODING) != 0 && child.getKind() == IResourceDelta.CHANGED)
+							containers.add((IContainer) resource);
+						return true;
+				}
+			});
+		} catch (CoreException e) {
+			SearchCorePlugin.log(e);
+			isCheckNeeded[0]= true;
+		}
+		if (isCheckNeeded[0]) {
+			synchronized (fLock) {
+				fIsCheckNeeded= true;
+			}
+		}
+		if (!files.isEmpty() || !containers.isEmpty() || isCheckNeeded[0])
+			schedule(files, containers);
+	}
+
+	private void schedule(List<IFile> files, List<IContainer> containers) {
+		synchronized (fLock) {
+			fPendingFiles.addAll(files);
+			if (containers != null)
+				fPendingContainers.addAll(containers);
+		}
+		fJob.schedule();
+	}
+
+	private IStatus update(IProgressMonitor monitor) {
+		try {
+			checkWorkspace(monitor);
+			while (!monitor.isCanceled()) {
+				IResource next;
+				synchronized (fLock) {
+					Iterator<IContainer> containers= fPendingContainers.iterator();
+					Iterator<IFile> files= fPendingFiles.iterator();
+					if (containers.hasNext()) {
+						next= containers.next();
+						containers.remove();
+					} else if (files.hasNext()) {
+						next= files.next();
+						files.remove();
+					} else {
+						break;
+					}
+				}
+				if (next instanceof IFile file) {
+					index(file);
+				} else if (next.isAccessible()) {
+					List<IFile> files= new ArrayList<>();
+					next.accept(proxy -> {
+						if (proxy.getType() == IResource.FILE)
+							files.add((IFile) proxy.requestResource());
+						return true;
+					}, IResource.NONE);
+					schedule(files, null);
+				}
+			}
+		} catch (CoreException e) {
+			SearchCorePlugin.log(e);
+		}
+		if (fIndex.isChanged() && fSaveJob.getState() == Job.NONE)
+			fSaveJob.schedule(SAVE_DELAY);
+		if (TextSearchVisitor.TRACING)
+			System.out.println("[TrigramIndex] Updated: " + getStatistics()); //$NON-NLS-1$
+		return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+	}
+
+	/**
+	 * Compares the time stamps of the files in the workspace with the index if needed. Outdated
+	 * files are scheduled for indexing and removed files are dropped.
+	 *
+	 * @param monitor the progress monitor
+	 * @throws CoreException if the workspace cannot be visited
+	 */
+	private void checkWorkspace(IProgressMonitor monitor) throws CoreException {
+		synchronized (fLock) {
+			if (!fIsCheckNeeded)
+				return;
+			fIsCheckNeeded= false;
+		}
+		Set<String> paths= new HashSet<>();
+		List<IFile> outdated= new ArrayList<>();
+		ResourcesPlugin.getWorkspace().getRoot().accept((IResourceProxy proxy) -> {
+			if (monitor.isCanceled())
+				return false;
+			if (proxy.getType() == IResource.FILE) {
+				IFile file= (IFile) proxy.requestResource();
+				String path= file.getFullPath().toString();
+				paths.add(path);
+				if (!fIndex.isUpToDate(path, proxy.getModificationStamp(), file.getLocalTimeStamp()))
+					outdated.add(file);
+			}
+			return true;
+		}, IResource.NONE);
+		if (monitor.isCanceled()) {
+			synchronized (fLock) {
+				fIsCheckNeeded= true;
+			}
+			return;
+		}
+		fIndex.retainAll(paths);
+		synchronized (fLock) {
+			fPendingFiles.addAll(outdated);
+		}
+	}
+
+	private void index(IFile file) {
+		String path= file.getFullPath().toString();
+		if (!file.isAccessible()) {
+			fIndex.remove(path);
+			return;
+		}
+		long modificationStamp= file.getModificationStamp();
+		long localTimeStamp= file.getLocalTimeStamp();
+		CharSequence content= null;
+		try {
+			IFileInfo info= EFS.getStore(file.getLocationURI()).fetchInfo();
+			if (info.getLength() > MAX_FILE_SIZE) {
+				fIndex.remove(path);
+				return;
+			}
+			content= fFileCharSequenceProvider.newCharSequence(file);
+			fIndex.put(path, modificationStamp, localTimeStamp, TrigramIndex.getTrigrams(content));
+		} catch (CoreException | IOException | RuntimeException e) {
+			// out of sync, unreadable or undecodable files are searched without using the index
+			fIndex.remove(path);
+		} finally {
+			if (content != null) {
+				try {
+					fFileCharSequenceProvider.releaseCharSequence(content);
+				} catch (IOException e) {
+					SearchCorePlugin.log(e);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.core.text;
+
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.search.core.text.TextSearchEngine;
+import org.eclipse.search.core.text.TextSearchRequestor;
+import org.eclipse.search.core.text.TextSearchScope;
+import org.eclipse.search.internal.core.SearchCoreMessages;
+import org.eclipse.search.internal.core.SearchCorePlugin;
+
+/**
+ * A text search engine which only reads the files that contain the trigrams of the search
+ * pattern according to a {@link TrigramIndex} of the workspace. The matches are found in the
+ * same way as by the default text search engine.
+ * <p>
+ * The engine is contributed to the <code>org.eclipse.search.textSearchEngine</code> extension
+ * point and used when it is selected as the preferred engine. The index is only built once the
+ * engine has been used for a search.
+ * </p>
+ */
+public class TrigramTextSearchEngine extends TextSearchEngine {
+
+	@Override
+	public IStatus search(TextSearchScope scope, TextSearchRequestor requestor, Pattern searchPattern, IProgressMonitor monitor) {
+		MultiStatus status= new MultiStatus(SearchCorePlugin.PLUGIN_ID, IStatus.OK, SearchCoreMessages.TextSearchEngine_statusMessage, null);
+		IFile[] files= scope.evaluateFilesInScope(status);
+		status.merge(search(files, requestor, searchPattern, monitor));
+		return status;
+	}
+
+	@Override
+	public IStatus search(IFile[] scope, TextSearchRequestor requestor, Pattern searchPattern, IProgressMonitor monitor) {
+		SearchCorePlugin plugin= SearchCorePlugin.getDefault();
+		DirtyFileProvider discovery= plugin.getDirtyFileDiscovery();
+		IFile[] candidates= plugin.getTrigramIndexManager().getCandidates(scope, searchPattern, discovery);
+		return new TextSearchVisitor(requestor, searchPattern, discovery).search(candidates, monitor);
+	}
+}
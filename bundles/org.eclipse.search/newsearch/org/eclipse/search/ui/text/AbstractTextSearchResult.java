@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -35,6 +36,10 @@ import org.eclipse.search.ui.SearchResultEvent;
  * An abstract base implementation for text-match based search results. This search
  * result implementation consists of a list of {@link org.eclipse.search.ui.text.Match matches}.
  * No assumptions are made about the kind of elements these matches are reported against.
+ * <p>
+ * Matches can also be added in a compact form with {@link #addMatches(Object, int[], int[], int)},
+ * in which case the <code>Match</code> objects are only created when they are requested.
+ * </p>
  *
  * @since 3.0
  */
@@ -46,6 +51,10 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 	private final List<ISearchResultListener> fListeners;
 	private final MatchEvent fMatchEvent;
 	private final AtomicInteger matchCount;
+	private final ConcurrentMap<Object, MatchColumns> fElementsToColumns;
+	private final AtomicInteger fLimitedMatchCount;
+	private volatile int fMatchLimit;
+	private volatile boolean fMatchLimitReached;
 
 	private MatchFilter[] fMatchFilters;
 
@@ -57,6 +66,9 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 		fListeners= new ArrayList<>();
 		fMatchEvent= new MatchEvent(this);
 		matchCount = new AtomicInteger(0);
+		fElementsToColumns= new ConcurrentHashMap<>();
+		fLimitedMatchCount= new AtomicInteger(0);
+		fMatchLimit= Integer.MAX_VALUE;
 		fMatchFilters= null; // filtering disabled by default
 	}
 
@@ -79,6 +91,7 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 		if (element == null) {
 			return EMPTY_ARRAY;
 		}
+		createCompactMatches(element);
 		Set<Match> matches = fElementsToMatches.get(element);
 		if (matches != null) {
 			Match[] sortingCopy = matches.toArray(new Match[matches.size()]);
@@ -104,6 +117,7 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 		if (element == null) {
 			return Collections.emptyEnumeration();
 		}
+		createCompactMatches(element);
 		Set<Match> matches = fElementsToMatches.get(element);
 		if (matches != null) {
 			return Collections.enumeration(matches);
@@ -144,6 +158,133 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 			fireChange(getSearchResultEvent(reallyAdded, MatchEvent.ADDED));
 	}
 
+	/**
+	 * Adds matches reported against the given element which are given by their offsets and
+	 * lengths. Unlike {@link #addMatches(Match[])} this method does not create a
+	 * <code>Match</code> for each match: the offsets and lengths are kept in a compact form until
+	 * the matches of the element are requested, for example with {@link #getMatches(Object)},
+	 * and the matches are only then created with {@link #createMatch(Object, int, int)}. A single
+	 * {@link CompactMatchEvent} is sent for the added matches.
+	 * <p>
+	 * Matches exceeding the {@link #setMatchLimit(int) match limit} are not added, and
+	 * {@link #isMatchLimitReached()} returns <code>true</code> afterwards.
+	 * </p>
+	 *
+	 * @param element the element the matches are reported against
+	 * @param offsets the offsets of the matches, in characters
+	 * @param lengths the lengths of the matches, in characters
+	 * @param count the number of matches to add from the start of the arrays
+	 * @return the number of matches added, less than <code>count</code> if the match limit has
+	 *         been reached
+	 * @since 3.18
+	 */
+	public int addMatches(Object element, int[] offsets, int[] lengths, int count) {
+		int added= reserveCompactMatches(count);
+		if (added == 0)
+			return 0;
+		matchCount.set(0);
+		while (true) {
+			MatchColumns columns= fElementsToColumns.computeIfAbsent(element, k -> new MatchColumns());
+			if (columns.add(offsets, lengths, added))
+				break;
+			// the matches of the element have just been created, retry with new columns
+			fElementsToColumns.remove(element, columns);
+		}
+		fireChange(new CompactMatchEvent(this, new Object[] { element }));
+		return added;
+	}
+
+	private int reserveCompactMatches(int count) {
+		while (true) {
+			int current= fLimitedMatchCount.get();
+			int reserved= Math.max(0, Math.min(count, fMatchLimit - current));
+			if (reserved < count)
+				fMatchLimitReached= true;
+			if (reserved == 0)
+				return 0;
+			if (fLimitedMatchCount.compareAndSet(current, current + reserved))
+				return reserved;
+		}
+	}
+
+	/**
+	 * Creates the match for a match added in compact form with
+	 * {@link #addMatches(Object, int[], int[], int)}. The method is called when the matches of the
+	 * element are requested for the first time after they have been added.
+	 * <p>
+	 * Subclasses may override this method to create their own kind of matches.
+	 * </p>
+	 *
+	 * @param element the element the match is reported against
+	 * @param offset the offset of the match, in characters
+	 * @param length the length of the match, in characters
+	 * @return the match
+	 * @since 3.18
+	 */
+	protected Match createMatch(Object element, int offset, int length) {
+		return new Match(element, offset, length);
+	}
+
+	private void createCompactMatches(Object element) {
+		if (fElementsToColumns.isEmpty())
+			return;
+		MatchColumns columns= fElementsToColumns.get(element);
+		if (columns != null) {
+			// the columns are only removed once their matches are visible, so a concurrent caller
+			// either waits for the matches or finds them
+			columns.detach(this, element);
+			fElementsToColumns.remove(element, columns);
+		}
+	}
+
+	/*
+	 * Called by MatchColumns.detach(AbstractTextSearchResult, Object) with the created matches,
+	 * while other callers are blocked from the columns.
+	 */
+	void didCreateMatches(Object element, Match[] created) {
+		Set<Match> matches= fElementsToMatches.computeIfAbsent(element, k -> ConcurrentHashMap.newKeySet());
+		for (Match match : created) {
+			updateFilterState(match);
+			matches.add(match);
+		}
+	}
+
+	/**
+	 * Sets the maximum number of matches of this search result. Once the result holds that many
+	 * matches, {@link #addMatches(Object, int[], int[], int)} does not add any more matches until
+	 * matches are removed. Matches added as <code>Match</code> objects count towards the limit,
+	 * but are always added.
+	 *
+	 * @param limit the maximum number of matches
+	 * @since 3.18
+	 */
+	public void setMatchLimit(int limit) {
+		fMatchLimit= Math.max(0, limit);
+	}
+
+	/**
+	 * Returns the maximum number of matches of this search result, by default
+	 * {@link Integer#MAX_VALUE}.
+	 *
+	 * @return the match limit
+	 * @see #setMatchLimit(int)
+	 * @since 3.18
+	 */
+	public int getMatchLimit() {
+		return fMatchLimit;
+	}
+
+	/**
+	 * Returns whether matches have not been added because of the {@link #setMatchLimit(int)
+	 * match limit} since the last call to {@link #removeAll()}.
+	 *
+	 * @return <code>true</code> if this result is missing matches because of the match limit
+	 * @since 3.18
+	 */
+	public boolean isMatchLimitReached() {
+		return fMatchLimitReached;
+	}
+
 	private MatchEvent getSearchResultEvent(Match match, int eventKind) {
 		fMatchEvent.setKind(eventKind);
 		fMatchEvent.setMatch(match);
@@ -160,7 +301,11 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 	private boolean didAddMatch(Match match) {
 		matchCount.set(0);
 		updateFilterState(match);
-		return fElementsToMatches.computeIfAbsent(match.getElement(), k -> ConcurrentHashMap.newKeySet()).add(match);
+		if (fElementsToMatches.computeIfAbsent(match.getElement(), k -> ConcurrentHashMap.newKeySet()).add(match)) {
+			fLimitedMatchCount.incrementAndGet();
+			return true;
+		}
+		return false;
 	}
 
 	private static int compare(Match match2, Match match1) {
@@ -183,6 +328,9 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 	private void doRemoveAll() {
 		matchCount.set(0);
 		fElementsToMatches.clear();
+		fElementsToColumns.clear();
+		fLimitedMatchCount.set(0);
+		fMatchLimitReached= false;
 	}
 
 	/**
@@ -228,6 +376,8 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 			}
 			return matches;
 		});
+		if (existed[0])
+			fLimitedMatchCount.decrementAndGet();
 		return existed[0];
 	}
 
@@ -267,9 +417,8 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 	private void updateFilterStateForAllMatches() {
 		boolean disableFiltering= getActiveMatchFilters() == null;
 		ArrayList<Match> changed= new ArrayList<>();
-		Object[] elements= getElements();
-		for (Object element : elements) {
-			Match[] matches= getMatches(element);
+		// matches kept in compact form get their filter state when they are created
+		for (Set<Match> matches : fElementsToMatches.values()) {
 			for (Match match : matches) {
 				if (disableFiltering || updateFilterState(match)) {
 					changed.add(match);
@@ -316,6 +465,9 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 		for (Set<Match> element : fElementsToMatches.values()) {
 			newCount += element.size();
 		}
+		for (MatchColumns columns : fElementsToColumns.values()) {
+			newCount += columns.size();
+		}
 		if (matchCount.compareAndSet(0, newCount)) {
 			// Only return if not changed meanwhile
 			return newCount;
@@ -334,7 +486,7 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 				return true;
 			}
 		}
-		return false;
+		return !fElementsToColumns.isEmpty();
 	}
 
 	/**
@@ -349,10 +501,14 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 		if (element == null) {
 			return 0;
 		}
+		int count= 0;
 		Set<Match> matches = fElementsToMatches.get(element);
 		if (matches != null)
-			return matches.size();
-		return 0;
+			count+= matches.size();
+		MatchColumns columns= fElementsToColumns.get(element);
+		if (columns != null)
+			count+= columns.size();
+		return count;
 	}
 
 	/**
@@ -363,7 +519,11 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 	 * @return the set of elements in this search result
 	 */
 	public Object[] getElements() {
-		return fElementsToMatches.keySet().toArray();
+		if (fElementsToColumns.isEmpty())
+			return fElementsToMatches.keySet().toArray();
+		Set<Object> elements= new LinkedHashSet<>(fElementsToMatches.keySet());
+		elements.addAll(fElementsToColumns.keySet());
+		return elements.toArray();
 	}
 
 	/**
@@ -375,7 +535,14 @@ public abstract class AbstractTextSearchResult implements ISearchResult {
 	 * @since 3.17
 	 */
 	public int getElementsCount() {
-		return fElementsToMatches.size();
+		if (fElementsToColumns.isEmpty())
+			return fElementsToMatches.size();
+		int count= fElementsToMatches.size();
+		for (Object element : fElementsToColumns.keySet()) {
+			if (!fElementsToMatches.containsKey(element))
+				count++;
+		}
+		return count;
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,13 +14,14 @@
  *******************************************************************************/
 package org.eclipse.search.ui.text;
 
+import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.LinkedBlockingDeque;
 
 import org.osgi.framework.FrameworkUtil;
 
@@ -38,6 +39,7 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.SafeRunner;
 import org.eclipse.core.runtime.Status;
 
@@ -151,9 +153,18 @@ public abstract class AbstractTextSearchViewPage extends Page implements ISearch
 				return Status.OK_STATUS;
 			}
 			runBatchedClear();
-			runBatchedUpdates();
+			boolean isSearching= isQueryRunning();
+			long startTime= System.currentTimeMillis();
+			int updated= runBatchedUpdates(isSearching);
+			long updateTime= System.currentTimeMillis() - startTime;
 			if (hasMoreUpdates() || isQueryRunning()) {
-				schedule(500);
+				long delay= isSearching ? getUpdateDelay(updateTime) : UPDATE_DELAY;
+				if (TRACING) {
+					Object[] args= { Integer.valueOf(updated), Long.valueOf(updateTime), Integer.valueOf(getPendingUpdateCount()), Long.valueOf(delay) };
+					System.out.println(MessageFormat.format(
+							"[Search view] updated {0} elements in {1}ms, {2} pending, next update in {3}ms", args)); //$NON-NLS-1$
+				}
+				schedule(delay);
 			} else {
 				fIsUIUpdateScheduled= false;
 				turnOnDecoration();
@@ -214,6 +225,24 @@ public abstract class AbstractTextSearchViewPage extends Page implements ISearch
 
 	}
 
+	private static final boolean TRACING= "true".equalsIgnoreCase(Platform.getDebugOption("org.eclipse.search/perf")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * The minimum delay between two updates of the viewer, in milliseconds.
+	 */
+	private static final int UPDATE_DELAY= 500;
+
+	/**
+	 * The maximum time per second the viewer is updated while a search is running, in
+	 * milliseconds.
+	 */
+	private static final int UPDATE_TIME_PER_SECOND= 200;
+
+	/**
+	 * The number of elements updated by the first update of the viewer while a search is running.
+	 */
+	private static final int INITIAL_UPDATE_BATCH_SIZE= 1000;
+
 	private volatile boolean fIsUIUpdateScheduled= false;
 	private volatile boolean fScheduleEnsureSelection= false;
 	private static final String KEY_LAYOUT = "org.eclipse.search.resultpage.layout"; //$NON-NLS-1$
@@ -229,7 +258,8 @@ public abstract class AbstractTextSearchViewPage extends Page implements ISearch
 	private PageBook fPagebook;
 	private boolean fIsBusyShown;
 	private ISearchResultViewPart fViewPart;
-	private final LinkedBlockingDeque<Object> fBatchedUpdates = new LinkedBlockingDeque<>();
+	private final Set<Object> fBatchedUpdates = new LinkedHashSet<>(); // guarded by itself
+	private int fUpdateBatchSize= INITIAL_UPDATE_BATCH_SIZE; // only accessed in the UI thread
 	private volatile boolean fBatchedClearAll;
 
 	private ISearchResultListener fListener;
@@ -485,7 +515,8 @@ public abstract class AbstractTextSearchViewPage extends Page implements ISearch
 	 * that this notification is asynchronous. i.e. further changes may have
 	 * occurred by the time this method is called. They will be described in a
 	 * future call.
-	 * <p>The changed elements are evaluated by {@link #evaluateChangedElements(Match[], Set)}.</p>
+	 * <p>The changed elements are evaluated by {@link #evaluateChangedElements(Match[], Set)} and
+	 * {@link #evaluateChangedElements(Object[], Set)}.</p>
 	 *
 	 * @param objects
 	 *            array of objects that has to be refreshed
@@ -1220,6 +1251,8 @@ public abstract class AbstractTextSearchViewPage extends Page implements ISearch
 	protected void handleSearchResultChanged(final SearchResultEvent e) {
 		if (e instanceof MatchEvent) {
 			postUpdate(((MatchEvent) e).getMatches());
+		} else if (e instanceof CompactMatchEvent) {
+			postElementsUpdate(((CompactMatchEvent) e).getElements());
 		} else if (e instanceof RemoveAllEvent) {
 			postClear();
 		} else if (e instanceof FilterUpdateEvent) {
@@ -1247,27 +1280,92 @@ public abstract class AbstractTextSearchViewPage extends Page implements ISearch
 		HashSet<Object> collect = new HashSet<>();
 		// for compatibility we do not pass the "fBatchedUpdates" directly:
 		evaluateChangedElements(matches, collect);
-		// nulls are forbidden in concurrent datastructures:
+		// nulls are not passed to the viewer:
 		collect.removeIf(Objects::isNull);
-		fBatchedUpdates.addAll(collect);
+		synchronized (fBatchedUpdates) {
+			fBatchedUpdates.addAll(collect);
+		}
 		scheduleUIUpdate(); // still synchronized
 	}
 
-	private void runBatchedUpdates() {
-		Collection<Object> drain = new ArrayList<>();
-		fBatchedUpdates.drainTo(drain);
-		elementsChanged(drain.toArray());
+	/**
+	 * Evaluates the elements that are later passed to {@link #elementsChanged(Object[])} when
+	 * matches have been added in compact form, see {@link CompactMatchEvent}. By default the
+	 * elements to change are the elements the matches have been added for. Client
+	 * implementations can modify this behavior.
+	 *
+	 * @param elements the elements matches have been added for
+	 * @param changedElements the set that collects the elements to change. Clients should only add elements to the set.
+	 * @since 3.18
+	 */
+	protected void evaluateChangedElements(Object[] elements, Set<Object> changedElements) {
+		Collections.addAll(changedElements, elements);
+	}
+
+	private void postElementsUpdate(Object[] elements) {
+		HashSet<Object> collect = new HashSet<>();
+		evaluateChangedElements(elements, collect);
+		// nulls are not passed to the viewer:
+		collect.removeIf(Objects::isNull);
+		synchronized (fBatchedUpdates) {
+			fBatchedUpdates.addAll(collect);
+		}
+		scheduleUIUpdate();
+	}
+
+	/*
+	 * Updates the viewer for the changed elements. Elements changed several times since the last
+	 * update are updated once. While a search is running only as many elements are updated as
+	 * fit into the time of an update, the remaining elements are left for the next update.
+	 */
+	private int runBatchedUpdates(boolean limitTime) {
+		Object[] elements;
+		synchronized (fBatchedUpdates) {
+			int count= limitTime ? Math.min(fUpdateBatchSize, fBatchedUpdates.size()) : fBatchedUpdates.size();
+			elements= new Object[count];
+			Iterator<Object> iter= fBatchedUpdates.iterator();
+			for (int i= 0; i < count; i++) {
+				elements[i]= iter.next();
+				iter.remove();
+			}
+		}
+		long startTime= System.currentTimeMillis();
+		elementsChanged(elements);
 		updateBusyLabel();
+		if (limitTime && elements.length == fUpdateBatchSize) {
+			// only a full batch tells how many elements can be updated in time
+			long updateTime= System.currentTimeMillis() - startTime;
+			long maxUpdateTime= (long) UPDATE_TIME_PER_SECOND * UPDATE_DELAY / 1000;
+			long batchSize= updateTime > 0 ? elements.length * maxUpdateTime / updateTime : Integer.MAX_VALUE;
+			fUpdateBatchSize= (int) Math.max(1, Math.min(2L * elements.length, batchSize));
+		}
+		return elements.length;
+	}
+
+	/*
+	 * Returns the delay until the next update such that the viewer is not updated for more than
+	 * UPDATE_TIME_PER_SECOND per second.
+	 */
+	private static long getUpdateDelay(long updateTime) {
+		return Math.max(UPDATE_DELAY, updateTime * (1000 - UPDATE_TIME_PER_SECOND) / UPDATE_TIME_PER_SECOND);
 	}
 
 	private void postClear() {
 		fBatchedClearAll= true;
-		fBatchedUpdates.clear();
+		synchronized (fBatchedUpdates) {
+			fBatchedUpdates.clear();
+		}
 		scheduleUIUpdate(); // still synchronized
 	}
 
+	private int getPendingUpdateCount() {
+		synchronized (fBatchedUpdates) {
+			return fBatchedUpdates.size();
+		}
+	}
+
 	private boolean hasMoreUpdates() {
-		return fBatchedClearAll || !fBatchedUpdates.isEmpty();
+		return fBatchedClearAll || getPendingUpdateCount() > 0;
 	}
 
 	private boolean isQueryRunning() {
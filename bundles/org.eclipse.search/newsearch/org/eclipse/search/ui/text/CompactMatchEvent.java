@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.ui.text;
+
+import org.eclipse.search.ui.ISearchResult;
+import org.eclipse.search.ui.SearchResultEvent;
+
+/**
+ * An event object describing that matches have been added in compact form with
+ * {@link AbstractTextSearchResult#addMatches(Object, int[], int[], int)}. The event only
+ * reports the elements the matches were added for, the {@link Match matches} themselves are
+ * created when they are requested from the search result, for example with
+ * {@link AbstractTextSearchResult#getMatches(Object)}.
+ * <p>
+ * Clients may instantiate or subclass this class.
+ * </p>
+ * @since 3.18
+ */
+public class CompactMatchEvent extends SearchResultEvent {
+
+	private static final long serialVersionUID = 6009335074727417447L;
+
+	private final Object[] fElements;
+
+	/**
+	 * Constructs a new {@link CompactMatchEvent}.
+	 *
+	 * @param searchResult the search result concerned
+	 * @param elements the elements matches have been added for
+	 */
+	public CompactMatchEvent(ISearchResult searchResult, Object[] elements) {
+		super(searchResult);
+		fElements= elements;
+	}
+
+	/**
+	 * Returns the elements matches have been added for.
+	 *
+	 * @return the elements matches have been added for
+	 */
+	public Object[] getElements() {
+		return fElements;
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.ui.text;
+
+import java.util.Arrays;
+
+/**
+ * The offsets and lengths of the matches added in compact form for one element of an
+ * {@link AbstractTextSearchResult}. Once the matches have been created with
+ * {@link #detach(AbstractTextSearchResult, Object)} no more matches can be added.
+ */
+final class MatchColumns {
+
+	private static final int INITIAL_CAPACITY= 16;
+
+	private int[] fOffsets;
+	private int[] fLengths;
+	private int fSize;
+	private boolean fDetached;
+
+	MatchColumns() {
+		fOffsets= new int[INITIAL_CAPACITY];
+		fLengths= new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Adds the first <code>count</code> offsets and lengths.
+	 *
+	 * @param offsets the offsets of the matches
+	 * @param lengths the lengths of the matches
+	 * @param count the number of matches to add
+	 * @return <code>false</code> if the matches have already been created and nothing was added
+	 */
+	synchronized boolean add(int[] offsets, int[] lengths, int count) {
+		if (fDetached)
+			return false;
+		int size= fSize + count;
+		if (size > fOffsets.length) {
+			int capacity= Math.max(size, fOffsets.length + (fOffsets.length >> 1));
+			fOffsets= Arrays.copyOf(fOffsets, capacity);
+			fLengths= Arrays.copyOf(fLengths, capacity);
+		}
+		System.arraycopy(offsets, 0, fOffsets, fSize, count);
+		System.arraycopy(lengths, 0, fLengths, fSize, count);
+		fSize= size;
+		return true;
+	}
+
+	synchronized int size() {
+		return fSize;
+	}
+
+	/**
+	 * Creates the matches with {@link AbstractTextSearchResult#createMatch(Object, int, int)},
+	 * passes them to {@link AbstractTextSearchResult#didCreateMatches(Object, Match[])} and
+	 * releases the columns. Later calls to {@link #add(int[], int[], int)} fail and later calls to
+	 * this method do nothing.
+	 *
+	 * @param result the search result to create the matches
+	 * @param element the element of the matches
+	 */
+	synchronized void detach(AbstractTextSearchResult result, Object element) {
+		if (fDetached)
+			return;
+		fDetached= true;
+		Match[] matches= new Match[fSize];
+		for (int i= 0; i < fSize; i++) {
+			matches[i]= result.createMatch(element, fOffsets[i], fLengths[i]);
+		}
+		result.didCreateMatches(element, matches);
+		fOffsets= null;
+		fLengths= null;
+		fSize= 0;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,7 +15,10 @@
 package org.eclipse.search2.internal.ui.text;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 
@@ -36,6 +39,7 @@ import org.eclipse.search.ui.ISearchResult;
 import org.eclipse.search.ui.ISearchResultListener;
 import org.eclipse.search.ui.SearchResultEvent;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
+import org.eclipse.search.ui.text.CompactMatchEvent;
 import org.eclipse.search.ui.text.FilterUpdateEvent;
 import org.eclipse.search.ui.text.IEditorMatchAdapter;
 import org.eclipse.search.ui.text.ISearchEditorAccess;
@@ -133,6 +137,13 @@ public class EditorAnnotationManager implements ISearchResultListener {
 						removeAnnotations(matchesInEditor);
 					}
 				}
+			} else if (e instanceof CompactMatchEvent) {
+				Match[] matchesInEditor= getMatchesInEditor((CompactMatchEvent) e, result);
+				if (matchesInEditor != null) {
+					// matches of the elements may already be highlighted
+					removeAnnotations(matchesInEditor);
+					addAnnotations(matchesInEditor);
+				}
 			} else if (e instanceof RemoveAllEvent) {
 				removeAnnotations(result);
 			} else if (e instanceof FilterUpdateEvent) {
@@ -171,6 +182,28 @@ public class EditorAnnotationManager implements ISearchResultListener {
 		return null;
 	}
 
+	private Match[] getMatchesInEditor(CompactMatchEvent event, AbstractTextSearchResult result) {
+		IEditorMatchAdapter adapter= result.getEditorMatchAdapter();
+		if (adapter == null) {
+			return null;
+		}
+		Match[] matches= adapter.computeContainedMatches(result, fEditor);
+		if (matches == null || matches.length == 0) {
+			return null;
+		}
+		Set<Object> elements= new HashSet<>(Arrays.asList(event.getElements()));
+		ArrayList<Match> matchesInEditor= new ArrayList<>();
+		for (Match curr : matches) {
+			if (elements.contains(curr.getElement())) {
+				matchesInEditor.add(curr);
+			}
+		}
+		if (matchesInEditor.isEmpty()) {
+			return null;
+		}
+		return matchesInEditor.toArray(new Match[matchesInEditor.size()]);
+	}
+
 	private void removeAllAnnotations() {
 		if (fHighlighter != null)
 			fHighlighter.removeAll();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -42,6 +42,7 @@ import org.eclipse.search.ui.ISearchResultListener;
 import org.eclipse.search.ui.NewSearchUI;
 import org.eclipse.search.ui.SearchResultEvent;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
+import org.eclipse.search.ui.text.CompactMatchEvent;
 import org.eclipse.search.ui.text.IFileMatchAdapter;
 import org.eclipse.search.ui.text.Match;
 import org.eclipse.search.ui.text.MatchEvent;
@@ -94,6 +95,19 @@ public class PositionTracker implements IQueryListener, ISearchResultListener, I
 					updateMatch(match, fb, kind, result);
 				}
 			}
+		} else if (e instanceof CompactMatchEvent) {
+			AbstractTextSearchResult result = (AbstractTextSearchResult) e.getSearchResult();
+			for (Object element : ((CompactMatchEvent) e).getElements()) {
+				ITextFileBuffer fb= getTrackedFileBuffer(result, element);
+				if (fb != null) {
+					// only the matches of files open in an editor are created here
+					for (Match match : result.getMatches(element)) {
+						if (!fMatchesToPositions.containsKey(match)) {
+							trackPosition(result, fb, match);
+						}
+					}
+				}
+			}
 		} else if (e instanceof RemoveAllEvent) {
 			RemoveAllEvent evt= (RemoveAllEvent)e;
 			ISearchResult result= evt.getSearchResult();
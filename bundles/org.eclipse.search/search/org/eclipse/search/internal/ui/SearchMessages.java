@@ -163,6 +163,7 @@ public final class SearchMessages extends NLS {
 	public static String FileSearchQuery_singularLabel;
 	public static String FileSearchQuery_singularLabel_fileNameSearch;
 	public static String FileSearchQuery_pluralPattern_fileNameSearch;
+	public static String FileSearchResult_limitReached;
 	public static String OpenSearchDialogAction_label;
 	public static String OpenSearchDialogAction_tooltip;
 	public static String FileTypeEditor_typeDelimiter;
@@ -224,6 +225,7 @@ public final class SearchMessages extends NLS {
 
 //	public static String ReplaceDialog2_nomatches_error;
 	public static String SearchPreferencePage_textSearchEngine;
+	public static String SearchPreferencePage_textSearchMatchLimit;
 	public static String TextSearchEngineRegistry_defaulttextsearch_label;
 	public static String FileSearchQuery_singularPatternWithFileExt;
 	public static String FileSearchQuery_pluralPatternWithFileExt;
@@ -25,6 +25,7 @@ import org.eclipse.jface.preference.ColorFieldEditor;
 import org.eclipse.jface.preference.ComboFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
 import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.preference.PreferenceConverter;
 import org.eclipse.jface.util.PropertyChangeEvent;
 
@@ -56,6 +57,7 @@ public class SearchPreferencePage extends FieldEditorPreferencePage implements I
 	public static final String TEXT_SEARCH_ENGINE = TextSearchEngineRegistry.PREFERENCE_ENGINE_KEY;
 	public static final String TEXT_SEARCH_QUERY_PROVIDER = "org.eclipse.search.textSearchQueryProvider"; //$NON-NLS-1$
 	public static final String LIMIT_HISTORY= "org.eclipse.search.limitHistory"; //$NON-NLS-1$
+	public static final String TEXT_SEARCH_MATCH_LIMIT= "org.eclipse.search.textSearchMatchLimit"; //$NON-NLS-1$
 
 	private ColorFieldEditor fColorEditor;
 	private BooleanFieldEditor fEmphasizedCheckbox;
@@ -91,6 +93,7 @@ public class SearchPreferencePage extends FieldEditorPreferencePage implements I
 		store.setDefault(TEXT_SEARCH_ENGINE, ""); //default search engine is empty string //$NON-NLS-1$
 		store.setDefault(TEXT_SEARCH_QUERY_PROVIDER, ""); // default query provider is empty string  //$NON-NLS-1$
 		store.setDefault(LIMIT_HISTORY, 10);
+		store.setDefault(TEXT_SEARCH_MATCH_LIMIT, 1000000);
 	}
 
 
@@ -131,6 +134,13 @@ public class SearchPreferencePage extends FieldEditorPreferencePage implements I
 		fEmphasizedCheckbox.setEnabled(!arePotentialMatchesIgnored(), getFieldEditorParent());
 		fColorEditor.setEnabled(!arePotentialMatchesIgnored() && arePotentialMatchesEmphasized(), getFieldEditorParent());
 
+		IntegerFieldEditor matchLimitEditor= new IntegerFieldEditor(
+			TEXT_SEARCH_MATCH_LIMIT,
+			SearchMessages.SearchPreferencePage_textSearchMatchLimit,
+			getFieldEditorParent());
+		matchLimitEditor.setValidRange(0, Integer.MAX_VALUE);
+		addField(matchLimitEditor);
+
 		handleDeletedPerspectives();
 		String[][] perspectiveNamesAndIds = getPerspectiveNamesAndIds();
 		ComboFieldEditor comboEditor= new ComboFieldEditor(
@@ -265,4 +275,10 @@ public class SearchPreferencePage extends FieldEditorPreferencePage implements I
 		return limit;
 	}
 
+	public static int getTextSearchMatchLimit() {
+		IPreferenceStore store= SearchPlugin.getDefault().getPreferenceStore();
+		int limit= store.getInt(TEXT_SEARCH_MATCH_LIMIT);
+		return limit > 0 ? limit : Integer.MAX_VALUE;
+	}
+
 }
@@ -563,6 +563,19 @@ public class FileSearchPage extends AbstractTextSearchViewPage implements IAdapt
 		}
 	}
 
+	@Override
+	protected void evaluateChangedElements(Object[] elements, Set<Object> changedElements) {
+		AbstractTextSearchResult input= getInput();
+		if (showLineMatches()) {
+			// the tree shows the lines of the matches added in compact form
+			for (Object element : elements) {
+				evaluateChangedElements(input.getMatches(element), changedElements);
+			}
+		} else {
+			super.evaluateChangedElements(elements, changedElements);
+		}
+	}
+
 	private boolean showLineMatches() {
 		AbstractTextSearchResult input= getInput();
 		return getLayout() == FLAG_LAYOUT_TREE && input != null && !((FileSearchQuery) input.getQuery()).isFileNameSearch();
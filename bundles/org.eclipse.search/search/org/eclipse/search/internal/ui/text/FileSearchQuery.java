@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,8 +18,7 @@
  *******************************************************************************/
 package org.eclipse.search.internal.ui.text;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
@@ -38,6 +37,7 @@ import org.eclipse.search.core.text.TextSearchRequestor;
 import org.eclipse.search.internal.core.text.PatternConstructor;
 import org.eclipse.search.internal.ui.Messages;
 import org.eclipse.search.internal.ui.SearchMessages;
+import org.eclipse.search.internal.ui.SearchPreferencePage;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 import org.eclipse.search.ui.NewSearchUI;
@@ -50,12 +50,37 @@ public class FileSearchQuery implements ISearchQuery {
 
 	private final static class TextSearchResultCollector extends TextSearchRequestor {
 
+		/**
+		 * The offsets and lengths of the matches found in a file, added to the result in compact
+		 * form, and the lines containing them. The lines are found while the file is searched, so
+		 * the matches are created later without reading the file again.
+		 */
+		private static final class FileMatches {
+			private int[] fOffsets= new int[8];
+			private int[] fLengths= new int[8];
+			private int fCount;
+			private final LineElements fLines= new LineElements();
+
+			void add(int offset, int length, LineElement lineElement) {
+				if (fCount == fOffsets.length) {
+					fOffsets= Arrays.copyOf(fOffsets, fCount * 2);
+					fLengths= Arrays.copyOf(fLengths, fCount * 2);
+				}
+				fOffsets[fCount]= offset;
+				fLengths[fCount]= length;
+				fCount++;
+				if (lineElement != fLines.getLast()) {
+					fLines.add(lineElement);
+				}
+			}
+		}
+
 		private final AbstractTextSearchResult fResult;
 		private final boolean fIsFileSearchOnly;
 		private final boolean fSearchInBinaries;
 
 		private final boolean fIsLightweightAutoRefresh;
-		private final ConcurrentHashMap<IFile, ArrayList<FileMatch>> fCachedMatches;
+		private final ConcurrentHashMap<IFile, FileMatches> fCachedMatches;
 		private volatile boolean stop;
 
 		private TextSearchResultCollector(AbstractTextSearchResult result, boolean isFileSearchOnly, boolean searchInBinaries) {
@@ -73,6 +98,8 @@ public class FileSearchQuery implements ISearchQuery {
 
 		@Override
 		public boolean acceptFile(IFile file) throws CoreException {
+			if (stop)
+				return false;
 			if (fIsLightweightAutoRefresh && !file.exists())
 				return false;
 
@@ -92,37 +119,28 @@ public class FileSearchQuery implements ISearchQuery {
 			if (stop) {
 				return false;
 			}
-			fCachedMatches.compute(matchRequestor.getFile(), (f, matches) -> {
-				// each file is processed by at most one job
-				int matchOffset = matchRequestor.getMatchOffset();
-				LineElement lineElement = getLineElement(matchOffset, matchRequestor, matches);
-				if (lineElement != null) {
-					FileMatch fileMatch = new FileMatch(matchRequestor.getFile(), matchOffset,
-							matchRequestor.getMatchLength(), lineElement);
-					if (matches == null) {
-						matches = new ArrayList<>();
-					}
-					matches.add(fileMatch);
-				}
-				return matches;
-			});
+			// each file is processed by at most one job
+			FileMatches matches= fCachedMatches.computeIfAbsent(matchRequestor.getFile(), f -> new FileMatches());
+			int matchOffset= matchRequestor.getMatchOffset();
+			LineElement lineElement= getLineElement(matchOffset, matchRequestor, matches.fLines.getLast());
+			if (lineElement != null) {
+				matches.add(matchOffset, matchRequestor.getMatchLength(), lineElement);
+			}
 			return true;
 		}
 
-		private LineElement getLineElement(int offset, TextSearchMatchAccess matchRequestor, ArrayList<FileMatch> matches) {
+		private LineElement getLineElement(int offset, TextSearchMatchAccess matchRequestor, LineElement lastLineElement) {
 			int lineNumber= 1;
 			int lineStart= 0;
 
-			if (matches != null) {
+			if (lastLineElement != null) {
 				// match on same line as last?
-				FileMatch last= matches.get(matches.size() - 1);
-				LineElement lineElement= last.getLineElement();
-				if (lineElement.contains(offset)) {
-					return lineElement;
+				if (lastLineElement.contains(offset)) {
+					return lastLineElement;
 				}
 				// start with the offset and line information from the last match
-				lineStart= lineElement.getOffset() + lineElement.getLength();
-				lineNumber= lineElement.getLine() + 1;
+				lineStart= lastLineElement.getOffset() + lastLineElement.getLength();
+				lineNumber= lastLineElement.getLine() + 1;
 			}
 			if (offset < lineStart) {
 				return null; // offset before the last line
@@ -178,21 +196,41 @@ public class FileSearchQuery implements ISearchQuery {
 
 		@Override
 		public void flushMatches(IFile file) {
-			List<FileMatch> matches = fCachedMatches.remove(file);
-			if (matches != null && !matches.isEmpty()) {
-				fResult.addMatches(matches.toArray(new Match[matches.size()]));
+			FileMatches matches = fCachedMatches.remove(file);
+			if (matches != null && matches.fCount > 0) {
+				addMatches(file, matches);
 			}
 		}
 
 		private void flushMatches() {
-			fCachedMatches.values().removeIf(matches -> {
-				if (matches != null && !matches.isEmpty()) {
-					fResult.addMatches(matches.toArray(new Match[matches.size()]));
+			fCachedMatches.entrySet().removeIf(entry -> {
+				FileMatches matches = entry.getValue();
+				if (matches.fCount > 0) {
+					addMatches(entry.getKey(), matches);
 					return true;
 				}
 				return false;
 			});
 		}
+
+		private void addMatches(IFile file, FileMatches matches) {
+			int added;
+			if (fResult instanceof FileSearchResult fileSearchResult) {
+				added= fileSearchResult.addMatches(file, matches.fLines, matches.fOffsets, matches.fLengths, matches.fCount);
+			} else {
+				Match[] fileMatches= new Match[matches.fCount];
+				for (int i= 0; i < matches.fCount; i++) {
+					int offset= matches.fOffsets[i];
+					fileMatches[i]= new FileMatch(file, offset, matches.fLengths[i], matches.fLines.find(offset));
+				}
+				fResult.addMatches(fileMatches);
+				added= matches.fCount;
+			}
+			if (added < matches.fCount) {
+				// the match limit has been reached, the result tells so in its label
+				stop= true;
+			}
+		}
 	}
 
 	private final FileTextSearchScope fScope;
@@ -230,6 +268,7 @@ public class FileSearchQuery implements ISearchQuery {
 	public IStatus run(final IProgressMonitor monitor) {
 		AbstractTextSearchResult textResult= (AbstractTextSearchResult) getSearchResult();
 		textResult.removeAll();
+		textResult.setMatchLimit(SearchPreferencePage.getTextSearchMatchLimit());
 
 		Pattern searchPattern= getSearchPattern();
 
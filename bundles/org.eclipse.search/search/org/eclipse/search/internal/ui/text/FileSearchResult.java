@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2023 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,8 @@ package org.eclipse.search.internal.ui.text;
 
 import java.util.HashSet;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.core.resources.IFile;
 
@@ -25,6 +27,8 @@ import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IFileEditorInput;
 
+import org.eclipse.search.internal.ui.Messages;
+import org.eclipse.search.internal.ui.SearchMessages;
 import org.eclipse.search.internal.ui.SearchPlugin;
 import org.eclipse.search.internal.ui.SearchPluginImages;
 import org.eclipse.search.ui.ISearchQuery;
@@ -39,6 +43,12 @@ public class FileSearchResult extends AbstractTextSearchResult implements IEdito
 
 	private FileSearchQuery fQuery;
 
+	/*
+	 * The lines of the matches added in compact form, kept until all the matches of a file have
+	 * been created.
+	 */
+	private final ConcurrentMap<IFile, LineElements> fLineElements= new ConcurrentHashMap<>();
+
 	public FileSearchResult(FileSearchQuery job) {
 		fQuery= job;
 		setActiveMatchFilters(getLastUsedFilters());
@@ -51,7 +61,11 @@ public class FileSearchResult extends AbstractTextSearchResult implements IEdito
 
 	@Override
 	public String getLabel() {
-		return fQuery.getResultLabel(getMatchCount());
+		String label= fQuery.getResultLabel(getMatchCount());
+		if (isMatchLimitReached()) {
+			return Messages.format(SearchMessages.FileSearchResult_limitReached, new Object[] { label, Integer.valueOf(getMatchLimit()) });
+		}
+		return label;
 	}
 
 	@Override
@@ -123,6 +137,58 @@ public class FileSearchResult extends AbstractTextSearchResult implements IEdito
 		return null;
 	}
 
+	/**
+	 * Adds the matches of a file in compact form, together with the lines containing them.
+	 *
+	 * @param file the file of the matches
+	 * @param lines the lines of the matches, found when the file was searched
+	 * @param offsets the offsets of the matches
+	 * @param lengths the lengths of the matches
+	 * @param count the number of matches
+	 * @return the number of matches added, less than <code>count</code> if the match limit has
+	 *         been reached
+	 * @see #addMatches(Object, int[], int[], int)
+	 */
+	int addMatches(IFile file, LineElements lines, int[] offsets, int[] lengths, int count) {
+		lines.fPendingMatches= count;
+		fLineElements.merge(file, lines, LineElements::merge);
+		int added= addMatches(file, offsets, lengths, count);
+		if (added < count) {
+			releaseLineElements(file, count - added);
+		}
+		return added;
+	}
+
+	/**
+	 * Creates a {@link FileMatch} for a match added in compact form, with the line element found
+	 * when the file was searched. Matches on the same line share their line element.
+	 */
+	@Override
+	protected Match createMatch(Object element, int offset, int length) {
+		IFile file= (IFile) element;
+		LineElements lines= fLineElements.get(file);
+		LineElement lineElement= lines != null ? lines.find(offset) : null;
+		if (lineElement == null) {
+			// added without lines
+			lineElement= new LineElement(file, 1, offset, ""); //$NON-NLS-1$
+		}
+		releaseLineElements(file, 1);
+		return new FileMatch(file, offset, length, lineElement);
+	}
+
+	private void releaseLineElements(IFile file, int matches) {
+		fLineElements.computeIfPresent(file, (f, lines) -> {
+			lines.fPendingMatches-= matches;
+			return lines.fPendingMatches > 0 ? lines : null;
+		});
+	}
+
+	@Override
+	public void removeAll() {
+		fLineElements.clear();
+		super.removeAll();
+	}
+
 	@Override
 	public Match[] computeContainedMatches(AbstractTextSearchResult result, IFile file) {
 		return getMatches(file);
@@ -15,7 +15,9 @@
 package org.eclipse.search.internal.ui.text;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.jface.viewers.IStructuredContentProvider;
 import org.eclipse.jface.viewers.TableViewer;
@@ -86,17 +88,30 @@ public class FileTableContentProvider implements IStructuredContentProvider, IFi
 		TableViewer viewer= getViewer();
 		int elementLimit= getElementLimit();
 		boolean tableLimited= elementLimit != -1;
+		List<Object> changedElements= new ArrayList<>();
+		List<Object> removedElements= new ArrayList<>();
 		for (Object updatedElement : updatedElements) {
-			if (fPage.getDisplayedMatchCount(updatedElement) > 0) {
-				if (viewer.contains(updatedElement))
-					viewer.update(updatedElement, null);
-				else {
-					if (!tableLimited || viewer.getTable().getItemCount() < elementLimit)
-						viewer.add(updatedElement);
-				}
-			} else
-				viewer.remove(updatedElement);
+			if (fPage.getDisplayedMatchCount(updatedElement) > 0)
+				changedElements.add(updatedElement);
+			else
+				removedElements.add(updatedElement);
+		}
+		// apply the changes with one call per kind of change
+		if (!removedElements.isEmpty())
+			viewer.remove(removedElements.toArray());
+		Set<Object> addedElements= new LinkedHashSet<>();
+		List<Object> existingElements= new ArrayList<>();
+		int itemCount= viewer.getTable().getItemCount();
+		for (Object changedElement : changedElements) {
+			if (viewer.contains(changedElement))
+				existingElements.add(changedElement);
+			else if (!tableLimited || itemCount + addedElements.size() < elementLimit)
+				addedElements.add(changedElement);
 		}
+		if (!existingElements.isEmpty())
+			viewer.update(existingElements.toArray(), null);
+		if (!addedElements.isEmpty())
+			viewer.add(addedElements.toArray());
 	}
 
 	private int getElementLimit() {
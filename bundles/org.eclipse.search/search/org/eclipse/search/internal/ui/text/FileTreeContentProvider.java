@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2023 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,11 +17,16 @@
  *******************************************************************************/
 package org.eclipse.search.internal.ui.text;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Spliterator;
@@ -46,6 +51,53 @@ public class FileTreeContentProvider implements ITreeContentProvider, IFileSearc
 
 	private final Object[] EMPTY_ARR= new Object[0];
 
+	/**
+	 * The changes of the tree made while processing changed elements. They are applied to the
+	 * viewer at once, with one call per parent with added children.
+	 */
+	private class ViewerDelta {
+
+		private final Map<Object, List<Object>> fAddedChildren= new LinkedHashMap<>();
+		private final Set<Object> fUpdatedElements= new LinkedHashSet<>();
+		private boolean fRefresh;
+
+		void add(Object parent, Object child) {
+			fAddedChildren.computeIfAbsent(parent, p -> new ArrayList<>()).add(child);
+		}
+
+		void update(Object element) {
+			fUpdatedElements.add(element);
+		}
+
+		void refresh() {
+			fRefresh= true;
+		}
+
+		void apply() {
+			if (fRefresh) {
+				fTreeViewer.refresh();
+				return;
+			}
+			// children of deeper parents first: a child added to a parent which is not shown yet is
+			// ignored by the viewer and shown with the parent
+			List<Object> parents= new ArrayList<>(fAddedChildren.keySet());
+			parents.sort(Comparator.comparingInt(FileTreeContentProvider.this::getDepth).reversed());
+			int elementLimit= getElementLimit();
+			for (Object parent : parents) {
+				Set<Object> children= fChildrenMap.get(parent);
+				if (elementLimit != -1 && children != null && children.size() > elementLimit) {
+					// the shown children are limited, let the viewer ask for them
+					fTreeViewer.refresh(parent);
+				} else {
+					fTreeViewer.add(parent, fAddedChildren.get(parent).toArray());
+				}
+			}
+			if (!fUpdatedElements.isEmpty()) {
+				fTreeViewer.update(fUpdatedElements.toArray(), null);
+			}
+		}
+	}
+
 	private AbstractTextSearchResult fResult;
 	private FileSearchPage fPage;
 	private AbstractTreeViewer fTreeViewer;
@@ -90,36 +142,51 @@ public class FileTreeContentProvider implements ITreeContentProvider, IFileSearc
 					Match[] matches= result.getMatches(element);
 					for (Match match : matches) {
 						if (!match.isFiltered()) {
-							insert(((FileMatch) match).getLineElement(), false);
+							insert(((FileMatch) match).getLineElement(), null);
 						}
 					}
 				} else {
-					insert(element, false);
+					insert(element, null);
 				}
 			}
 		}
 	}
 
-	private void insert(Object child, boolean refreshViewer) {
+	private void insert(Object child, ViewerDelta delta) {
 		Object parent= getParent(child);
 		while (parent != null) {
 			if (insertChild(parent, child)) {
-				if (refreshViewer)
-					fTreeViewer.add(parent, child);
+				if (delta != null)
+					delta.add(parent, child);
 			} else {
-				if (refreshViewer)
-					fTreeViewer.update(parent, null);
+				if (delta != null)
+					delta.update(parent);
 				return;
 			}
 			child= parent;
 			parent= getParent(child);
 		}
 		if (insertChild(fResult, child)) {
-			if (refreshViewer)
-				fTreeViewer.add(fResult, child);
+			if (delta != null)
+				delta.add(fResult, child);
 		}
 	}
 
+	private boolean isInserted(Object element) {
+		Object parent= getParent(element);
+		return hasChild(parent != null ? parent : fResult, element);
+	}
+
+	private int getDepth(Object element) {
+		if (element == fResult)
+			return -1;
+		int depth= 0;
+		for (Object parent= getParent(element); parent != null; parent= getParent(parent)) {
+			depth++;
+		}
+		return depth;
+	}
+
 	/**
 	 * Adds the child to the parent.
 	 *
@@ -295,15 +362,22 @@ public class FileTreeContentProvider implements ITreeContentProvider, IFileSearc
 					.map(fResult::getMatchSet).flatMap(FileTreeContentProvider::toStream)
 					.map(m -> ((FileMatch) m).getLineElement()).collect(Collectors.toSet());
 		}
+		ViewerDelta delta= new ViewerDelta();
 		try {
 			for (Object updatedElement : updatedElements) {
 				if (!(updatedElement instanceof LineElement)) {
 					// change events to elements are reported in file search.
 					// ask the page to determine if element is filtered.
 					if (getMatchCount(updatedElement) > 0) {
-						insert(updatedElement, singleElement);
+						if (!singleElement && isInserted(updatedElement)) {
+							delta.update(updatedElement);
+						}
+						insert(updatedElement, delta);
 					} else {
 						remove(updatedElement, singleElement);
+						if (!singleElement) {
+							delta.refresh();
+						}
 					}
 				} else {
 					// change events to line elements are reported in text
@@ -311,20 +385,23 @@ public class FileTreeContentProvider implements ITreeContentProvider, IFileSearc
 					LineElement lineElement = (LineElement) updatedElement;
 					boolean hasMatches = lineMatches.contains(lineElement);
 					if (hasMatches) {
-						if (singleElement && hasChild(lineElement.getParent(), lineElement)) {
-							fTreeViewer.update(new Object[] { lineElement, lineElement.getParent() }, null);
+						if (hasChild(lineElement.getParent(), lineElement)) {
+							delta.update(lineElement);
+							delta.update(lineElement.getParent());
 						} else {
-							insert(lineElement, singleElement);
+							insert(lineElement, delta);
 						}
 					} else {
 						remove(lineElement, singleElement);
+						if (!singleElement) {
+							delta.refresh();
+						}
 					}
 				}
 			}
 		} finally {
-			if (updatedElements.length > 0 && !singleElement) {
-				fTreeViewer.refresh();
-			}
+			// apply the changes of all elements in one viewer update
+			delta.apply();
 		}
 	}
 
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.ui.text;
+
+import java.util.Arrays;
+
+/**
+ * The lines of a file that contain matches, sorted by their offsets. The lines are found while
+ * the file is searched, so the matches added to a {@link FileSearchResult} in compact form are
+ * later created without reading the file again.
+ */
+final class LineElements {
+
+	private LineElement[] fElements= new LineElement[8];
+	private int fSize;
+	/*
+	 * The number of matches of the result which are still to be created with these lines, only
+	 * changed by the map of the result holding the lines.
+	 */
+	int fPendingMatches;
+
+	void add(LineElement element) {
+		if (fSize == fElements.length) {
+			fElements= Arrays.copyOf(fElements, fSize * 2);
+		}
+		fElements[fSize++]= element;
+	}
+
+	LineElement getLast() {
+		return fSize > 0 ? fElements[fSize - 1] : null;
+	}
+
+	/**
+	 * Returns the line containing the given offset.
+	 *
+	 * @param offset the offset of a match
+	 * @return the line of the match or <code>null</code> if there is no such line
+	 */
+	LineElement find(int offset) {
+		int low= 0;
+		int high= fSize - 1;
+		while (low <= high) {
+			int mid= (low + high) >>> 1;
+			LineElement element= fElements[mid];
+			if (offset < element.getOffset()) {
+				high= mid - 1;
+			} else if (element.contains(offset)) {
+				return element;
+			} else {
+				low= mid + 1;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the lines of both the given lines, for lines of the same file found by separate
+	 * passes over the file.
+	 *
+	 * @param first the lines found first
+	 * @param second the lines found afterwards
+	 * @return the merged lines
+	 */
+	static LineElements merge(LineElements first, LineElements second) {
+		LineElements merged= new LineElements();
+		merged.fElements= new LineElement[first.fSize + second.fSize];
+		int i= 0;
+		int j= 0;
+		while (i < first.fSize || j < second.fSize) {
+			if (j == second.fSize || i < first.fSize && first.fElements[i].getOffset() <= second.fElements[j].getOffset()) {
+				merged.fElements[merged.fSize++]= first.fElements[i++];
+			} else {
+				merged.fElements[merged.fSize++]= second.fElements[j++];
+			}
+		}
+		merged.fPendingMatches= first.fPendingMatches + second.fPendingMatches;
+		return merged;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -889,4 +889,143 @@ public class ProjectionDocument extends AbstractDocument {
 			internalError();
 		}
 	}
+
+	/**
+	 * Replaces all master document ranges with the given master document ranges.
+	 * <p>
+	 * Other than adding and removing the ranges one by one, the fragments and
+	 * segments are rebuilt in a single pass and a single projection change is
+	 * sent out, which replaces the part of this document between the first and
+	 * the last changed fragment. This is the preferred way to change many ranges
+	 * at once, e.g. when collapsing all folded regions of a large document.
+	 * </p>
+	 *
+	 * @param rangesInMaster the ranges of the master document, sorted by offset
+	 *            and not overlapping
+	 * @throws BadLocationException if one of the ranges is not valid in the
+	 *             master document
+	 * @throws IllegalArgumentException if the ranges are not sorted or overlap
+	 * @since 3.15
+	 */
+	public void replaceMasterDocumentRanges(IRegion[] rangesInMaster) throws BadLocationException {
+
+		int masterLength= fMasterDocument.getLength();
+		int[] offsets= new int[rangesInMaster.length + 1];
+		int[] lengths= new int[rangesInMaster.length + 1];
+		int count= 0;
+		for (IRegion range : rangesInMaster) {
+			int offset= range.getOffset();
+			int length= range.getLength();
+			if (offset < 0 || length < 0 || offset + length > masterLength)
+				throw new BadLocationException();
+
+			int previousEnd= count > 0 ? offsets[count - 1] + lengths[count - 1] : 0;
+			if (offset < previousEnd)
+				throw new IllegalArgumentException("overlapping ranges"); //$NON-NLS-1$
+			if (length == 0)
+				continue;
+
+			if (count > 0 && offset == previousEnd) {
+				lengths[count - 1] += length;
+			} else {
+				offsets[count]= offset;
+				lengths[count++]= length;
+			}
+		}
+
+		Position[] fragments= getFragments();
+		if (count == 0) {
+			// an empty projection is anchored by an empty fragment
+			offsets[0]= fragments.length > 0 ? fragments[0].getOffset() : 0;
+			lengths[0]= 0;
+			count= 1;
+		}
+
+		// skip the fragments which stay unchanged at the start and at the end
+		int first= 0;
+		int imageOffset= 0;
+		while (first < fragments.length && first < count && fragments[first].getOffset() == offsets[first] && fragments[first].getLength() == lengths[first])
+			imageOffset += lengths[first++];
+
+		int oldLast= fragments.length - 1;
+		int newLast= count - 1;
+		int unchangedSuffixLength= 0;
+		while (oldLast >= first && newLast >= first && fragments[oldLast].getOffset() == offsets[newLast] && fragments[oldLast].getLength() == lengths[newLast]) {
+			unchangedSuffixLength += lengths[newLast--];
+			oldLast--;
+		}
+
+		if (oldLast < first && newLast < first)
+			return;
+
+		int imageLength= getLength() - imageOffset - unchangedSuffixLength;
+		StringBuilder text= new StringBuilder();
+		int masterOffset= Integer.MAX_VALUE;
+		int masterEnd= 0;
+		if (first <= oldLast) {
+			masterOffset= fragments[first].getOffset();
+			masterEnd= exclusiveEnd(fragments[oldLast]);
+		}
+		if (first <= newLast) {
+			masterOffset= Math.min(masterOffset, offsets[first]);
+			masterEnd= Math.max(masterEnd, offsets[newLast] + lengths[newLast]);
+			for (int i= first; i <= newLast; i++)
+				text.append(fMasterDocument.get(offsets[i], lengths[i]));
+		}
+
+		// the first and the last changed fragment might still share some text
+		int commonPrefixLength= 0;
+		int commonSuffixLength= 0;
+		if (first <= oldLast && first <= newLast) {
+			if (fragments[first].getOffset() == offsets[first])
+				commonPrefixLength= Math.min(fragments[first].getLength(), lengths[first]);
+			if (exclusiveEnd(fragments[oldLast]) == offsets[newLast] + lengths[newLast])
+				commonSuffixLength= Math.min(fragments[oldLast].getLength(), lengths[newLast]);
+			commonSuffixLength= Math.min(commonSuffixLength, Math.min(imageLength, text.length()) - commonPrefixLength);
+		}
+
+		ProjectionDocumentEvent event= new ProjectionDocumentEvent(this, imageOffset + commonPrefixLength, imageLength - commonPrefixLength - commonSuffixLength,
+				text.substring(commonPrefixLength, text.length() - commonSuffixLength), masterOffset + commonPrefixLength, masterEnd - commonSuffixLength - masterOffset - commonPrefixLength);
+		super.fireDocumentAboutToBeChanged(event);
+
+		try {
+
+			int newLength= getLength() - event.getLength() + event.getText().length();
+			fMasterDocument.removePositionCategory(fFragmentsCategory);
+			fMasterDocument.addPositionCategory(fFragmentsCategory);
+			removePositionCategory(fSegmentsCategory);
+			addPositionCategory(fSegmentsCategory);
+
+			fMapping.projectionChanged(newLength);
+			int segmentOffset= 0;
+			for (int i= 0; i < count; i++) {
+				Fragment fragment= new Fragment(offsets[i], lengths[i]);
+				Segment segment= new Segment(segmentOffset, lengths[i]);
+				fragment.segment= segment;
+				segment.fragment= fragment;
+				fMasterDocument.addPosition(fFragmentsCategory, fragment);
+				addPosition(fSegmentsCategory, segment);
+				segmentOffset += lengths[i];
+			}
+
+			// the segments already reflect the change
+			fSegmentUpdater.skipUpdate(event);
+			getTracker().replace(event.getOffset(), event.getLength(), event.getText());
+			super.fireDocumentChanged(event);
+
+		} catch (BadPositionCategoryException x) {
+			internalError();
+		}
+	}
+
+	/**
+	 * Returns the exclusive end offset of the given position.
+	 *
+	 * @param position the position
+	 * @return the exclusive end offset of the given position
+	 * @since 3.15
+	 */
+	private static int exclusiveEnd(Position position) {
+		return position.getOffset() + position.getLength();
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -54,6 +54,11 @@ public class ProjectionMapping implements IDocumentInformationMapping , IDocumen
 	private Position[] fCachedSegments;
 	/** Cached fragments */
 	private Position[] fCachedFragments;
+	/**
+	 * Cached length of the image, <code>-1</code> if unknown
+	 * @since 3.15
+	 */
+	private int fCachedImageLength= -1;
 
 	/**
 	 * Creates a new mapping between the given parent document and the given projection document.
@@ -76,6 +81,20 @@ public class ProjectionMapping implements IDocumentInformationMapping , IDocumen
 	public void projectionChanged() {
 		fCachedSegments= null;
 		fCachedFragments= null;
+		fCachedImageLength= -1;
+	}
+
+	/**
+	 * Notifies this projection mapping that the segments are being rebuilt
+	 * for an image of the given length. Until the next projection change
+	 * the image length is not computed from the segments.
+	 *
+	 * @param imageLength the length of the image
+	 * @since 3.15
+	 */
+	void projectionChanged(int imageLength) {
+		projectionChanged();
+		fCachedImageLength= imageLength;
 	}
 
 	private Position[] getSegments() {
@@ -547,12 +566,15 @@ public class ProjectionMapping implements IDocumentInformationMapping , IDocumen
 
 	@Override
 	public int getImageLength() {
-		Position[] segments= getSegments();
-		int length= 0;
-		for (Position segment : segments) {
-			length += segment.length;
+		if (fCachedImageLength == -1) {
+			Position[] segments= getSegments();
+			int length= 0;
+			for (Position segment : segments) {
+				length += segment.length;
+			}
+			fCachedImageLength= length;
 		}
-		return length;
+		return fCachedImageLength;
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2007 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -35,6 +35,11 @@ class SegmentUpdater extends DefaultPositionUpdater {
 
 	private Segment fNextSegment= null;
 	private boolean fIsProjectionChange= false;
+	/**
+	 * The event the segments already reflect
+	 * @since 3.15
+	 */
+	private DocumentEvent fSkippedEvent= null;
 
 	/**
 	 * Creates the segment updater for the given category.
@@ -45,9 +50,25 @@ class SegmentUpdater extends DefaultPositionUpdater {
 		super(segmentCategory);
 	}
 
+	/**
+	 * Tells this updater not to adapt the segments to the given event, as they
+	 * have been rebuilt for it.
+	 *
+	 * @param event the event to skip
+	 * @since 3.15
+	 */
+	void skipUpdate(DocumentEvent event) {
+		fSkippedEvent= event;
+	}
+
 	@Override
 	public void update(DocumentEvent event) {
 
+		if (event == fSkippedEvent) {
+			fSkippedEvent= null;
+			return;
+		}
+
 		Assert.isTrue(event instanceof ProjectionDocumentEvent);
 		fIsProjectionChange= ((ProjectionDocumentEvent) event).getChangeType() == ProjectionDocumentEvent.PROJECTION_CHANGE;
 
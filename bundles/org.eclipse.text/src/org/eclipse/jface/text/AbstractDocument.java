@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -51,6 +51,9 @@ import org.eclipse.core.runtime.SafeRunner;
  * The document can dynamically change the text store when switching between
  * sequential rewrite mode and normal mode.
  * <p>
+ * Documents with many positions can manage them in interval trees instead of
+ * sorted lists, see {@link #setPositionIndexingEnabled(boolean)}.
+ * <p>
  *
  * This class must be subclassed. Subclasses must configure which implementation
  * plug-ins the document instance should use. Subclasses are not intended to
@@ -109,6 +112,11 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 	 * @since 3.4
 	 */
 	private final Map<String, List<Position>> fEndPositions= new HashMap<>();
+	/**
+	 * Indicates whether positions are managed in interval trees.
+	 * @since 3.15
+	 */
+	private boolean fPositionIndexing= false;
 	/** All registered document position updaters */
 	private final List<IPositionUpdater> fPositionUpdaters= new CopyOnWriteArrayList<>();
 	/**
@@ -295,6 +303,61 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		addPositionUpdater(new DefaultPositionUpdater(DEFAULT_CATEGORY));
 	}
 
+	/**
+	 * Enables or disables the management of positions in interval trees. This affects all
+	 * existing and future position categories of this document.
+	 * <p>
+	 * By default, the positions of a category are kept in lists sorted by offset and by end
+	 * offset. This is fast for few positions, but adding or removing a position, or querying the
+	 * positions which overlap a region, is linear in the number of positions of the category. An
+	 * indexed category keeps its positions in an interval tree instead: adding and removing
+	 * positions as well as {@link #computeIndexInCategory(String, int)} are logarithmic, and
+	 * {@link #getPositions(String, int, int, boolean, boolean)} only visits the positions that are
+	 * reported. A {@link DefaultPositionUpdater} only visits the positions of an indexed category
+	 * that end at or after the change and leaves the positions before it alone.
+	 * </p>
+	 * <p>
+	 * Positions are mutable, hence updated positions are still written eagerly: the positions
+	 * behind a change are shifted on each change. Position categories that are updated by other
+	 * position updaters than {@link DefaultPositionUpdater} must rebuild parts of the index after
+	 * each change and might not benefit from indexing.
+	 * </p>
+	 *
+	 * @param enable <code>true</code> to manage positions in interval trees,
+	 *            <code>false</code> to manage them in sorted lists
+	 * @since 3.15
+	 */
+	public void setPositionIndexingEnabled(boolean enable) {
+		if (fPositionIndexing == enable)
+			return;
+
+		fPositionIndexing= enable;
+		for (Entry<String, List<Position>> entry : fPositions.entrySet()) {
+			List<Position> positions= entry.getValue();
+			if (enable) {
+				entry.setValue(new PositionTree(positions));
+				fEndPositions.remove(entry.getKey());
+			} else {
+				List<Position> list= new ArrayList<>(positions);
+				List<Position> endPositions= new ArrayList<>(list);
+				endPositions.sort((p1, p2) -> Integer.compare(getOffset(false, p1), getOffset(false, p2)));
+				entry.setValue(list);
+				fEndPositions.put(entry.getKey(), endPositions);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether positions are managed in interval trees.
+	 *
+	 * @return <code>true</code> if positions are managed in interval trees
+	 * @see #setPositionIndexingEnabled(boolean)
+	 * @since 3.15
+	 */
+	public boolean isPositionIndexingEnabled() {
+		return fPositionIndexing;
+	}
+
 
 	//-------------------------------------------------------
 
@@ -347,6 +410,8 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		if (list == null)
 			throw new BadPositionCategoryException();
 		list.add(computeIndexInPositionList(list, position.offset), position);
+		if (list instanceof PositionTree)
+			return;
 
 		List<Position> endPositions= fEndPositions.get(category);
 		if (endPositions == null)
@@ -369,8 +434,12 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 			return;
 
 		if (!containsPositionCategory(category)) {
-			fPositions.put(category, new ArrayList<>());
-			fEndPositions.put(category, new ArrayList<>());
+			if (fPositionIndexing) {
+				fPositions.put(category, new PositionTree());
+			} else {
+				fPositions.put(category, new ArrayList<>());
+				fEndPositions.put(category, new ArrayList<>());
+			}
 		}
 	}
 
@@ -444,6 +513,9 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 	 * @since 3.4
 	 */
 	protected int computeIndexInPositionList(List<? extends Position> positions, int offset, boolean orderedByOffset) {
+		if (orderedByOffset && positions instanceof PositionTree)
+			return ((PositionTree) positions).computeIndex(offset);
+
 		if (positions.isEmpty())
 			return 0;
 
@@ -981,6 +1053,10 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		List<Position> c= fPositions.get(category);
 		if (c == null)
 			throw new BadPositionCategoryException();
+		if (c instanceof PositionTree) {
+			((PositionTree) c).removePosition(position);
+			return;
+		}
 		removeFromPositionsList(c, position, true);
 
 		List<Position> endPositions= fEndPositions.get(category);
@@ -1142,9 +1218,27 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 	protected void updatePositions(DocumentEvent event) {
 		for(IPositionUpdater u: fPositionUpdaters) {
 			u.update(event);
+			if (fPositionIndexing && !(u instanceof DefaultPositionUpdater)) {
+				// the updater might have changed positions of any category
+				for (List<Position> positions : fPositions.values())
+					((PositionTree) positions).invalidate();
+			}
 		}
 	}
 
+	/**
+	 * Returns the interval tree of the given position category.
+	 *
+	 * @param category the position category
+	 * @return the interval tree, or <code>null</code> if the category is undefined or not indexed
+	 * @see #setPositionIndexingEnabled(boolean)
+	 * @since 3.15
+	 */
+	PositionTree getPositionTree(String category) {
+		List<Position> positions= fPositions.get(category);
+		return positions instanceof PositionTree ? (PositionTree) positions : null;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
@@ -1582,6 +1676,10 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 	 * @since 3.4
 	 */
 	public Position[] getPositions(String category, int offset, int length, boolean canStartBefore, boolean canEndAfter) throws BadPositionCategoryException {
+		PositionTree tree= getPositionTree(category);
+		if (tree != null)
+			return getPositions(tree, offset, length, canStartBefore, canEndAfter);
+
 		if (canStartBefore && canEndAfter || (!canStartBefore && !canEndAfter)) {
 			List<Position> documentPositions;
 			if (canStartBefore && canEndAfter) {
@@ -1638,6 +1736,54 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		}
 	}
 
+	/**
+	 * Returns the positions of the given interval tree as specified by
+	 * {@link #getPositions(String, int, int, boolean, boolean)}. The positions are
+	 * ordered by offset.
+	 *
+	 * @param tree the interval tree of the category
+	 * @param offset the offset of the region
+	 * @param length the length of the region, must be &gt;= 0
+	 * @param canStartBefore whether positions may start before the region
+	 * @param canEndAfter whether positions may end after the region
+	 * @return all positions inside the region
+	 * @since 3.15
+	 */
+	private Position[] getPositions(PositionTree tree, int offset, int length, boolean canStartBefore, boolean canEndAfter) {
+		if (!canStartBefore) {
+			// same as getStartingPositions(String, int, int)
+			Position[] positions= tree.toArray(tree.computeIndex(offset), tree.computeIndex(offset + length));
+			if (canEndAfter)
+				return positions;
+
+			Position region= new Position(offset, length);
+			List<Position> list= new ArrayList<>(positions.length);
+			for (Position position : positions) {
+				if (isWithinRegion(region, position, false, false))
+					list.add(position);
+			}
+			return list.toArray(new Position[list.size()]);
+		}
+
+		List<Position> candidates= tree.getPositions(offset, offset + length);
+		List<Position> list= new ArrayList<>(candidates.size());
+		if (canEndAfter) {
+			Position region= new Position(offset, length);
+			for (Position position : candidates) {
+				if (isWithinRegion(region, position, true, true))
+					list.add(position);
+			}
+		} else {
+			// same as getEndingPositions(String, int, int)
+			for (Position position : candidates) {
+				int end= getOffset(false, position);
+				if (offset <= end && end < offset + length)
+					list.add(position);
+			}
+		}
+		return list.toArray(new Position[list.size()]);
+	}
+
 	/**
 	 * A list of positions in the given category with an offset inside the given
 	 * region. The order of the positions is arbitrary.
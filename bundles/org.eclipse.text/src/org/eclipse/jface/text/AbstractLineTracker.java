@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -203,6 +203,13 @@ public abstract class AbstractLineTracker implements ILineTracker, ILineTrackerE
 	 * Whether the delegate needs conversion when the line structure is modified.
 	 */
 	private boolean fNeedsConversion= true;
+	/**
+	 * Whether the delegate is converted to an {@link ArrayLineTracker} instead of a
+	 * {@link TreeLineTracker}.
+	 *
+	 * @since 3.15
+	 */
+	private boolean fLineStartCache;
 
 	/**
 	 * Creates a new line tracker.
@@ -298,6 +305,20 @@ public abstract class AbstractLineTracker implements ILineTracker, ILineTrackerE
 	private synchronized void checkImplementation() {
 		if (fNeedsConversion) {
 			fNeedsConversion= false;
+			if (fLineStartCache) {
+				fDelegate= new ArrayLineTracker((ListLineTracker) fDelegate) {
+					@Override
+					protected DelimiterInfo nextDelimiterInfo(String text, int offset) {
+						return AbstractLineTracker.this.nextDelimiterInfo(text, offset);
+					}
+
+					@Override
+					public String[] getLegalLineDelimiters() {
+						return AbstractLineTracker.this.getLegalLineDelimiters();
+					}
+				};
+				return;
+			}
 			fDelegate= new TreeLineTracker((ListLineTracker) fDelegate) {
 				@Override
 				protected DelimiterInfo nextDelimiterInfo(String text, int offset) {
@@ -312,6 +333,62 @@ public abstract class AbstractLineTracker implements ILineTracker, ILineTrackerE
 		}
 	}
 
+	/**
+	 * Enables or disables the line start cache of this tracker. With the cache enabled, the
+	 * start offsets of the lines are kept in a packed array instead of a balanced tree. Line based
+	 * queries like {@link #getLineOffset(int)} and {@link #getLineInformation(int)} are then array
+	 * lookups and offset based queries are a binary search over the array, which suits documents
+	 * that are read much more often than they are modified, e.g. by painters and rulers. Edits
+	 * only repair the start offsets between the previous and the current edit location, but have
+	 * to move the succeeding part of the array if they add or remove lines.
+	 * <p>
+	 * The cache is disabled by default.
+	 * </p>
+	 *
+	 * @param enable <code>true</code> to enable the line start cache, <code>false</code> to
+	 *            disable it
+	 * @since 3.15
+	 */
+	public final synchronized void setLineStartCacheEnabled(boolean enable) {
+		if (fLineStartCache == enable)
+			return;
+
+		fLineStartCache= enable;
+		if (!fNeedsConversion) {
+			// rebuild the line structure with the other implementation
+			ListLineTracker tracker= new ListLineTracker() {
+				@Override
+				public String[] getLegalLineDelimiters() {
+					return AbstractLineTracker.this.getLegalLineDelimiters();
+				}
+
+				@Override
+				protected DelimiterInfo nextDelimiterInfo(String text, int offset) {
+					return AbstractLineTracker.this.nextDelimiterInfo(text, offset);
+				}
+			};
+			try {
+				tracker.setLines(fDelegate);
+			} catch (BadLocationException x) {
+				throw new InternalError();
+			}
+			fDelegate= tracker;
+			fNeedsConversion= true;
+			checkImplementation();
+		}
+	}
+
+	/**
+	 * Tells whether the line start cache of this tracker is enabled.
+	 *
+	 * @return <code>true</code> if the line start cache is enabled, <code>false</code> otherwise
+	 * @see #setLineStartCacheEnabled(boolean)
+	 * @since 3.15
+	 */
+	public final boolean isLineStartCacheEnabled() {
+		return fLineStartCache;
+	}
+
 	/**
 	 * Returns the information about the first delimiter found in the given text starting at the
 	 * given offset.
@@ -0,0 +1,330 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jface.text.AbstractLineTracker.DelimiterInfo;
+
+/**
+ * Abstract implementation of <code>ILineTracker</code> which keeps the line start offsets in a
+ * packed <code>int</code> array. It lets the definition of line delimiters to subclasses and
+ * defines the same line scheme as {@link TreeLineTracker}, i.e. the last line never has a
+ * delimiter.
+ * <p>
+ * An edit shifts the start offsets of all succeeding lines. Instead of updating them eagerly, the
+ * shift is recorded as a pending delta for all lines from a given line on (the dirty tail). The
+ * dirty tail is only repaired up to the line of the next edit, so that a series of edits in the
+ * same area does not touch the rest of the array.
+ * </p>
+ * <p>
+ * This class must be subclassed.
+ * </p>
+ * <p>
+ * <strong>Performance:</strong> The line based query operations perform in <i>O(1)</i>, the offset
+ * based query operations perform a binary search in <i>O(log n)</i> where <var>n</var> is the
+ * number of lines in the document. The modification operations perform in <i>O(d + l)</i> where
+ * <var>d</var> is the distance in lines to the previous modification and <var>l</var> is the sum
+ * of the number of removed, added or modified lines, plus a single array copy of the succeeding
+ * lines if the number of lines changes.
+ * </p>
+ *
+ * @since 3.15
+ */
+abstract class ArrayLineTracker implements ILineTracker {
+
+	/** The minimal capacity of the line arrays. */
+	private static final int MIN_CAPACITY= 16;
+
+	/** The start offsets of the lines, not including the pending delta of the dirty tail. */
+	private int[] fStarts= new int[MIN_CAPACITY];
+	/** The delimiters of the lines, <code>null</code> for the last line. */
+	private String[] fDelimiters= new String[MIN_CAPACITY];
+	/** The number of lines, always at least one. */
+	private int fLineCount= 1;
+	/** The first line of the dirty tail. */
+	private int fDirtyLine= 1;
+	/** The delta to add to the start offsets of the lines in the dirty tail. */
+	private int fDirtyDelta;
+	/** The length of the tracked text. */
+	private int fTextLength;
+
+	/**
+	 * Creates a new line tracker.
+	 */
+	protected ArrayLineTracker() {
+	}
+
+	/**
+	 * Package visible constructor for creating an array tracker from a list tracker.
+	 *
+	 * @param tracker the list line tracker
+	 */
+	ArrayLineTracker(ListLineTracker tracker) {
+		List<Line> lines= tracker.getLines();
+		int n= lines.size();
+		ensureCapacity(n + 1);
+		int offset= 0;
+		for (int i= 0; i < n; i++) {
+			Line line= lines.get(i);
+			fStarts[i]= line.offset;
+			fDelimiters[i]= line.delimiter;
+			offset= line.offset + line.length;
+		}
+		if (n == 0 || fDelimiters[n - 1] != null) {
+			fStarts[n]= offset;
+			fDelimiters[n]= null;
+			++n;
+		}
+		fLineCount= n;
+		fDirtyLine= n;
+		fTextLength= offset;
+	}
+
+	/**
+	 * Returns the start offset of the given line.
+	 *
+	 * @param line a valid line number
+	 * @return the start offset of the line
+	 */
+	private int start(int line) {
+		return line < fDirtyLine ? fStarts[line] : fStarts[line] + fDirtyDelta;
+	}
+
+	/**
+	 * Returns the offset after the end of the given line, including its delimiter.
+	 *
+	 * @param line a valid line number
+	 * @return the end offset of the line
+	 */
+	private int end(int line) {
+		return line + 1 < fLineCount ? start(line + 1) : fTextLength;
+	}
+
+	/**
+	 * Returns the line including the given offset. If the offset is between two lines, the line
+	 * starting at <code>offset</code> is returned. The last line is returned if
+	 * <code>offset</code> is equal to the text length.
+	 *
+	 * @param offset an offset
+	 * @return the line including the offset
+	 * @throws BadLocationException if the offset is invalid
+	 */
+	private int findLine(int offset) throws BadLocationException {
+		if (offset < 0 || offset > fTextLength)
+			throw new BadLocationException(Integer.toString(offset));
+
+		int left= 0;
+		int right= fLineCount - 1;
+		while (left < right) {
+			int mid= (left + right + 1) >>> 1;
+			if (start(mid) <= offset)
+				left= mid;
+			else
+				right= mid - 1;
+		}
+		return left;
+	}
+
+	/**
+	 * Checks that the given line exists.
+	 *
+	 * @param line the line number
+	 * @throws BadLocationException if the line does not exist
+	 */
+	private void checkLine(int line) throws BadLocationException {
+		if (line < 0 || line >= fLineCount)
+			throw new BadLocationException(Integer.toString(line));
+	}
+
+	/**
+	 * Moves the start of the dirty tail to the given line by repairing the start offsets of the
+	 * lines between the current start of the dirty tail and the given line.
+	 *
+	 * @param line the new first line of the dirty tail
+	 */
+	private void moveDirtyLine(int line) {
+		if (fDirtyDelta != 0) {
+			if (fDirtyLine < line) {
+				for (int i= fDirtyLine; i < line; i++)
+					fStarts[i]+= fDirtyDelta;
+			} else {
+				for (int i= line; i < fDirtyLine; i++)
+					fStarts[i]-= fDirtyDelta;
+			}
+		}
+		fDirtyLine= line;
+	}
+
+	/**
+	 * Makes sure that the line arrays can hold the given number of lines.
+	 *
+	 * @param capacity the required capacity
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > fStarts.length) {
+			int newCapacity= Math.max(capacity, fStarts.length + (fStarts.length >> 1));
+			fStarts= Arrays.copyOf(fStarts, newCapacity);
+			fDelimiters= Arrays.copyOf(fDelimiters, newCapacity);
+		}
+	}
+
+	/**
+	 * Returns the information about the first delimiter found in the given
+	 * text starting at the given offset.
+	 *
+	 * @param text the text to be searched
+	 * @param offset the offset in the given text
+	 * @return the information of the first found delimiter or <code>null</code>
+	 */
+	protected abstract DelimiterInfo nextDelimiterInfo(String text, int offset);
+
+	@Override
+	public final void replace(int offset, int length, String text) throws BadLocationException {
+		if (offset < 0 || length < 0 || offset + length > fTextLength)
+			throw new BadLocationException(Integer.toString(offset));
+
+		int first= findLine(offset);
+		int last= offset + length < end(first) ? first : findLine(offset + length);
+		int added= text == null ? 0 : text.length();
+
+		// the lines [first, last] are replaced by the first line and one line per added delimiter,
+		// the last of which takes over the delimiter of the last replaced line
+		int tail= last + 1;
+		moveDirtyLine(tail);
+		String lastDelimiter= fDelimiters[last];
+		int newTail= first + (text == null ? 0 : computeNumberOfLines(text)) + 1;
+		if (newTail != tail) {
+			ensureCapacity(fLineCount + newTail - tail);
+			System.arraycopy(fStarts, tail, fStarts, newTail, fLineCount - tail);
+			System.arraycopy(fDelimiters, tail, fDelimiters, newTail, fLineCount - tail);
+			if (newTail < tail)
+				Arrays.fill(fDelimiters, fLineCount + newTail - tail, fLineCount, null);
+			fLineCount+= newTail - tail;
+		}
+
+		int line= first;
+		if (newTail > first + 1) {
+			DelimiterInfo info= nextDelimiterInfo(text, 0);
+			while (info != null && info.delimiterIndex > -1) {
+				int consumed= info.delimiterIndex + info.delimiterLength;
+				fDelimiters[line]= info.delimiter;
+				fStarts[++line]= offset + consumed;
+				info= nextDelimiterInfo(text, consumed);
+			}
+		}
+		fDelimiters[line]= lastDelimiter;
+
+		fDirtyLine= newTail;
+		fDirtyDelta= newTail < fLineCount ? fDirtyDelta + added - length : 0;
+		fTextLength+= added - length;
+	}
+
+	@Override
+	public final void set(String text) {
+		fStarts= new int[MIN_CAPACITY];
+		fDelimiters= new String[MIN_CAPACITY];
+		fLineCount= 1;
+		fDirtyLine= 1;
+		fDirtyDelta= 0;
+		fTextLength= 0;
+		try {
+			replace(0, 0, text);
+		} catch (BadLocationException x) {
+			throw new InternalError();
+		}
+	}
+
+	@Override
+	public final String getLineDelimiter(int line) throws BadLocationException {
+		checkLine(line);
+		return fDelimiters[line];
+	}
+
+	@Override
+	public final int computeNumberOfLines(String text) {
+		int count= 0;
+		int start= 0;
+		DelimiterInfo delimiterInfo= nextDelimiterInfo(text, start);
+		while (delimiterInfo != null && delimiterInfo.delimiterIndex > -1) {
+			++count;
+			start= delimiterInfo.delimiterIndex + delimiterInfo.delimiterLength;
+			delimiterInfo= nextDelimiterInfo(text, start);
+		}
+		return count;
+	}
+
+	@Override
+	public final int getNumberOfLines() {
+		return fLineCount;
+	}
+
+	@Override
+	public final int getNumberOfLines(int offset, int length) throws BadLocationException {
+		if (length == 0)
+			return 1;
+
+		return findLine(offset + length) - findLine(offset) + 1;
+	}
+
+	@Override
+	public final int getLineOffset(int line) throws BadLocationException {
+		checkLine(line);
+		return start(line);
+	}
+
+	@Override
+	public final int getLineLength(int line) throws BadLocationException {
+		checkLine(line);
+		return end(line) - start(line);
+	}
+
+	@Override
+	public final int getLineNumberOfOffset(int offset) throws BadLocationException {
+		return findLine(offset);
+	}
+
+	@Override
+	public final IRegion getLineInformationOfOffset(int offset) throws BadLocationException {
+		return getRegion(findLine(offset));
+	}
+
+	@Override
+	public final IRegion getLineInformation(int line) throws BadLocationException {
+		if (line > 0 && line == fLineCount) {
+			/*
+			 * Compatibility with the previous line tracker implementations, see
+			 * LineTrackerTest3#testFunnyLastLineCompatibility().
+			 */
+			if (end(line - 1) > start(line - 1))
+				return new Region(fTextLength, 0);
+		}
+		checkLine(line);
+		return getRegion(line);
+	}
+
+	/**
+	 * Returns the region of the given line, excluding its delimiter.
+	 *
+	 * @param line a valid line number
+	 * @return the region of the line
+	 */
+	private IRegion getRegion(int line) {
+		int start= start(line);
+		String delimiter= fDelimiters[line];
+		int length= end(line) - start;
+		return new Region(start, delimiter == null ? length : length - delimiter.length());
+	}
+}
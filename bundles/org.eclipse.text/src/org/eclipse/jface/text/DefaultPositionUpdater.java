@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -212,16 +212,23 @@ public class DefaultPositionUpdater implements IPositionUpdater {
 			fReplaceLength= (event.getText() == null ? 0 : event.getText().length());
 			fDocument= event.getDocument();
 
+			PositionTree tree= fDocument instanceof AbstractDocument ? ((AbstractDocument) fDocument).getPositionTree(fCategory) : null;
+			if (tree != null && getClass() == DefaultPositionUpdater.class) {
+				// positions which end before the change are not affected
+				int modificationCount= tree.getModificationCount();
+				for (Position element : tree.getPositions(fOffset, Integer.MAX_VALUE))
+					adaptPosition(element);
+				tree.positionsUpdated(fOffset, modificationCount);
+				return;
+			}
+
 			Position[] category= fDocument.getPositions(fCategory);
-			for (Position element : category) {
+			for (Position element : category)
+				adaptPosition(element);
 
-				fPosition= element;
-				fOriginalPosition.offset= fPosition.offset;
-				fOriginalPosition.length= fPosition.length;
-
-				if (notDeleted())
-					adaptToReplace();
-			}
+			// subclasses may change any position
+			if (tree != null)
+				tree.invalidate();
 
 		} catch (BadPositionCategoryException x) {
 			// do nothing
@@ -229,4 +236,19 @@ public class DefaultPositionUpdater implements IPositionUpdater {
 			fDocument= null;
 		}
 	}
+
+	/**
+	 * Adapts the given position to the current event.
+	 *
+	 * @param position the position
+	 * @since 3.15
+	 */
+	private void adaptPosition(Position position) {
+		fPosition= position;
+		fOriginalPosition.offset= fPosition.offset;
+		fOriginalPosition.length= fPosition.length;
+
+		if (notDeleted())
+			adaptToReplace();
+	}
 }
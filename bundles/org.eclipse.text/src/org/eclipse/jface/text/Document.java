@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -37,7 +37,9 @@ package org.eclipse.jface.text;
  * </p>
  * <p>
  * See {@link GapTextStore} and <code>TreeLineTracker</code> for algorithmic behavior of the used
- * document structures.
+ * document structures. For documents of several hundred megabytes, a
+ * {@link ITextStoreFactory#PIECE_TABLE piece table} text store can be selected via
+ * {@link #Document(ITextStoreFactory)}.
  * </p>
  *
  * @see org.eclipse.jface.text.GapTextStore
@@ -48,20 +50,42 @@ public class Document extends AbstractDocument {
 	 * Creates a new empty document.
 	 */
 	public Document() {
+		this(ITextStoreFactory.DEFAULT);
+	}
+
+	/**
+	 * Creates a new document with the given initial content.
+	 *
+	 * @param initialContent the document's initial content
+	 */
+	public Document(String initialContent) {
+		this(initialContent, ITextStoreFactory.DEFAULT);
+	}
+
+	/**
+	 * Creates a new empty document whose text store is created by the given factory.
+	 *
+	 * @param storeFactory the factory creating the document's text store
+	 * @since 3.15
+	 */
+	public Document(ITextStoreFactory storeFactory) {
 		super();
-		setTextStore(new CopyOnWriteTextStore(new GapTextStore()));
+		setTextStore(storeFactory.createTextStore());
 		setLineTracker(new DefaultLineTracker());
 		completeInitialization();
 	}
 
 	/**
-	 * Creates a new document with the given initial content.
+	 * Creates a new document with the given initial content whose text store is created by the
+	 * given factory.
 	 *
 	 * @param initialContent the document's initial content
+	 * @param storeFactory the factory creating the document's text store
+	 * @since 3.15
 	 */
-	public Document(String initialContent) {
+	public Document(String initialContent, ITextStoreFactory storeFactory) {
 		super();
-		setTextStore(new CopyOnWriteTextStore(new GapTextStore()));
+		setTextStore(storeFactory.createTextStore());
 		setLineTracker(new DefaultLineTracker());
 		getStore().set(initialContent);
 		getTracker().set(initialContent);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,12 +15,20 @@
  *******************************************************************************/
 package org.eclipse.jface.text;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.core.runtime.Assert;
 
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+import org.eclipse.text.undo.DocumentUndoManagerRegistry;
+import org.eclipse.text.undo.IDocumentUndoManager;
+
 
 /**
  * Provides search and replace operations on
@@ -117,6 +125,261 @@ public class FindReplaceDocumentAdapter implements CharSequence {
 		return findReplace(FIND_FIRST, startOffset, findString, null, forwardSearch, caseSensitive, wholeWord, regExSearch);
 	}
 
+	/**
+	 * Returns the locations of all occurrences of a given string in this adapter's document
+	 * starting at the given offset. The occurrences do not overlap; they are the regions found by
+	 * repeatedly searching forward from the end of the previous occurrence. Empty occurrences of a
+	 * regular expression are skipped.
+	 * <p>
+	 * Case sensitive searches for plain strings are performed by a {@link MultiStringMatcher}
+	 * which searches large documents in parallel.
+	 * </p>
+	 *
+	 * @param startOffset document offset at which search starts
+	 * @param findString the string to find
+	 * @param caseSensitive indicates whether lower and upper case should be distinguished
+	 * @param wholeWord indicates whether the findString should be limited by white spaces as
+	 * 			defined by Character.isWhiteSpace. Must not be used in combination with <code>regExSearch</code>.
+	 * @param regExSearch if <code>true</code> findString represents a regular expression
+	 * 			Must not be used in combination with <code>wholeWord</code>.
+	 * @return the regions of all occurrences in ascending order, possibly empty
+	 * @throws BadLocationException if startOffset is an invalid document offset
+	 * @throws PatternSyntaxException if a regular expression has invalid syntax
+	 * @since 3.15
+	 */
+	public IRegion[] findAll(int startOffset, String findString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) throws BadLocationException {
+		Assert.isTrue(!(regExSearch && wholeWord));
+
+		if (findString == null || findString.isEmpty())
+			return new IRegion[0];
+
+		if (startOffset < 0 || startOffset > length())
+			throw new BadLocationException();
+
+		String text= fDocument.get();
+		if (caseSensitive && !wholeWord && !regExSearch) {
+			int[] matches= MultiStringMatcher.create(findString).indexOfAll(text, startOffset);
+			IRegion[] regions= new IRegion[matches.length / 2];
+			for (int i= 0; i < regions.length; i++)
+				regions[i]= new Region(matches[2 * i], matches[2 * i + 1]);
+			return regions;
+		}
+
+		String patternString= getPatternString(findString, wholeWord, regExSearch);
+		Matcher matcher= Pattern.compile(patternString, getPatternFlags(caseSensitive, regExSearch)).matcher(text);
+		List<IRegion> regions= new ArrayList<>();
+		try {
+			boolean found= matcher.find(startOffset);
+			while (found) {
+				if (matcher.end() > matcher.start()) {
+					regions.add(new Region(matcher.start(), matcher.end() - matcher.start()));
+				}
+				// an empty match advances the next find by one character
+				found= matcher.find();
+			}
+		} catch (StackOverflowError e) {
+			String message= TextMessages.getString("FindReplaceDocumentAdapter.patternTooComplex"); //$NON-NLS-1$
+			throw new PatternSyntaxException(message, patternString, -1);
+		}
+		return regions.toArray(new IRegion[regions.size()]);
+	}
+
+	/**
+	 * Replaces all occurrences of a given string in this adapter's document starting at the given
+	 * offset. The occurrences are the ones returned by
+	 * {@link #findAll(int, String, boolean, boolean, boolean)}.
+	 * <p>
+	 * All occurrences are found before the document is modified. The replacements are then applied
+	 * as a single {@link MultiTextEdit} inside a sequential {@link DocumentRewriteSession} and form
+	 * one compound change of the document's undo manager, if any. Replacements without a document
+	 * position between them are combined into one document change, see
+	 * {@link TextEdit#COALESCE_CHANGES}. This is much faster than replacing the occurrences one by
+	 * one if there are many of them.
+	 * </p>
+	 *
+	 * @param startOffset document offset at which search starts
+	 * @param findString the string to find
+	 * @param replaceText the substitution text
+	 * @param caseSensitive indicates whether lower and upper case should be distinguished
+	 * @param wholeWord indicates whether the findString should be limited by white spaces as
+	 * 			defined by Character.isWhiteSpace. Must not be used in combination with <code>regExSearch</code>.
+	 * @param regExSearch if <code>true</code> findString represents a regular expression and
+	 * 			<code>replaceText</code> a regular expression replace pattern. Must not be used in
+	 * 			combination with <code>wholeWord</code>.
+	 * @return the number of replaced occurrences
+	 * @throws BadLocationException if startOffset is an invalid document offset
+	 * @throws PatternSyntaxException if a regular expression has invalid syntax or an occurrence
+	 * 			cannot be replaced without breaking the line delimiters of the document
+	 * @since 3.15
+	 */
+	public int replaceAll(int startOffset, String findString, String replaceText, boolean caseSensitive, boolean wholeWord, boolean regExSearch) throws BadLocationException {
+		TextEdit[] edits;
+		if (regExSearch) {
+			edits= createRegExReplaceEdits(startOffset, findString, replaceText, caseSensitive);
+		} else {
+			IRegion[] regions= findAll(startOffset, findString, caseSensitive, wholeWord, false);
+			edits= new TextEdit[regions.length];
+			for (int i= 0; i < regions.length; i++) {
+				checkLineInformationRepair(regions[i].getOffset(), regions[i].getLength(), replaceText);
+				edits[i]= new ReplaceEdit(regions[i].getOffset(), regions[i].getLength(), replaceText);
+			}
+		}
+		if (edits.length == 0)
+			return 0;
+
+		// the stateful find/replace operations cannot continue after the document has been changed
+		fFindReplaceState= null;
+
+		MultiTextEdit edit= new MultiTextEdit();
+		edit.addChildren(edits);
+
+		IDocumentUndoManager undoManager= DocumentUndoManagerRegistry.getDocumentUndoManager(fDocument);
+		DocumentRewriteSession session= null;
+		if (fDocument instanceof IDocumentExtension4 && ((IDocumentExtension4) fDocument).getActiveRewriteSession() == null)
+			session= ((IDocumentExtension4) fDocument).startRewriteSession(DocumentRewriteSessionType.SEQUENTIAL);
+		if (undoManager != null)
+			undoManager.beginCompoundChange();
+		try {
+			edit.apply(fDocument, TextEdit.COALESCE_CHANGES);
+		} finally {
+			if (undoManager != null)
+				undoManager.endCompoundChange();
+			if (session != null)
+				((IDocumentExtension4) fDocument).stopRewriteSession(session);
+		}
+		return edits.length;
+	}
+
+	/**
+	 * Creates the edits replacing the non-empty matches of a regular expression. The replace
+	 * pattern of each match is expanded while the match is still in the context of the document
+	 * such that look-behind and look-ahead constructs see the same text as during the search.
+	 *
+	 * @param startOffset document offset at which search starts
+	 * @param findString the regular expression to find
+	 * @param replaceText the regular expression replace pattern
+	 * @param caseSensitive indicates whether lower and upper case should be distinguished
+	 * @return the edits in document order
+	 * @throws BadLocationException if startOffset is an invalid document offset
+	 * @throws PatternSyntaxException if a regular expression has invalid syntax or an occurrence
+	 * 			cannot be replaced without breaking the line delimiters of the document
+	 */
+	private TextEdit[] createRegExReplaceEdits(int startOffset, String findString, String replaceText, boolean caseSensitive) throws BadLocationException {
+		if (findString == null || findString.isEmpty())
+			return new TextEdit[0];
+
+		if (startOffset < 0 || startOffset > length())
+			throw new BadLocationException();
+
+		String patternString= getPatternString(findString, false, true);
+		Matcher matcher= Pattern.compile(patternString, getPatternFlags(caseSensitive, true)).matcher(fDocument.get());
+		List<TextEdit> edits= new ArrayList<>();
+		StringBuilder buffer= new StringBuilder();
+		try {
+			int appendPosition= 0;
+			boolean found= matcher.find(startOffset);
+			while (found) {
+				int offset= matcher.start();
+				int length= matcher.end() - offset;
+				if (length > 0) {
+					// appendReplacement also appends the text between the previous and this match
+					buffer.setLength(0);
+					try {
+						matcher.appendReplacement(buffer, interpretReplaceEscapes(replaceText, matcher.group()));
+					} catch (IndexOutOfBoundsException ex) {
+						throw new PatternSyntaxException(ex.getLocalizedMessage(), replaceText, -1);
+					}
+					String replacement= buffer.substring(offset - appendPosition);
+					appendPosition= matcher.end();
+					checkLineInformationRepair(offset, length, replacement);
+					edits.add(new ReplaceEdit(offset, length, replacement));
+				}
+				found= matcher.find();
+			}
+		} catch (StackOverflowError e) {
+			String message= TextMessages.getString("FindReplaceDocumentAdapter.patternTooComplex"); //$NON-NLS-1$
+			throw new PatternSyntaxException(message, patternString, -1);
+		}
+		return edits.toArray(new TextEdit[edits.size()]);
+	}
+
+	/**
+	 * Expands a regular expression replace pattern for a found text.
+	 *
+	 * @param pattern the pattern which matched <code>foundText</code>
+	 * @param replaceText the regular expression replace pattern
+	 * @param foundText the found text
+	 * @return the substitution text
+	 * @throws PatternSyntaxException if the replace pattern has invalid syntax
+	 */
+	private String substituteReplaceText(Pattern pattern, String replaceText, String foundText) throws PatternSyntaxException {
+		try {
+			replaceText= interpretReplaceEscapes(replaceText, foundText);
+			Matcher replaceTextMatcher= pattern.matcher(foundText);
+			return replaceTextMatcher.replaceFirst(replaceText);
+		} catch (IndexOutOfBoundsException ex) {
+			throw new PatternSyntaxException(ex.getLocalizedMessage(), replaceText, -1);
+		}
+	}
+
+	/**
+	 * Checks that replacing the given range by the given text does not break the line information
+	 * of the document.
+	 *
+	 * @param offset the offset of the replaced range
+	 * @param length the length of the replaced range
+	 * @param replaceText the substitution text
+	 * @throws BadLocationException if the range is invalid
+	 * @throws PatternSyntaxException if the line information would need to be repaired
+	 */
+	private void checkLineInformationRepair(int offset, int length, String replaceText) throws BadLocationException, PatternSyntaxException {
+		if (fDocument instanceof IRepairableDocumentExtension
+				&& ((IRepairableDocumentExtension)fDocument).isLineInformationRepairNeeded(offset, length, replaceText)) {
+			String message= TextMessages.getString("FindReplaceDocumentAdapter.incompatibleLineDelimiter"); //$NON-NLS-1$
+			throw new PatternSyntaxException(message, replaceText, offset);
+		}
+	}
+
+	/**
+	 * Returns the pattern flags for the given search criteria.
+	 *
+	 * @param caseSensitive indicates whether lower and upper case should be distinguished
+	 * @param regExSearch whether the find string is a regular expression
+	 * @return the pattern flags
+	 */
+	private int getPatternFlags(boolean caseSensitive, boolean regExSearch) {
+		int patternFlags= 0;
+
+		if (regExSearch)
+			patternFlags |= Pattern.MULTILINE;
+
+		if (!caseSensitive)
+			patternFlags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+
+		return patternFlags;
+	}
+
+	/**
+	 * Converts the given find string into a regular expression for the given search criteria.
+	 *
+	 * @param findString the string to find
+	 * @param wholeWord whether the find string should be limited by word boundaries
+	 * @param regExSearch whether the find string is a regular expression
+	 * @return the regular expression
+	 * @throws PatternSyntaxException if \R is added at an illegal position
+	 */
+	private String getPatternString(String findString, boolean wholeWord, boolean regExSearch) throws PatternSyntaxException {
+		if (regExSearch)
+			findString= substituteLinebreak(findString);
+		else
+			findString= asRegPattern(findString);
+
+		if (wholeWord)
+			findString= "\\b" + findString + "\\b"; //$NON-NLS-1$ //$NON-NLS-2$
+
+		return findString;
+	}
+
 	/**
 	 * Stateful findReplace executes a FIND, REPLACE, REPLACE_FIND or FIND_FIRST operation.
 	 * In case of REPLACE and REPLACE_FIND it sends a <code>DocumentEvent</code> to all
@@ -159,21 +422,8 @@ public class FindReplaceDocumentAdapter implements CharSequence {
 			if (startOffset < 0 || startOffset > length())
 				throw new BadLocationException();
 
-			int patternFlags= 0;
-
-			if (regExSearch) {
-				patternFlags |= Pattern.MULTILINE;
-				findString= substituteLinebreak(findString);
-			}
-
-			if (!caseSensitive)
-				patternFlags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
-
-			if (!regExSearch)
-				findString= asRegPattern(findString);
-
-			if (wholeWord)
-				findString= "\\b" + findString + "\\b"; //$NON-NLS-1$ //$NON-NLS-2$
+			int patternFlags= getPatternFlags(caseSensitive, regExSearch);
+			findString= getPatternString(findString, wholeWord, regExSearch);
 
 			fFindReplaceMatchOffset= startOffset;
 			if (fFindReplaceMatcher != null && fFindReplaceMatcher.pattern().pattern().equals(findString) && fFindReplaceMatcher.pattern().flags() == patternFlags) {
@@ -192,26 +442,13 @@ public class FindReplaceDocumentAdapter implements CharSequence {
 		fFindReplaceState= operationCode;
 
 		if (operationCode == REPLACE || operationCode == REPLACE_FIND_NEXT) {
-			if (regExSearch) {
-				Pattern pattern= fFindReplaceMatcher.pattern();
-				String prevMatch= fFindReplaceMatcher.group();
-				try {
-					replaceText= interpretReplaceEscapes(replaceText, prevMatch);
-					Matcher replaceTextMatcher= pattern.matcher(prevMatch);
-					replaceText= replaceTextMatcher.replaceFirst(replaceText);
-				} catch (IndexOutOfBoundsException ex) {
-					throw new PatternSyntaxException(ex.getLocalizedMessage(), replaceText, -1);
-				}
-			}
+			if (regExSearch)
+				replaceText= substituteReplaceText(fFindReplaceMatcher.pattern(), replaceText, fFindReplaceMatcher.group());
 
 			int offset= fFindReplaceMatcher.start();
 			int length= fFindReplaceMatcher.group().length();
 
-			if (fDocument instanceof IRepairableDocumentExtension
-					&& ((IRepairableDocumentExtension)fDocument).isLineInformationRepairNeeded(offset, length, replaceText)) {
-				String message= TextMessages.getString("FindReplaceDocumentAdapter.incompatibleLineDelimiter"); //$NON-NLS-1$
-				throw new PatternSyntaxException(message, replaceText, offset);
-			}
+			checkLineInformationRepair(offset, length, replaceText);
 
 			fDocument.replace(offset, length, replaceText);
 
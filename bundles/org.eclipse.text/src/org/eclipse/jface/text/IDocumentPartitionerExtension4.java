@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+
+/**
+ * Extension interface for {@link org.eclipse.jface.text.IDocumentPartitioner}. Adds the
+ * concept of a partitioning watermark for partitioners which compute the partitioning of large
+ * documents incrementally in the background.
+ * <p>
+ * The partitioning of the document up to the watermark is known. The partitioning behind the
+ * watermark is still being computed in the background and is computed on demand when queried,
+ * which might take long. Clients that do not need the partitioning behind the watermark right away,
+ * e.g. because it is not visible, can register a {@link IPartitioningProgressListener} to be
+ * informed when the watermark advances.
+ * </p>
+ *
+ * @see org.eclipse.jface.text.rules.FastPartitioner#setIncrementalPartitioning(boolean)
+ * @since 3.15
+ */
+public interface IDocumentPartitionerExtension4 {
+
+	/**
+	 * Returns the offset up to which the partitioning of the connected document is known. Returns
+	 * the length of the document if the partitioning is complete or is not being computed in the
+	 * background.
+	 *
+	 * @return the partitioning watermark
+	 */
+	int getPartitioningWatermark();
+
+	/**
+	 * Adds the given listener to be informed when the partitioning watermark advances. Has no
+	 * effect if an identical listener is already registered.
+	 *
+	 * @param listener the listener to add
+	 */
+	void addPartitioningProgressListener(IPartitioningProgressListener listener);
+
+	/**
+	 * Removes the given listener. Has no effect if an identical listener is not registered.
+	 *
+	 * @param listener the listener to remove
+	 */
+	void removePartitioningProgressListener(IPartitioningProgressListener listener);
+}
@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+
+/**
+ * Listener for the progress of partitioners which compute the partitioning of a document in the
+ * background.
+ *
+ * @see IDocumentPartitionerExtension4
+ * @since 3.15
+ */
+public interface IPartitioningProgressListener {
+
+	/**
+	 * Informs that the partitioning watermark of the given partitioner advanced over the given
+	 * region, i.e. that the partitioning of the region is now known.
+	 * <p>
+	 * This method may be called from any thread, possibly while the partitioner's document is
+	 * locked. Implementers must not block and should not access the document from within this
+	 * method.
+	 * </p>
+	 *
+	 * @param partitioner the partitioner
+	 * @param region the region whose partitioning has been computed
+	 */
+	void partitioningProgressed(IDocumentPartitioner partitioner, IRegion region);
+}
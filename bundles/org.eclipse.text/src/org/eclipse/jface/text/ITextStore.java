@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2006 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,8 +20,9 @@ package org.eclipse.jface.text;
  * Provides access to the stored text and allows to manipulate it.</p>
  * <p>
  * Clients may
- * implement this interface or use {@link org.eclipse.jface.text.GapTextStore} or
- * {@link org.eclipse.jface.text.CopyOnWriteTextStore}.</p>
+ * implement this interface or use {@link org.eclipse.jface.text.GapTextStore},
+ * {@link org.eclipse.jface.text.CopyOnWriteTextStore} or
+ * {@link org.eclipse.jface.text.PieceTableTextStore}.</p>
  */
 public interface ITextStore {
 
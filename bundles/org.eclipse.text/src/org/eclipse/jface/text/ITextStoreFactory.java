@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+
+/**
+ * A factory for {@link ITextStore}s. Allows {@link Document} and other
+ * {@link AbstractDocument} subclasses to select the text store implementation
+ * best suited for the expected document size and editing pattern, e.g.
+ * <code>setTextStore(ITextStoreFactory.PIECE_TABLE.createTextStore())</code>.
+ * <p>
+ * Clients may implement this interface.
+ * </p>
+ *
+ * @see Document#Document(ITextStoreFactory)
+ * @since 3.15
+ */
+@FunctionalInterface
+public interface ITextStoreFactory {
+
+	/**
+	 * Creates the default text store: a {@link GapTextStore} wrapped inside a
+	 * {@link CopyOnWriteTextStore}. Suited for typical source code documents.
+	 */
+	ITextStoreFactory DEFAULT= () -> new CopyOnWriteTextStore(new GapTextStore());
+
+	/**
+	 * Creates a {@link PieceTableTextStore}. Suited for documents of several
+	 * hundred megabytes, as no modification copies the whole content.
+	 */
+	ITextStoreFactory PIECE_TABLE= PieceTableTextStore::new;
+
+	/**
+	 * Creates a new, empty text store.
+	 *
+	 * @return a new text store
+	 */
+	ITextStore createTextStore();
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -335,9 +335,30 @@ abstract class ListLineTracker implements ILineTracker {
 		}
 	}
 
+	/**
+	 * Replaces the line structure of this tracker by the line structure of the given tracker. Used
+	 * only by {@link AbstractLineTracker#setLineStartCacheEnabled(boolean)}.
+	 *
+	 * @param tracker the tracker to copy the line structure from
+	 * @throws BadLocationException if the given tracker is inconsistent
+	 * @since 3.15
+	 */
+	final void setLines(ILineTracker tracker) throws BadLocationException {
+		fLines.clear();
+		fTextLength= 0;
+		int lines= tracker.getNumberOfLines();
+		for (int i= 0; i < lines; i++) {
+			int length= tracker.getLineLength(i);
+			if (length > 0)
+				fLines.add(new Line(fTextLength, fTextLength + length - 1, tracker.getLineDelimiter(i)));
+			fTextLength+= length;
+		}
+	}
+
 	/**
 	 * Returns the internal data structure, a {@link List} of {@link Line}s. Used only by
-	 * {@link TreeLineTracker#TreeLineTracker(ListLineTracker)}.
+	 * {@link TreeLineTracker#TreeLineTracker(ListLineTracker)} and
+	 * {@link ArrayLineTracker#ArrayLineTracker(ListLineTracker)}.
 	 *
 	 * @return the internal list of lines.
 	 */
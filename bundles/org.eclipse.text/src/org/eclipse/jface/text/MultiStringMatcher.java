@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Paul Pazderski, Thomas Wolf, and others.
+ * Copyright (c) 2019, 2026 Paul Pazderski, Thomas Wolf, and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,17 +13,23 @@
  *******************************************************************************/
 package org.eclipse.jface.text;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * Fast matcher to find the occurrences of any of a fixed set of constant strings. Supports finding
  * all (possibly overlapping) matches, or only the leftmost longest match.
+ * <p>
+ * The bulk operations {@link #findAll(CharSequence, int)} and
+ * {@link #indexOfAll(CharSequence, int)} return the matches as packed offset/length pairs and
+ * search large texts in parallel chunks.
+ * </p>
  *
  * @since 3.9
  */
@@ -36,6 +42,17 @@ public class MultiStringMatcher {
 	// CACM 18(6), 1975.
 	//
 	// The algorithm has been modified to support reporting either all matches or only leftmost longest matches.
+	//
+	// The bulk operations split the text into chunks which are searched in parallel. A chunk reports the
+	// matches ending in it; the search starts maxLength - 1 characters before the chunk so that matches
+	// crossing the chunk start are found as well. Since the automaton's state depends only on the last
+	// maxLength - 1 characters, this yields exactly the matches a sequential search reports for the chunk.
+
+	/** Texts shorter than this are searched sequentially by the bulk operations. */
+	private static final int PARALLEL_THRESHOLD= 1 << 16;
+
+	/** The size of the chunks searched by one task of the bulk operations. */
+	private static final int CHUNK_SIZE= 1 << 15;
 
 	/**
 	 * Describes a match result of {@link MultiStringMatcher#indexOf(CharSequence, int)}, giving
@@ -125,6 +142,16 @@ public class MultiStringMatcher {
 					public Match indexOf(CharSequence text, int offset) {
 						return null;
 					}
+
+					@Override
+					public int[] findAll(CharSequence text, int offset) {
+						return new int[0];
+					}
+
+					@Override
+					public int[] indexOfAll(CharSequence text, int offset) {
+						return new int[0];
+					}
 				};
 			}
 			result.buildLinks();
@@ -187,7 +214,13 @@ public class MultiStringMatcher {
 
 	/** A node in the trie built from the search strings. */
 	private static class Node {
-		HashMap<Character, Node> children;
+		/** The characters of the children, sorted; {@code null} if there are none. */
+		char[] keys;
+
+		/** The children, in the order of {@link #keys}. */
+		Node[] children;
+
+		int childCount;
 
 		String match;
 
@@ -201,25 +234,52 @@ public class MultiStringMatcher {
 			this.depth= depth;
 		}
 
-		Node next(Character c) {
-			return children == null ? null : children.get(c);
+		Node next(char c) {
+			if (keys == null) {
+				return null;
+			}
+			int i= Arrays.binarySearch(keys, 0, childCount, c);
+			return i < 0 ? null : children[i];
 		}
 
 		Node add(char c) {
-			if (children == null) {
-				children= new HashMap<>();
+			if (keys == null) {
+				keys= new char[2];
+				children= new Node[2];
+			}
+			int i= Arrays.binarySearch(keys, 0, childCount, c);
+			if (i >= 0) {
+				return children[i];
+			}
+			i= -(i + 1);
+			if (childCount == keys.length) {
+				keys= Arrays.copyOf(keys, childCount * 2);
+				children= Arrays.copyOf(children, childCount * 2);
 			}
-			return children.computeIfAbsent(Character.valueOf(c), key -> new Node(depth + 1));
+			System.arraycopy(keys, i, keys, i + 1, childCount - i);
+			System.arraycopy(children, i, children, i + 1, childCount - i);
+			Node child= new Node(depth + 1);
+			keys[i]= c;
+			children[i]= child;
+			childCount++;
+			return child;
 		}
 
 		boolean hasChildren() {
-			return children != null;
+			return childCount > 0;
 		}
 
 		@Override
 		public String toString() {
+			StringBuilder b= new StringBuilder();
+			for (int i= 0; i < childCount; i++) {
+				if (i > 0) {
+					b.append(", "); //$NON-NLS-1$
+				}
+				b.append(keys[i]);
+			}
 			return "[depth=" + depth + ", match=" + match //$NON-NLS-1$ //$NON-NLS-2$
-					+ ", children=" + (children == null ? "<none>" : children.keySet().stream().map(c -> c.toString()).collect(Collectors.joining(", "))) //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ ", children=" + (childCount == 0 ? "<none>" : b.toString()) //$NON-NLS-1$ //$NON-NLS-2$
 					+ ']';
 		}
 	}
@@ -227,13 +287,19 @@ public class MultiStringMatcher {
 	/** Root node of the trie. */
 	private final Node root= new Node(0) {
 		@Override
-		Node next(Character c) {
+		Node next(char c) {
 			// Implements the sentinel loop on the root node for all non-matching characters.
 			Node child= super.next(c);
 			return child == null ? this : child;
 		}
 	};
 
+	/** Length of the longest search string. */
+	private int maxLength;
+
+	/** The first characters of all search strings. */
+	private final BitSet startChars= new BitSet();
+
 	private MultiStringMatcher() {
 		// Always use a Builder or the static helper methods to create a MultiStringMatcher
 	}
@@ -249,6 +315,8 @@ public class MultiStringMatcher {
 					node= node.add(c);
 				}
 				node.match= searchString;
+				maxLength= Math.max(maxLength, searchString.length());
+				startChars.set(searchString.charAt(0));
 			}
 		}
 	}
@@ -258,7 +326,8 @@ public class MultiStringMatcher {
 		// is a one-to-one implementation of the original algorithm. Variable names
 		// s, r, and state are kept as in the paper.
 		List<Node> queue= new LinkedList<>();
-		for (Node s : root.children.values()) {
+		for (int i= 0; i < root.childCount; i++) {
+			Node s= root.children[i];
 			if (s.hasChildren()) {
 				// No need to queue nodes without children since we don't do anything
 				// with them anyway.
@@ -268,9 +337,9 @@ public class MultiStringMatcher {
 		}
 		while (!queue.isEmpty()) {
 			Node r= queue.remove(0);
-			for (Map.Entry<Character, Node> entry : r.children.entrySet()) {
-				Character c= entry.getKey();
-				Node s= entry.getValue();
+			for (int i= 0; i < r.childCount; i++) {
+				char c= r.keys[i];
+				Node s= r.children[i];
 				if (s.hasChildren()) {
 					queue.add(s);
 				}
@@ -304,7 +373,7 @@ public class MultiStringMatcher {
 		int textEnd= text.length();
 		Node node= root;
 		for (int i= offset; i < textEnd; i++) {
-			Character c= Character.valueOf(text.charAt(i));
+			char c= text.charAt(i);
 			Node next;
 			while ((next= node.next(c)) == null) {
 				node= node.fail;
@@ -377,7 +446,7 @@ public class MultiStringMatcher {
 		Match subMatch= null;
 		Node node= root;
 		for (int i= offset; i < textEnd; i++) {
-			Character c= Character.valueOf(text.charAt(i));
+			char c= text.charAt(i);
 			Node next= node.next(c);
 			if (next == null) {
 				// Can't continue on this path.
@@ -430,6 +499,177 @@ public class MultiStringMatcher {
 		return primaryMatch != null ? primaryMatch : subMatch;
 	}
 
+	/**
+	 * Finds all occurrences of any of the search strings of the {@link MultiStringMatcher} in the
+	 * given {@code text} starting at the given {@code offset}, including overlapping occurrences.
+	 * <p>
+	 * The matches are returned in the same order as by {@link #find(CharSequence, int, Consumer)}
+	 * as offset/length pairs, i.e. the offset of the <i>i</i>-th match is at index <code>2 * i</code>
+	 * and its length at index <code>2 * i + 1</code>. Large texts are searched in parallel chunks
+	 * on the {@link ForkJoinPool#commonPool() common pool}, so {@code text} must support concurrent
+	 * read access and must not be modified during the search.
+	 * </p>
+	 *
+	 * @param text to search (not {@code null})
+	 * @param offset to start searching at
+	 * @return the offset/length pairs of all matches, possibly empty
+	 * @since 3.15
+	 */
+	public int[] findAll(CharSequence text, int offset) {
+		int end= text.length();
+		if (offset >= end) {
+			return new int[0];
+		}
+		if (end - offset < PARALLEL_THRESHOLD) {
+			Matches matches= new Matches();
+			findAll(text, offset, offset, end, matches);
+			return matches.toArray();
+		}
+		return ForkJoinPool.commonPool().invoke(new FindAllTask(text, offset, offset, end)).toArray();
+	}
+
+	/**
+	 * Finds all non-overlapping occurrences of any of the search strings of the
+	 * {@link MultiStringMatcher} in the given {@code text} starting at the given {@code offset}.
+	 * <p>
+	 * The result is the same as calling {@link #indexOf(CharSequence, int)} repeatedly, each time
+	 * starting at the end of the previous match. The matches are returned in ascending order as
+	 * offset/length pairs like in {@link #findAll(CharSequence, int)}, and large texts are
+	 * searched in parallel in the same way.
+	 * </p>
+	 *
+	 * @param text to search (not {@code null})
+	 * @param offset to start searching at
+	 * @return the offset/length pairs of the leftmost longest non-overlapping matches, possibly
+	 *         empty
+	 * @since 3.15
+	 */
+	public int[] indexOfAll(CharSequence text, int offset) {
+		int[] all= findAll(text, offset);
+		int count= all.length / 2;
+		// sort by offset, longest match first
+		long[] keys= new long[count];
+		for (int i= 0; i < count; i++) {
+			keys[i]= ((long) all[2 * i] << 32) | (Integer.MAX_VALUE - all[2 * i + 1]);
+		}
+		Arrays.parallelSort(keys);
+		Matches matches= new Matches();
+		int matchEnd= offset;
+		for (long key : keys) {
+			int matchOffset= (int) (key >>> 32);
+			if (matchOffset >= matchEnd) {
+				int length= Integer.MAX_VALUE - (int) key;
+				matches.add(matchOffset, length);
+				matchEnd= matchOffset + length;
+			}
+		}
+		return matches.toArray();
+	}
+
+	/**
+	 * Searches the given text and collects the matches ending in the range from {@code start}
+	 * (inclusive) to {@code end} (exclusive).
+	 *
+	 * @param text to search
+	 * @param from to start searching at, at most {@code start}
+	 * @param start of the range in which matches have to end
+	 * @param end of the range in which matches have to end
+	 * @param matches to add the matches to
+	 */
+	private void findAll(CharSequence text, int from, int start, int end, Matches matches) {
+		Node node= root;
+		for (int i= from; i < end; i++) {
+			char ch= text.charAt(i);
+			if (node == root) {
+				// Skip the characters which cannot start a match.
+				while (!startChars.get(ch)) {
+					if (++i == end) {
+						return;
+					}
+					ch= text.charAt(i);
+				}
+			}
+			Node next;
+			while ((next= node.next(ch)) == null) {
+				node= node.fail;
+			}
+			node= next;
+			if (i >= start) {
+				if (node.match != null) {
+					matches.add(i - node.depth + 1, node.depth);
+				}
+				for (Node out= node.output; out != null; out= out.output) {
+					matches.add(i - out.depth + 1, out.depth);
+				}
+			}
+		}
+	}
+
+	/** A growable array of offset/length pairs. */
+	private static class Matches {
+
+		private int[] data= new int[16];
+
+		private int size;
+
+		void add(int offset, int length) {
+			if (size + 2 > data.length) {
+				data= Arrays.copyOf(data, data.length * 2);
+			}
+			data[size++]= offset;
+			data[size++]= length;
+		}
+
+		void addAll(Matches other) {
+			if (size + other.size > data.length) {
+				data= Arrays.copyOf(data, Math.max(data.length * 2, size + other.size));
+			}
+			System.arraycopy(other.data, 0, data, size, other.size);
+			size+= other.size;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(data, size);
+		}
+	}
+
+	/** Searches a range of a text, splitting it into chunks searched in parallel. */
+	private class FindAllTask extends RecursiveTask<Matches> {
+
+		private static final long serialVersionUID= 1L;
+
+		private final transient CharSequence text;
+
+		private final int offset;
+
+		private final int start;
+
+		private final int end;
+
+		FindAllTask(CharSequence text, int offset, int start, int end) {
+			this.text= text;
+			this.offset= offset;
+			this.start= start;
+			this.end= end;
+		}
+
+		@Override
+		protected Matches compute() {
+			if (end - start <= CHUNK_SIZE) {
+				Matches matches= new Matches();
+				findAll(text, Math.max(offset, start - maxLength + 1), start, end, matches);
+				return matches;
+			}
+			int mid= (start + end) >>> 1;
+			FindAllTask head= new FindAllTask(text, offset, start, mid);
+			head.fork();
+			Matches tail= new FindAllTask(text, offset, mid, end).compute();
+			Matches matches= head.join();
+			matches.addAll(tail);
+			return matches;
+		}
+	}
+
 	/**
 	 * Finds the leftmost longest occurrence of any of the given {@code searchStrings} in the
 	 * {@code text} starting at the given {@code offset}.
@@ -0,0 +1,596 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+
+/**
+ * Implements a piece table text store for very large documents. The content is never copied as a
+ * whole: the initial content passed to {@link #set(String)} or {@link #set(CharSequence)} is
+ * referenced as is, inserted text is appended to chunked, append-only add buffers, and the document
+ * is described by a sequence of pieces referring to ranges of these buffers. The pieces are kept in a randomized balanced binary
+ * tree (treap) which is augmented with the accumulated length of each subtree.
+ * <p>
+ * <strong>Performance:</strong> Let <var>p</var> be the number of pieces, which grows with the
+ * number of non-contiguous modifications since the last {@link #set(String)}. Then
+ * {@link #replace(int, int, String)} performs in expected <i>O(log p)</i> plus the cost of copying
+ * the inserted text once, {@link #get(int)} performs in <i>O(log p)</i> (<i>O(1)</i> for
+ * consecutive accesses within the same piece), and {@linkplain #get(int, int) get(int,
+ * <var>length</var>)} performs in <i>O(log p + length)</i>. Typing-style changes extend the
+ * previously inserted piece and do not create new pieces.
+ * </p>
+ * <p>
+ * {@link #subSequence(int, int)} returns a read-only view of a range which is not affected by
+ * later modifications of the store, without copying any characters.
+ * </p>
+ * <p>
+ * This class is not intended to be subclassed.
+ * </p>
+ *
+ * @see ITextStoreFactory
+ * @since 3.15
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class PieceTableTextStore implements ITextStore {
+
+	/** The size of the add buffer chunks. */
+	private static final int CHUNK_SIZE= 64 * 1024;
+
+	/**
+	 * A piece of the document and node of the piece tree. A piece either refers to a range of a
+	 * character sequence (the initial content or a large inserted text) or of an add buffer chunk.
+	 */
+	private static final class Piece {
+		/** The referenced character sequence, or <code>null</code> if the piece refers to a chunk */
+		final CharSequence fText;
+		/** The referenced add buffer chunk, or <code>null</code> if the piece refers to a sequence */
+		final char[] fChars;
+		/** The start of the piece in its buffer */
+		final int fStart;
+		/** The length of the piece */
+		int fLength;
+		/** The heap priority of the node */
+		final int fPriority;
+		/** The accumulated length of this node's subtree */
+		int fTotal;
+		/** The left child */
+		Piece fLeft;
+		/** The right child */
+		Piece fRight;
+
+		Piece(CharSequence text, char[] chars, int start, int length, int priority) {
+			fText= text;
+			fChars= chars;
+			fStart= start;
+			fLength= length;
+			fTotal= length;
+			fPriority= priority;
+		}
+
+		char charAt(int index) {
+			return fText != null ? fText.charAt(fStart + index) : fChars[fStart + index];
+		}
+
+		void getChars(int from, int to, char[] dest, int destOffset) {
+			if (fText instanceof String string) {
+				string.getChars(fStart + from, fStart + to, dest, destOffset);
+			} else if (fText != null) {
+				for (int i= fStart + from, end= fStart + to; i < end; i++)
+					dest[destOffset++]= fText.charAt(i);
+			} else {
+				System.arraycopy(fChars, fStart + from, dest, destOffset, to - from);
+			}
+		}
+
+		String substring(int from, int to) {
+			if (fText != null)
+				return fText.subSequence(fStart + from, fStart + to).toString();
+			return new String(fChars, fStart + from, to - from);
+		}
+	}
+
+	/**
+	 * A piece together with its document offset, the result of a lookup. Immutable, so that
+	 * concurrent readers always see a piece with its matching offset.
+	 */
+	private static final class Lookup {
+		/** The piece */
+		final Piece fPiece;
+		/** The document offset of the piece */
+		final int fOffset;
+
+		Lookup(Piece piece, int offset) {
+			fPiece= piece;
+			fOffset= offset;
+		}
+	}
+
+	/**
+	 * An immutable view onto a range of the store, see {@link PieceTableTextStore#subSequence(int, int)}.
+	 */
+	private static final class Snapshot implements CharSequence {
+		/** The pieces of the view, copied so that later changes in the tree do not affect them */
+		private final Piece[] fPieces;
+		/** The start offsets of the pieces in this view */
+		private final int[] fOffsets;
+		/** The offset of this view in the first piece */
+		private final int fFrom;
+		/** The length of this view */
+		private final int fLength;
+
+		Snapshot(Piece[] pieces, int[] offsets, int from, int length) {
+			fPieces= pieces;
+			fOffsets= offsets;
+			fFrom= from;
+			fLength= length;
+		}
+
+		@Override
+		public int length() {
+			return fLength;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= fLength)
+				throw new IndexOutOfBoundsException(index);
+			int absolute= fFrom + index;
+			int i= indexOf(absolute);
+			return fPieces[i].charAt(absolute - fOffsets[i]);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			if (start < 0 || end > fLength || start > end)
+				throw new IndexOutOfBoundsException();
+			return new Snapshot(fPieces, fOffsets, fFrom + start, end - start);
+		}
+
+		@Override
+		public String toString() {
+			if (fLength == 0)
+				return ""; //$NON-NLS-1$
+			char[] result= new char[fLength];
+			int from= fFrom;
+			int to= fFrom + fLength;
+			for (int i= indexOf(from); i < fPieces.length && fOffsets[i] < to; i++) {
+				int pieceStart= fOffsets[i];
+				int start= Math.max(from, pieceStart) - pieceStart;
+				int end= Math.min(to, pieceStart + fPieces[i].fLength) - pieceStart;
+				fPieces[i].getChars(start, end, result, pieceStart + start - from);
+			}
+			return new String(result);
+		}
+
+		private int indexOf(int absolute) {
+			int low= 0;
+			int high= fOffsets.length - 1;
+			while (low < high) {
+				int mid= (low + high + 1) >>> 1;
+				if (fOffsets[mid] <= absolute)
+					low= mid;
+				else
+					high= mid - 1;
+			}
+			return low;
+		}
+	}
+
+	/** The root of the piece tree, <code>null</code> if the store is empty */
+	private Piece fRoot;
+	/** The add buffer chunk currently appended to */
+	private char[] fChunk;
+	/** The number of used characters in {@link #fChunk} */
+	private int fChunkLength;
+	/** The state of the priority generator */
+	private int fSeed= 0x2545F491;
+	/** The left result of the last {@link #split(Piece, int)} */
+	private Piece fSplitLeft;
+	/** The right result of the last {@link #split(Piece, int)} */
+	private Piece fSplitRight;
+	/** The last lookup, used to speed up consecutive accesses */
+	private volatile Lookup fCachedLookup;
+
+	/**
+	 * Creates a new empty piece table text store.
+	 */
+	public PieceTableTextStore() {
+	}
+
+	@Override
+	public char get(int offset) {
+		Lookup lookup= fCachedLookup;
+		if (lookup == null || offset < lookup.fOffset || offset >= lookup.fOffset + lookup.fPiece.fLength) {
+			lookup= find(offset);
+			if (lookup == null)
+				throw new IndexOutOfBoundsException(offset);
+		}
+		return lookup.fPiece.charAt(offset - lookup.fOffset);
+	}
+
+	@Override
+	public String get(int offset, int length) {
+		if (length == 0)
+			return ""; //$NON-NLS-1$
+		Lookup lookup= find(offset);
+		if (lookup != null && offset + length <= lookup.fOffset + lookup.fPiece.fLength) {
+			int start= offset - lookup.fOffset;
+			return lookup.fPiece.substring(start, start + length);
+		}
+		char[] result= new char[length];
+		copy(fRoot, offset, offset + length, 0, result, offset);
+		return new String(result);
+	}
+
+	@Override
+	public int getLength() {
+		return fRoot == null ? 0 : fRoot.fTotal;
+	}
+
+	@Override
+	public void replace(int offset, int length, String text) {
+		fCachedLookup= null;
+
+		split(fRoot, offset);
+		Piece left= fSplitLeft;
+		Piece right= fSplitRight;
+		if (length > 0) {
+			split(right, length);
+			right= fSplitRight;
+		}
+
+		Piece middle= null;
+		if (text != null && !text.isEmpty() && !append(left, text))
+			middle= createPiece(text);
+
+		fRoot= merge(merge(left, middle), right);
+		fSplitLeft= null;
+		fSplitRight= null;
+	}
+
+	@Override
+	public void set(String text) {
+		set((CharSequence) text);
+	}
+
+	/**
+	 * Replaces the content of the text store with the given character sequence. The sequence is
+	 * referenced, not copied, and must therefore not change as long as it is part of this store.
+	 * This allows to back the store by a lazily computed sequence, e.g. the decoded content of a
+	 * memory-mapped file, which is only accessed when the respective range is requested.
+	 *
+	 * @param text the new content of the text store, may be <code>null</code>
+	 */
+	public void set(CharSequence text) {
+		fCachedLookup= null;
+		fChunk= null;
+		fChunkLength= 0;
+		fRoot= text == null || text.length() == 0 ? null : new Piece(text, null, 0, text.length(), nextPriority());
+	}
+
+	/**
+	 * Copies the ranges of the given character sequence which are still part of this store, so
+	 * that the store no longer refers to the sequence. This must be called before a sequence
+	 * passed to {@link #set(CharSequence)} becomes invalid, e.g. before the memory-mapped file it
+	 * decodes is overwritten. Views returned by {@link #subSequence(int, int)} are not affected.
+	 *
+	 * @param text the character sequence to release
+	 */
+	public void release(CharSequence text) {
+		fCachedLookup= null;
+		fRoot= release(fRoot, text);
+	}
+
+	/**
+	 * Returns a read-only view of the specified character range. The view shares the characters
+	 * with this store, but is not affected by later modifications of the store.
+	 *
+	 * @param offset the offset of the range
+	 * @param length the length of the range
+	 * @return a view of the range
+	 */
+	public CharSequence subSequence(int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > getLength())
+			throw new IndexOutOfBoundsException();
+
+		int count= count(fRoot, offset, offset + length, 0);
+		Piece[] pieces= new Piece[Math.max(count, 1)];
+		int[] offsets= new int[pieces.length];
+		collect(fRoot, offset, offset + length, 0, pieces, offsets, 0);
+		int from= count == 0 ? 0 : offset - offsets[0];
+		for (int i= count - 1; i >= 0; i--)
+			offsets[i]-= offsets[0];
+		if (count == 0)
+			pieces[0]= new Piece("", null, 0, 0, 0); //$NON-NLS-1$
+		return new Snapshot(pieces, offsets, from, length);
+	}
+
+	/**
+	 * Returns the piece containing the given offset along with its document offset and caches
+	 * the result.
+	 *
+	 * @param offset the document offset
+	 * @return the lookup of the piece containing <code>offset</code>, or <code>null</code> if the
+	 *         offset is not inside the store
+	 */
+	private Lookup find(int offset) {
+		Piece node= fRoot;
+		int nodeOffset= 0;
+		while (node != null) {
+			int leftTotal= total(node.fLeft);
+			int start= nodeOffset + leftTotal;
+			if (offset < start) {
+				node= node.fLeft;
+			} else if (offset < start + node.fLength) {
+				Lookup lookup= new Lookup(node, start);
+				fCachedLookup= lookup;
+				return lookup;
+			} else {
+				nodeOffset= start + node.fLength;
+				node= node.fRight;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Copies the characters in <code>[from, to)</code> of the subtree rooted at <code>node</code>
+	 * into <code>dest</code>.
+	 *
+	 * @param node the subtree
+	 * @param from the start of the range (document offset)
+	 * @param to the end of the range (document offset)
+	 * @param nodeOffset the document offset of the subtree
+	 * @param dest the destination array
+	 * @param destBase the document offset corresponding to index 0 in <code>dest</code>
+	 */
+	private void copy(Piece node, int from, int to, int nodeOffset, char[] dest, int destBase) {
+		while (node != null && from < to) {
+			int start= nodeOffset + total(node.fLeft);
+			int end= start + node.fLength;
+			if (from < start)
+				copy(node.fLeft, from, Math.min(to, start), nodeOffset, dest, destBase);
+			if (from < end && to > start) {
+				int pieceFrom= Math.max(from, start);
+				int pieceTo= Math.min(to, end);
+				node.getChars(pieceFrom - start, pieceTo - start, dest, pieceFrom - destBase);
+			}
+			if (to <= end)
+				return;
+			from= Math.max(from, end);
+			nodeOffset= end;
+			node= node.fRight;
+		}
+	}
+
+	/**
+	 * Returns the number of non-empty pieces overlapping <code>[from, to)</code>.
+	 *
+	 * @param node the subtree
+	 * @param from the start of the range (document offset)
+	 * @param to the end of the range (document offset)
+	 * @param nodeOffset the document offset of the subtree
+	 * @return the number of pieces overlapping the range
+	 */
+	private int count(Piece node, int from, int to, int nodeOffset) {
+		int count= 0;
+		while (node != null && from < to) {
+			int start= nodeOffset + total(node.fLeft);
+			int end= start + node.fLength;
+			if (from < start)
+				count+= count(node.fLeft, from, Math.min(to, start), nodeOffset);
+			if (from < end && to > start)
+				count++;
+			if (to <= end)
+				break;
+			from= Math.max(from, end);
+			nodeOffset= end;
+			node= node.fRight;
+		}
+		return count;
+	}
+
+	/**
+	 * Stores immutable copies of the pieces overlapping <code>[from, to)</code> along with their
+	 * document offsets into the given arrays.
+	 *
+	 * @param node the subtree
+	 * @param from the start of the range (document offset)
+	 * @param to the end of the range (document offset)
+	 * @param nodeOffset the document offset of the subtree
+	 * @param pieces the array receiving the pieces
+	 * @param offsets the array receiving the document offsets of the pieces
+	 * @param index the index of the next piece to store
+	 * @return the index of the next piece to store after this call
+	 */
+	private int collect(Piece node, int from, int to, int nodeOffset, Piece[] pieces, int[] offsets, int index) {
+		while (node != null && from < to) {
+			int start= nodeOffset + total(node.fLeft);
+			int end= start + node.fLength;
+			if (from < start)
+				index= collect(node.fLeft, from, Math.min(to, start), nodeOffset, pieces, offsets, index);
+			if (from < end && to > start) {
+				pieces[index]= new Piece(node.fText, node.fChars, node.fStart, node.fLength, 0);
+				offsets[index]= start;
+				index++;
+			}
+			if (to <= end)
+				break;
+			from= Math.max(from, end);
+			nodeOffset= end;
+			node= node.fRight;
+		}
+		return index;
+	}
+
+	/**
+	 * Splits the tree rooted at <code>node</code> such that the first <code>offset</code>
+	 * characters end up in {@link #fSplitLeft} and the remainder in {@link #fSplitRight}. A piece
+	 * crossing <code>offset</code> is cut in two.
+	 *
+	 * @param node the root of the tree to split
+	 * @param offset the offset to split at
+	 */
+	private void split(Piece node, int offset) {
+		if (node == null) {
+			fSplitLeft= null;
+			fSplitRight= null;
+			return;
+		}
+
+		int leftTotal= total(node.fLeft);
+		if (offset <= leftTotal) {
+			split(node.fLeft, offset);
+			node.fLeft= fSplitRight;
+			update(node);
+			fSplitRight= node;
+		} else if (offset >= leftTotal + node.fLength) {
+			split(node.fRight, offset - leftTotal - node.fLength);
+			node.fRight= fSplitLeft;
+			update(node);
+			fSplitLeft= node;
+		} else {
+			// the tail inherits the node's priority, which keeps the heap order intact
+			int cut= offset - leftTotal;
+			Piece tail= new Piece(node.fText, node.fChars, node.fStart + cut, node.fLength - cut, node.fPriority);
+			tail.fRight= node.fRight;
+			node.fRight= null;
+			node.fLength= cut;
+			update(tail);
+			update(node);
+			fSplitLeft= node;
+			fSplitRight= tail;
+		}
+	}
+
+	/**
+	 * Merges two trees where all pieces of <code>left</code> precede those of <code>right</code>.
+	 *
+	 * @param left the left tree, may be <code>null</code>
+	 * @param right the right tree, may be <code>null</code>
+	 * @return the root of the merged tree
+	 */
+	private Piece merge(Piece left, Piece right) {
+		if (left == null)
+			return right;
+		if (right == null)
+			return left;
+		if (left.fPriority > right.fPriority) {
+			left.fRight= merge(left.fRight, right);
+			update(left);
+			return left;
+		}
+		right.fLeft= merge(left, right.fLeft);
+		update(right);
+		return right;
+	}
+
+	/**
+	 * Tries to append <code>text</code> to the last piece of the given tree. This is possible if
+	 * the last piece ends at the end of the current add buffer chunk and the chunk has enough
+	 * space left, which is the case for typing.
+	 *
+	 * @param tree the tree
+	 * @param text the text to append
+	 * @return <code>true</code> if the text was appended, <code>false</code> otherwise
+	 */
+	private boolean append(Piece tree, String text) {
+		if (tree == null || fChunk == null)
+			return false;
+
+		int length= text.length();
+		if (fChunk.length - fChunkLength < length)
+			return false;
+
+		Piece last= tree;
+		while (last.fRight != null)
+			last= last.fRight;
+		if (last.fChars != fChunk || last.fStart + last.fLength != fChunkLength)
+			return false;
+
+		text.getChars(0, length, fChunk, fChunkLength);
+		fChunkLength+= length;
+		last.fLength+= length;
+		for (Piece node= tree; node != null; node= node.fRight)
+			node.fTotal+= length;
+		return true;
+	}
+
+	/**
+	 * Creates a new piece for the given text. Large texts are referenced directly, smaller ones
+	 * are copied into the add buffer.
+	 *
+	 * @param text the text, not empty
+	 * @return the new piece
+	 */
+	private Piece createPiece(String text) {
+		int length= text.length();
+		if (length >= CHUNK_SIZE / 2)
+			return new Piece(text, null, 0, length, nextPriority());
+
+		if (fChunk == null || fChunk.length - fChunkLength < length) {
+			fChunk= new char[CHUNK_SIZE];
+			fChunkLength= 0;
+		}
+		text.getChars(0, length, fChunk, fChunkLength);
+		Piece piece= new Piece(null, fChunk, fChunkLength, length, nextPriority());
+		fChunkLength+= length;
+		return piece;
+	}
+
+	/**
+	 * Replaces the pieces of the given subtree which refer to <code>text</code> by copies.
+	 *
+	 * @param node the subtree
+	 * @param text the character sequence to release
+	 * @return the root of the subtree
+	 */
+	private static Piece release(Piece node, CharSequence text) {
+		if (node == null)
+			return null;
+		node.fLeft= release(node.fLeft, text);
+		node.fRight= release(node.fRight, text);
+		if (node.fText != text)
+			return node;
+
+		char[] chars= new char[node.fLength];
+		node.getChars(0, node.fLength, chars, 0);
+		Piece copy= new Piece(null, chars, 0, node.fLength, node.fPriority);
+		copy.fLeft= node.fLeft;
+		copy.fRight= node.fRight;
+		copy.fTotal= node.fTotal;
+		return copy;
+	}
+
+	private static int total(Piece node) {
+		return node == null ? 0 : node.fTotal;
+	}
+
+	private static void update(Piece node) {
+		node.fTotal= total(node.fLeft) + node.fLength + total(node.fRight);
+	}
+
+	/**
+	 * Returns the next pseudo random node priority (xorshift).
+	 *
+	 * @return the next priority
+	 */
+	private int nextPriority() {
+		int x= fSeed;
+		x^= x << 13;
+		x^= x >>> 17;
+		x^= x << 5;
+		fSeed= x;
+		return x;
+	}
+}
@@ -0,0 +1,471 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+
+/**
+ * The positions of an indexed position category, see
+ * {@link AbstractDocument#setPositionIndexingEnabled(boolean)}. Like the list used for regular
+ * categories, the tree keeps the positions in the order in which they have been inserted, which
+ * is the order of their offsets. The positions are kept in a randomized balanced binary tree
+ * (treap) which is augmented with the size of each subtree and the maximal end offset of the
+ * positions in each subtree. This makes it an interval tree which answers
+ * <ul>
+ * <li>index based access, insertion and removal in expected <i>O(log n)</i>,</li>
+ * <li>{@link #computeIndex(int)} in expected <i>O(log n)</i>,</li>
+ * <li>{@link #getPositions(int, int)}, i.e. which positions overlap a range, in expected
+ * <i>O(log n + k)</i> where <var>k</var> is the number of reported positions.</li>
+ * </ul>
+ * <p>
+ * Positions are mutable and are changed by position updaters behind the back of the tree. The
+ * order of the positions is not affected by that as long as the updaters preserve it, which is
+ * true for the {@link DefaultPositionUpdater}. The maximal end offsets however must be recomputed
+ * whenever positions have changed: either selectively via {@link #positionsUpdated(int, int)} or
+ * completely after {@link #invalidate()}.
+ * </p>
+ */
+final class PositionTree extends AbstractList<Position> implements RandomAccess {
+
+	/** A node of the tree. */
+	private static final class Node {
+		/** The position */
+		Position fPosition;
+		/** The heap priority of the node */
+		final int fPriority;
+		/** The number of nodes in this node's subtree */
+		int fSize;
+		/** The maximal end offset of the positions in this node's subtree */
+		int fMaxEnd;
+		/** The left child */
+		Node fLeft;
+		/** The right child */
+		Node fRight;
+
+		Node(Position position, int priority) {
+			fPosition= position;
+			fPriority= priority;
+			fSize= 1;
+			fMaxEnd= end(position);
+		}
+	}
+
+	/** The root of the tree, <code>null</code> if the tree is empty */
+	private Node fRoot;
+	/** Indicates whether the maximal end offsets must be recomputed */
+	private boolean fInvalid;
+	/** The state of the node priority generator */
+	private int fSeed= 0x2545F491;
+	/** The left result of the last {@link #split(Node, int)} */
+	private Node fSplitLeft;
+	/** The right result of the last {@link #split(Node, int)} */
+	private Node fSplitRight;
+
+	/**
+	 * Creates a new empty tree.
+	 */
+	PositionTree() {
+	}
+
+	/**
+	 * Creates a new tree with the given positions.
+	 *
+	 * @param positions the positions ordered by offset
+	 */
+	PositionTree(List<Position> positions) {
+		for (Position position : positions)
+			fRoot= merge(fRoot, new Node(position, nextPriority()));
+	}
+
+	@Override
+	public int size() {
+		return size(fRoot);
+	}
+
+	@Override
+	public Position get(int index) {
+		Objects.checkIndex(index, size());
+		return getNode(index).fPosition;
+	}
+
+	@Override
+	public Position set(int index, Position position) {
+		Objects.checkIndex(index, size());
+		Position previous= getNode(index).fPosition;
+		set(fRoot, index, position);
+		return previous;
+	}
+
+	@Override
+	public void add(int index, Position position) {
+		if (index < 0 || index > size())
+			throw new IndexOutOfBoundsException(index);
+
+		split(fRoot, index);
+		Node right= fSplitRight;
+		fRoot= merge(merge(fSplitLeft, new Node(position, nextPriority())), right);
+		modCount++;
+	}
+
+	@Override
+	public Position remove(int index) {
+		Objects.checkIndex(index, size());
+
+		split(fRoot, index);
+		Node left= fSplitLeft;
+		split(fSplitRight, 1);
+		Node removed= fSplitLeft;
+		fRoot= merge(left, fSplitRight);
+		modCount++;
+		return removed.fPosition;
+	}
+
+	@Override
+	public void clear() {
+		fRoot= null;
+		modCount++;
+	}
+
+	@Override
+	public Object[] toArray() {
+		Object[] result= new Object[size()];
+		fill(fRoot, 0, 0, result.length, result);
+		return result;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] array) {
+		int size= size();
+		T[] result= array.length >= size ? array : (T[]) Array.newInstance(array.getClass().getComponentType(), size);
+		fill(fRoot, 0, 0, size, result);
+		if (result.length > size)
+			result[size]= null;
+		return result;
+	}
+
+	/**
+	 * Returns the positions in the given index range.
+	 *
+	 * @param from the first index, inclusive
+	 * @param to the last index, exclusive
+	 * @return the positions in the given index range
+	 */
+	Position[] toArray(int from, int to) {
+		Position[] result= new Position[to - from];
+		fill(fRoot, 0, from, to, result);
+		return result;
+	}
+
+	/**
+	 * Computes the index at which a position with the given offset would be inserted. The position
+	 * is supposed to become the first of all positions with the same offset.
+	 *
+	 * @param offset the offset
+	 * @return the index of the first position whose offset is greater than or equal to
+	 *         <code>offset</code>
+	 * @see AbstractDocument#computeIndexInPositionList(List, int, boolean)
+	 */
+	int computeIndex(int offset) {
+		int index= 0;
+		Node node= fRoot;
+		while (node != null) {
+			if (node.fPosition.getOffset() < offset) {
+				index+= size(node.fLeft) + 1;
+				node= node.fRight;
+			} else {
+				node= node.fLeft;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Removes the given position, based on identity not equality.
+	 *
+	 * @param position the position to remove
+	 * @return <code>true</code> if the position was found and removed
+	 */
+	boolean removePosition(Position position) {
+		int index= indexOfPosition(position);
+		if (index == -1)
+			return false;
+		remove(index);
+		return true;
+	}
+
+	/**
+	 * Returns the index of the given position, based on identity not equality.
+	 *
+	 * @param position the position
+	 * @return the index of the position, or <code>-1</code> if the tree does not contain it
+	 */
+	int indexOfPosition(Position position) {
+		// assume the position is where its offset says
+		int offset= position.getOffset();
+		for (int i= computeIndex(offset), size= size(); i < size; i++) {
+			Position p= get(i);
+			if (p == position)
+				return i;
+			if (p.getOffset() != offset)
+				break;
+		}
+		return find(fRoot, 0, position);
+	}
+
+	/**
+	 * Returns all positions which start at or before <code>end</code> and end at or after
+	 * <code>start</code>, where the end of a position is its offset plus its length. The positions
+	 * are returned in the order of the tree.
+	 * <p>
+	 * This is a superset of the positions which overlap the range from <code>start</code> to
+	 * <code>end</code> in any sense of {@link Position#overlapsWith(int, int)} or
+	 * {@link Position#includes(int)}, callers are expected to filter the result.
+	 * </p>
+	 *
+	 * @param start the start of the range
+	 * @param end the end of the range
+	 * @return the candidate positions
+	 */
+	List<Position> getPositions(int start, int end) {
+		validate();
+		List<Position> result= new ArrayList<>();
+		collect(fRoot, start, end, result);
+		return result;
+	}
+
+	/**
+	 * Returns the modification count of the tree. It is incremented by all structural changes.
+	 *
+	 * @return the modification count
+	 */
+	int getModificationCount() {
+		return modCount;
+	}
+
+	/**
+	 * Recomputes the maximal end offsets after positions ending at or after <code>start</code> have
+	 * been changed. The positions must have been retrieved by {@link #getPositions(int, int)} and
+	 * the maximal end offsets must not have been touched since then, i.e. the tree must not have
+	 * been structurally modified.
+	 *
+	 * @param start the start of the range passed to {@link #getPositions(int, int)}
+	 * @param modificationCount the modification count at the time the positions were retrieved
+	 */
+	void positionsUpdated(int start, int modificationCount) {
+		if (modificationCount != modCount)
+			fInvalid= true;
+		else if (!fInvalid)
+			repair(fRoot, start);
+	}
+
+	/**
+	 * Tells the tree that positions have been changed in an unknown way. The maximal end offsets are
+	 * recomputed with the next range query.
+	 */
+	void invalidate() {
+		fInvalid= true;
+	}
+
+	/**
+	 * Recomputes all maximal end offsets if the tree has been invalidated.
+	 */
+	private void validate() {
+		if (fInvalid) {
+			recompute(fRoot);
+			fInvalid= false;
+		}
+	}
+
+	private Node getNode(int index) {
+		Node node= fRoot;
+		while (true) {
+			int leftSize= size(node.fLeft);
+			if (index < leftSize) {
+				node= node.fLeft;
+			} else if (index == leftSize) {
+				return node;
+			} else {
+				index-= leftSize + 1;
+				node= node.fRight;
+			}
+		}
+	}
+
+	private static void set(Node node, int index, Position position) {
+		int leftSize= size(node.fLeft);
+		if (index < leftSize)
+			set(node.fLeft, index, position);
+		else if (index == leftSize)
+			node.fPosition= position;
+		else
+			set(node.fRight, index - leftSize - 1, position);
+		update(node);
+	}
+
+	/**
+	 * Fills the positions of the given subtree whose index is in the given range into an array.
+	 *
+	 * @param node the root of the subtree
+	 * @param base the index of the first position of the subtree
+	 * @param from the first index, inclusive
+	 * @param to the last index, exclusive
+	 * @param result the array, the position at index <code>from</code> is stored at index 0
+	 */
+	private static void fill(Node node, int base, int from, int to, Object[] result) {
+		while (node != null) {
+			int index= base + size(node.fLeft);
+			if (from < index)
+				fill(node.fLeft, base, from, to, result);
+			if (from <= index && index < to)
+				result[index - from]= node.fPosition;
+			if (index + 1 >= to)
+				return;
+			base= index + 1;
+			node= node.fRight;
+		}
+	}
+
+	private static int find(Node node, int base, Position position) {
+		if (node == null)
+			return -1;
+		int index= base + size(node.fLeft);
+		if (node.fPosition == position)
+			return index;
+		int result= find(node.fLeft, base, position);
+		return result != -1 ? result : find(node.fRight, index + 1, position);
+	}
+
+	private static void collect(Node node, int start, int end, List<Position> result) {
+		while (node != null && node.fMaxEnd >= start) {
+			collect(node.fLeft, start, end, result);
+			Position position= node.fPosition;
+			// positions in the right subtree start even later
+			if (position.getOffset() > end)
+				return;
+			if (end(position) >= start)
+				result.add(position);
+			node= node.fRight;
+		}
+	}
+
+	private static void repair(Node node, int start) {
+		if (node == null || node.fMaxEnd < start)
+			return;
+		repair(node.fLeft, start);
+		repair(node.fRight, start);
+		update(node);
+	}
+
+	private static void recompute(Node node) {
+		if (node == null)
+			return;
+		recompute(node.fLeft);
+		recompute(node.fRight);
+		update(node);
+	}
+
+	/**
+	 * Splits the given tree such that the first <code>index</code> nodes end up in
+	 * {@link #fSplitLeft} and the remaining nodes in {@link #fSplitRight}.
+	 *
+	 * @param node the root of the tree to split, may be <code>null</code>
+	 * @param index the split index
+	 */
+	private void split(Node node, int index) {
+		if (node == null) {
+			fSplitLeft= null;
+			fSplitRight= null;
+			return;
+		}
+
+		int leftSize= size(node.fLeft);
+		if (index <= leftSize) {
+			split(node.fLeft, index);
+			node.fLeft= fSplitRight;
+			update(node);
+			fSplitRight= node;
+		} else {
+			split(node.fRight, index - leftSize - 1);
+			node.fRight= fSplitLeft;
+			update(node);
+			fSplitLeft= node;
+		}
+	}
+
+	/**
+	 * Merges two trees where all nodes of <code>left</code> precede those of <code>right</code>.
+	 *
+	 * @param left the left tree, may be <code>null</code>
+	 * @param right the right tree, may be <code>null</code>
+	 * @return the root of the merged tree
+	 */
+	private static Node merge(Node left, Node right) {
+		if (left == null)
+			return right;
+		if (right == null)
+			return left;
+		if (left.fPriority > right.fPriority) {
+			left.fRight= merge(left.fRight, right);
+			update(left);
+			return left;
+		}
+		right.fLeft= merge(left, right.fLeft);
+		update(right);
+		return right;
+	}
+
+	private static int size(Node node) {
+		return node == null ? 0 : node.fSize;
+	}
+
+	private static int end(Position position) {
+		return position.getOffset() + position.getLength();
+	}
+
+	private static void update(Node node) {
+		int maxEnd= end(node.fPosition);
+		int size= 1;
+		if (node.fLeft != null) {
+			size+= node.fLeft.fSize;
+			maxEnd= Math.max(maxEnd, node.fLeft.fMaxEnd);
+		}
+		if (node.fRight != null) {
+			size+= node.fRight.fSize;
+			maxEnd= Math.max(maxEnd, node.fRight.fMaxEnd);
+		}
+		node.fSize= size;
+		node.fMaxEnd= maxEnd;
+	}
+
+	/**
+	 * Returns the next pseudo random node priority (xorshift).
+	 *
+	 * @return the next priority
+	 */
+	private int nextPriority() {
+		int x= fSeed;
+		x^= x << 13;
+		x^= x >>> 17;
+		x^= x << 5;
+		fSeed= x;
+		return x;
+	}
+}
@@ -0,0 +1,497 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.rules;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.eclipse.jface.text.BadLocationException;
+
+
+/**
+ * The rules of a {@link RuleBasedScanner} compiled into a table which maps the first character
+ * of a token to the rules which can match at all, and into matchers which operate directly on a
+ * window of the document's characters instead of the scanner's {@link ICharacterScanner#read()}
+ * and {@link ICharacterScanner#unread()} methods.
+ * <p>
+ * Instances of {@link WordRule}, {@link PatternRule}, {@link SingleLineRule},
+ * {@link MultiLineRule}, {@link EndOfLineRule}, {@link NumberRule} and {@link WhitespaceRule} are
+ * compiled, but not instances of their subclasses. Other rules and rules with a column constraint
+ * are evaluated as usual. The compiled matchers replicate the behavior of the rules exactly,
+ * including the offset at which the scanner is left when a rule does not match.
+ * </p>
+ * <p>
+ * The character classes of word and whitespace detectors are cached for the first
+ * {@value #TABLE_SIZE} characters, i.e. detectors are expected to be stateless.
+ * </p>
+ *
+ * @see RuleBasedScanner#enableRuleCompilation(boolean)
+ */
+final class CompiledRuleSet {
+
+	/** The number of characters covered by the dispatch table. */
+	private static final int TABLE_SIZE= 256;
+	/** The size of the character window. */
+	private static final int WINDOW_SIZE= 4096;
+	/** The number of characters before the requested offset kept in a refilled window. */
+	private static final int WINDOW_BACKTRACK= 256;
+
+	/** The rule is evaluated as usual. */
+	private static final int INTERPRETED= 0;
+	/** The rule is a compiled {@link WordRule}. */
+	private static final int WORD= 1;
+	/** The rule is a compiled {@link PatternRule}. */
+	private static final int PATTERN= 2;
+	/** The rule is a compiled {@link NumberRule}. */
+	private static final int NUMBER= 3;
+	/** The rule is a compiled {@link WhitespaceRule}. */
+	private static final int WHITESPACE= 4;
+
+	/** The comparator ordering line delimiters as done by {@link PatternRule}. */
+	private static final Comparator<char[]> DECREASING_LENGTH= (o1, o2) -> o2.length - o1.length;
+
+	/** The rules. */
+	private final IRule[] fRules;
+	/** The kind of each rule. */
+	private final int[] fKinds;
+	/**
+	 * The cached word start, word part or whitespace classes of the first {@value #TABLE_SIZE}
+	 * characters for each rule, <code>null</code> for other rules.
+	 */
+	private final boolean[][] fStartClasses;
+	/** The cached word part classes for each word rule, <code>null</code> for other rules. */
+	private final boolean[][] fPartClasses;
+	/** The indices of the rules which can match a token starting with the given character. */
+	private final int[][] fDispatchTable;
+
+	/** The scanner currently using this rule set. */
+	private RuleBasedScanner fScanner;
+	/** The window of document characters. */
+	private final char[] fWindow= new char[WINDOW_SIZE];
+	/** The document offset of the first character in the window. */
+	private int fWindowStart;
+	/** The document offset after the last character in the window. */
+	private int fWindowEnd;
+	/** The line delimiters of the document sorted by decreasing length. */
+	private char[][] fSortedLineDelimiters;
+
+	/**
+	 * Compiles the given rules.
+	 *
+	 * @param rules the rules in evaluation order
+	 */
+	CompiledRuleSet(IRule[] rules) {
+		fRules= rules;
+		fKinds= new int[rules.length];
+		fStartClasses= new boolean[rules.length][];
+		fPartClasses= new boolean[rules.length][];
+
+		for (int i= 0; i < rules.length; i++) {
+			IRule rule= rules[i];
+			Class<?> type= rule.getClass();
+			if (type == WordRule.class) {
+				IWordDetector detector= ((WordRule) rule).fDetector;
+				fKinds[i]= WORD;
+				fStartClasses[i]= new boolean[TABLE_SIZE];
+				fPartClasses[i]= new boolean[TABLE_SIZE];
+				for (char c= 0; c < TABLE_SIZE; c++) {
+					fStartClasses[i][c]= detector.isWordStart(c);
+					fPartClasses[i][c]= detector.isWordPart(c);
+				}
+			} else if (type == PatternRule.class || type == SingleLineRule.class || type == MultiLineRule.class || type == EndOfLineRule.class) {
+				fKinds[i]= PATTERN;
+			} else if (type == NumberRule.class) {
+				fKinds[i]= NUMBER;
+			} else if (type == WhitespaceRule.class) {
+				IWhitespaceDetector detector= ((WhitespaceRule) rule).fDetector;
+				fKinds[i]= WHITESPACE;
+				fStartClasses[i]= new boolean[TABLE_SIZE];
+				for (char c= 0; c < TABLE_SIZE; c++)
+					fStartClasses[i][c]= detector.isWhitespace(c);
+			} else {
+				fKinds[i]= INTERPRETED;
+			}
+		}
+
+		fDispatchTable= new int[TABLE_SIZE][];
+		int[] candidates= new int[rules.length];
+		for (char c= 0; c < TABLE_SIZE; c++) {
+			int count= 0;
+			for (int i= 0; i < rules.length; i++) {
+				if (canStartWith(i, c))
+					candidates[count++]= i;
+			}
+			fDispatchTable[c]= Arrays.copyOf(candidates, count);
+		}
+	}
+
+	/**
+	 * Returns whether the rule with the given index can match a token starting with the given
+	 * character. Rules which cannot match read the character and unread it again.
+	 *
+	 * @param index the index of the rule
+	 * @param c the first character of the token
+	 * @return <code>false</code> if the rule cannot match, <code>true</code> otherwise
+	 */
+	private boolean canStartWith(int index, char c) {
+		switch (fKinds[index]) {
+			case WORD:
+				return c < TABLE_SIZE ? fStartClasses[index][c] : ((WordRule) fRules[index]).fDetector.isWordStart(c);
+			case PATTERN:
+				return ((PatternRule) fRules[index]).fStartSequence[0] == c;
+			case NUMBER:
+				return Character.isDigit(c);
+			case WHITESPACE:
+				return c < TABLE_SIZE ? fStartClasses[index][c] : ((WhitespaceRule) fRules[index]).fDetector.isWhitespace(c);
+			default:
+				return true;
+		}
+	}
+
+	/**
+	 * Prepares this rule set for scanning a new range with the given scanner.
+	 *
+	 * @param scanner the scanner whose range has been set
+	 */
+	void setRange(RuleBasedScanner scanner) {
+		fScanner= scanner;
+		fWindowStart= 0;
+		fWindowEnd= 0;
+
+		char[][] delimiters= scanner.getLegalLineDelimiters();
+		fSortedLineDelimiters= new char[delimiters.length][];
+		System.arraycopy(delimiters, 0, fSortedLineDelimiters, 0, delimiters.length);
+		Arrays.sort(fSortedLineDelimiters, DECREASING_LENGTH);
+	}
+
+	/**
+	 * Evaluates the rules at the scanner's current offset, which must be inside the scanned
+	 * range.
+	 *
+	 * @return the token of the first rule which matched, or <code>null</code> if no rule matched
+	 */
+	IToken evaluate() {
+		RuleBasedScanner scanner= fScanner;
+		int start= scanner.fOffset;
+		int c= charAt(start);
+		if (c == ICharacterScanner.EOF)
+			return null;
+
+		char first= (char) c;
+		int[] candidates= first < TABLE_SIZE ? fDispatchTable[first] : null;
+
+		try {
+			int count= candidates != null ? candidates.length : fRules.length;
+			for (int i= 0; i < count; i++) {
+				int index= candidates != null ? candidates[i] : i;
+				if (candidates == null && !canStartWith(index, first))
+					continue;
+
+				IToken token= evaluate(index);
+				if (!token.isUndefined())
+					return token;
+
+				if (scanner.fOffset != start) {
+					// the rule did not restore the offset, the table does not apply anymore
+					for (int j= index + 1; j < fRules.length; j++) {
+						token= evaluate(j);
+						if (!token.isUndefined())
+							return token;
+					}
+					return null;
+				}
+			}
+			return null;
+
+		} finally {
+			scanner.fColumn= RuleBasedScanner.UNDEFINED;
+		}
+	}
+
+	/**
+	 * Evaluates the rule with the given index at the scanner's current offset.
+	 *
+	 * @param index the index of the rule
+	 * @return the token returned by the rule
+	 */
+	private IToken evaluate(int index) {
+		IRule rule= fRules[index];
+		switch (fKinds[index]) {
+			case WORD:
+				if (((WordRule) rule).fColumn == WordRule.UNDEFINED)
+					return evaluateWordRule((WordRule) rule, fStartClasses[index], fPartClasses[index]);
+				break;
+			case PATTERN:
+				if (((PatternRule) rule).fColumn == PatternRule.UNDEFINED)
+					return evaluatePatternRule((PatternRule) rule);
+				break;
+			case NUMBER:
+				if (((NumberRule) rule).fColumn == NumberRule.UNDEFINED)
+					return evaluateNumberRule((NumberRule) rule);
+				break;
+			case WHITESPACE:
+				return evaluateWhitespaceRule((WhitespaceRule) rule, fStartClasses[index]);
+			default:
+				break;
+		}
+		return rule.evaluate(fScanner);
+	}
+
+	/**
+	 * Replicates {@link WordRule#evaluate(ICharacterScanner)} without a column constraint.
+	 *
+	 * @param rule the rule
+	 * @param startClasses the cached word start classes
+	 * @param partClasses the cached word part classes
+	 * @return the token resulting from the evaluation
+	 */
+	private IToken evaluateWordRule(WordRule rule, boolean[] startClasses, boolean[] partClasses) {
+		int c= read();
+		if (c != ICharacterScanner.EOF && (c < TABLE_SIZE ? startClasses[c] : rule.fDetector.isWordStart((char) c))) {
+			int wordStart= fScanner.fOffset - 1;
+			do {
+				c= read();
+			} while (c != ICharacterScanner.EOF && (c < TABLE_SIZE ? partClasses[c] : rule.fDetector.isWordPart((char) c)));
+			unread();
+
+			String word= getString(wordStart, fScanner.fOffset);
+			if (rule.isIgnoreCase())
+				word= word.toLowerCase();
+
+			IToken token= rule.fWords.get(word);
+			if (token != null)
+				return token;
+
+			if (rule.fDefaultToken.isUndefined())
+				fScanner.fOffset= wordStart;
+
+			return rule.fDefaultToken;
+		}
+
+		unread();
+		return Token.UNDEFINED;
+	}
+
+	/**
+	 * Replicates {@link PatternRule#evaluate(ICharacterScanner)} without a column constraint.
+	 *
+	 * @param rule the rule
+	 * @return the token resulting from the evaluation
+	 */
+	private IToken evaluatePatternRule(PatternRule rule) {
+		int c= read();
+		if (c == rule.fStartSequence[0]) {
+			if (sequenceDetected(rule.fStartSequence, false)) {
+				if (endSequenceDetected(rule))
+					return rule.fToken;
+			}
+		}
+
+		unread();
+		return Token.UNDEFINED;
+	}
+
+	/**
+	 * Replicates {@link PatternRule#endSequenceDetected(ICharacterScanner)}.
+	 *
+	 * @param rule the rule
+	 * @return <code>true</code> if the end sequence has been detected
+	 */
+	private boolean endSequenceDetected(PatternRule rule) {
+		char[] endSequence= rule.fEndSequence;
+		char escapeCharacter= rule.fEscapeCharacter;
+		boolean breaksOnEOF= rule.fBreaksOnEOF;
+
+		int readCount= 1;
+		int c;
+		while ((c= read()) != ICharacterScanner.EOF) {
+			if (c == escapeCharacter) {
+				// Skip escaped character(s)
+				if (rule.fEscapeContinuesLine) {
+					c= read();
+					for (char[] delimiter : fSortedLineDelimiters) {
+						if (c == delimiter[0] && sequenceDetected(delimiter, breaksOnEOF))
+							break;
+					}
+				} else
+					read();
+
+			} else if (endSequence.length > 0 && c == endSequence[0]) {
+				// Check if the specified end sequence has been found.
+				if (sequenceDetected(endSequence, breaksOnEOF))
+					return true;
+			} else if (rule.fBreaksOnEOL) {
+				// Check for end of line since it can be used to terminate the pattern.
+				for (char[] delimiter : fSortedLineDelimiters) {
+					if (c == delimiter[0] && sequenceDetected(delimiter, breaksOnEOF))
+						return true;
+				}
+			}
+			readCount++;
+		}
+
+		if (breaksOnEOF)
+			return true;
+
+		fScanner.fOffset-= readCount;
+		return false;
+	}
+
+	/**
+	 * Replicates {@link PatternRule#sequenceDetected(ICharacterScanner, char[], boolean)}.
+	 *
+	 * @param sequence the sequence to be detected
+	 * @param eofAllowed indicated whether EOF terminates the pattern
+	 * @return <code>true</code> if the given sequence has been detected
+	 */
+	private boolean sequenceDetected(char[] sequence, boolean eofAllowed) {
+		for (int i= 1; i < sequence.length; i++) {
+			int c= read();
+			if (c == ICharacterScanner.EOF && eofAllowed) {
+				return true;
+			} else if (c != sequence[i]) {
+				// Non-matching character detected, rewind the scanner back to the start.
+				// Do not unread the first character.
+				fScanner.fOffset-= i;
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Replicates {@link NumberRule#evaluate(ICharacterScanner)} without a column constraint.
+	 *
+	 * @param rule the rule
+	 * @return the token resulting from the evaluation
+	 */
+	private IToken evaluateNumberRule(NumberRule rule) {
+		int c= read();
+		if (Character.isDigit((char) c)) {
+			do {
+				c= read();
+			} while (Character.isDigit((char) c));
+			unread();
+			return rule.fToken;
+		}
+
+		unread();
+		return Token.UNDEFINED;
+	}
+
+	/**
+	 * Replicates {@link WhitespaceRule#evaluate(ICharacterScanner)}.
+	 *
+	 * @param rule the rule
+	 * @param classes the cached whitespace classes
+	 * @return the token resulting from the evaluation
+	 */
+	private IToken evaluateWhitespaceRule(WhitespaceRule rule, boolean[] classes) {
+		int c= read();
+		if (isWhitespace(rule, classes, (char) c)) {
+			do {
+				c= read();
+			} while (isWhitespace(rule, classes, (char) c));
+			unread();
+			return rule.fWhitespaceToken;
+		}
+
+		unread();
+		return Token.UNDEFINED;
+	}
+
+	/**
+	 * Returns whether the given character is whitespace according to the given rule.
+	 *
+	 * @param rule the rule
+	 * @param classes the cached whitespace classes
+	 * @param c the character
+	 * @return <code>true</code> if the character is whitespace
+	 */
+	private static boolean isWhitespace(WhitespaceRule rule, boolean[] classes, char c) {
+		return c < TABLE_SIZE ? classes[c] : rule.fDetector.isWhitespace(c);
+	}
+
+	/**
+	 * Reads the next character like {@link RuleBasedScanner#read()}.
+	 *
+	 * @return the next character or {@link ICharacterScanner#EOF}
+	 */
+	private int read() {
+		int offset= fScanner.fOffset++;
+		if (offset < fScanner.fRangeEnd)
+			return charAt(offset);
+		return ICharacterScanner.EOF;
+	}
+
+	/**
+	 * Unreads the last character like {@link RuleBasedScanner#unread()}.
+	 */
+	private void unread() {
+		--fScanner.fOffset;
+	}
+
+	/**
+	 * Returns the character at the given offset of the scanned document.
+	 *
+	 * @param offset an offset inside the scanned range
+	 * @return the character at the offset or {@link ICharacterScanner#EOF} if the document has
+	 *         been changed concurrently
+	 */
+	private int charAt(int offset) {
+		if ((offset < fWindowStart || offset >= fWindowEnd) && !fill(offset))
+			return ICharacterScanner.EOF;
+		return fWindow[offset - fWindowStart];
+	}
+
+	/**
+	 * Returns the characters of the scanned document between the given offsets.
+	 *
+	 * @param start the start offset
+	 * @param end the end offset
+	 * @return the characters between the offsets
+	 */
+	private String getString(int start, int end) {
+		if (start >= fWindowStart && end <= fWindowEnd)
+			return new String(fWindow, start - fWindowStart, end - start);
+		try {
+			return fScanner.fDocument.get(start, end - start);
+		} catch (BadLocationException x) {
+			return ""; //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Fills the window such that it contains the given offset.
+	 *
+	 * @param offset an offset inside the scanned range
+	 * @return <code>true</code> if the window has been filled, <code>false</code> if the
+	 *         document has been changed concurrently
+	 */
+	private boolean fill(int offset) {
+		int start= Math.max(0, offset - WINDOW_BACKTRACK);
+		int end= Math.min(fScanner.fRangeEnd, start + WINDOW_SIZE);
+		try {
+			fScanner.fDocument.get(start, end - start).getChars(0, end - start, fWindow, 0);
+			fWindowStart= start;
+			fWindowEnd= end;
+			return true;
+		} catch (BadLocationException x) {
+			fWindowStart= 0;
+			fWindowEnd= 0;
+			return false;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,7 +18,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.ListenerList;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPositionCategoryException;
@@ -30,7 +35,10 @@ import org.eclipse.jface.text.IDocumentPartitioner;
 import org.eclipse.jface.text.IDocumentPartitionerExtension;
 import org.eclipse.jface.text.IDocumentPartitionerExtension2;
 import org.eclipse.jface.text.IDocumentPartitionerExtension3;
+import org.eclipse.jface.text.IDocumentPartitionerExtension4;
+import org.eclipse.jface.text.IPartitioningProgressListener;
 import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ISynchronizable;
 import org.eclipse.jface.text.ITypedRegion;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
@@ -54,13 +62,40 @@ import org.eclipse.jface.text.TypedRegion;
  * {@link #clearPositionCache()} after modifying the partitioner's positions.
  * The cached positions may be accessed through {@link #getPositions()}.
  * </p>
+ * <p>
+ * For large documents, the partitioner can compute the partitioning incrementally, see
+ * {@link #setIncrementalPartitioning(boolean)}.
+ * </p>
  *
  * Originally since 3.1, but moved to org.eclipse.text in 3.14
  *
  * @see IPartitionTokenScanner
  * @since 3.14
  */
-public class FastPartitioner implements IDocumentPartitioner, IDocumentPartitionerExtension, IDocumentPartitionerExtension2, IDocumentPartitionerExtension3 {
+public class FastPartitioner implements IDocumentPartitioner, IDocumentPartitionerExtension, IDocumentPartitionerExtension2, IDocumentPartitionerExtension3, IDocumentPartitionerExtension4 {
+
+	/**
+	 * The job that partitions the document behind the watermark in incremental mode.
+	 *
+	 * @since 3.15
+	 */
+	private final class PartitioningJob extends Job {
+
+		PartitioningJob() {
+			super("Partitioning document"); //$NON-NLS-1$
+			setSystem(true);
+			setPriority(DECORATE);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			while (!monitor.isCanceled()) {
+				if (!partitionInBackground())
+					return Status.OK_STATUS;
+			}
+			return Status.CANCEL_STATUS;
+		}
+	}
 
 	/**
 	 * The position category this partitioner uses to store the document's partitioning information.
@@ -101,6 +136,41 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	private Position[] fCachedPositions= null;
 	/** Debug option for cache consistency checking. */
 	private static final boolean CHECK_CACHE_CONSISTENCY= "true".equalsIgnoreCase(Platform.getDebugOption("org.eclipse.jface.text/debug/FastPartitioner/PositionCache"));  //$NON-NLS-1$//$NON-NLS-2$;
+	/**
+	 * The number of characters partitioned beyond a queried or changed offset in incremental mode.
+	 * @since 3.15
+	 */
+	private static final int LOOKAHEAD= 16 * 1024;
+	/**
+	 * The number of characters partitioned at once by the background job.
+	 * @since 3.15
+	 */
+	private static final int CHUNK_SIZE= 64 * 1024;
+	/**
+	 * The delay in milliseconds after which background partitioning resumes after a change.
+	 * @since 3.15
+	 */
+	private static final long RESUME_DELAY= 200;
+	/**
+	 * Indicates whether the partitioning is computed incrementally.
+	 * @since 3.15
+	 */
+	private boolean fIncremental= false;
+	/**
+	 * The offset up to which the document is partitioned in incremental mode.
+	 * @since 3.15
+	 */
+	private int fWatermark;
+	/**
+	 * The background partitioning job, <code>null</code> if not needed.
+	 * @since 3.15
+	 */
+	private PartitioningJob fPartitioningJob;
+	/**
+	 * The registered partitioning progress listeners.
+	 * @since 3.15
+	 */
+	private final ListenerList<IPartitioningProgressListener> fProgressListeners= new ListenerList<>(ListenerList.IDENTITY);
 
 	/**
 	 * Creates a new partitioner that uses the given scanner and may return
@@ -116,6 +186,43 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 		fPositionUpdater= new DefaultPositionUpdater(fPositionCategory);
 	}
 
+	/**
+	 * Enables or disables incremental partitioning. Must be called before the partitioner is
+	 * connected to a document.
+	 * <p>
+	 * In incremental mode, the partitioner does not partition the whole document when it is
+	 * initialized or when a change affects the partitioning up to the end of the document, e.g.
+	 * because a multi-line comment is not terminated. Instead, it only partitions up to a
+	 * watermark, see {@link #getPartitioningWatermark()}, which is a fixed number of characters
+	 * behind the changed or queried offsets. Queries behind the watermark extend the partitioning
+	 * on demand.
+	 * </p>
+	 * <p>
+	 * If the document is {@link ISynchronizable} and provides a lock object, the remainder of the
+	 * document is partitioned by a background job while holding the document's lock. The job is
+	 * cancelled by document changes and resumed afterwards. Queries are then synchronized on the
+	 * document's lock as well. Otherwise, the partitioning is only extended on demand.
+	 * </p>
+	 *
+	 * @param incremental <code>true</code> to partition incrementally, <code>false</code> to
+	 *            always partition the whole document
+	 * @since 3.15
+	 */
+	public void setIncrementalPartitioning(boolean incremental) {
+		fIncremental= incremental;
+	}
+
+	/**
+	 * Returns whether this partitioner computes the partitioning incrementally.
+	 *
+	 * @return <code>true</code> if the partitioning is computed incrementally
+	 * @see #setIncrementalPartitioning(boolean)
+	 * @since 3.15
+	 */
+	public boolean isIncrementalPartitioning() {
+		return fIncremental;
+	}
+
 	@Override
 	public String[] getManagingPositionCategories() {
 		return new String[] { fPositionCategory };
@@ -162,6 +269,14 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	protected void initialize() {
 		fIsInitialized= true;
 		clearPositionCache();
+
+		if (fIncremental) {
+			fWatermark= 0;
+			partitionUpTo(LOOKAHEAD);
+			schedulePartitioningJob(0);
+			return;
+		}
+
 		fScanner.setRange(fDocument, 0, fDocument.getLength());
 
 		try {
@@ -195,6 +310,11 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 
 		Assert.isTrue(fDocument.containsPositionCategory(fPositionCategory));
 
+		if (fPartitioningJob != null) {
+			fPartitioningJob.cancel();
+			fPartitioningJob= null;
+		}
+
 		try {
 			fDocument.removePositionCategory(fPositionCategory);
 		} catch (BadPositionCategoryException x) {
@@ -214,6 +334,9 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 
 			Assert.isTrue(e.getDocument() == fDocument);
 
+			if (fPartitioningJob != null)
+				fPartitioningJob.cancel();
+
 			fPreviousDocumentLength= e.getDocument().getLength();
 			fStartOffset= -1;
 			fEndOffset= -1;
@@ -295,6 +418,12 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 		if (!fIsInitialized)
 			return null;
 
+		// nothing is known about the partitioning behind the watermark
+		if (fIncremental && e.getOffset() > fWatermark) {
+			schedulePartitioningJob(RESUME_DELAY);
+			return null;
+		}
+
 		try {
 			Assert.isTrue(e.getDocument() == fDocument);
 
@@ -336,82 +465,282 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 				}
 			}
 			clearPositionCache();
-			category= getPositions();
 
-			fScanner.setPartialRange(fDocument, reparseStart, fDocument.getLength() - reparseStart, contentType, partitionStart);
+			int stopOffset= Integer.MAX_VALUE;
+			if (fIncremental) {
+				if (e.getOffset() + e.getLength() <= fWatermark)
+					fWatermark+= newLength - e.getLength();
+				else
+					fWatermark= e.getOffset();
+				stopOffset= e.getOffset() + newLength + LOOKAHEAD;
+			}
 
-			int behindLastScannedPosition= reparseStart;
-			IToken token= fScanner.nextToken();
+			int partitioned= scan(first, reparseStart, contentType, partitionStart, e.getOffset() + newLength, stopOffset);
+			if (fIncremental && partitioned != -1)
+				fWatermark= partitioned;
 
-			while (!token.isEOF()) {
+		} catch (BadPositionCategoryException x) {
+			// should never happen on connected documents
+		} catch (BadLocationException x) {
+		} finally {
+			clearPositionCache();
+		}
 
-				contentType= getTokenContentType(token);
+		if (fIncremental)
+			schedulePartitioningJob(RESUME_DELAY);
 
-				if (!isSupportedContentType(contentType)) {
-					token= fScanner.nextToken();
-					continue;
-				}
+		return createRegion();
+	}
 
-				int start= fScanner.getTokenOffset();
-				int length= fScanner.getTokenLength();
+	/**
+	 * Scans the document starting at <code>reparseStart</code> and adapts the partitions
+	 * starting at index <code>first</code> to the scanned tokens. Scanning stops when a scanned
+	 * partition behind <code>syncOffset</code> already exists, when the scanned tokens cover
+	 * <code>stopOffset</code>, or at the end of the document. Removes all partitions behind the
+	 * scanned tokens unless the partitioning is in sync.
+	 *
+	 * @param first the index of the first partition that might be affected
+	 * @param reparseStart the offset at which to start scanning
+	 * @param contentType the content type at <code>reparseStart</code>
+	 * @param partitionStart the start of the partition containing <code>reparseStart</code>
+	 * @param syncOffset the offset after which existing partitions end the scan
+	 * @param stopOffset the offset after which the scan ends
+	 * @return <code>-1</code> if the partitioning is in sync, the document length if the end
+	 *         of the document has been reached, or the end of the last scanned token otherwise
+	 * @throws BadLocationException if the document has been changed concurrently
+	 * @throws BadPositionCategoryException if the partitioner is not connected
+	 * @since 3.15
+	 */
+	private int scan(int first, int reparseStart, String contentType, int partitionStart, int syncOffset, int stopOffset) throws BadLocationException, BadPositionCategoryException {
+		Position[] category= getPositions();
 
-				behindLastScannedPosition= start + length;
-				int lastScannedPosition= behindLastScannedPosition - 1;
+		fScanner.setPartialRange(fDocument, reparseStart, fDocument.getLength() - reparseStart, contentType, partitionStart);
 
-				// remove all affected positions
-				while (first < category.length) {
-					TypedPosition p= (TypedPosition) category[first];
-					if (lastScannedPosition >= p.offset + p.length ||
-							(p.overlapsWith(start, length) &&
-							 	(!fDocument.containsPosition(fPositionCategory, start, length) ||
-							 	 !contentType.equals(p.getType())))) {
+		int behindLastScannedPosition= reparseStart;
+		boolean stopped= false;
+		IToken token= fScanner.nextToken();
 
-						rememberRegion(p.offset, p.length);
-						fDocument.removePosition(fPositionCategory, p);
-						++ first;
+		while (!token.isEOF()) {
 
-					} else
-						break;
-				}
+			contentType= getTokenContentType(token);
+
+			if (!isSupportedContentType(contentType)) {
+				token= fScanner.nextToken();
+				continue;
+			}
+
+			int start= fScanner.getTokenOffset();
+			int length= fScanner.getTokenLength();
+
+			behindLastScannedPosition= start + length;
+			int lastScannedPosition= behindLastScannedPosition - 1;
 
-				// if position already exists and we have scanned at least the
-				// area covered by the event, we are done
-				if (fDocument.containsPosition(fPositionCategory, start, length)) {
-					if (lastScannedPosition >= e.getOffset() + newLength)
-						return createRegion();
+			// remove all affected positions
+			while (first < category.length) {
+				TypedPosition p= (TypedPosition) category[first];
+				if (lastScannedPosition >= p.offset + p.length ||
+						(p.overlapsWith(start, length) &&
+						 	(!fDocument.containsPosition(fPositionCategory, start, length) ||
+						 	 !contentType.equals(p.getType())))) {
+
+					rememberRegion(p.offset, p.length);
+					fDocument.removePosition(fPositionCategory, p);
 					++ first;
-				} else {
-					// insert the new type position
-					try {
-						fDocument.addPosition(fPositionCategory, new TypedPosition(start, length, contentType));
-						rememberRegion(start, length);
-					} catch (BadPositionCategoryException x) {
-					} catch (BadLocationException x) {
-					}
+
+				} else
+					break;
+			}
+
+			// if position already exists and we have scanned at least the
+			// area covered by the event, we are done
+			if (fDocument.containsPosition(fPositionCategory, start, length)) {
+				if (lastScannedPosition >= syncOffset)
+					return -1;
+				// keep the existing position
+				++ first;
+			} else {
+				// insert the new type position
+				try {
+					fDocument.addPosition(fPositionCategory, new TypedPosition(start, length, contentType));
+					rememberRegion(start, length);
+				} catch (BadPositionCategoryException x) {
+				} catch (BadLocationException x) {
 				}
+			}
 
-				token= fScanner.nextToken();
+			if (behindLastScannedPosition >= stopOffset) {
+				stopped= true;
+				break;
 			}
 
-			first= fDocument.computeIndexInCategory(fPositionCategory, behindLastScannedPosition);
+			token= fScanner.nextToken();
+		}
+
+		first= fDocument.computeIndexInCategory(fPositionCategory, behindLastScannedPosition);
+
+		clearPositionCache();
+		category= getPositions();
+		TypedPosition p;
+		while (first < category.length) {
+			p= (TypedPosition) category[first++];
+			fDocument.removePosition(fPositionCategory, p);
+			rememberRegion(p.offset, p.length);
+		}
+
+		return stopped ? behindLastScannedPosition : fDocument.getLength();
+	}
 
+	/**
+	 * Extends the partitioning in incremental mode such that it covers at least the given offset.
+	 * Informs the registered progress listeners.
+	 *
+	 * @param offset the offset up to which the document must be partitioned
+	 * @since 3.15
+	 */
+	private void partitionUpTo(int offset) {
+		int length= fDocument.getLength();
+		if (fWatermark >= Math.min(offset, length))
+			return;
+
+		int previousWatermark= fWatermark;
+		// partitioning must not affect the change region computed for the current document change
+		int startOffset= fStartOffset, endOffset= fEndOffset, deleteOffset= fDeleteOffset;
+		try {
 			clearPositionCache();
-			category= getPositions();
-			TypedPosition p;
-			while (first < category.length) {
-				p= (TypedPosition) category[first++];
-				fDocument.removePosition(fPositionCategory, p);
-				rememberRegion(p.offset, p.length);
+			Position[] category= getPositions();
+			int first= category.length;
+			int reparseStart= fWatermark;
+			String contentType= IDocument.DEFAULT_CONTENT_TYPE;
+			int partitionStart= 0;
+			if (first > 0) {
+				TypedPosition last= (TypedPosition) category[first - 1];
+				partitionStart= last.getOffset() + last.getLength();
+				if (partitionStart >= fWatermark) {
+					// resume with the last partition such that the scanner sees the same context
+					reparseStart= last.getOffset();
+					contentType= last.getType();
+					partitionStart= reparseStart;
+					-- first;
+				}
 			}
 
+			fWatermark= scan(first, reparseStart, contentType, partitionStart, Integer.MAX_VALUE, Math.max(offset, fWatermark + 1));
+
 		} catch (BadPositionCategoryException x) {
 			// should never happen on connected documents
 		} catch (BadLocationException x) {
 		} finally {
 			clearPositionCache();
+			fStartOffset= startOffset;
+			fEndOffset= endOffset;
+			fDeleteOffset= deleteOffset;
 		}
 
-		return createRegion();
+		if (fWatermark > previousWatermark) {
+			IRegion region= new Region(previousWatermark, fWatermark - previousWatermark);
+			for (IPartitioningProgressListener listener : fProgressListeners)
+				listener.partitioningProgressed(this, region);
+		}
+	}
+
+	/**
+	 * Extends the partitioning in incremental mode such that the partition containing the given
+	 * offset is known.
+	 *
+	 * @param offset the offset
+	 * @since 3.15
+	 */
+	private void ensurePartitioned(int offset) {
+		if (!fIncremental || !fIsInitialized)
+			return;
+
+		partitionUpTo(offset + LOOKAHEAD);
+		try {
+			// a default partition extends up to the next partition which might not be known yet
+			while (fWatermark < fDocument.getLength()) {
+				Position[] category= getPositions();
+				if (category.length > 0) {
+					Position last= category[category.length - 1];
+					if (last.getOffset() + last.getLength() > offset)
+						break;
+				}
+				partitionUpTo(fWatermark + CHUNK_SIZE);
+			}
+		} catch (BadPositionCategoryException x) {
+			// should never happen on connected documents
+		}
+	}
+
+	/**
+	 * Partitions the next chunk of the document in the background.
+	 *
+	 * @return <code>true</code> if there is more to partition, <code>false</code> otherwise
+	 * @since 3.15
+	 */
+	private boolean partitionInBackground() {
+		Object lock= getLockObject();
+		if (lock == null)
+			return false;
+
+		synchronized (lock) {
+			if (!fIsInitialized || fActiveRewriteSession != null || !fDocument.containsPositionCategory(fPositionCategory))
+				return false;
+			partitionUpTo(fWatermark + CHUNK_SIZE);
+			return fWatermark < fDocument.getLength();
+		}
+	}
+
+	/**
+	 * Schedules the background partitioning job if the document is not partitioned completely.
+	 *
+	 * @param delay the delay in milliseconds
+	 * @since 3.15
+	 */
+	private void schedulePartitioningJob(long delay) {
+		if (fWatermark >= fDocument.getLength() || getLockObject() == null)
+			return;
+
+		if (fPartitioningJob == null)
+			fPartitioningJob= new PartitioningJob();
+		fPartitioningJob.schedule(delay);
+	}
+
+	/**
+	 * Returns the lock object of the document in incremental mode.
+	 *
+	 * @return the document's lock object or <code>null</code> if there is none or the partitioner
+	 *         is not in incremental mode
+	 * @since 3.15
+	 */
+	private Object getLockObject() {
+		if (fIncremental && fDocument instanceof ISynchronizable)
+			return ((ISynchronizable) fDocument).getLockObject();
+		return null;
+	}
+
+	@Override
+	public int getPartitioningWatermark() {
+		if (fDocument == null)
+			return 0;
+
+		Object lock= getLockObject();
+		if (lock == null || !fIsInitialized)
+			return fDocument.getLength();
+
+		synchronized (lock) {
+			return fWatermark;
+		}
+	}
+
+	@Override
+	public void addPartitioningProgressListener(IPartitioningProgressListener listener) {
+		Assert.isNotNull(listener);
+		fProgressListeners.add(listener);
+	}
+
+	@Override
+	public void removePartitioningProgressListener(IPartitioningProgressListener listener) {
+		fProgressListeners.remove(listener);
 	}
 
 	/**
@@ -464,6 +793,24 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	public String getContentType(int offset) {
 		checkInitialization();
 
+		Object lock= getLockObject();
+		if (lock == null)
+			return doGetContentType(offset);
+		synchronized (lock) {
+			return doGetContentType(offset);
+		}
+	}
+
+	/**
+	 * Returns the content type of the partition containing the given offset.
+	 *
+	 * @param offset the offset
+	 * @return the content type
+	 * @since 3.15
+	 */
+	private String doGetContentType(int offset) {
+		ensurePartitioned(offset);
+
 		TypedPosition p= findClosestPosition(offset);
 		if (p != null && p.includes(offset))
 			return p.getType();
@@ -481,6 +828,24 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	public ITypedRegion getPartition(int offset) {
 		checkInitialization();
 
+		Object lock= getLockObject();
+		if (lock == null)
+			return doGetPartition(offset);
+		synchronized (lock) {
+			return doGetPartition(offset);
+		}
+	}
+
+	/**
+	 * Returns the partition containing the given offset.
+	 *
+	 * @param offset the offset
+	 * @return the partition
+	 * @since 3.15
+	 */
+	private ITypedRegion doGetPartition(int offset) {
+		ensurePartitioned(offset);
+
 		try {
 
 			Position[] category = getPositions();
@@ -620,6 +985,26 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	@Override
 	public ITypedRegion[] computePartitioning(int offset, int length, boolean includeZeroLengthPartitions) {
 		checkInitialization();
+
+		Object lock= getLockObject();
+		if (lock == null)
+			return doComputePartitioning(offset, length, includeZeroLengthPartitions);
+		synchronized (lock) {
+			return doComputePartitioning(offset, length, includeZeroLengthPartitions);
+		}
+	}
+
+	/**
+	 * Computes the partitioning of the given region.
+	 *
+	 * @param offset the offset of the region
+	 * @param length the length of the region
+	 * @param includeZeroLengthPartitions whether to include zero-length partitions
+	 * @return the partitioning of the region
+	 * @since 3.15
+	 */
+	private ITypedRegion[] doComputePartitioning(int offset, int length, boolean includeZeroLengthPartitions) {
+		ensurePartitioned(offset + length);
 		List<TypedRegion> list= new ArrayList<>();
 
 		try {
@@ -742,6 +1127,8 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	public void startRewriteSession(DocumentRewriteSession session) throws IllegalStateException {
 		if (fActiveRewriteSession != null)
 			throw new IllegalStateException();
+		if (fPartitioningJob != null)
+			fPartitioningJob.cancel();
 		fActiveRewriteSession= session;
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -56,6 +56,16 @@ public class RuleBasedScanner implements ICharacterScanner, ITokenScanner {
 	protected int fColumn;
 	/** Internal setting for the un-initialized column cache. */
 	protected static final int UNDEFINED= -1;
+	/**
+	 * Indicates whether the rules are compiled.
+	 * @since 3.15
+	 */
+	private boolean fRuleCompilation= false;
+	/**
+	 * The compiled rules, <code>null</code> if not compiled yet.
+	 * @since 3.15
+	 */
+	private CompiledRuleSet fCompiledRules;
 
 	/**
 	 * Creates a new rule based scanner which does not have any rule.
@@ -74,6 +84,35 @@ public class RuleBasedScanner implements ICharacterScanner, ITokenScanner {
 			System.arraycopy(rules, 0, fRules, 0, rules.length);
 		} else
 			fRules= null;
+		fCompiledRules= null;
+	}
+
+	/**
+	 * Enables or disables the compilation of this scanner's rules.
+	 * <p>
+	 * If enabled, the standard rules {@link WordRule}, {@link PatternRule},
+	 * {@link SingleLineRule}, {@link MultiLineRule}, {@link EndOfLineRule},
+	 * {@link NumberRule} and {@link WhitespaceRule} are compiled into a table which selects
+	 * the rules that can match at all by the first character of a token, and they are evaluated
+	 * directly on the document's characters instead of calling {@link #read()} and
+	 * {@link #unread()} for each character. Instances of subclasses of these rules, rules with a
+	 * column constraint and all other rules are evaluated as usual. The scanner returns the same
+	 * tokens either way.
+	 * </p>
+	 * <p>
+	 * Compilation must not be enabled by subclasses which change the characters returned by
+	 * {@link #read()}. Word and whitespace detectors must be stateless, and rules must not be
+	 * reconfigured after they have been set, except for adding words to a {@link WordRule} or
+	 * changing column constraints.
+	 * </p>
+	 *
+	 * @param enable <code>true</code> to compile the rules, <code>false</code> to evaluate them
+	 *            one after the other
+	 * @since 3.15
+	 */
+	public void enableRuleCompilation(boolean enable) {
+		fRuleCompilation= enable;
+		fCompiledRules= null;
 	}
 
 	/**
@@ -107,6 +146,12 @@ public class RuleBasedScanner implements ICharacterScanner, ITokenScanner {
 
 		if (fDefaultReturnToken == null)
 			fDefaultReturnToken= new Token(null);
+
+		if (fRuleCompilation && fRules != null) {
+			if (fCompiledRules == null)
+				fCompiledRules= new CompiledRuleSet(fRules);
+			fCompiledRules.setRange(this);
+		}
 	}
 
 	/**
@@ -165,7 +210,11 @@ public class RuleBasedScanner implements ICharacterScanner, ITokenScanner {
 		fTokenOffset= fOffset;
 		fColumn= UNDEFINED;
 
-		if (fRules != null) {
+		if (fCompiledRules != null && fOffset < fRangeEnd) {
+			IToken token= fCompiledRules.evaluate();
+			if (token != null)
+				return token;
+		} else if (fRules != null) {
 			for (IRule fRule : fRules) {
 				IToken token= (fRule.evaluate(this));
 				if (!token.isUndefined())
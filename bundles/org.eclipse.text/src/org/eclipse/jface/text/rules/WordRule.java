@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -165,6 +165,16 @@ public class WordRule implements IRule {
 		return Token.UNDEFINED;
 	}
 
+	/**
+	 * Tells whether this rule is case insensitive.
+	 *
+	 * @return <code>true</code> if this rule ignores the case of words
+	 * @since 3.15
+	 */
+	boolean isIgnoreCase() {
+		return fIgnoreCase;
+	}
+
 	/**
 	 * Returns the characters in the buffer to the scanner.
 	 *
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.source;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jface.text.Position;
+
+
+/**
+ * Interval tree over the annotations of an {@link AnnotationModel}, used to answer region
+ * queries in <i>O(log n + k)</i>. The positions are stored in an array sorted by offset which
+ * forms an implicit balanced binary tree: the root of a range of the array is its middle element.
+ * Each element is augmented with the maximal end offset of its subtree.
+ * <p>
+ * The index refers to the annotation positions and has to be rebuilt only when annotations are
+ * added, removed or moved. Document changes update the positions in place without changing their
+ * order, so queries read the current offsets. Only the maximal end offsets are not updated: an
+ * end offset grows at most by the length of the text inserted since the index has been built,
+ * which queries add to the stored maximum. Once that growth gets too large for the maximum to
+ * prune well, the index is rebuilt.
+ * </p>
+ *
+ * @since 3.15
+ */
+final class AnnotationIndex {
+
+	/** The inserted text length after which the index is rebuilt. */
+	private static final int MAX_GROWTH= 4096;
+
+	/** The annotations sorted by offset */
+	private final Annotation[] fAnnotations;
+	/** The positions of the annotations */
+	private final Position[] fPositions;
+	/** The maximal end offset of each element's subtree when the index has been built */
+	private final int[] fMaxEnds;
+	/** The modification stamp this index has been built for */
+	private final int fStamp;
+	/** The length of the text inserted into the document since the index has been built */
+	private final AtomicInteger fGrowth= new AtomicInteger();
+
+	/**
+	 * Creates a new index.
+	 *
+	 * @param annotations the annotations
+	 * @param positions the positions of the annotations
+	 * @param count the number of annotations
+	 * @param stamp the modification stamp this index is built for
+	 */
+	AnnotationIndex(Annotation[] annotations, Position[] positions, int count, int stamp) {
+		fStamp= stamp;
+
+		// sort by offset without boxing, the lower half of a key is the index of the annotation
+		long[] keys= new long[count];
+		for (int i= 0; i < count; i++)
+			keys[i]= ((long) positions[i].getOffset() << 32) | i;
+		Arrays.sort(keys);
+
+		fAnnotations= new Annotation[count];
+		fPositions= new Position[count];
+		for (int i= 0; i < count; i++) {
+			int index= (int) keys[i];
+			fAnnotations[i]= annotations[index];
+			fPositions[i]= positions[index];
+		}
+		fMaxEnds= new int[count];
+		computeMaxEnds(0, count);
+	}
+
+	/**
+	 * Computes the maximal end offsets of the subtree of the given range.
+	 *
+	 * @param low the first element of the range
+	 * @param high the element after the range
+	 * @return the maximal end offset of the range or {@link Integer#MIN_VALUE} if empty
+	 */
+	private int computeMaxEnds(int low, int high) {
+		if (low >= high)
+			return Integer.MIN_VALUE;
+
+		int mid= (low + high) >>> 1;
+		Position position= fPositions[mid];
+		int maxEnd= Math.max(position.getOffset() + position.getLength(), Math.max(computeMaxEnds(low, mid), computeMaxEnds(mid + 1, high)));
+		fMaxEnds[mid]= maxEnd;
+		return maxEnd;
+	}
+
+	/**
+	 * Tells whether this index can answer queries for the given modification stamp.
+	 *
+	 * @param stamp the current modification stamp of the model
+	 * @return <code>true</code> if the index is built for the stamp and the document has not grown
+	 *         too much since
+	 */
+	boolean isValid(int stamp) {
+		return fStamp == stamp && fGrowth.get() <= MAX_GROWTH;
+	}
+
+	/**
+	 * Records a document change, before the positions are updated.
+	 *
+	 * @param insertedLength the length of the inserted text
+	 */
+	void documentAboutToBeChanged(int insertedLength) {
+		if (insertedLength > 0)
+			fGrowth.accumulateAndGet(insertedLength, (growth, length) -> (int) Math.min((long) growth + length, Integer.MAX_VALUE));
+	}
+
+	/**
+	 * Returns the annotations inside the given region as specified by
+	 * {@link IAnnotationModelExtension2#getAnnotationIterator(int, int, boolean, boolean)}. The
+	 * annotations are ordered by offset.
+	 *
+	 * @param offset the offset of the region
+	 * @param length the length of the region
+	 * @param canStartBefore whether annotations may start before the region
+	 * @param canEndAfter whether annotations may end after the region
+	 * @return the annotations inside the region
+	 */
+	List<Annotation> getAnnotations(int offset, int length, boolean canStartBefore, boolean canEndAfter) {
+		List<Annotation> result= new ArrayList<>();
+		collect(0, fAnnotations.length, new Position(offset, length), fGrowth.get(), canStartBefore, canEndAfter, result);
+		return result;
+	}
+
+	/**
+	 * Adds the annotations of the subtree of the given range which are inside the given region to
+	 * the given list. All annotations inside the region touch it, so subtrees which end before
+	 * the region or start after it are skipped. Deleted positions are no longer updated by the
+	 * document and are therefore neither returned nor used to skip subtrees.
+	 *
+	 * @param low the first element of the range
+	 * @param high the element after the range
+	 * @param region the region
+	 * @param growth the length of the text inserted since the index has been built
+	 * @param canStartBefore whether annotations may start before the region
+	 * @param canEndAfter whether annotations may end after the region
+	 * @param result the list to add the annotations to
+	 */
+	private void collect(int low, int high, Position region, int growth, boolean canStartBefore, boolean canEndAfter, List<Annotation> result) {
+		int end= region.getOffset() + region.getLength();
+		while (low < high) {
+			int mid= (low + high) >>> 1;
+			if ((long) fMaxEnds[mid] + growth < region.getOffset())
+				return;
+
+			collect(low, mid, region, growth, canStartBefore, canEndAfter, result);
+			Position position= fPositions[mid];
+			if (!position.isDeleted()) {
+				int start= position.getOffset();
+				if (start > end)
+					return;
+				if (AnnotationModel.isWithinRegion(region, start, position.getLength(), canStartBefore, canEndAfter))
+					result.add(fAnnotations[mid]);
+			}
+			low= mid + 1;
+		}
+	}
+}
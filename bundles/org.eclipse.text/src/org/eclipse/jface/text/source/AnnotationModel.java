@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,20 +16,17 @@
 package org.eclipse.jface.text.source;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.Assert;
 
-import org.eclipse.jface.text.AbstractDocument;
 import org.eclipse.jface.text.BadLocationException;
-import org.eclipse.jface.text.BadPositionCategoryException;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IDocumentListener;
@@ -44,8 +41,12 @@ import org.eclipse.jface.text.Position;
  * also implements {@link org.eclipse.jface.text.ISynchronizable}. All
  * modifications of the model's internal annotation map are synchronized using
  * the model's lock object.
+ * <p>
+ * Region queries are answered by an interval tree over the annotation positions,
+ * which is rebuilt lazily after annotations have been added, removed or moved.
+ * </p>
  */
-public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtension, IAnnotationModelExtension2, ISynchronizable {
+public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtension, IAnnotationModelExtension2, IAnnotationModelExtension3, ISynchronizable {
 
 
 	/**
@@ -122,67 +123,7 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 		}
 
 		private boolean isWithinRegion(int start, int length) {
-			if (fCanStartBefore && fCanEndAfter)
-				return fRegion.overlapsWith(start, length);
-			else if (fCanStartBefore)
-				return fRegion.includes(start + length - (length > 0 ? 1 : 0));
-			else if (fCanEndAfter)
-				return fRegion.includes(start);
-			else
-				return fRegion.includes(start) && fRegion.includes(start + length - (length > 0 ? 1 : 0));
-		}
-	}
-
-	/**
-	 * An iterator iteration over a Positions and mapping positions to
-	 * annotations using a provided map if the provided map contains the element.
-	 *
-	 * @since 3.4
-	 */
-	private static final class AnnotationsInterator implements Iterator<Annotation> {
-
-		private Annotation fNext;
-		private final Position[] fPositions;
-		private int fIndex;
-		private final Map<Position, Annotation> fMap;
-
-		/**
-		 * @param positions positions to iterate over
-		 * @param map a map to map positions to annotations
-		 */
-		public AnnotationsInterator(Position[] positions, Map<Position, Annotation> map) {
-			fPositions= positions;
-			fIndex= 0;
-			fMap= map;
-			fNext= findNext();
-		}
-
-		@Override
-		public boolean hasNext() {
-			return fNext != null;
-		}
-
-		@Override
-		public Annotation next() {
-			Annotation result= fNext;
-			fNext= findNext();
-			return result;
-		}
-
-		@Override
-		public void remove() {
-			throw new UnsupportedOperationException();
-		}
-
-		private Annotation findNext() {
-			while (fIndex < fPositions.length) {
-				Position position= fPositions[fIndex];
-				fIndex++;
-				if (fMap.containsKey(position))
-					return fMap.get(position);
-			}
-
-			return null;
+			return AnnotationModel.isWithinRegion(fRegion, start, length, fCanStartBefore, fCanEndAfter);
 		}
 	}
 
@@ -263,11 +204,6 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	 */
 	@Deprecated
 	protected Map<Annotation, Position> fAnnotations;
-	/**
-	 * The map which maps {@link Position} to {@link Annotation}.
-	 * @since 3.4
-	 **/
-	private IdentityHashMap<Position, Annotation> fPositions;
 	/** The list of annotation model listeners */
 	protected ArrayList<IAnnotationModelListener> fAnnotationModelListeners;
 	/** The document connected with this model */
@@ -298,6 +234,17 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	 * @since 3.0
 	 */
 	private Object fModificationStamp= new Object();
+	/**
+	 * The interval tree over the annotations or <code>null</code> if not yet built.
+	 * @since 3.15
+	 */
+	private volatile AnnotationIndex fAnnotationIndex;
+	/**
+	 * The stamp of the annotations and their positions, incremented whenever annotations are
+	 * added, removed or moved.
+	 * @since 3.15
+	 */
+	private final AtomicInteger fAnnotationIndexStamp= new AtomicInteger();
 
 	/**
 	 * Creates a new annotation model. The annotation is empty, i.e. does not
@@ -305,13 +252,16 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	 */
 	public AnnotationModel() {
 		fAnnotations= new AnnotationMap(10);
-		fPositions= new IdentityHashMap<>(10);
 		fAnnotationModelListeners= new ArrayList<>(2);
 
 		fDocumentListener= new IDocumentListener() {
 
 			@Override
 			public void documentAboutToBeChanged(DocumentEvent event) {
+				// the positions keep their order, only their end offsets grow
+				AnnotationIndex index= fAnnotationIndex;
+				if (index != null && event.getText() != null)
+					index.documentAboutToBeChanged(event.getText().length());
 			}
 
 			@Override
@@ -426,7 +376,7 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 
 			addPosition(fDocument, position);
 			annotations.put(annotation, position);
-			fPositions.put(position, annotation);
+			invalidateAnnotationIndex();
 			synchronized (getLockObject()) {
 				getAnnotationModelEvent().annotationAdded(annotation);
 			}
@@ -720,19 +670,130 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	 * @since 3.4
 	 */
 	private Iterator<Annotation> getRegionAnnotationIterator(int offset, int length, boolean canStartBefore, boolean canEndAfter) {
-		if (!(fDocument instanceof AbstractDocument))
-			return new RegionIterator(getAnnotationIterator(true), this, offset, length, canStartBefore, canEndAfter);
+		return getRegionAnnotations(offset, length, canStartBefore, canEndAfter).iterator();
+	}
 
-		AbstractDocument document= (AbstractDocument) fDocument;
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The annotations of this model are returned ordered by offset, followed by the annotations of
+	 * the attached models.
+	 * </p>
+	 *
+	 * @since 3.15
+	 */
+	@Override
+	public List<Annotation> getAnnotations(int offset, int length, boolean canStartBefore, boolean canEndAfter) {
+		List<Annotation> annotations= getRegionAnnotations(offset, length, canStartBefore, canEndAfter);
+
+		for (IAnnotationModel attachment : fAttachments.values()) {
+			if (attachment instanceof IAnnotationModelExtension3) {
+				annotations.addAll(((IAnnotationModelExtension3) attachment).getAnnotations(offset, length, canStartBefore, canEndAfter));
+			} else {
+				Iterator<Annotation> iter;
+				if (attachment instanceof IAnnotationModelExtension2)
+					iter= ((IAnnotationModelExtension2) attachment).getAnnotationIterator(offset, length, canStartBefore, canEndAfter);
+				else
+					iter= new RegionIterator(attachment.getAnnotationIterator(), attachment, offset, length, canStartBefore, canEndAfter);
+				iter.forEachRemaining(annotations::add);
+			}
+		}
+
+		return annotations;
+	}
+
+	/**
+	 * Returns the annotations of this model inside the given region, without the annotations of
+	 * attached models.
+	 *
+	 * @param offset region start
+	 * @param length region length
+	 * @param canStartBefore position can start before region
+	 * @param canEndAfter position can end after region
+	 * @return a new list of the annotations in the region, ordered by offset
+	 * @since 3.15
+	 */
+	private List<Annotation> getRegionAnnotations(int offset, int length, boolean canStartBefore, boolean canEndAfter) {
 		cleanup(true);
+		return getAnnotationIndex().getAnnotations(offset, length, canStartBefore, canEndAfter);
+	}
 
-		try {
-			Position[] positions= document.getPositions(IDocument.DEFAULT_CATEGORY, offset, length, canStartBefore, canEndAfter);
-			return new AnnotationsInterator(positions, fPositions);
-		} catch (BadPositionCategoryException e) {
-			// can happen if e.g. the document doesn't contain such a category, or when removed in a different thread
-			return Collections.<Annotation>emptyList().iterator();
+	/**
+	 * Returns the interval tree over the annotations of this model, rebuilding it if annotations
+	 * have been added, removed or moved, or too much text has been inserted since it has been
+	 * built.
+	 *
+	 * @return the up-to-date annotation index
+	 * @since 3.15
+	 */
+	private AnnotationIndex getAnnotationIndex() {
+		int stamp= fAnnotationIndexStamp.get();
+		AnnotationIndex index= fAnnotationIndex;
+		if (index != null && index.isValid(stamp))
+			return index;
+
+		IAnnotationMap map= getAnnotationMap();
+		List<Annotation> annotations= new ArrayList<>();
+		List<Position> positions= new ArrayList<>();
+		Object mapLock= map.getLockObject();
+		if (mapLock == null) {
+			Iterator<Annotation> e= map.keySetIterator();
+			while (e.hasNext()) {
+				Annotation a= e.next();
+				Position p= map.get(a);
+				if (p != null) {
+					annotations.add(a);
+					positions.add(p);
+				}
+			}
+		} else {
+			synchronized (mapLock) {
+				map.forEach((a, p) -> {
+					if (p != null) {
+						annotations.add(a);
+						positions.add(p);
+					}
+				});
+			}
 		}
+
+		int count= annotations.size();
+		index= new AnnotationIndex(annotations.toArray(new Annotation[count]), positions.toArray(new Position[count]), count, stamp);
+		fAnnotationIndex= index;
+		return index;
+	}
+
+	/**
+	 * Marks the annotation index as outdated. Must be called after the annotations or their
+	 * positions have been changed.
+	 *
+	 * @since 3.15
+	 */
+	private void invalidateAnnotationIndex() {
+		fAnnotationIndexStamp.incrementAndGet();
+	}
+
+	/**
+	 * Tells whether the given position is inside the given region as specified by
+	 * {@link IAnnotationModelExtension2#getAnnotationIterator(int, int, boolean, boolean)}.
+	 *
+	 * @param region the region
+	 * @param start the offset of the position
+	 * @param length the length of the position
+	 * @param canStartBefore include positions starting before the region
+	 * @param canEndAfter include positions ending after the region
+	 * @return <code>true</code> if the position is inside the region
+	 * @since 3.15
+	 */
+	static boolean isWithinRegion(Position region, int start, int length, boolean canStartBefore, boolean canEndAfter) {
+		if (canStartBefore && canEndAfter)
+			return region.overlapsWith(start, length);
+		else if (canStartBefore)
+			return region.includes(start + length - (length > 0 ? 1 : 0));
+		else if (canEndAfter)
+			return region.includes(start);
+		else
+			return region.includes(start) && region.includes(start + length - (length > 0 ? 1 : 0));
 	}
 
 	/**
@@ -814,7 +875,7 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 		}
 
 		annotations.clear();
-		fPositions.clear();
+		invalidateAnnotationIndex();
 
 		if (fireModelChanged)
 			fireModelChanged();
@@ -844,7 +905,7 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 			}
 
 			annotations.remove(annotation);
-			fPositions.remove(p);
+			invalidateAnnotationIndex();
 			synchronized (getLockObject()) {
 				getAnnotationModelEvent().annotationRemoved(annotation, p);
 			}
@@ -892,6 +953,8 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 						// ignore invalid position
 					}
 				}
+				// clients may have modified the position in place
+				invalidateAnnotationIndex();
 				synchronized (getLockObject()) {
 					getAnnotationModelEvent().annotationChanged(annotation);
 				}
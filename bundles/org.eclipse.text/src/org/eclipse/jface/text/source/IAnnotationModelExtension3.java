@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.source;
+
+import java.util.List;
+
+
+/**
+ * Extends {@link org.eclipse.jface.text.source.IAnnotationModel} with the
+ * ability to retrieve the annotations within a given region in time
+ * proportional to the number of retrieved annotations rather than to the
+ * number of annotations managed by the model.
+ *
+ * @see org.eclipse.jface.text.source.AnnotationModel
+ * @since 3.15
+ */
+public interface IAnnotationModelExtension3 {
+
+	/**
+	 * Returns all annotations managed by this model that are inside the given
+	 * region. See {@link IAnnotationModelExtension2#getAnnotationIterator(int, int, boolean, boolean)}
+	 * for a definition of inside. Implementations answer in <i>O(log n + k)</i>
+	 * where <var>n</var> is the number of annotations in the model and
+	 * <var>k</var> the number of returned annotations.
+	 *
+	 * @param offset the start position of the region, must be &gt;= 0
+	 * @param length the length of the region, must be &gt;= 0
+	 * @param canStartBefore if <code>true</code> then annotations are included
+	 *            which start before the region if they end at or after the region's start
+	 * @param canEndAfter if <code>true</code> then annotations are included
+	 *            which end after the region if they start at or before the region's end
+	 * @return a new list of all annotations inside the region managed by this model
+	 */
+	List<Annotation> getAnnotations(int offset, int length, boolean canStartBefore, boolean canEndAfter);
+}
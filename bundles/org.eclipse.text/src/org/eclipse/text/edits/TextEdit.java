@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -105,6 +105,26 @@ public abstract class TextEdit {
 	 */
 	public static final int UPDATE_REGIONS= 1 << 1;
 
+	/**
+	 * Flag indicating that the changes of an edit tree consisting only of
+	 * {@link MultiTextEdit}s, {@link RangeMarker}s and childless
+	 * {@link ReplaceEdit}s, {@link InsertEdit}s and {@link DeleteEdit}s are
+	 * applied to the document with as few replace operations as possible. The
+	 * resulting text of a range covered by several changes is built in one
+	 * forward pass, which avoids moving the text behind every single change.
+	 * <p>
+	 * The document then sends a single document event for such a range.
+	 * Changes are only combined if no document position starts or ends
+	 * between them, so positions are updated as if the changes had been
+	 * applied one by one. The undo edit and the updated regions of the edits
+	 * are the same as without this flag. Edit trees containing other edits are
+	 * applied as usual.
+	 * </p>
+	 *
+	 * @since 3.15
+	 */
+	public static final int COALESCE_CHANGES= 1 << 2;
+
 	private static class InsertionComparator implements Comparator<TextEdit> {
 		@Override
 		public int compare(TextEdit edit1, TextEdit edit2) throws MalformedTreeException {
@@ -695,7 +715,8 @@ public abstract class TextEdit {
 	 *
 	 * @param document the document to be manipulated
 	 * @param style flags controlling the execution of the edit tree. Valid
-	 *  flags are: <code>CREATE_UNDO</code> and <code>UPDATE_REGIONS</code>.
+	 *  flags are: <code>CREATE_UNDO</code>, <code>UPDATE_REGIONS</code> and
+	 *  <code>COALESCE_CHANGES</code>.
 	 * @return a undo edit, if <code>CREATE_UNDO</code> is specified. Otherwise
 	 *  <code>null</code> is returned.
 	 *
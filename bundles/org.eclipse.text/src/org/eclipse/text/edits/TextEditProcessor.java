@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,12 +14,15 @@
 package org.eclipse.text.edits;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.core.runtime.Assert;
 
 import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.BadPositionCategoryException;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
 
 
 /**
@@ -55,7 +58,8 @@ public class TextEditProcessor {
 	 *  text edit processors. Clients must not modify the edit
 	 *  (e.g adding new children) any longer.
 	 *
-	 * @param style {@link TextEdit#NONE}, {@link TextEdit#CREATE_UNDO} or {@link TextEdit#UPDATE_REGIONS})
+	 * @param style {@link TextEdit#NONE} or a combination of {@link TextEdit#CREATE_UNDO},
+	 *  {@link TextEdit#UPDATE_REGIONS} and {@link TextEdit#COALESCE_CHANGES}
 	 */
 	public TextEditProcessor(IDocument document, TextEdit root, int style) {
 		this(document, root, style, false);
@@ -188,6 +192,9 @@ public class TextEditProcessor {
 	//---- execution --------------------------------------------------------------------
 
 	UndoEdit executeDo() throws BadLocationException {
+		if (coalesceChanges() && canCoalesceChanges(fRoot))
+			return executeCoalesced();
+
 		UndoCollector collector= new UndoCollector(fRoot);
 		try {
 			if (createUndo())
@@ -203,6 +210,218 @@ public class TextEditProcessor {
 		return collector.undo;
 	}
 
+	/**
+	 * Tells whether the changes of the given edit tree can be applied with a single
+	 * replace operation. This is the case if the tree does not contain move or copy
+	 * edits and the changing edits do not have children.
+	 *
+	 * @param edit the root of the edit tree
+	 * @return <code>true</code> if the changes can be coalesced
+	 */
+	private boolean canCoalesceChanges(TextEdit edit) {
+		if (getClass() != TextEditProcessor.class)
+			return false; // the processor may not consider all edits
+
+		if (edit instanceof ReplaceEdit || edit instanceof InsertEdit || edit instanceof DeleteEdit)
+			return !edit.hasChildren();
+
+		if (!(edit instanceof MultiTextEdit || edit instanceof RangeMarker))
+			return false;
+
+		List<TextEdit> children= edit.internalGetChildren();
+		if (children != null) {
+			for (TextEdit child : children) {
+				if (!canCoalesceChanges(child))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Applies the changes of the edit tree with as few replace operations as possible. The edits
+	 * are traversed like in {@link TextEdit#traverseDocumentUpdating(TextEditProcessor, IDocument)},
+	 * but instead of modifying the document the changes are collected. Neighboring changes are
+	 * then applied with one replace operation of the range covered by them, unless a document
+	 * position starts or ends inside that range. Such positions are updated as if the changes
+	 * had been applied one by one, as their range is replaced on its own.
+	 *
+	 * @return the undo edit or <code>null</code>
+	 * @throws BadLocationException if the changes cannot be applied
+	 */
+	private UndoEdit executeCoalesced() throws BadLocationException {
+		int rootOffset= fRoot.getOffset();
+		int rootLength= fRoot.getLength();
+
+		// collected in the order of execution, i.e. from the end of the document to its start
+		List<Change> changes= new ArrayList<>();
+		int delta= traverseCoalesced(fRoot, changes);
+
+		UndoEdit undo= null;
+		if (createUndo()) {
+			undo= new UndoEdit();
+			undo.defineRegion(rootOffset, rootLength + delta);
+		}
+
+		int[] boundaries= changes.size() > 1 ? getPositionBoundaries() : new int[0];
+		int i= 0;
+		while (i < changes.size()) {
+			// the changes i to last are applied together, the text before them is not changed yet
+			int end= changes.get(i).offset + changes.get(i).length;
+			int last= i;
+			while (last + 1 < changes.size() && !containsBoundary(boundaries, changes.get(last + 1).offset, end))
+				last++;
+			replace(changes, i, last, undo);
+			i= last + 1;
+		}
+
+		if (updateRegions())
+			fRoot.traverseRegionUpdating(this, fDocument, 0, false);
+		return undo;
+	}
+
+	/**
+	 * Replaces the range covered by the given changes with a single replace operation.
+	 *
+	 * @param changes the changes in the order of execution
+	 * @param first the index of the last change in the document
+	 * @param last the index of the first change in the document
+	 * @param undo the undo edit to add the reverting edits to or <code>null</code>
+	 * @throws BadLocationException if the changes cannot be applied
+	 */
+	private void replace(List<Change> changes, int first, int last, UndoEdit undo) throws BadLocationException {
+		int start= changes.get(last).offset;
+		int end= changes.get(first).offset + changes.get(first).length;
+		String original= fDocument.get(start, end - start);
+
+		StringBuilder buffer= new StringBuilder();
+		int position= start;
+		for (int i= last; i >= first; i--) {
+			Change change= changes.get(i);
+			buffer.append(original, position - start, change.offset - start);
+			buffer.append(change.text);
+			position= change.offset + change.length;
+		}
+		buffer.append(original, position - start, end - start);
+
+		if (undo != null) {
+			String lastText= null;
+			for (int i= first; i <= last; i++) {
+				Change change= changes.get(i);
+				String text= original.substring(change.offset - start, change.offset + change.length - start);
+				// share equal strings like the undo collector does
+				if (lastText != null && lastText.equals(text))
+					text= lastText;
+				else
+					lastText= text;
+				undo.add(new ReplaceEdit(change.offset, change.text.length(), text));
+			}
+		}
+
+		fDocument.replace(start, end - start, buffer.toString());
+	}
+
+	/**
+	 * Returns the sorted start and end offsets of all positions of the document.
+	 *
+	 * @return the sorted position boundaries
+	 */
+	private int[] getPositionBoundaries() {
+		String[] categories= fDocument.getPositionCategories();
+		List<Position[]> positions= new ArrayList<>(categories.length);
+		int size= 0;
+		for (String category : categories) {
+			try {
+				Position[] categoryPositions= fDocument.getPositions(category);
+				positions.add(categoryPositions);
+				size+= 2 * categoryPositions.length;
+			} catch (BadPositionCategoryException e) {
+				// removed concurrently, the category has no positions anymore
+			}
+		}
+		int[] boundaries= new int[size];
+		int i= 0;
+		for (Position[] categoryPositions : positions) {
+			for (Position position : categoryPositions) {
+				boundaries[i++]= position.getOffset();
+				boundaries[i++]= position.getOffset() + position.getLength();
+			}
+		}
+		Arrays.sort(boundaries);
+		return boundaries;
+	}
+
+	/**
+	 * Tells whether one of the given boundaries lies in the given range, including its ends.
+	 *
+	 * @param boundaries the sorted boundaries
+	 * @param start the start of the range
+	 * @param end the end of the range
+	 * @return <code>true</code> if the range contains a boundary
+	 */
+	private static boolean containsBoundary(int[] boundaries, int start, int end) {
+		int index= Arrays.binarySearch(boundaries, start);
+		if (index >= 0)
+			return true;
+		index= -index - 1;
+		return index < boundaries.length && boundaries[index] <= end;
+	}
+
+	/**
+	 * Traverses the edit tree like
+	 * {@link TextEdit#traverseDocumentUpdating(TextEditProcessor, IDocument)} and collects the
+	 * changes instead of performing them.
+	 *
+	 * @param edit the edit to traverse
+	 * @param changes the list to add the changes to
+	 * @return the delta caused by the edit
+	 */
+	private int traverseCoalesced(TextEdit edit, List<Change> changes) {
+		int delta= 0;
+		List<TextEdit> children= edit.internalGetChildren();
+		if (children != null) {
+			for (int i= children.size() - 1; i >= 0; i--) {
+				delta+= traverseCoalesced(children.get(i), changes);
+				edit.childDocumentUpdated();
+			}
+		}
+		if (delta != 0)
+			edit.adjustLength(delta);
+
+		String text= null;
+		if (edit instanceof ReplaceEdit)
+			text= ((ReplaceEdit) edit).getText();
+		else if (edit instanceof InsertEdit)
+			text= ((InsertEdit) edit).getText();
+		else if (edit instanceof DeleteEdit)
+			text= ""; //$NON-NLS-1$
+
+		int r= 0;
+		if (text != null) {
+			changes.add(new Change(edit.getOffset(), edit.getLength(), text));
+			r= text.length() - edit.getLength();
+		}
+		edit.fDelta= r;
+		if (r != 0)
+			edit.adjustLength(r);
+		return delta + r;
+	}
+
+	/**
+	 * A change collected by {@link TextEditProcessor#traverseCoalesced(TextEdit, List)}.
+	 */
+	private static final class Change {
+		final int offset;
+		final int length;
+		final String text;
+
+		Change(int offset, int length, String text) {
+			this.offset= offset;
+			this.length= length;
+			this.text= text;
+		}
+	}
+
 	private void computeSources() {
 		for (List<TextEdit> list : fSourceEdits) {
 			if (list != null) {
@@ -235,4 +454,8 @@ public class TextEditProcessor {
 	private boolean updateRegions() {
 		return (fStyle & TextEdit.UPDATE_REGIONS) != 0;
 	}
+
+	private boolean coalesceChanges() {
+		return (fStyle & TextEdit.COALESCE_CHANGES) != 0;
+	}
 }
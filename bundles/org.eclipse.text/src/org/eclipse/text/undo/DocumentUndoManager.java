@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2019 IBM Corporation and others.
+ * Copyright (c) 2006, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,8 +14,14 @@
  *******************************************************************************/
 package org.eclipse.text.undo;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.commands.operations.AbstractOperation;
@@ -79,6 +85,12 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 	 */
 	private static class UndoableTextChange extends AbstractOperation {
 
+		/**
+		 * The minimal number of characters worth compressing.
+		 * @since 3.15
+		 */
+		private static final int MIN_COMPRESSION_LENGTH= 64;
+
 		/** The start index of the replaced text. */
 		protected int fStart= -1;
 
@@ -100,6 +112,18 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		/** The undo manager that generated the change. */
 		protected DocumentUndoManager fDocumentUndoManager;
 
+		/**
+		 * The compressed texts of this change, <code>null</code> if the texts are not compressed.
+		 * @since 3.15
+		 */
+		protected byte[] fCompressedTexts;
+
+		/**
+		 * The lengths of the individual compressed texts.
+		 * @since 3.15
+		 */
+		protected int[] fCompressedLengths;
+
 		/**
 		 * Creates a new text change.
 		 *
@@ -117,6 +141,8 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		protected void reinitialize() {
 			fStart= fEnd= -1;
 			fText= fPreservedText= null;
+			fCompressedTexts= null;
+			fCompressedLengths= null;
 			fUndoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 			fRedoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 		}
@@ -132,6 +158,136 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			fEnd= end;
 			fText= null;
 			fPreservedText= null;
+			fCompressedTexts= null;
+			fCompressedLengths= null;
+		}
+
+		/**
+		 * Returns the estimated number of bytes used for the texts of this change.
+		 *
+		 * @return the estimated memory of this change in bytes
+		 * @since 3.15
+		 */
+		protected long getMemory() {
+			if (fCompressedTexts != null) {
+				return fCompressedTexts.length + 4L * fCompressedLengths.length;
+			}
+			long length= 0;
+			if (fText != null) {
+				length+= fText.length();
+			}
+			if (fPreservedText != null) {
+				length+= fPreservedText.length();
+			}
+			return 2 * length;
+		}
+
+		/**
+		 * Returns the texts of this change that can be compressed.
+		 *
+		 * @return the texts of this change or <code>null</code> if there is nothing to compress
+		 * @since 3.15
+		 */
+		protected String[] getTexts() {
+			if (fText == null || fPreservedText == null) {
+				return null;
+			}
+			return new String[] { fText, fPreservedText };
+		}
+
+		/**
+		 * Sets the texts of this change as returned by {@link #getTexts()}.
+		 *
+		 * @param texts the texts or <code>null</code> to release the texts
+		 * @since 3.15
+		 */
+		protected void setTexts(String[] texts) {
+			fText= texts == null ? null : texts[0];
+			fPreservedText= texts == null ? null : texts[1];
+		}
+
+		/**
+		 * Compresses the texts of this change if this saves memory. The texts are restored by
+		 * {@link #rehydrate()} before they are needed again.
+		 *
+		 * @since 3.15
+		 */
+		protected void compress() {
+			if (fCompressedTexts != null) {
+				return;
+			}
+			String[] texts= getTexts();
+			if (texts == null) {
+				return;
+			}
+
+			int[] lengths= new int[texts.length];
+			int total= 0;
+			for (int i= 0; i < texts.length; i++) {
+				lengths[i]= texts[i].length();
+				total+= lengths[i];
+			}
+			if (total < MIN_COMPRESSION_LENGTH) {
+				return;
+			}
+
+			// the characters are stored as is, encoding them could lose unpaired surrogates
+			ByteBuffer bytes= ByteBuffer.allocate(2 * total);
+			CharBuffer chars= bytes.asCharBuffer();
+			for (String text : texts) {
+				chars.put(text);
+			}
+			Deflater deflater= new Deflater(Deflater.BEST_SPEED);
+			try {
+				deflater.setInput(bytes.array());
+				deflater.finish();
+				byte[] buffer= new byte[total];
+				int length= deflater.deflate(buffer);
+				if (deflater.finished()) {
+					fCompressedTexts= Arrays.copyOf(buffer, length);
+					fCompressedLengths= lengths;
+					setTexts(null);
+				}
+			} finally {
+				deflater.end();
+			}
+		}
+
+		/**
+		 * Restores the texts of this change if they have been compressed.
+		 *
+		 * @since 3.15
+		 */
+		protected void rehydrate() {
+			if (fCompressedTexts == null) {
+				return;
+			}
+
+			int total= 0;
+			for (int length : fCompressedLengths) {
+				total+= length;
+			}
+			byte[] bytes= new byte[2 * total];
+			Inflater inflater= new Inflater();
+			try {
+				inflater.setInput(fCompressedTexts);
+				inflater.inflate(bytes);
+			} catch (DataFormatException x) {
+				throw new IllegalStateException(x);
+			} finally {
+				inflater.end();
+			}
+
+			CharBuffer chars= ByteBuffer.wrap(bytes).asCharBuffer();
+			String[] texts= new String[fCompressedLengths.length];
+			int offset= 0;
+			for (int i= 0; i < texts.length; i++) {
+				texts[i]= chars.subSequence(offset, offset + fCompressedLengths[i]).toString();
+				offset+= fCompressedLengths[i];
+			}
+			fCompressedTexts= null;
+			fCompressedLengths= null;
+			setTexts(texts);
 		}
 
 		@Override
@@ -258,6 +414,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		@Override
 		public IStatus undo(IProgressMonitor monitor, IAdaptable uiInfo) {
 			if (isValid()) {
+				rehydrate();
 				fDocumentUndoManager.fireDocumentUndo(fStart, fPreservedText, fText, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, false);
 				undoTextChange();
 				fDocumentUndoManager.resetProcessChangeState();
@@ -292,6 +449,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		@Override
 		public IStatus redo(IProgressMonitor monitor, IAdaptable uiInfo) {
 			if (isValid()) {
+				rehydrate();
 				fDocumentUndoManager.fireDocumentUndo(fStart, fText, fPreservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, false);
 				redoTextChange();
 				fDocumentUndoManager.resetProcessChangeState();
@@ -375,7 +533,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		 * @return <code>true</code> if the change is valid for undo or redo
 		 */
 		protected boolean isValid() {
-			return fStart > -1 && fEnd > -1 && fText != null;
+			return fStart > -1 && fEnd > -1 && (fText != null || fCompressedTexts != null);
 		}
 
 		@Override
@@ -451,11 +609,53 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			fChanges.add(change);
 		}
 
+		@Override
+		protected long getMemory() {
+			long memory= super.getMemory();
+			if (fCompressedTexts == null) {
+				for (UndoableTextChange change : fChanges) {
+					memory+= change.getMemory();
+				}
+			}
+			return memory;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * The texts of all individual changes are compressed together.
+		 */
+		@Override
+		protected String[] getTexts() {
+			if (fStart > -1 || fChanges.isEmpty()) {
+				return null;
+			}
+			String[] texts= new String[2 * fChanges.size()];
+			for (int i= 0; i < fChanges.size(); i++) {
+				UndoableTextChange change= fChanges.get(i);
+				if (change.fText == null || change.fPreservedText == null) {
+					return null;
+				}
+				texts[2 * i]= change.fText;
+				texts[2 * i + 1]= change.fPreservedText;
+			}
+			return texts;
+		}
+
+		@Override
+		protected void setTexts(String[] texts) {
+			for (int i= 0; i < fChanges.size(); i++) {
+				UndoableTextChange change= fChanges.get(i);
+				change.fText= texts == null ? null : texts[2 * i];
+				change.fPreservedText= texts == null ? null : texts[2 * i + 1];
+			}
+		}
+
 		@Override
 		public IStatus undo(IProgressMonitor monitor, IAdaptable uiInfo) {
 
 			int size= fChanges.size();
 			if (size > 0) {
+				rehydrate();
 				UndoableTextChange c;
 
 				c= fChanges.get(0);
@@ -488,6 +688,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 
 			int size= fChanges.size();
 			if (size > 0) {
+				rehydrate();
 
 				UndoableTextChange c;
 				c= fChanges.get(size - 1);
@@ -690,6 +891,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 				if (event.getOperation() == fOperation) {
 					listenToTextChanges(true);
 					fOperation= null;
+					trimUndoMemory();
 				}
 				break;
 			}
@@ -773,6 +975,13 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 	/** The list of clients connected. */
 	private List<Object> fConnected;
 
+	/**
+	 * The number of bytes the texts of the undo history may use before older changes are
+	 * compressed, a negative value if the memory is not limited.
+	 * @since 3.15
+	 */
+	private long fUndoMemoryLimit= -1;
+
 	/**
 	 *
 	 * Create a DocumentUndoManager for the given document.
@@ -816,6 +1025,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			}
 		}
 		fCurrent.commit();
+		trimUndoMemory();
 	}
 
 	@Override
@@ -895,6 +1105,103 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		fHistory.setLimit(fUndoContext, undoLimit);
 	}
 
+	/**
+	 * Sets the number of bytes the texts of the undo history of this document may use. When the
+	 * limit is exceeded, the texts of the oldest changes are compressed until the history fits into
+	 * the limit or no change can be compressed any further. Compressed changes are restored when
+	 * they are undone or redone. The most recent changes are compressed last, so that repeated undo
+	 * and redo stays fast.
+	 * <p>
+	 * The memory is not limited by default.
+	 * </p>
+	 *
+	 * @param limit the number of bytes the undo history may use, or a negative value to not limit
+	 *            the memory
+	 * @see #getUndoMemory()
+	 * @since 3.15
+	 */
+	public void setUndoMemoryLimit(long limit) {
+		fUndoMemoryLimit= limit;
+		trimUndoMemory();
+	}
+
+	/**
+	 * Returns the number of bytes the texts of the undo history of this document may use.
+	 *
+	 * @return the memory limit in bytes, or a negative value if the memory is not limited
+	 * @see #setUndoMemoryLimit(long)
+	 * @since 3.15
+	 */
+	public long getUndoMemoryLimit() {
+		return fUndoMemoryLimit;
+	}
+
+	/**
+	 * Returns the estimated number of bytes currently used by the texts of the undo and redo
+	 * history of this document. Compressed changes are counted with their compressed size.
+	 *
+	 * @return the estimated memory of the undo history in bytes
+	 * @see #setUndoMemoryLimit(long)
+	 * @since 3.15
+	 */
+	public long getUndoMemory() {
+		long memory= 0;
+		for (IUndoableOperation operation : fHistory.getUndoHistory(fUndoContext)) {
+			if (operation instanceof UndoableTextChange change) {
+				memory+= change.getMemory();
+			}
+		}
+		for (IUndoableOperation operation : fHistory.getRedoHistory(fUndoContext)) {
+			if (operation instanceof UndoableTextChange change) {
+				memory+= change.getMemory();
+			}
+		}
+		return memory;
+	}
+
+	/**
+	 * Compresses the oldest changes of the undo history until the history fits into the memory
+	 * limit. The changes next to the current document state, i.e. the top of the undo and the redo
+	 * history, are compressed last.
+	 *
+	 * @since 3.15
+	 */
+	private void trimUndoMemory() {
+		if (fUndoMemoryLimit < 0) {
+			return;
+		}
+		IUndoableOperation[] undoHistory= fHistory.getUndoHistory(fUndoContext);
+		IUndoableOperation[] redoHistory= fHistory.getRedoHistory(fUndoContext);
+		long memory= 0;
+		for (IUndoableOperation operation : undoHistory) {
+			if (operation instanceof UndoableTextChange change) {
+				memory+= change.getMemory();
+			}
+		}
+		for (IUndoableOperation operation : redoHistory) {
+			if (operation instanceof UndoableTextChange change) {
+				memory+= change.getMemory();
+			}
+		}
+
+		// visit the changes by decreasing distance to the current document state
+		int undoIndex= 0;
+		int redoIndex= 0;
+		while (memory > fUndoMemoryLimit && (undoIndex < undoHistory.length || redoIndex < redoHistory.length)) {
+			IUndoableOperation operation;
+			if (redoIndex == redoHistory.length || undoIndex < undoHistory.length && undoHistory.length - undoIndex >= redoHistory.length - redoIndex) {
+				operation= undoHistory[undoIndex++];
+			} else {
+				operation= redoHistory[redoIndex++];
+			}
+			if (operation instanceof UndoableTextChange change && change != fCurrent) {
+				memory-= change.getMemory();
+				change.compress();
+				memory+= change.getMemory();
+			}
+		}
+	}
+
 	/**
 	 * Fires a document undo event to all registered document undo listeners.
 	 * Uses a robust iterator.
@@ -944,6 +1251,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 				|| edit instanceof UndoableCompoundTextChange) {
 			fHistory.add(edit);
 			fLastAddedTextEdit= edit;
+			trimUndoMemory();
 		}
 	}
 
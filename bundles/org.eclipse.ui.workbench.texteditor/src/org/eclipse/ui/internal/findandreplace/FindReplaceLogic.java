@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Vector Informatik GmbH and others.
+ * Copyright (c) 2023, 2026 Vector Informatik GmbH and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -28,6 +28,7 @@ import org.eclipse.jface.text.IFindReplaceTarget;
 import org.eclipse.jface.text.IFindReplaceTargetExtension;
 import org.eclipse.jface.text.IFindReplaceTargetExtension3;
 import org.eclipse.jface.text.IFindReplaceTargetExtension4;
+import org.eclipse.jface.text.IFindReplaceTargetExtension5;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.Region;
 
@@ -346,7 +347,9 @@ public class FindReplaceLogic implements IFindReplaceLogic {
 
 	/**
 	 * Replaces all occurrences of the user's findString with the replace string.
-	 * Returns the number of replacements that occur.
+	 * Returns the number of replacements that occur. If the target supports it,
+	 * all occurrences are replaced in one operation, otherwise they are replaced
+	 * one by one.
 	 *
 	 * @return the number of occurrences
 	 *
@@ -356,6 +359,15 @@ public class FindReplaceLogic implements IFindReplaceLogic {
 			return 0;
 		}
 
+		if (target instanceof IFindReplaceTargetExtension5 bulkReplaceTarget) {
+			int replaceCount = bulkReplaceTarget.replaceAll(findString, replaceString,
+					isAvailableAndActive(SearchOptions.CASE_SENSITIVE), isAvailableAndActive(SearchOptions.WHOLE_WORD),
+					isAvailableAndActive(SearchOptions.REGEX));
+			if (replaceCount != -1) {
+				return replaceCount;
+			}
+		}
+
 		List<Point> replacements = new ArrayList<>();
 		executeInForwardMode(() -> {
 			executeWithReplaceAllEnabled(() -> {
@@ -396,9 +408,21 @@ public class FindReplaceLogic implements IFindReplaceLogic {
 	}
 
 	/**
+	 * Selects all occurrences of the user's findString. If the target supports it,
+	 * all occurrences are found and selected in one operation, otherwise they are
+	 * found one by one.
+	 *
 	 * @return the number of selected elements
 	 */
 	private int selectAll() {
+		if (target instanceof IFindReplaceTargetExtension5 bulkSelectTarget) {
+			int selectCount = bulkSelectTarget.selectAll(findString, isAvailableAndActive(SearchOptions.CASE_SENSITIVE),
+					isAvailableAndActive(SearchOptions.WHOLE_WORD), isAvailableAndActive(SearchOptions.REGEX));
+			if (selectCount != -1) {
+				return selectCount;
+			}
+		}
+
 		List<Point> selections = new ArrayList<>();
 		executeInForwardMode(() -> {
 			Point currentSeletion = new Point(0, 0);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -960,14 +960,16 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 
 		// get enclosing range: search for a consistent block of at least the size of our
 		// change before and after the change.
+		final int consistentBeforeIndex;
 		final QuickDiffRangeDifference consistentBefore, consistentAfter;
 		if (leftToRight) {
-			consistentBefore= findConsistentRangeBeforeLeft(fFirstLine, size);
-			consistentAfter= findConsistentRangeAfterLeft(lastLine, size);
+			consistentBeforeIndex= findConsistentRangeBeforeLeft(fFirstLine, size);
+			consistentAfter= fDifferences.get(findConsistentRangeAfterLeft(lastLine, size));
 		} else {
-			consistentBefore= findConsistentRangeBeforeRight(fFirstLine, size);
-			consistentAfter= findConsistentRangeAfterRight(lastLine, size);
+			consistentBeforeIndex= findConsistentRangeBeforeRight(fFirstLine, size);
+			consistentAfter= fDifferences.get(findConsistentRangeAfterRight(lastLine, size));
 		}
+		consistentBefore= fDifferences.get(consistentBeforeIndex);
 
 		// optimize unchanged blocks: if the consistent blocks around the change are larger than
 		// size, we redimension them (especially important when there are only few changes.
@@ -1055,18 +1057,15 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 
 		// replace changed diff range
 		synchronized (fDifferences) {
-			final ListIterator<QuickDiffRangeDifference> it= fDifferences.listIterator();
+			final ListIterator<QuickDiffRangeDifference> it= fDifferences.listIterator(consistentBeforeIndex);
 			Iterator<QuickDiffRangeDifference> newIt= diffs.iterator();
 			QuickDiffRangeDifference current;
 			boolean changed= false;
 
 			// replace regions from consistentBefore to consistentAfter with new diffs
 
-			// search for consistentBefore
-			do {
-				Assert.isTrue(it.hasNext());
-				current= it.next();
-			} while (current != consistentBefore);
+			Assert.isTrue(it.hasNext());
+			current= it.next();
 			Assert.isTrue(current == consistentBefore);
 
 			fChanged.clear();
@@ -1160,23 +1159,19 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	 *
 	 * @param line the line before which the range has to occur
 	 * @param size the minimal size of the range
-	 * @return the first range found, or the first range in the differ if none can be found
+	 * @return the index of the last range found, or the index of the first range in the differ if
+	 *         none can be found
 	 */
-	private QuickDiffRangeDifference findConsistentRangeBeforeLeft(int line, int size) {
-		QuickDiffRangeDifference found= null;
-
-		for (ListIterator<QuickDiffRangeDifference> it= fDifferences.listIterator(); it.hasNext();) {
-			QuickDiffRangeDifference difference= it.next();
-			if (found == null || difference.kind() == RangeDifference.NOCHANGE
+	private int findConsistentRangeBeforeLeft(int line, int size) {
+		for (int i= QuickDiffRangeDifference.findFirstRangeEndingAfter(fDifferences, line, true); i > 0; i--) {
+			QuickDiffRangeDifference difference= fDifferences.get(i);
+			if (difference.kind() == RangeDifference.NOCHANGE
 					&& (difference.leftEnd() < line && difference.leftLength() >= size
 							|| difference.leftEnd() >= line && line - difference.leftStart() >= size))
-				found= difference;
-
-			if (difference.leftEnd() >= line)
-				break;
+				return i;
 		}
 
-		return found;
+		return 0;
 	}
 
 	/**
@@ -1184,24 +1179,20 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	 *
 	 * @param line the line after which the range has to occur
 	 * @param size the minimal size of the range
-	 * @return the first range found, or the last range in the differ if none can be found
+	 * @return the index of the first range found, or the index of the last range in the differ if
+	 *         none can be found
 	 */
-	private QuickDiffRangeDifference findConsistentRangeAfterLeft(int line, int size) {
-		QuickDiffRangeDifference found= null;
-
-		for (ListIterator<QuickDiffRangeDifference> it= fDifferences.listIterator(fDifferences.size()); it.hasPrevious();) {
-			QuickDiffRangeDifference difference= it.previous();
-			if (found == null || difference.kind() == RangeDifference.NOCHANGE
+	private int findConsistentRangeAfterLeft(int line, int size) {
+		int last= fDifferences.size() - 1;
+		for (int i= Math.max(0, QuickDiffRangeDifference.findLastRangeStartingBefore(fDifferences, line, true)); i < last; i++) {
+			QuickDiffRangeDifference difference= fDifferences.get(i);
+			if (difference.kind() == RangeDifference.NOCHANGE
 					&& (difference.leftStart() > line && difference.leftLength() >= size
 							|| difference.leftStart() <= line && difference.leftEnd() - line >= size))
-				found= difference;
-
-			if (difference.leftStart() <= line)
-				break;
-
+				return i;
 		}
 
-		return found;
+		return last;
 	}
 
 	/**
@@ -1209,27 +1200,20 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	 *
 	 * @param line the line before which the range has to occur
 	 * @param size the minimal size of the range
-	 * @return the first range found, or the first range in the differ if none can be found
+	 * @return the index of the last range found, or the index of the first range in the differ if
+	 *         none can be found
 	 */
-	private QuickDiffRangeDifference findConsistentRangeBeforeRight(int line, int size) {
-		QuickDiffRangeDifference found= null;
-
-		int unchanged= -1; // the number of unchanged lines before line
-		for (ListIterator<QuickDiffRangeDifference> it= fDifferences.listIterator(); it.hasNext();) {
-			QuickDiffRangeDifference difference= it.next();
-			if (found == null)
-				found= difference;
-			else if (difference.kind() == RangeDifference.NOCHANGE) {
-				unchanged= Math.min(line, difference.rightEnd()) - difference.rightStart();
+	private int findConsistentRangeBeforeRight(int line, int size) {
+		for (int i= QuickDiffRangeDifference.findFirstRangeEndingAfter(fDifferences, line, false); i > 0; i--) {
+			QuickDiffRangeDifference difference= fDifferences.get(i);
+			if (difference.kind() == RangeDifference.NOCHANGE) {
+				int unchanged= Math.min(line, difference.rightEnd()) - difference.rightStart(); // the number of unchanged lines before line
 				if (unchanged >= size)
-					found= difference;
+					return i;
 			}
-
-			if (difference.rightEnd() >= line)
-				break;
 		}
 
-		return found;
+		return 0;
 	}
 
 	/**
@@ -1237,27 +1221,21 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	 *
 	 * @param line the line after which the range has to occur
 	 * @param size the minimal size of the range
-	 * @return the first range found, or the last range in the differ if none can be found
+	 * @return the index of the first range found, or the index of the last range in the differ if
+	 *         none can be found
 	 */
-	private QuickDiffRangeDifference findConsistentRangeAfterRight(int line, int size) {
-		QuickDiffRangeDifference found= null;
-
-		int unchanged= -1; // the number of unchanged lines after line
-		for (ListIterator<QuickDiffRangeDifference> it= fDifferences.listIterator(fDifferences.size()); it.hasPrevious();) {
-			QuickDiffRangeDifference difference= it.previous();
-			if (found == null)
-				found= difference;
-			else if (difference.kind() == RangeDifference.NOCHANGE) {
-				unchanged= difference.rightEnd() - Math.max(line + 1, difference.rightStart()); // + 1 to step over the changed line
+	private int findConsistentRangeAfterRight(int line, int size) {
+		int last= fDifferences.size() - 1;
+		for (int i= Math.max(0, QuickDiffRangeDifference.findLastRangeStartingBefore(fDifferences, line, false)); i < last; i++) {
+			QuickDiffRangeDifference difference= fDifferences.get(i);
+			if (difference.kind() == RangeDifference.NOCHANGE) {
+				int unchanged= difference.rightEnd() - Math.max(line + 1, difference.rightStart()); // + 1 to step over the changed line
 				if (unchanged >= size)
-					found= difference;
+					return i;
 			}
-
-			if (difference.rightStart() <= line)
-				break;
 		}
 
-		return found;
+		return last;
 	}
 
 	/**
@@ -1367,7 +1345,9 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	 * @return the corresponding RangeDifference, or <code>null</code>
 	 */
 	private QuickDiffRangeDifference getRangeDifferenceForLeftLine(int leftLine) {
-		for (QuickDiffRangeDifference d : fDifferences) {
+		int index= QuickDiffRangeDifference.findLastRangeStartingBefore(fDifferences, leftLine, true);
+		if (index != -1) {
+			QuickDiffRangeDifference d= fDifferences.get(index);
 			if (leftLine >= d.leftStart() && leftLine < d.leftEnd()) {
 				return d;
 			}
@@ -1384,7 +1364,9 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	private QuickDiffRangeDifference getRangeDifferenceForRightLine(int rightLine) {
 		final List<QuickDiffRangeDifference> differences= fDifferences;
 		synchronized (differences) {
-			for (QuickDiffRangeDifference d : differences) {
+			int index= QuickDiffRangeDifference.findLastRangeStartingBefore(differences, rightLine, false);
+			if (index != -1) {
+				QuickDiffRangeDifference d= differences.get(index);
 				if (rightLine >= d.rightStart() && rightLine < d.rightEnd()) {
 					return d;
 				}
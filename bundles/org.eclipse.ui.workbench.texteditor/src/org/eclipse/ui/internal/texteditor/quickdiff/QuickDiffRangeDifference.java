@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -125,5 +125,76 @@ public class QuickDiffRangeDifference extends org.eclipse.compare.rangedifferenc
 			fRegion= new DiffRegion(this, 0, differences, source);
 		return fRegion;
 	}
-}
 
+	/**
+	 * Returns the index of the first difference which ends at or after <code>line</code>. The
+	 * differences are ordered and do not overlap, so the search is binary.
+	 *
+	 * @param differences the differences
+	 * @param line the line
+	 * @param left <code>true</code> to search the left document, <code>false</code> to search the
+	 *            right document
+	 * @return the index of the first difference ending at or after <code>line</code>, or the index
+	 *         of the last difference if there is none
+	 */
+	static int findFirstRangeEndingAfter(List<QuickDiffRangeDifference> differences, int line, boolean left) {
+		int low= 0;
+		int high= differences.size() - 1;
+		while (low < high) {
+			int mid= (low + high) >>> 1;
+			QuickDiffRangeDifference difference= differences.get(mid);
+			int end= left ? difference.leftEnd() : difference.rightEnd();
+			if (end >= line)
+				high= mid;
+			else
+				low= mid + 1;
+		}
+		return high;
+	}
+
+	/**
+	 * Returns the index of the last difference which starts at or before <code>line</code>. The
+	 * differences are ordered and do not overlap, so the search is binary.
+	 *
+	 * @param differences the differences
+	 * @param line the line
+	 * @param left <code>true</code> to search the left document, <code>false</code> to search the
+	 *            right document
+	 * @return the index of the last difference starting at or before <code>line</code>, or
+	 *         <code>-1</code> if there is none
+	 */
+	static int findLastRangeStartingBefore(List<QuickDiffRangeDifference> differences, int line, boolean left) {
+		int low= 0;
+		int high= differences.size() - 1;
+		while (low <= high) {
+			int mid= (low + high) >>> 1;
+			QuickDiffRangeDifference difference= differences.get(mid);
+			int start= left ? difference.leftStart() : difference.rightStart();
+			if (start <= line)
+				low= mid + 1;
+			else
+				high= mid - 1;
+		}
+		return high;
+	}
+
+	/**
+	 * Returns the index of the given difference in the given differences. The differences are
+	 * ordered and do not overlap, so the search is binary.
+	 *
+	 * @param differences the differences
+	 * @param difference the difference to search
+	 * @return the index of the first difference equal to <code>difference</code>, or
+	 *         <code>-1</code> if there is none
+	 */
+	static int indexOf(List<QuickDiffRangeDifference> differences, QuickDiffRangeDifference difference) {
+		int index= -1;
+		// differences with the same start are adjacent and end at the last one starting before
+		int rightStart= difference.rightStart();
+		for (int i= findLastRangeStartingBefore(differences, rightStart, false); i >= 0 && differences.get(i).rightStart() == rightStart; i--) {
+			if (difference.equals(differences.get(i)))
+				index= i;
+		}
+		return index;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2007 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,6 +20,7 @@ import org.eclipse.jface.text.IFindReplaceTarget;
 import org.eclipse.jface.text.IFindReplaceTargetExtension;
 import org.eclipse.jface.text.IFindReplaceTargetExtension3;
 import org.eclipse.jface.text.IFindReplaceTargetExtension4;
+import org.eclipse.jface.text.IFindReplaceTargetExtension5;
 import org.eclipse.jface.text.IRegion;
 
 
@@ -28,7 +29,7 @@ import org.eclipse.jface.text.IRegion;
  * @since 2.1
  */
 class FindReplaceTarget implements IFindReplaceTarget, IFindReplaceTargetExtension, IFindReplaceTargetExtension2,
-		IFindReplaceTargetExtension3, IFindReplaceTargetExtension4 {
+		IFindReplaceTargetExtension3, IFindReplaceTargetExtension4, IFindReplaceTargetExtension5 {
 
 	/** The editor */
 	private AbstractTextEditor fEditor;
@@ -179,6 +180,22 @@ class FindReplaceTarget implements IFindReplaceTarget, IFindReplaceTargetExtensi
 		}
 	}
 
+	@Override
+	public int replaceAll(String findString, String replaceString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) {
+		if (fTarget instanceof IFindReplaceTargetExtension5) {
+			return ((IFindReplaceTargetExtension5) fTarget).replaceAll(findString, replaceString, caseSensitive, wholeWord, regExSearch);
+		}
+		return -1;
+	}
+
+	@Override
+	public int selectAll(String findString, boolean caseSensitive, boolean wholeWord, boolean regExSearch) {
+		if (fTarget instanceof IFindReplaceTargetExtension5) {
+			return ((IFindReplaceTargetExtension5) fTarget).selectAll(findString, caseSensitive, wholeWord, regExSearch);
+		}
+		return -1;
+	}
+
 	@Override
 	public void setScopeHighlightColor(Color color) {
 		if (getExtension() != null)
@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.filebuffers.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.filebuffers.LocationKind;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.Position;
+
+/**
+ * Runs the file buffer tests for workspace files with a document that is backed by the
+ * memory-mapped file.
+ */
+public class FileBuffersForMappedWorkspaceFiles extends FileBuffersForWorkspaceFiles {
+
+	private static final String THRESHOLD_PROPERTY= "org.eclipse.core.filebuffers.mappedFileThreshold";
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		System.setProperty(THRESHOLD_PROPERTY, "0");
+		super.setUp();
+	}
+
+	@Override
+	@After
+	public void tearDown() {
+		super.tearDown();
+		System.clearProperty(THRESHOLD_PROPERTY);
+	}
+
+	private String writeLines(int count) throws Exception {
+		StringBuilder content= new StringBuilder();
+		for (int i= 0; i < count; i++)
+			content.append("line ").append(i).append('\n');
+		IFile file= FileBuffers.getWorkspaceFileAtLocation(getPath());
+		file.setContents(new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.US_ASCII)), true, false, null);
+		return content.toString();
+	}
+
+	private Path getLocalPath() {
+		return FileBuffers.getWorkspaceFileAtLocation(getPath()).getLocation().toPath();
+	}
+
+	@Test
+	public void testSaveAndReloadMappedContent() throws Exception {
+		StringBuilder content= new StringBuilder(writeLines(2000));
+
+		fManager.connect(getPath(), LocationKind.NORMALIZE, null);
+		try {
+			ITextFileBuffer buffer= fManager.getTextFileBuffer(getPath(), LocationKind.NORMALIZE);
+			assertNotNull(buffer);
+			IDocument document= buffer.getDocument();
+			assertEquals(content.toString(), document.get());
+
+			// the unchanged ranges before and behind the edit still refer to the mapped file
+			document.replace(10, 5, "edited line\r\n");
+			content.replace(10, 15, "edited line\r\n");
+			buffer.commit(null, true);
+
+			assertEquals(content.toString(), document.get());
+			assertEquals(content.toString(), Files.readString(getLocalPath()));
+			Document expected= new Document(content.toString());
+			assertEquals(expected.getNumberOfLines(), document.getNumberOfLines());
+			assertEquals(expected.getLineInformation(1234), document.getLineInformation(1234));
+
+			document.replace(document.getLength(), 0, "appendix");
+			content.append("appendix");
+			buffer.commit(null, true);
+			assertEquals(content.toString(), Files.readString(getLocalPath()));
+
+			buffer.revert(null);
+			assertEquals(content.toString(), buffer.getDocument().get());
+			assertFalse(buffer.isDirty());
+		} finally {
+			fManager.disconnect(getPath(), LocationKind.NORMALIZE, null);
+		}
+
+		fManager.connect(getPath(), LocationKind.NORMALIZE, null);
+		try {
+			ITextFileBuffer buffer= fManager.getTextFileBuffer(getPath(), LocationKind.NORMALIZE);
+			IDocument document= buffer.getDocument();
+			assertEquals(content.toString(), document.get());
+			assertEquals(new Document(content.toString()).getNumberOfLines(), document.getNumberOfLines());
+		} finally {
+			fManager.disconnect(getPath(), LocationKind.NORMALIZE, null);
+		}
+	}
+
+	@Test
+	public void testTruncatedMappedFile() throws Exception {
+		// files are not mapped on Windows
+		assumeFalse(Platform.OS_WIN32.equals(Platform.getOS()));
+		writeLines(2000);
+
+		fManager.connect(getPath(), LocationKind.NORMALIZE, null);
+		try {
+			ITextFileBuffer buffer= fManager.getTextFileBuffer(getPath(), LocationKind.NORMALIZE);
+			IDocument document= buffer.getDocument();
+			int length= document.getLength();
+
+			Files.writeString(getLocalPath(), "truncated", StandardCharsets.US_ASCII);
+
+			// reading the lost part of the file must not fail
+			assertEquals(length, document.get().length());
+			assertFalse(buffer.isSynchronized());
+			assertEquals(IStatus.ERROR, buffer.getStatus().getSeverity());
+
+			FileBuffers.getWorkspaceFileAtLocation(getPath()).refreshLocal(IResource.DEPTH_ZERO, null);
+			assertEquals("truncated", buffer.getDocument().get());
+			assertEquals(IStatus.OK, buffer.getStatus().getSeverity());
+		} finally {
+			fManager.disconnect(getPath(), LocationKind.NORMALIZE, null);
+		}
+	}
+
+	@Test
+	public void testReplacedMappedFile() throws Exception {
+		// files are not mapped on Windows
+		assumeFalse(Platform.OS_WIN32.equals(Platform.getOS()));
+		String content= writeLines(2000);
+
+		fManager.connect(getPath(), LocationKind.NORMALIZE, null);
+		try {
+			ITextFileBuffer buffer= fManager.getTextFileBuffer(getPath(), LocationKind.NORMALIZE);
+			IDocument document= buffer.getDocument();
+			Position before= new Position(content.indexOf("line 10\n"), 7);
+			Position behind= new Position(content.indexOf("line 1900\n"), 9);
+			document.addPosition(before);
+			document.addPosition(behind);
+			List<DocumentEvent> events= new ArrayList<>();
+			document.addDocumentListener(new IDocumentListener() {
+				@Override
+				public void documentAboutToBeChanged(DocumentEvent event) {
+				}
+
+				@Override
+				public void documentChanged(DocumentEvent event) {
+					events.add(event);
+				}
+			});
+
+			// replace the file rather than overwriting it, the old mapping stays valid
+			String changed= content.replace("line 1000\n", "changed line 1000\n");
+			Path copy= getLocalPath().resolveSibling("copy.txt");
+			Files.writeString(copy, changed, StandardCharsets.US_ASCII);
+			Files.move(copy, getLocalPath(), StandardCopyOption.REPLACE_EXISTING);
+			FileBuffers.getWorkspaceFileAtLocation(getPath()).refreshLocal(IResource.DEPTH_ZERO, null);
+
+			assertEquals(changed, document.get());
+			assertEquals(new Document(changed).getNumberOfLines(), document.getNumberOfLines());
+			assertEquals(new Document(changed).getLineInformation(1500), document.getLineInformation(1500));
+			// only the changed range has been replaced
+			assertEquals(1, events.size());
+			assertTrue(events.get(0).getText().length() < 100);
+			assertFalse(behind.isDeleted());
+			assertEquals("line 10", document.get(before.getOffset(), before.getLength()));
+			assertEquals("line 1900", document.get(behind.getOffset(), behind.getLength()));
+			assertTrue(buffer.isSynchronized());
+		} finally {
+			fManager.disconnect(getPath(), LocationKind.NORMALIZE, null);
+		}
+	}
+
+	@Test
+	public void testOverwrittenMappedFile() throws Exception {
+		// files are not mapped on Windows
+		assumeFalse(Platform.OS_WIN32.equals(Platform.getOS()));
+		String content= writeLines(2000);
+
+		fManager.connect(getPath(), LocationKind.NORMALIZE, null);
+		try {
+			ITextFileBuffer buffer= fManager.getTextFileBuffer(getPath(), LocationKind.NORMALIZE);
+			IDocument document= buffer.getDocument();
+			List<DocumentEvent> events= new ArrayList<>();
+			document.addDocumentListener(new IDocumentListener() {
+				@Override
+				public void documentAboutToBeChanged(DocumentEvent event) {
+				}
+
+				@Override
+				public void documentChanged(DocumentEvent event) {
+					events.add(event);
+				}
+			});
+
+			// overwrite the mapped file in place with content of the same length
+			String changed= content.replace("line", "LINE");
+			FileTime lastModified= Files.getLastModifiedTime(getLocalPath());
+			Files.writeString(getLocalPath(), changed, StandardCharsets.US_ASCII);
+			Files.setLastModifiedTime(getLocalPath(), FileTime.fromMillis(lastModified.toMillis() + 10000));
+			FileBuffers.getWorkspaceFileAtLocation(getPath()).refreshLocal(IResource.DEPTH_ZERO, null);
+
+			// the document has read the new characters from the old mapping, its listeners must learn about them
+			assertEquals(changed, document.get());
+			assertFalse(events.isEmpty());
+			assertEquals(new Document(changed).getLineInformation(1500), document.getLineInformation(1500));
+			assertTrue(buffer.isSynchronized());
+		} finally {
+			fManager.disconnect(getPath(), LocationKind.NORMALIZE, null);
+		}
+	}
+
+	@Test
+	public void testMappedDocumentAfterDisconnect() throws Exception {
+		StringBuilder content= new StringBuilder(writeLines(2000));
+
+		IDocument document;
+		fManager.connect(getPath(), LocationKind.NORMALIZE, null);
+		try {
+			ITextFileBuffer buffer= fManager.getTextFileBuffer(getPath(), LocationKind.NORMALIZE);
+			document= buffer.getDocument();
+			document.replace(10, 5, "edited");
+			content.replace(10, 15, "edited");
+		} finally {
+			fManager.disconnect(getPath(), LocationKind.NORMALIZE, null);
+		}
+
+		// the document is no longer backed by the mapped file, but can still be used
+		Files.writeString(getLocalPath(), "overwritten", StandardCharsets.US_ASCII);
+		assertEquals(content.toString(), document.get());
+		assertEquals(new Document(content.toString()).getLineInformation(1234), document.getLineInformation(1234));
+		document.replace(0, 0, "more ");
+		assertEquals("more " + content, document.get());
+	}
+}
@@ -28,6 +28,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({ FileBufferCreation.class,
 		FileBuffersForWorkspaceFiles.class,
+		FileBuffersForMappedWorkspaceFiles.class,
 		FileBuffersForExternalFiles.class,
 		FileBuffersForLinkedFiles.class,
 		FileBuffersForFilesInLinkedFolders.class,
@@ -36,6 +37,7 @@ import org.junit.runners.Suite.SuiteClasses;
 		FileBuffersForNonAccessibleWorkspaceFiles.class,
 		FileStoreFileBuffersForWorkspaceFiles.class,
 		FileStoreFileBuffersForExternalFiles.class,
+		FileStoreFileBuffersForMappedExternalFiles.class,
 		FileStoreFileBuffersForNonExistingExternalFiles.class,
 		FileStoreFileBuffersForNonExistingWorkspaceFiles.class,
 		TextFileManagerDocCreationTests.class,
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.filebuffers.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.core.runtime.Platform;
+
+import org.eclipse.core.filesystem.IFileStore;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+
+/**
+ * Runs the file store file buffer tests for external files with a document that is backed by
+ * the memory-mapped file.
+ */
+public class FileStoreFileBuffersForMappedExternalFiles extends FileStoreFileBuffersForExternalFiles {
+
+	private static final String THRESHOLD_PROPERTY= "org.eclipse.core.filebuffers.mappedFileThreshold";
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		System.setProperty(THRESHOLD_PROPERTY, "0");
+		super.setUp();
+	}
+
+	@Override
+	@After
+	public void tearDown() {
+		super.tearDown();
+		System.clearProperty(THRESHOLD_PROPERTY);
+	}
+
+	@Test
+	public void testMappedContent() throws Exception {
+		IFileStore fileStore= FileBuffers.getFileStoreAtLocation(getPath());
+		fManager.connectFileStore(fileStore, null);
+		try {
+			ITextFileBuffer buffer= fManager.getFileStoreTextFileBuffer(fileStore);
+			assertNotNull(buffer);
+			IDocument document= buffer.getDocument();
+			assertEquals("This is the content of the external file.", document.get());
+			assertEquals(1, document.getNumberOfLines());
+
+			document.replace(0, 4, "That\n");
+			assertEquals("That\n is the content of the external file.", document.get());
+			assertEquals(2, document.getNumberOfLines());
+		} finally {
+			fManager.disconnectFileStore(fileStore, null);
+		}
+	}
+
+	@Test
+	public void testSaveMappedContent() throws Exception {
+		StringBuilder content= new StringBuilder();
+		for (int i= 0; i < 2000; i++)
+			content.append("line ").append(i).append('\n');
+		FileTool.write(getPath().toOSString(), content.toString());
+
+		IFileStore fileStore= FileBuffers.getFileStoreAtLocation(getPath());
+		fManager.connectFileStore(fileStore, null);
+		try {
+			ITextFileBuffer buffer= fManager.getFileStoreTextFileBuffer(fileStore);
+			IDocument document= buffer.getDocument();
+			assertEquals(content.toString(), document.get());
+
+			// the unchanged ranges before and behind the edit still refer to the mapped file
+			document.replace(10, 5, "edited line\r\n");
+			content.replace(10, 15, "edited line\r\n");
+			buffer.commit(null, true);
+
+			assertEquals(content.toString(), document.get());
+			assertEquals(content.toString(), Files.readString(getPath().toPath()));
+			Document expected= new Document(content.toString());
+			assertEquals(expected.getNumberOfLines(), document.getNumberOfLines());
+			assertEquals(expected.getLineInformation(1234), document.getLineInformation(1234));
+
+			document.replace(document.getLength(), 0, "appendix");
+			content.append("appendix");
+			buffer.commit(null, true);
+			assertEquals(content.toString(), document.get());
+			assertEquals(content.toString(), Files.readString(getPath().toPath()));
+		} finally {
+			fManager.disconnectFileStore(fileStore, null);
+		}
+	}
+
+	@Test
+	public void testRevertMappedContent() throws Exception {
+		// files are not mapped on Windows
+		assumeFalse(Platform.OS_WIN32.equals(Platform.getOS()));
+		StringBuilder content= new StringBuilder();
+		for (int i= 0; i < 2000; i++)
+			content.append("line ").append(i).append('\n');
+		FileTool.write(getPath().toOSString(), content.toString());
+
+		IFileStore fileStore= FileBuffers.getFileStoreAtLocation(getPath());
+		fManager.connectFileStore(fileStore, null);
+		try {
+			ITextFileBuffer buffer= fManager.getFileStoreTextFileBuffer(fileStore);
+			IDocument document= buffer.getDocument();
+			Position behind= new Position(content.indexOf("line 1900\n"), 9);
+			document.addPosition(behind);
+			document.replace(10, 5, "edited");
+			assertTrue(buffer.isDirty());
+
+			// replace the file rather than overwriting it, the old mapping stays valid
+			String changed= content.toString().replace("line 1000\n", "changed line 1000\n");
+			Path copy= getPath().toPath().resolveSibling("copy.txt");
+			Files.writeString(copy, changed, StandardCharsets.US_ASCII);
+			Files.move(copy, getPath().toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+			buffer.revert(null);
+			assertEquals(changed, document.get());
+			assertFalse(buffer.isDirty());
+			assertEquals(new Document(changed).getLineInformation(1500), document.getLineInformation(1500));
+			// only the range between both changes has been replaced
+			assertFalse(behind.isDeleted());
+			assertEquals("line 1900", document.get(behind.getOffset(), behind.getLength()));
+		} finally {
+			fManager.disconnectFileStore(fileStore, null);
+		}
+	}
+}
@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.events.MouseEvent;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.TextViewer;
+import org.eclipse.jface.text.hyperlink.HyperlinkManager;
+import org.eclipse.jface.text.hyperlink.IHyperlink;
+import org.eclipse.jface.text.hyperlink.IHyperlinkDetector;
+import org.eclipse.jface.text.hyperlink.IHyperlinkPresenter;
+import org.eclipse.jface.text.hyperlink.URLHyperlink;
+import org.eclipse.jface.text.tests.util.DisplayHelper;
+
+/**
+ * Tests the concurrent hyperlink detection of {@link HyperlinkManager} while hovering.
+ */
+public class HyperlinkManagerTest {
+
+	private static final long TIMEOUT= 5000;
+
+	/**
+	 * A hyperlink detector which answers a hyperlink named after the detector and the offset. The
+	 * calls for the offset to hold wait until the detector is released.
+	 */
+	private static class TestDetector implements IHyperlinkDetector {
+
+		private final String fName;
+		private final int fHeldOffset;
+		private final CountDownLatch fRelease= new CountDownLatch(1);
+		private final AtomicInteger fCalls= new AtomicInteger();
+		private final AtomicInteger fRunning= new AtomicInteger();
+		private final AtomicInteger fMaxRunning= new AtomicInteger();
+
+		TestDetector(String name, int heldOffset) {
+			fName= name;
+			fHeldOffset= heldOffset;
+		}
+
+		@Override
+		public IHyperlink[] detectHyperlinks(ITextViewer textViewer, IRegion region, boolean canShowMultipleHyperlinks) {
+			fCalls.incrementAndGet();
+			fMaxRunning.accumulateAndGet(fRunning.incrementAndGet(), Math::max);
+			try {
+				if (region.getOffset() == fHeldOffset)
+					fRelease.await(TIMEOUT, TimeUnit.MILLISECONDS);
+				return new IHyperlink[] { new URLHyperlink(new Region(region.getOffset(), 1), fName + region.getOffset()) };
+			} catch (InterruptedException e) {
+				return null;
+			} finally {
+				fRunning.decrementAndGet();
+			}
+		}
+
+		void release() {
+			fRelease.countDown();
+		}
+	}
+
+	/**
+	 * A hyperlink presenter recording the shown hyperlinks.
+	 */
+	private static class TestPresenter implements IHyperlinkPresenter {
+
+		private final List<String> fShown= new ArrayList<>();
+
+		@Override
+		public boolean canShowMultipleHyperlinks() {
+			return true;
+		}
+
+		@Override
+		public void showHyperlinks(IHyperlink[] hyperlinks) {
+			StringBuilder shown= new StringBuilder();
+			for (IHyperlink hyperlink : hyperlinks)
+				shown.append(((URLHyperlink) hyperlink).getURLString()).append(' ');
+			fShown.add(shown.toString().trim());
+		}
+
+		@Override
+		public void hideHyperlinks() {
+		}
+
+		@Override
+		public void install(ITextViewer textViewer) {
+		}
+
+		@Override
+		public void uninstall() {
+		}
+	}
+
+	/**
+	 * A hyperlink manager detecting the hyperlinks at a given offset instead of the mouse location.
+	 */
+	private static class TestHyperlinkManager extends HyperlinkManager {
+
+		private int fOffset;
+
+		TestHyperlinkManager(DETECTION_STRATEGY detectionStrategy) {
+			super(detectionStrategy);
+		}
+
+		@Override
+		protected int getCurrentTextOffset() {
+			return fOffset;
+		}
+	}
+
+	private Shell fShell;
+	private TextViewer fTextViewer;
+	private TestPresenter fPresenter;
+	private TestHyperlinkManager fManager;
+	private final List<TestDetector> fDetectors= new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		fShell= new Shell();
+		fTextViewer= new TextViewer(fShell, SWT.NONE);
+		fTextViewer.setDocument(new Document("one two three four"));
+		fPresenter= new TestPresenter();
+	}
+
+	@After
+	public void tearDown() {
+		for (TestDetector detector : fDetectors)
+			detector.release();
+		if (fManager != null)
+			fManager.uninstall();
+		fShell.dispose();
+	}
+
+	private void install(HyperlinkManager.DETECTION_STRATEGY strategy, long timeout, TestDetector... detectors) {
+		fDetectors.addAll(List.of(detectors));
+		fManager= new TestHyperlinkManager(strategy);
+		fManager.install(fTextViewer, fPresenter, detectors, SWT.MOD1);
+		fManager.setDetectionTimeout(timeout);
+	}
+
+	private void hover(int offset) {
+		fManager.fOffset= offset;
+		Event event= new Event();
+		event.widget= fTextViewer.getTextWidget();
+		event.stateMask= SWT.MOD1;
+		fManager.mouseMove(new MouseEvent(event));
+	}
+
+	private boolean waitForShown(int count) {
+		return new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return fPresenter.fShown.size() >= count;
+			}
+		}.waitForCondition(fShell.getDisplay(), TIMEOUT);
+	}
+
+	@Test
+	public void testStaleResultsAreDropped() {
+		TestDetector detector= new TestDetector("a", 1);
+		install(HyperlinkManager.ALL, TIMEOUT, detector);
+
+		hover(1);
+		hover(5);
+		// the call for offset 5 waits until the call for offset 1 has returned
+		DisplayHelper.sleep(fShell.getDisplay(), 300);
+		assertEquals(1, detector.fCalls.get());
+		assertTrue(fPresenter.fShown.isEmpty());
+
+		detector.release();
+		assertTrue(waitForShown(1));
+		DisplayHelper.sleep(fShell.getDisplay(), 100);
+		assertEquals(List.of("a5"), fPresenter.fShown);
+		assertEquals(2, detector.fCalls.get());
+		assertEquals(1, detector.fMaxRunning.get());
+	}
+
+	@Test
+	public void testFirstStrategyWaitsForEarlierDetectors() {
+		TestDetector first= new TestDetector("a", 1);
+		TestDetector second= new TestDetector("b", -1);
+		install(HyperlinkManager.FIRST, TIMEOUT, first, second);
+
+		hover(1);
+		assertTrue(new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return second.fCalls.get() == 1;
+			}
+		}.waitForCondition(fShell.getDisplay(), TIMEOUT));
+		DisplayHelper.sleep(fShell.getDisplay(), 100);
+		assertTrue(fPresenter.fShown.isEmpty());
+
+		first.release();
+		assertTrue(waitForShown(1));
+		assertEquals(List.of("a1"), fPresenter.fShown);
+	}
+
+	@Test
+	public void testTimeout() {
+		TestDetector first= new TestDetector("a", 1);
+		TestDetector second= new TestDetector("b", -1);
+		install(HyperlinkManager.FIRST, 200, first, second);
+
+		long start= System.currentTimeMillis();
+		hover(1);
+		assertTrue(waitForShown(1));
+		assertTrue(System.currentTimeMillis() - start >= 200);
+		assertEquals(List.of("b1"), fPresenter.fShown);
+
+		// the timed out detector is skipped while it is still running
+		hover(2);
+		assertTrue(waitForShown(2));
+		assertEquals("b2", fPresenter.fShown.get(1));
+		assertEquals(1, first.fCalls.get());
+	}
+}
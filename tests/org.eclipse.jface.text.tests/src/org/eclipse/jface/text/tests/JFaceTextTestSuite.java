@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,11 +26,15 @@ import org.eclipse.jface.text.tests.contentassist.FilteringAsyncContentAssistTes
 import org.eclipse.jface.text.tests.contentassist.IncrementalAsyncContentAssistTests;
 import org.eclipse.jface.text.tests.reconciler.AbstractReconcilerTest;
 import org.eclipse.jface.text.tests.reconciler.FastAbstractReconcilerTest;
+import org.eclipse.jface.text.tests.reconciler.SharedExecutorReconcilerTest;
+import org.eclipse.jface.text.tests.rules.CompiledRuleBasedScannerTest;
 import org.eclipse.jface.text.tests.rules.DefaultPartitionerTest;
 import org.eclipse.jface.text.tests.rules.DefaultPartitionerZeroLengthTest;
 import org.eclipse.jface.text.tests.rules.FastPartitionerTest;
+import org.eclipse.jface.text.tests.rules.IncrementalFastPartitionerTest;
 import org.eclipse.jface.text.tests.rules.ScannerColumnTest;
 import org.eclipse.jface.text.tests.rules.WordRuleTest;
+import org.eclipse.jface.text.tests.source.AnnotationPainterTest;
 import org.eclipse.jface.text.tests.source.AnnotationRulerColumnTest;
 import org.eclipse.jface.text.tests.source.LineNumberRulerColumnTest;
 import org.eclipse.jface.text.tests.source.inlined.AnnotationOnTabTest;
@@ -46,12 +50,15 @@ import org.eclipse.jface.text.tests.templates.persistence.TemplatePersistenceDat
 @RunWith(Suite.class)
 @SuiteClasses({
 		AnnotationRulerColumnTest.class,
+		AnnotationPainterTest.class,
 		LineNumberRulerColumnTest.class,
 		HTML2TextReaderTest.class,
 		TextHoverPopupTest.class,
 		TextPresentationTest.class,
+		PresentationReconcilerTest.class,
 		DefaultUndoManagerTest.class,
 		TextViewerTest.class,
+		HyperlinkManagerTest.class,
 		TextViewerUndoManagerTest.class,
 		DefaultPairMatcherTest.class,
 		DefaultPairMatcherTest2.class,
@@ -63,12 +70,15 @@ import org.eclipse.jface.text.tests.templates.persistence.TemplatePersistenceDat
 
 		AbstractReconcilerTest.class,
 		FastAbstractReconcilerTest.class,
+		SharedExecutorReconcilerTest.class,
 
 		DefaultPartitionerTest.class,
 		DefaultPartitionerZeroLengthTest.class,
 		FastPartitionerTest.class,
+		IncrementalFastPartitionerTest.class,
 		ScannerColumnTest.class,
 		WordRuleTest.class,
+		CompiledRuleBasedScannerTest.class,
 
 		TemplatePersistenceDataTest.class,
 		LineContentBoundsDrawingTest.class,
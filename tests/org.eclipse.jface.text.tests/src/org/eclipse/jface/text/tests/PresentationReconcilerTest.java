@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentPartitioner;
+import org.eclipse.jface.text.IDocumentPartitionerExtension4;
+import org.eclipse.jface.text.IPartitioningProgressListener;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.Region;
+import org.eclipse.jface.text.TextPresentation;
+import org.eclipse.jface.text.TextViewer;
+import org.eclipse.jface.text.TypedRegion;
+import org.eclipse.jface.text.presentation.PresentationReconciler;
+import org.eclipse.jface.text.tests.util.DisplayHelper;
+
+/**
+ * Tests the deferred and incremental repair of {@link PresentationReconciler}.
+ */
+public class PresentationReconcilerTest {
+
+	/** Copy of <code>PresentationReconciler.REPAIR_BATCH_SIZE</code>. */
+	private static final int REPAIR_BATCH_SIZE= 16 * 1024;
+
+	private static final int LINE_LENGTH= "line 00000\n".length();
+
+	private static final long TIMEOUT= 10000;
+
+	/**
+	 * A presentation reconciler recording the repaired regions.
+	 */
+	private static class RecordingPresentationReconciler extends PresentationReconciler {
+
+		private final List<IRegion> fRepaired= new ArrayList<>();
+
+		@Override
+		protected TextPresentation createPresentation(IRegion damage, IDocument document) {
+			fRepaired.add(new Region(damage.getOffset(), damage.getLength()));
+			return super.createPresentation(damage, document);
+		}
+	}
+
+	/**
+	 * A partitioner with a single partition whose partitioning watermark is set by the test.
+	 */
+	private static class ProgressingPartitioner implements IDocumentPartitioner, IDocumentPartitionerExtension4 {
+
+		private final List<IPartitioningProgressListener> fListeners= new ArrayList<>();
+		private IDocument fDocument;
+		private int fWatermark;
+
+		ProgressingPartitioner(int watermark) {
+			fWatermark= watermark;
+		}
+
+		void progress(int watermark) {
+			IRegion region= new Region(fWatermark, watermark - fWatermark);
+			fWatermark= watermark;
+			for (IPartitioningProgressListener listener : new ArrayList<>(fListeners))
+				listener.partitioningProgressed(this, region);
+		}
+
+		@Override
+		public int getPartitioningWatermark() {
+			return fWatermark;
+		}
+
+		@Override
+		public void addPartitioningProgressListener(IPartitioningProgressListener listener) {
+			if (!fListeners.contains(listener))
+				fListeners.add(listener);
+		}
+
+		@Override
+		public void removePartitioningProgressListener(IPartitioningProgressListener listener) {
+			fListeners.remove(listener);
+		}
+
+		@Override
+		public void connect(IDocument document) {
+			fDocument= document;
+		}
+
+		@Override
+		public void disconnect() {
+			fDocument= null;
+		}
+
+		@Override
+		public void documentAboutToBeChanged(DocumentEvent event) {
+		}
+
+		@Override
+		public boolean documentChanged(DocumentEvent event) {
+			return false;
+		}
+
+		@Override
+		public String[] getLegalContentTypes() {
+			return new String[] { IDocument.DEFAULT_CONTENT_TYPE };
+		}
+
+		@Override
+		public String getContentType(int offset) {
+			return IDocument.DEFAULT_CONTENT_TYPE;
+		}
+
+		@Override
+		public ITypedRegion[] computePartitioning(int offset, int length) {
+			return new ITypedRegion[] { getPartition(offset) };
+		}
+
+		@Override
+		public ITypedRegion getPartition(int offset) {
+			return new TypedRegion(0, fDocument.getLength(), IDocument.DEFAULT_CONTENT_TYPE);
+		}
+	}
+
+	private Shell fShell;
+	private TextViewer fTextViewer;
+	private RecordingPresentationReconciler fReconciler;
+
+	@Before
+	public void setUp() {
+		fShell= new Shell();
+		fShell.setLayout(new FillLayout());
+		fShell.setSize(500, 200);
+		fTextViewer= new TextViewer(fShell, SWT.V_SCROLL | SWT.H_SCROLL);
+		fShell.open();
+		fReconciler= new RecordingPresentationReconciler();
+		fReconciler.install(fTextViewer);
+	}
+
+	@After
+	public void tearDown() {
+		fReconciler.uninstall();
+		fShell.dispose();
+	}
+
+	private static String createText(int lines) {
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < lines; i++)
+			text.append(String.format("line %05d\n", Integer.valueOf(i)));
+		return text.toString();
+	}
+
+	private boolean waitForRepair(IRegion region, int fromIndex) {
+		return new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return isCovered(region, fReconciler.fRepaired.subList(fromIndex, fReconciler.fRepaired.size()));
+			}
+		}.waitForCondition(fShell.getDisplay(), TIMEOUT);
+	}
+
+	private static boolean isCovered(IRegion region, List<IRegion> repaired) {
+		int offset= region.getOffset();
+		int end= region.getOffset() + region.getLength();
+		boolean progress= true;
+		while (offset < end && progress) {
+			progress= false;
+			for (IRegion r : repaired) {
+				if (r.getOffset() <= offset && offset < r.getOffset() + r.getLength()) {
+					offset= r.getOffset() + r.getLength();
+					progress= true;
+				}
+			}
+		}
+		return offset >= end;
+	}
+
+	private void assertBatch(IDocument document, IRegion batch) throws BadLocationException {
+		assertTrue(batch.toString(), batch.getLength() > 0);
+		assertTrue(batch.toString(), batch.getLength() <= REPAIR_BATCH_SIZE + LINE_LENGTH);
+		int end= batch.getOffset() + batch.getLength();
+		if (end < document.getLength())
+			assertEquals(batch.toString(), end, document.getLineOffset(document.getLineOfOffset(end)));
+	}
+
+	@Test
+	public void testIncrementalRepair() throws BadLocationException {
+		fReconciler.setIncrementalRepair(true);
+		IDocument document= new Document(createText(20000));
+		fTextViewer.setDocument(document);
+
+		// only the viewport is repaired right away
+		assertEquals(1, fReconciler.fRepaired.size());
+		IRegion viewport= fReconciler.fRepaired.get(0);
+		assertEquals(0, viewport.getOffset());
+		assertEquals(fTextViewer.getBottomIndexEndOffset() + 1, viewport.getLength());
+		assertTrue(viewport.getLength() < REPAIR_BATCH_SIZE);
+
+		assertTrue(waitForRepair(new Region(0, document.getLength()), 0));
+
+		// the rest is repaired in consecutive batches
+		assertTrue(fReconciler.fRepaired.size() > document.getLength() / (REPAIR_BATCH_SIZE + LINE_LENGTH));
+		int offset= viewport.getLength();
+		for (IRegion batch : fReconciler.fRepaired.subList(1, fReconciler.fRepaired.size())) {
+			assertEquals(offset, batch.getOffset());
+			assertBatch(document, batch);
+			offset+= batch.getLength();
+		}
+		assertEquals(document.getLength(), offset);
+	}
+
+	@Test
+	public void testIncrementalRepairMergesChanges() throws BadLocationException {
+		fReconciler.setIncrementalRepair(true);
+		IDocument document= new Document(createText(20000));
+		fTextViewer.setDocument(document);
+		int viewportEnd= fReconciler.fRepaired.get(0).getLength();
+
+		// repair two batches, each batch runs as a separate runnable
+		long timeout= System.currentTimeMillis() + TIMEOUT;
+		while (fReconciler.fRepaired.size() < 3 && System.currentTimeMillis() < timeout)
+			fShell.getDisplay().readAndDispatch();
+		assertEquals(3, fReconciler.fRepaired.size());
+		int repairedEnd= viewportEnd + fReconciler.fRepaired.get(1).getLength() + fReconciler.fRepaired.get(2).getLength();
+		assertTrue(viewportEnd + LINE_LENGTH < repairedEnd);
+
+		// a small change is repaired right away, even behind the pending damage
+		int count= fReconciler.fRepaired.size();
+		int smallChange= document.getLength() - 5 * LINE_LENGTH;
+		document.replace(smallChange, 4, "LINE");
+		assertEquals(new Region(smallChange, 4), fReconciler.fRepaired.get(count));
+
+		// a large change outside the viewport starting before the pending damage is merged with it
+		count= fReconciler.fRepaired.size();
+		int largeChange= viewportEnd + LINE_LENGTH;
+		int largeLength= 3 * REPAIR_BATCH_SIZE;
+		document.replace(largeChange, largeLength, document.get(largeChange, largeLength).toUpperCase());
+		assertEquals(count, fReconciler.fRepaired.size());
+
+		assertTrue(waitForRepair(new Region(largeChange, largeLength), count));
+		assertEquals(largeChange, fReconciler.fRepaired.get(count).getOffset());
+		assertTrue(waitForRepair(new Region(0, document.getLength()), 0));
+		for (IRegion batch : fReconciler.fRepaired.subList(count, fReconciler.fRepaired.size()))
+			assertBatch(document, batch);
+	}
+
+	@Test
+	public void testDamageBehindWatermarkIsDeferred() {
+		IDocument document= new Document(createText(20000));
+		ProgressingPartitioner partitioner= new ProgressingPartitioner(LINE_LENGTH);
+		partitioner.connect(document);
+		document.setDocumentPartitioner(partitioner);
+		fTextViewer.setDocument(document);
+
+		// the viewport is repaired even though it lies behind the watermark
+		assertEquals(1, fReconciler.fRepaired.size());
+		int viewportEnd= fTextViewer.getBottomIndexEndOffset() + 1;
+		assertEquals(new Region(0, viewportEnd), fReconciler.fRepaired.get(0));
+		DisplayHelper.sleep(fShell.getDisplay(), 100);
+		assertEquals(1, fReconciler.fRepaired.size());
+
+		// the deferred damage is repaired as the watermark advances
+		int watermark= 1000 * LINE_LENGTH;
+		partitioner.progress(watermark);
+		assertTrue(waitForRepair(new Region(viewportEnd, watermark - viewportEnd), 1));
+		assertEquals(List.of(new Region(0, viewportEnd), new Region(viewportEnd, watermark - viewportEnd)), fReconciler.fRepaired);
+
+		partitioner.progress(document.getLength());
+		assertTrue(waitForRepair(new Region(watermark, document.getLength() - watermark), 2));
+		assertEquals(new Region(watermark, document.getLength() - watermark), fReconciler.fRepaired.get(2));
+		assertEquals(3, fReconciler.fRepaired.size());
+	}
+
+	@Test
+	public void testCompleteRepairByDefault() {
+		IDocument document= new Document(createText(20000));
+		fTextViewer.setDocument(document);
+
+		assertEquals(List.of(new Region(0, document.getLength())), fReconciler.fRepaired);
+	}
+}
@@ -347,6 +347,46 @@ public class CodeMiningTest {
 		}.waitForCondition(widget.getDisplay(), 1000));
 	}
 
+	@Test
+	public void testViewportScopedCodeMining() throws BadLocationException {
+		Assume.assumeFalse("See bug 541415. For whatever reason, this shortcut doesn't work on Mac", Util.isMac());
+		List<IRegion> requestedRegions= Collections.synchronizedList(new ArrayList<>());
+		fViewer.setCodeMiningViewportScoped(true);
+		fViewer.setCodeMiningProviders(new ICodeMiningProvider[] { new DelayedEchoCodeMiningProvider() {
+			@Override
+			public CompletableFuture<List<? extends ICodeMining>> provideCodeMinings(ITextViewer viewer, IRegion region, IProgressMonitor monitor) {
+				requestedRegions.add(region);
+				return provideCodeMinings(viewer, monitor);
+			}
+		} });
+		fViewer.getDocument().set(TextViewerTest.generate5000Lines());
+		StyledText widget= fViewer.getTextWidget();
+		Assert.assertTrue(new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return widget.getLineVerticalIndent(0) > 0;
+			}
+		}.waitForCondition(widget.getDisplay(), 3000));
+		int length= fViewer.getDocument().getLength();
+		IRegion region= requestedRegions.get(requestedRegions.size() - 1);
+		Assert.assertTrue(region.getLength() < length);
+		int lastLine= fViewer.getDocument().getNumberOfLines() - 1;
+		Assert.assertEquals(0, widget.getLineVerticalIndent(lastLine));
+
+		// the minings of the new viewport are requested after scrolling
+		TextViewerTest.ctrlEnd(fViewer);
+		Assert.assertTrue(new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return widget.getLineVerticalIndent(lastLine) > 0;
+			}
+		}.waitForCondition(widget.getDisplay(), 3000));
+		region= requestedRegions.get(requestedRegions.size() - 1);
+		Assert.assertTrue(region.getOffset() + region.getLength() >= fViewer.getDocument().getLineOffset(lastLine));
+		// the minings of the first lines are kept
+		Assert.assertTrue(widget.getLineVerticalIndent(0) > 0);
+	}
+
 	private static boolean hasCodeMiningPrintedBelowLine(ITextViewer viewer, int line) throws BadLocationException {
 		StyledText widget= viewer.getTextWidget();
 		IDocument document= viewer.getDocument();
@@ -19,7 +19,10 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 import org.junit.After;
@@ -40,8 +43,11 @@ import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IInformationControlCreator;
 import org.eclipse.jface.text.ITextViewer;
+import org.eclipse.jface.text.contentassist.ContentAssistEvent;
 import org.eclipse.jface.text.contentassist.ContentAssistant;
 import org.eclipse.jface.text.contentassist.ContextInformationValidator;
+import org.eclipse.jface.text.contentassist.ICompletionListener;
+import org.eclipse.jface.text.contentassist.ICompletionListenerExtension3;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 import org.eclipse.jface.text.contentassist.ICompletionProposalExtension;
 import org.eclipse.jface.text.contentassist.ICompletionProposalExtension2;
@@ -319,6 +325,105 @@ public class FilteringAsyncContentAssistTests {
 		assertTrue(filteredProposals == null || filteredProposals.isEmpty());
 	}
 
+	/**
+	 * CA with filtering with 1 immediate and 1 delayed CA processors. Empty text initially. Invoke
+	 * CA, type 'y' before the delayed proposal is computed, verify the immediate proposal is
+	 * filtered out right away and the delayed proposal is shown filtered once computed.
+	 *
+	 * @throws Exception exception
+	 */
+	@Test
+	public void testFilteringWhileComputing() throws Exception {
+		IDocument document= viewer.getDocument();
+
+		ca.addContentAssistProcessor(new ImmediateContentAssistProcessor("xxxx"), IDocument.DEFAULT_CONTENT_TYPE);
+		ca.addContentAssistProcessor(new DelayedContentAssistProcessor(singletonList("yyyy"), 2000, false),
+				IDocument.DEFAULT_CONTENT_TYPE);
+
+		ca.install(viewer);
+
+		viewer.setSelectedRange(0, 0);
+
+		ca.showPossibleCompletions();
+
+		DisplayHelper.sleep(shell.getDisplay(), 300);
+
+		List<ICompletionProposal> filteredProposals= getFilteredProposals(ca, p -> p instanceof CompletionProposal);
+		assertEquals(1, filteredProposals.size());
+
+		new InsertEdit(0, "y").apply(document);
+		viewer.setSelectedRange(1, 0);
+
+		DisplayHelper.sleep(shell.getDisplay(), 500);
+
+		filteredProposals= getFilteredProposals(ca, p -> p instanceof CompletionProposal);
+		assertNotNull(filteredProposals);
+		assertTrue(filteredProposals.isEmpty());
+
+		DisplayHelper.sleep(shell.getDisplay(), 2500);
+
+		filteredProposals= getFilteredProposals(ca, p -> p instanceof CompletionProposal);
+		assertNotNull(filteredProposals);
+		assertEquals(1, filteredProposals.size());
+		assertEquals("yyyy", filteredProposals.get(0).getDisplayString());
+	}
+
+	/**
+	 * CA with 1 immediate and 1 delayed CA processors. Invoke CA, verify that the completion
+	 * listeners are told how long each processor took.
+	 *
+	 * @throws Exception exception
+	 */
+	@Test
+	public void testProcessorTimings() throws Exception {
+		IContentAssistProcessor immediate= new ImmediateContentAssistProcessor("xx", "xy");
+		IContentAssistProcessor delayed= new DelayedContentAssistProcessor(singletonList("yy"), 500, false);
+		ca.addContentAssistProcessor(immediate, IDocument.DEFAULT_CONTENT_TYPE);
+		ca.addContentAssistProcessor(delayed, IDocument.DEFAULT_CONTENT_TYPE);
+
+		Map<IContentAssistProcessor, long[]> timings= new ConcurrentHashMap<>();
+		ca.addCompletionListener(new TimingListener(timings));
+
+		ca.install(viewer);
+
+		viewer.setSelectedRange(0, 0);
+
+		ca.showPossibleCompletions();
+
+		DisplayHelper.sleep(shell.getDisplay(), 1500);
+
+		assertEquals(2, timings.size());
+		assertEquals(2, timings.get(immediate)[0]);
+		assertEquals(1, timings.get(delayed)[0]);
+		assertTrue(timings.get(delayed)[1] >= TimeUnit.MILLISECONDS.toNanos(500));
+	}
+
+	private static class TimingListener implements ICompletionListener, ICompletionListenerExtension3 {
+
+		private final Map<IContentAssistProcessor, long[]> fTimings;
+
+		TimingListener(Map<IContentAssistProcessor, long[]> timings) {
+			fTimings= timings;
+		}
+
+		@Override
+		public void proposalsComputed(ContentAssistEvent event, int proposalCount, long duration) {
+			fTimings.put(event.processor, new long[] { proposalCount, duration });
+		}
+
+		@Override
+		public void assistSessionStarted(ContentAssistEvent event) {
+		}
+
+		@Override
+		public void assistSessionEnded(ContentAssistEvent event) {
+		}
+
+		@Override
+		public void selectionChanged(ICompletionProposal proposal, boolean smartToggle) {
+		}
+	}
+
 	@Test
 	public void testProposalValidation() throws Exception {
 		IDocument document= viewer.getDocument();
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.reconciler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.reconciler.AbstractReconciler;
+import org.eclipse.jface.text.reconciler.DirtyRegion;
+import org.eclipse.jface.text.reconciler.IReconcilingStrategy;
+import org.eclipse.jface.text.tests.TestTextViewer;
+
+/**
+ * Runs the {@link AbstractReconcilerTest} with the reconciler running on the shared executor and
+ * tests many reconcilers sharing the executor.
+ */
+public class SharedExecutorReconcilerTest extends AbstractReconcilerTest {
+
+	private static final int RECONCILER_COUNT= 50;
+
+	@Override
+	boolean isRunInSharedExecutor() {
+		return true;
+	}
+
+	@Test
+	public void testManyReconcilers() throws InterruptedException, BadLocationException {
+		CountDownLatch initialized= new CountDownLatch(RECONCILER_COUNT);
+		CountDownLatch processed= new CountDownLatch(RECONCILER_COUNT);
+		AtomicInteger wrongThread= new AtomicInteger();
+		List<AbstractReconciler> reconcilers= new ArrayList<>();
+		List<IDocument> documents= new ArrayList<>();
+		try {
+			for (int i= 0; i < RECONCILER_COUNT; i++) {
+				AbstractReconciler reconciler= new AbstractReconciler() {
+					@Override
+					protected void initialProcess() {
+						if (!isRunningInReconcilerThread())
+							wrongThread.incrementAndGet();
+						initialized.countDown();
+					}
+					@Override
+					protected void process(DirtyRegion dirtyRegion) {
+						if (!isRunningInReconcilerThread())
+							wrongThread.incrementAndGet();
+						processed.countDown();
+					}
+					@Override
+					protected void reconcilerDocumentChanged(IDocument newDocument) {
+					}
+					@Override
+					public IReconcilingStrategy getReconcilingStrategy(String contentType) {
+						return null;
+					}
+				};
+				reconciler.setIsIncrementalReconciler(false);
+				reconciler.setDelay(10);
+				reconciler.setRunInSharedExecutor(true);
+				TestTextViewer viewer= new TestTextViewer();
+				reconciler.install(viewer);
+				reconcilers.add(reconciler);
+
+				IDocument document= new Document("foo");
+				viewer.setDocument(document);
+				documents.add(document);
+			}
+
+			assertTrue(initialized.await(10, TimeUnit.SECONDS));
+			for (IDocument document : documents)
+				document.replace(0, 0, "bar");
+			assertTrue(processed.await(10, TimeUnit.SECONDS));
+			assertEquals(0, wrongThread.get());
+		} finally {
+			for (AbstractReconciler reconciler : reconcilers)
+				reconciler.uninstall();
+		}
+	}
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.rules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.rules.BufferedRuleBasedScanner;
+import org.eclipse.jface.text.rules.EndOfLineRule;
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.IRule;
+import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.IWhitespaceDetector;
+import org.eclipse.jface.text.rules.IWordDetector;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.NumberRule;
+import org.eclipse.jface.text.rules.PatternRule;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+import org.eclipse.jface.text.rules.RuleBasedScanner;
+import org.eclipse.jface.text.rules.SingleLineRule;
+import org.eclipse.jface.text.rules.Token;
+import org.eclipse.jface.text.rules.WhitespaceRule;
+import org.eclipse.jface.text.rules.WordPatternRule;
+import org.eclipse.jface.text.rules.WordRule;
+
+/**
+ * Compares the tokens returned by scanners with and without rule compilation.
+ */
+public class CompiledRuleBasedScannerTest {
+
+	private static final String[] FRAGMENTS= { "if", "IF", "else", "word", "x1", "\u00fcn\u00efcode", " ", "  ", "\t", "\n", "\r\n", "\r", "42", "7",
+			"\"", "\\", "'", "/*", "*/", "*", "/", "//", "#", "$var", "<%", "%>", "ab", "\u4e2d\u6587", "\uffff", ";" };
+
+	private static final IToken KEYWORD= new Token("keyword");
+	private static final IToken WORD= new Token("word");
+	private static final IToken STRING= new Token("string");
+	private static final IToken CHARACTER= new Token("character");
+	private static final IToken COMMENT= new Token("comment");
+	private static final IToken LINE_COMMENT= new Token("line_comment");
+	private static final IToken NUMBER= new Token("number");
+	private static final IToken VARIABLE= new Token("variable");
+	private static final IToken TAG= new Token("tag");
+	private static final IToken CUSTOM= new Token("custom");
+	private static final IToken PREPROCESSOR= new Token("preprocessor");
+
+	private static final IWordDetector WORD_DETECTOR= new IWordDetector() {
+		@Override
+		public boolean isWordStart(char c) {
+			return Character.isLetter(c);
+		}
+
+		@Override
+		public boolean isWordPart(char c) {
+			return Character.isLetterOrDigit(c);
+		}
+	};
+
+	private static final IWhitespaceDetector WHITESPACE_DETECTOR= Character::isWhitespace;
+
+	@Test
+	public void testRuleBasedScanner() {
+		Random random= new Random(17);
+		for (int i= 0; i < 200; i++) {
+			IDocument document= new Document(createText(random, random.nextInt(400)));
+			assertSameTokens(document, random, new RuleBasedScanner(), new RuleBasedScanner(), createRules());
+		}
+	}
+
+	@Test
+	public void testBufferedScanner() {
+		Random random= new Random(19);
+		for (int i= 0; i < 20; i++) {
+			IDocument document= new Document(createText(random, 20000));
+			assertSameTokens(document, random, new BufferedRuleBasedScanner(100), new BufferedRuleBasedScanner(100), createRules());
+		}
+	}
+
+	@Test
+	public void testUndefinedDefaultTokens() {
+		Random random= new Random(23);
+		WordRule words= new WordRule(WORD_DETECTOR);
+		words.addWord("if", KEYWORD);
+		WordRule ignoreCase= new WordRule(WORD_DETECTOR, Token.UNDEFINED, true);
+		ignoreCase.addWord("ELSE", KEYWORD);
+		IRule[] rules= { words, ignoreCase, new PatternRule("/*", "*/", COMMENT, (char) 0, false), new PatternRule("<%", "%>", TAG, '\\', true, false, true),
+				new WhitespaceRule(WHITESPACE_DETECTOR) };
+		for (int i= 0; i < 200; i++) {
+			IDocument document= new Document(createText(random, random.nextInt(300)));
+			assertSameTokens(document, random, new RuleBasedScanner(), new RuleBasedScanner(), rules);
+		}
+	}
+
+	@Test
+	public void testPartialRange() {
+		Random random= new Random(29);
+		IPredicateRule[] rules= { new MultiLineRule("/*", "*/", COMMENT, (char) 0, true), new SingleLineRule("\"", "\"", STRING, '\\'), new EndOfLineRule("//", LINE_COMMENT) };
+		for (int i= 0; i < 100; i++) {
+			IDocument document= new Document(createText(random, 2000));
+			RuleBasedPartitionScanner expected= new RuleBasedPartitionScanner();
+			RuleBasedPartitionScanner actual= new RuleBasedPartitionScanner();
+			expected.setPredicateRules(rules);
+			actual.setPredicateRules(rules);
+			actual.enableRuleCompilation(true);
+
+			int offset= random.nextInt(document.getLength());
+			int partitionOffset= Math.max(0, offset - random.nextInt(20));
+			String contentType= random.nextBoolean() ? null : COMMENT.getData().toString();
+			expected.setPartialRange(document, offset, document.getLength() - offset, contentType, partitionOffset);
+			actual.setPartialRange(document, offset, document.getLength() - offset, contentType, partitionOffset);
+			assertSameTokens(expected, actual);
+		}
+	}
+
+	private static IRule[] createRules() {
+		WordRule keywords= new WordRule(WORD_DETECTOR, WORD);
+		keywords.addWord("if", KEYWORD);
+		keywords.addWord("else", KEYWORD);
+		WordRule columnWords= new WordRule(WORD_DETECTOR, Token.UNDEFINED);
+		columnWords.addWord("ab", PREPROCESSOR);
+		columnWords.setColumnConstraint(0);
+		PatternRule columnPattern= new EndOfLineRule("#", PREPROCESSOR);
+		columnPattern.setColumnConstraint(0);
+		IRule custom= scanner -> {
+			if (scanner.read() == ';')
+				return CUSTOM;
+			scanner.unread();
+			return Token.UNDEFINED;
+		};
+		return new IRule[] {
+				columnWords,
+				columnPattern,
+				new EndOfLineRule("//", LINE_COMMENT),
+				new MultiLineRule("/*", "*/", COMMENT, (char) 0, true),
+				new SingleLineRule("\"", "\"", STRING, '\\'),
+				new SingleLineRule("'", "'", CHARACTER, '\\', true, true),
+				new WordPatternRule(WORD_DETECTOR, "$", null, VARIABLE),
+				new MultiLineRule("<%", "%>", TAG),
+				custom,
+				keywords,
+				new NumberRule(NUMBER),
+				new WhitespaceRule(WHITESPACE_DETECTOR)
+		};
+	}
+
+	private static String createText(Random random, int length) {
+		StringBuilder text= new StringBuilder();
+		while (text.length() < length)
+			text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+		return text.toString();
+	}
+
+	private static void assertSameTokens(IDocument document, Random random, RuleBasedScanner expected, RuleBasedScanner actual, IRule[] rules) {
+		expected.setRules(rules);
+		actual.setRules(rules);
+		actual.enableRuleCompilation(true);
+
+		int offset= random.nextInt(document.getLength() + 1);
+		int length= random.nextInt(document.getLength() - offset + 1);
+		expected.setRange(document, offset, length);
+		actual.setRange(document, offset, length);
+		assertSameTokens(expected, actual);
+
+		expected.setRange(document, 0, document.getLength());
+		actual.setRange(document, 0, document.getLength());
+		assertSameTokens(expected, actual);
+	}
+
+	private static void assertSameTokens(RuleBasedScanner expected, RuleBasedScanner actual) {
+		IToken token;
+		do {
+			token= expected.nextToken();
+			IToken actualToken= actual.nextToken();
+			// the default return tokens differ per scanner
+			if (token.getData() != null)
+				assertSame(token, actualToken);
+			assertEquals(token.isEOF(), actualToken.isEOF());
+			assertEquals(token.getData(), actualToken.getData());
+			assertEquals(expected.getTokenOffset(), actual.getTokenOffset());
+			assertEquals(expected.getTokenLength(), actual.getTokenLength());
+		} while (!token.isEOF());
+	}
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.rules;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentPartitioner;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ISynchronizable;
+import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.rules.FastPartitioner;
+import org.eclipse.jface.text.rules.IPartitionTokenScanner;
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+import org.eclipse.jface.text.rules.Token;
+
+/**
+ * Runs the {@link FastPartitionerTest} with incremental partitioning and compares incremental
+ * and complete partitioning of large documents.
+ */
+public class IncrementalFastPartitionerTest extends FastPartitionerTest {
+
+	@Override
+	protected IDocumentPartitioner createPartitioner(IPartitionTokenScanner scanner) {
+		FastPartitioner partitioner= new FastPartitioner(scanner, new String[] { DEFAULT, COMMENT });
+		partitioner.setIncrementalPartitioning(true);
+		return partitioner;
+	}
+
+	@Test
+	public void testOnDemandPartitioning() {
+		String text= createText(new Random(3), 200000);
+		IDocument expected= new Document(text);
+		IDocument actual= new Document(text);
+		FastPartitioner complete= connect(expected, false);
+
+		FastPartitioner incremental= new FastPartitioner(createScanner(), new String[] { DEFAULT, COMMENT });
+		incremental.setIncrementalPartitioning(true);
+		List<IRegion> progress= new ArrayList<>();
+		incremental.addPartitioningProgressListener((partitioner, region) -> progress.add(region));
+		incremental.connect(actual);
+		actual.setDocumentPartitioner(incremental);
+
+		// without a lock object there is no background partitioning to wait for
+		assertEquals(actual.getLength(), incremental.getPartitioningWatermark());
+		assertTrue(getEnd(progress) < actual.getLength());
+
+		int offset= actual.getLength() - 1;
+		assertEquals(complete.getPartition(offset), incremental.getPartition(offset));
+		assertEquals(actual.getLength(), getEnd(progress));
+	}
+
+	@Test
+	public void testRandomEdits() throws BadLocationException {
+		Random random= new Random(5);
+		String text= createText(random, 100000);
+		IDocument expected= new Document(text);
+		IDocument actual= new Document(text);
+		FastPartitioner complete= connect(expected, false);
+		FastPartitioner incremental= connect(actual, true);
+
+		String[] insertions= { "/*", "*/", "x", "\n", "/* c */", "" };
+		for (int i= 0; i < 300; i++) {
+			int offset= random.nextInt(expected.getLength() + 1);
+			int length= random.nextInt(Math.min(50, expected.getLength() - offset) + 1);
+			String insertion= insertions[random.nextInt(insertions.length)];
+			expected.replace(offset, length, insertion);
+			actual.replace(offset, length, insertion);
+
+			int query= random.nextInt(expected.getLength());
+			assertEquals(complete.getPartition(query), incremental.getPartition(query));
+			assertEquals(complete.getContentType(query), incremental.getContentType(query));
+			int queryLength= Math.min(1000, expected.getLength() - query);
+			assertArrayEquals(complete.computePartitioning(query, queryLength), incremental.computePartitioning(query, queryLength));
+		}
+
+		assertArrayEquals(complete.computePartitioning(0, expected.getLength()), incremental.computePartitioning(0, actual.getLength()));
+	}
+
+	@Test
+	public void testBackgroundPartitioning() throws Exception {
+		String text= createText(new Random(7), 500000);
+		IDocument expected= new Document(text);
+		IDocument actual= new LockableDocument(text);
+		FastPartitioner complete= connect(expected, false);
+		FastPartitioner incremental= connect(actual, true);
+
+		long timeout= System.currentTimeMillis() + 10000;
+		while (incremental.getPartitioningWatermark() < actual.getLength() && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+
+		assertEquals(actual.getLength(), incremental.getPartitioningWatermark());
+		assertArrayEquals(complete.computePartitioning(0, expected.getLength()), incremental.computePartitioning(0, actual.getLength()));
+	}
+
+	private FastPartitioner connect(IDocument document, boolean incremental) {
+		FastPartitioner partitioner= new FastPartitioner(createScanner(), new String[] { DEFAULT, COMMENT });
+		partitioner.setIncrementalPartitioning(incremental);
+		partitioner.connect(document);
+		document.setDocumentPartitioner(partitioner);
+		return partitioner;
+	}
+
+	private static int getEnd(List<IRegion> progress) {
+		int end= 0;
+		for (IRegion region : progress) {
+			assertEquals(end, region.getOffset());
+			end= region.getOffset() + region.getLength();
+		}
+		return end;
+	}
+
+	private static IPartitionTokenScanner createScanner() {
+		return new RuleBasedPartitionScanner() {
+			{
+				IToken comment= new Token(COMMENT);
+				IPredicateRule[] rules= new IPredicateRule[] { new MultiLineRule("/*", "*/", comment) };
+				setPredicateRules(rules);
+			}
+		};
+	}
+
+	private static String createText(Random random, int length) {
+		StringBuilder text= new StringBuilder(length);
+		while (text.length() < length) {
+			switch (random.nextInt(8)) {
+				case 0:
+					text.append("/* comment\n spanning lines */");
+					break;
+				case 1:
+					text.append('\n');
+					break;
+				default:
+					text.append("code ");
+			}
+		}
+		return text.toString();
+	}
+
+	private static final class LockableDocument extends Document implements ISynchronizable {
+
+		private Object fLockObject= new Object();
+
+		LockableDocument(String text) {
+			super(text);
+		}
+
+		@Override
+		public void setLockObject(Object lockObject) {
+			fLockObject= lockObject;
+		}
+
+		@Override
+		public Object getLockObject() {
+			return fLockObject;
+		}
+
+		@Override
+		public void replace(int offset, int length, String text) throws BadLocationException {
+			synchronized (fLockObject) {
+				super.replace(offset, length, text);
+			}
+		}
+
+		@Override
+		public void set(String text) {
+			synchronized (fLockObject) {
+				super.set(text);
+			}
+		}
+	}
+}
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.source;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITextViewerExtension2;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.AnnotationPainter;
+import org.eclipse.jface.text.source.AnnotationPainter.IDrawingStrategy;
+import org.eclipse.jface.text.source.IAnnotationAccess;
+import org.eclipse.jface.text.source.SourceViewer;
+
+import org.eclipse.jface.text.tests.util.DisplayHelper;
+
+/**
+ * Tests that the {@link AnnotationPainter} only visits the decorations on screen and keeps its
+ * cached decoration lines up to date.
+ */
+public class AnnotationPainterTest {
+
+	private static final String TYPE= "org.eclipse.jface.text.tests.annotation";
+
+	private static final String STRATEGY= "org.eclipse.jface.text.tests.strategy";
+
+	/**
+	 * Position counting the accesses to its offset.
+	 */
+	private static final class CountingPosition extends Position {
+
+		static int fgOffsetAccesses;
+
+		CountingPosition(int offset, int length) {
+			super(offset, length);
+		}
+
+		@Override
+		public int getOffset() {
+			fgOffsetAccesses++;
+			return super.getOffset();
+		}
+	}
+
+	private static final class Access implements IAnnotationAccess {
+		@Override
+		public Object getType(Annotation annotation) {
+			return annotation.getType();
+		}
+
+		@Override
+		public boolean isMultiLine(Annotation annotation) {
+			return true;
+		}
+
+		@Override
+		public boolean isTemporary(Annotation annotation) {
+			return true;
+		}
+	}
+
+	private Shell fParent;
+
+	private SourceViewer fViewer;
+
+	private AnnotationModel fModel;
+
+	private final List<int[]> fDrawn= new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		fParent= new Shell();
+		fParent.setLayout(new FillLayout());
+		fParent.setSize(500, 300);
+		fViewer= new SourceViewer(fParent, null, SWT.V_SCROLL | SWT.H_SCROLL);
+		fModel= new AnnotationModel();
+	}
+
+	@After
+	public void tearDown() {
+		fParent.dispose();
+		fParent= null;
+	}
+
+	private void install(IDocument document) {
+		fViewer.setDocument(document, fModel);
+		AnnotationPainter painter= new AnnotationPainter(fViewer, new Access());
+		IDrawingStrategy strategy= (Annotation annotation, GC gc, StyledText textWidget, int offset, int length, Color color) -> {
+			if (gc != null)
+				fDrawn.add(new int[] { offset, length });
+		};
+		painter.addDrawingStrategy(STRATEGY, strategy);
+		painter.addAnnotationType(TYPE, STRATEGY);
+		painter.setAnnotationTypeColor(TYPE, fParent.getDisplay().getSystemColor(SWT.COLOR_RED));
+		((ITextViewerExtension2) fViewer).addPainter(painter);
+		fParent.open();
+	}
+
+	private void repaint() {
+		StyledText textWidget= fViewer.getTextWidget();
+		DisplayHelper.driveEventQueue(textWidget.getDisplay());
+		fDrawn.clear();
+		textWidget.redraw();
+		textWidget.update();
+		DisplayHelper.driveEventQueue(textWidget.getDisplay());
+	}
+
+	private boolean wasDrawn(int offset, int length) {
+		for (int[] range : fDrawn) {
+			if (range[0] == offset && range[1] == length)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Installs the painter on a document with three decorations at the start of every line.
+	 *
+	 * @param document the document
+	 * @return the annotations
+	 */
+	private Map<Annotation, Position> installAnnotations(IDocument document) throws BadLocationException {
+		install(document);
+
+		Map<Annotation, Position> annotations= new HashMap<>();
+		for (int i= 0; i < document.getNumberOfLines() - 1; i++) {
+			int offset= document.getLineOffset(i);
+			for (int j= 0; j < 3; j++)
+				annotations.put(new Annotation(TYPE, false, null), new CountingPosition(offset + 2 * j, 2));
+		}
+		fModel.replaceAnnotations(null, annotations);
+		assertTrue(new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return !fDrawn.isEmpty();
+			}
+		}.waitForCondition(fParent.getDisplay(), 5000));
+		return annotations;
+	}
+
+	private static IDocument createDocument(int lines) {
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < lines; i++)
+			text.append("line ").append(i).append(" with three annotations\n");
+		return new Document(text.toString());
+	}
+
+	@Test
+	public void testPaintingVisitsVisibleDecorations() throws Exception {
+		int lines= 20000;
+		IDocument document= createDocument(lines);
+		Map<Annotation, Position> annotations= installAnnotations(document);
+
+		int visibleLines= fViewer.getBottomIndex() - fViewer.getTopIndex() + 1;
+		for (int i= 0; i < 5; i++)
+			repaint();
+		assertFalse(fDrawn.isEmpty());
+		assertTrue(fDrawn.size() <= 3 * (visibleLines + 2));
+
+		// painting without document or model changes must not visit all decorations
+		CountingPosition.fgOffsetAccesses= 0;
+		for (int i= 0; i < 10; i++)
+			repaint();
+		assertTrue("offset accesses: " + CountingPosition.fgOffsetAccesses, CountingPosition.fgOffsetAccesses < annotations.size());
+
+		// the decorations in the middle of the document are found
+		int middle= lines / 2;
+		fViewer.setTopIndex(middle);
+		repaint();
+		int offset= document.getLineOffset(middle + 1);
+		assertTrue(wasDrawn(offset, 2));
+		assertTrue(wasDrawn(offset + 4, 2));
+	}
+
+	@Test
+	public void testTypingKeepsDecorationIndex() throws Exception {
+		IDocument document= createDocument(20000);
+		Map<Annotation, Position> annotations= installAnnotations(document);
+		repaint();
+
+		// typing must not rebuild the index, which visits all decorations; typing at the end of
+		// the document keeps the position updater from visiting them
+		CountingPosition.fgOffsetAccesses= 0;
+		for (int i= 0; i < 10; i++) {
+			replace(document, document.getLength(), 0, "x");
+			repaint();
+		}
+		assertTrue("offset accesses: " + CountingPosition.fgOffsetAccesses, CountingPosition.fgOffsetAccesses < annotations.size());
+
+		// the decorations on screen follow typing in front of them
+		int offset= document.getLineOffset(1);
+		replace(document, offset, 0, "xx");
+		repaint();
+		assertTrue(wasDrawn(offset + 2, 2));
+		assertTrue(wasDrawn(offset + 6, 2));
+
+		// removing text deletes the decorations inside it
+		replace(document, offset, document.getLineLength(1) - 1, "");
+		repaint();
+		assertTrue(wasDrawn(offset + 1, 2));
+		assertTrue(wasDrawn(offset + 5, 2));
+		assertFalse(wasDrawn(offset + 2, 2));
+	}
+
+	@Test
+	public void testDecorationLinesFollowDocumentChanges() throws Exception {
+		IDocument document= new Document("aaaa\nbbbb\ncccc\n");
+		install(document);
+		fModel.addAnnotation(new Annotation(TYPE, false, null), new Position(2, 10));
+		assertTrue(new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return !fDrawn.isEmpty();
+			}
+		}.waitForCondition(fParent.getDisplay(), 5000));
+
+		repaint();
+		assertEquals(3, fDrawn.size());
+		assertTrue(wasDrawn(2, 2));
+		assertTrue(wasDrawn(5, 4));
+		assertTrue(wasDrawn(10, 2));
+
+		// same length, but the lines of the decoration change
+		replace(document, 7, 1, "\n");
+		repaint();
+		assertEquals(4, fDrawn.size());
+		assertTrue(wasDrawn(2, 2));
+		assertTrue(wasDrawn(5, 2));
+		assertTrue(wasDrawn(8, 1));
+		assertTrue(wasDrawn(10, 2));
+
+		// changes before the decoration only move it
+		replace(document, 0, 0, "xx");
+		repaint();
+		assertEquals(4, fDrawn.size());
+		assertTrue(wasDrawn(4, 2));
+		assertTrue(wasDrawn(7, 2));
+		assertTrue(wasDrawn(10, 1));
+		assertTrue(wasDrawn(12, 2));
+	}
+
+	private void replace(IDocument document, int offset, int length, String text) throws BadLocationException {
+		document.replace(offset, length, text);
+		DisplayHelper.driveEventQueue(fParent.getDisplay());
+	}
+}
@@ -13,17 +13,28 @@
  *******************************************************************************/
 package org.eclipse.jface.text.tests.source;
 
+import static org.junit.Assert.assertTrue;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
 
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.JFaceTextUtil;
 import org.eclipse.jface.text.source.CompositeRuler;
+import org.eclipse.jface.text.source.ILineRange;
 import org.eclipse.jface.text.source.LineNumberRulerColumn;
 import org.eclipse.jface.text.source.SourceViewer;
 
+import org.eclipse.jface.text.tests.util.DisplayHelper;
+
 public class LineNumberRulerColumnTest {
 
 	private Shell fParent;
@@ -51,4 +62,53 @@ public class LineNumberRulerColumnTest {
 		lineNumberRulerColumn.redraw();
 	}
 
+	@Test
+	public void testScrollRepaintsExposedLinesOnly() {
+		int[] paintedLines= new int[1];
+		LineNumberRulerColumn lineNumberRulerColumn= new LineNumberRulerColumn() {
+			@Override
+			protected void paintLine(int line, int y, int lineheight, GC gc, Display display) {
+				paintedLines[0]++;
+				super.paintLine(line, y, lineheight, gc, display);
+			}
+		};
+		CompositeRuler ruler= new CompositeRuler();
+		ruler.addDecorator(0, lineNumberRulerColumn);
+		fParent.setLayout(new FillLayout());
+		fParent.setSize(300, 400);
+		SourceViewer sourceViewer= new SourceViewer(fParent, ruler, SWT.V_SCROLL);
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 500; i++)
+			text.append("line ").append(i).append('\n');
+		sourceViewer.setDocument(new Document(text.toString()));
+		fParent.open();
+		DisplayHelper.driveEventQueue(fParent.getDisplay());
+
+		StyledText textWidget= sourceViewer.getTextWidget();
+		int lineHeight= textWidget.getLineHeight();
+		scrollTo(lineNumberRulerColumn, textWidget, 10 * lineHeight);
+		ILineRange visibleLines= JFaceTextUtil.getVisibleModelLines(sourceViewer);
+		assertTrue(visibleLines.getNumberOfLines() > 4);
+
+		// scrolling by pixels only paints the exposed lines, even if the number of visible lines changes
+		paintedLines[0]= 0;
+		scrollTo(lineNumberRulerColumn, textWidget, 10 * lineHeight + lineHeight / 2);
+		assertTrue(paintedLines[0] <= 2);
+		paintedLines[0]= 0;
+		scrollTo(lineNumberRulerColumn, textWidget, 11 * lineHeight);
+		assertTrue(paintedLines[0] <= 2);
+
+		// a changed appearance paints all lines again
+		lineNumberRulerColumn.setForeground(fParent.getDisplay().getSystemColor(SWT.COLOR_RED));
+		paintedLines[0]= 0;
+		scrollTo(lineNumberRulerColumn, textWidget, 12 * lineHeight);
+		assertTrue(paintedLines[0] >= visibleLines.getNumberOfLines() - 1);
+	}
+
+	private void scrollTo(LineNumberRulerColumn lineNumberRulerColumn, StyledText textWidget, int topPixel) {
+		textWidget.setTopPixel(topPixel);
+		lineNumberRulerColumn.redraw();
+		lineNumberRulerColumn.getControl().update();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2005 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.search.core.tests;
 
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
@@ -23,6 +24,7 @@ import org.junit.Test;
 
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.text.AbstractTextSearchResult;
+import org.eclipse.search.ui.text.CompactMatchEvent;
 import org.eclipse.search.ui.text.Match;
 import org.eclipse.search.ui.text.MatchEvent;
 
@@ -235,4 +237,102 @@ public class TestSearchResult {
 		result.removeMatches(new Match[] { match2 });
 		assertFalse(wasRemoved[0]);
 	}
+
+	@Test
+	public void testAddCompactMatches() {
+		ISearchQuery query= new NullQuery();
+		AbstractTextSearchResult result= (AbstractTextSearchResult) query.getSearchResult();
+
+		String object= "object"; //$NON-NLS-1$
+		String other= "other"; //$NON-NLS-1$
+
+		Match match1= new Match(object, 4, 1);
+		result.addMatch(match1);
+		assertEquals(3, result.addMatches(object, new int[] { 6, 0, 2, 9 }, new int[] { 1, 2, 3, 4 }, 3));
+		assertEquals(1, result.addMatches(other, new int[] { 5 }, new int[] { 5 }, 1));
+		assertEquals(5, result.getMatchCount());
+		assertEquals(4, result.getMatchCount(object));
+		assertEquals(2, result.getElementsCount());
+		assertEquals(2, result.getElements().length);
+
+		Match[] matches= result.getMatches(object);
+		assertEquals(4, matches.length);
+		assertEquals(0, matches[0].getOffset());
+		assertEquals(2, matches[0].getLength());
+		assertEquals(2, matches[1].getOffset());
+		assertEquals(3, matches[1].getLength());
+		assertSame("matches[2]", matches[2], match1);
+		assertEquals(6, matches[3].getOffset());
+		assertEquals(1, matches[3].getLength());
+		assertSame(object, matches[3].getElement());
+		assertArrayEquals(matches, result.getMatches(object));
+
+		result.addMatches(object, new int[] { 1 }, new int[] { 1 }, 1);
+		assertEquals(5, result.getMatchCount(object));
+		assertEquals(2, result.getElementsCount());
+		result.removeMatch(matches[0]);
+		assertEquals(4, result.getMatches(object).length);
+		assertEquals(5, result.getMatchCount());
+
+		result.removeAll();
+		assertEquals(0, result.getMatchCount());
+		assertFalse(result.hasMatches());
+	}
+
+	@Test
+	public void testCompactMatchLimit() {
+		ISearchQuery query= new NullQuery();
+		AbstractTextSearchResult result= (AbstractTextSearchResult) query.getSearchResult();
+		result.setMatchLimit(5);
+
+		String object= "object"; //$NON-NLS-1$
+
+		int[] offsets= { 0, 1, 2, 3 };
+		assertEquals(4, result.addMatches(object, offsets, offsets, 4));
+		assertEquals(1, result.addMatches(object, offsets, offsets, 4));
+		assertEquals(0, result.addMatches(object, offsets, offsets, 4));
+		assertEquals(5, result.getMatchCount());
+		assertTrue(result.isMatchLimitReached());
+
+		// removing created matches makes room for new ones
+		Match[] matches= result.getMatches(object);
+		result.removeMatches(new Match[] { matches[0], matches[1] });
+		assertEquals(2, result.addMatches(object, offsets, offsets, 4));
+		assertEquals(5, result.getMatchCount());
+
+		// matches added as objects count towards the limit
+		result.removeMatch(result.getMatches(object)[0]);
+		result.addMatch(new Match(object, 0, 0));
+		assertEquals(0, result.addMatches(object, offsets, offsets, 4));
+
+		result.removeAll();
+		assertFalse(result.isMatchLimitReached());
+		assertEquals(4, result.addMatches(object, offsets, offsets, 4));
+		assertFalse(result.isMatchLimitReached());
+	}
+
+	@Test
+	public void testCompactMatchEvent() {
+		final Object[][] elements= { null };
+		final boolean [] wasAdded= { false };
+
+		ISearchQuery query= new NullQuery();
+		AbstractTextSearchResult result= (AbstractTextSearchResult) query.getSearchResult();
+
+		result.addListener(e -> {
+			if (e instanceof CompactMatchEvent) {
+				elements[0]= ((CompactMatchEvent) e).getElements();
+			} else if (e instanceof MatchEvent) {
+				wasAdded[0]= true;
+			}
+		});
+
+		String object= "object"; //$NON-NLS-1$
+
+		result.addMatches(object, new int[] { 0, 1 }, new int[] { 1, 1 }, 2);
+		assertArrayEquals(new Object[] { object }, elements[0]);
+		assertFalse(wasAdded[0]);
+		result.getMatches(object);
+		assertFalse(wasAdded[0]);
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,7 +26,8 @@ import org.junit.runners.Suite.SuiteClasses;
 		PositionTrackerTest.class,
 		ResultUpdaterTest.class,
 		SearchResultPageTest.class,
-		SortingTest.class
+		SortingTest.class,
+		TrigramIndexTest.class
 })
 public class AllFileSearchTests {
 	@ClassRule
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -75,6 +75,43 @@ public class FileCharSequenceTests {
 		testForEncoding(buf, StandardCharsets.UTF_16.name());
 	}
 
+	@Test
+	public void testMappedFileCharSequence() throws Exception {
+		StringBuilder buf= new StringBuilder();
+		for (int i= 0; i < 20000; i++) {
+			buf.append(TEST_CONTENT);
+		}
+		testForEncoding(buf, StandardCharsets.ISO_8859_1.name());
+	}
+
+	@Test
+	public void testMappedAsciiFileCharSequence() throws Exception {
+		StringBuilder buf= new StringBuilder();
+		for (int i= 0; i < 40000; i++) {
+			buf.append("abcdefghijklmnopqrstuvwxyz1234567890\n");
+		}
+		testForEncoding(buf, StandardCharsets.UTF_8.name());
+	}
+
+	@Test
+	public void testBinaryFileCharSequence() throws Exception {
+		StringBuilder buf= new StringBuilder("\0");
+		for (int i= 0; i < 20000; i++) {
+			buf.append(TEST_CONTENT);
+		}
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile file1= ResourceHelper.createFile(folder, "file1", buf.toString(), StandardCharsets.UTF_8.name());
+
+		FileCharSequenceProvider provider= new FileCharSequenceProvider();
+		CharSequence cs= provider.newCharSequence(file1, true);
+		try {
+			Assert.assertEquals('\0', cs.charAt(0));
+		} finally {
+			provider.releaseCharSequence(cs);
+			file1.delete(true, null);
+		}
+	}
+
 	private void testForEncoding(CharSequence buf, String encoding) throws CoreException, IOException {
 		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
 		IFile file1= ResourceHelper.createFile(folder, "file1", buf.toString(), encoding);
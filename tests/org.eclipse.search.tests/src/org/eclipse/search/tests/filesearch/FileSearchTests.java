@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,7 +16,11 @@
 package org.eclipse.search.tests.filesearch;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -33,6 +37,8 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 
+import org.eclipse.jface.preference.IPreferenceStore;
+
 import org.eclipse.ui.IWorkbenchPage;
 
 import org.eclipse.search.core.text.TextSearchEngine;
@@ -40,9 +46,17 @@ import org.eclipse.search.core.text.TextSearchMatchAccess;
 import org.eclipse.search.core.text.TextSearchRequestor;
 import org.eclipse.search.core.text.TextSearchScope;
 import org.eclipse.search.internal.core.text.PatternConstructor;
+import org.eclipse.search.internal.core.text.TextSearchVisitor;
 import org.eclipse.search.internal.ui.SearchPlugin;
+import org.eclipse.search.internal.ui.SearchPreferencePage;
+import org.eclipse.search.internal.ui.text.FileMatch;
+import org.eclipse.search.internal.ui.text.FileSearchQuery;
+import org.eclipse.search.internal.ui.text.FileSearchResult;
+import org.eclipse.search.internal.ui.text.LineElement;
 import org.eclipse.search.tests.ResourceHelper;
 import org.eclipse.search.tests.SearchTestUtil;
+import org.eclipse.search.ui.NewSearchUI;
+import org.eclipse.search.ui.text.Match;
 import org.eclipse.search.ui.text.FileTextSearchScope;
 
 public class FileSearchTests {
@@ -549,6 +563,161 @@ public class FileSearchTests {
 
 
 
+	@Test
+	public void testLargeFileSerial() throws Exception {
+		testLargeFile(new SerialTestResultCollector());
+	}
+
+	@Test
+	public void testLargeFileParallel() throws Exception {
+		testLargeFile(new ParallelTestResultCollector());
+	}
+
+	private void testLargeFile(TestResultCollector collector) throws Exception {
+		// large enough to be searched in three chunks if several jobs search, with matches
+		// spanning the chunk boundaries
+		int count= 1100000;
+		String content= "hello\nworld\n".repeat(count);
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile file= ResourceHelper.createFile(folder, "file1", content);
+
+		Pattern searchPattern= PatternConstructor.createPattern("o\\Rw", true, true);
+
+		FileTextSearchScope scope= FileTextSearchScope.newSearchScope(new IResource[] {fProject}, (String[]) null, false);
+		TextSearchEngine.create().search(scope, collector, searchPattern, null);
+
+		TestResult[] results= collector.getResults();
+		assertEquals("Number of total results", count, results.length);
+		assertMatches(results, count, file, content, "o\nw");
+	}
+
+	@Test
+	public void testSearchInChunks() throws Exception {
+		// search in chunks also on machines where only one job searches
+		int count= 10000;
+		String content= "hello\nworld\n".repeat(count);
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile file= ResourceHelper.createFile(folder, "file1", content);
+
+		Pattern searchPattern= PatternConstructor.createPattern("o\\Rw", true, true);
+		TestResultCollector collector= new SerialTestResultCollector();
+		TextSearchVisitor visitor= new TextSearchVisitor(collector, searchPattern, null);
+		visitor.setChunkSize(1000);
+		FileTextSearchScope scope= FileTextSearchScope.newSearchScope(new IResource[] {fProject}, (String[]) null, false);
+		visitor.search(scope, null);
+
+		TestResult[] results= collector.getResults();
+		assertEquals("Number of total results", count, results.length);
+		assertMatches(results, count, file, content, "o\nw");
+	}
+
+	@Test
+	public void testSearchInChunksWithLongMatches() throws Exception {
+		// each match spans several chunks, the matches found in a chunk must be stitched to the
+		// ones found before
+		int count= 10000;
+		String content= "hello\nworld\n".repeat(count);
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile file= ResourceHelper.createFile(folder, "file1", content);
+
+		Pattern searchPattern= PatternConstructor.createPattern("(hello\\Rworld\\R){300}", true, true);
+		TestResultCollector collector= new SerialTestResultCollector();
+		TextSearchVisitor visitor= new TextSearchVisitor(collector, searchPattern, null);
+		visitor.setChunkSize(1000);
+		FileTextSearchScope scope= FileTextSearchScope.newSearchScope(new IResource[] {fProject}, (String[]) null, false);
+		visitor.search(scope, null);
+
+		TestResult[] results= collector.getResults();
+		assertEquals("Number of total results", count / 300, results.length);
+		for (int i= 0; i < results.length; i++) {
+			assertEquals(file, results[i].resource);
+			assertEquals(i * 300 * 12, results[i].offset);
+			assertEquals(300 * 12, results[i].length);
+		}
+	}
+
+	@Test
+	public void testLineElements() throws Exception {
+		StringBuilder buf= new StringBuilder();
+		buf.append("File1\n");
+		buf.append("hello\thello\r\n");
+		buf.append("world\n");
+		buf.append("more hello");
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile file= ResourceHelper.createFile(folder, "file1", buf.toString());
+
+		FileTextSearchScope scope= FileTextSearchScope.newSearchScope(new IResource[] {fProject}, (String[]) null, false);
+		FileSearchQuery query= new FileSearchQuery("hello", false, true, scope);
+		NewSearchUI.runQueryInForeground(null, query);
+		try {
+			FileSearchResult result= (FileSearchResult) query.getSearchResult();
+			assertEquals(3, result.getMatchCount(file));
+
+			// the lines are those of the searched content, not of the file when the matches are requested
+			file.setContents(new ByteArrayInputStream("changed".getBytes()), true, false, null);
+
+			// the matches are created with their line elements when they are requested
+			Match[] matches= result.getMatches(file);
+			assertEquals(3, matches.length);
+			FileMatch first= (FileMatch) matches[0];
+			FileMatch second= (FileMatch) matches[1];
+			FileMatch third= (FileMatch) matches[2];
+			assertEquals(6, first.getOffset());
+			assertEquals(12, second.getOffset());
+			assertSame(first.getLineElement(), second.getLineElement());
+
+			LineElement line= first.getLineElement();
+			assertEquals(2, line.getLine());
+			assertEquals(6, line.getOffset());
+			assertEquals("hello hello  ", line.getContents());
+			assertEquals(2, line.getNumberOfMatches(result));
+
+			line= third.getLineElement();
+			assertEquals(4, line.getLine());
+			assertEquals("more hello", line.getContents());
+			assertEquals(1, line.getMatches(result).length);
+		} finally {
+			NewSearchUI.removeQuery(query);
+		}
+	}
+
+	@Test
+	public void testMatchLimit() throws Exception {
+		StringBuilder buf= new StringBuilder();
+		for (int i= 0; i < 10; i++) {
+			buf.append("hello ").append(i).append('\n');
+		}
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile file1= ResourceHelper.createFile(folder, "file1", buf.toString());
+		IFile file2= ResourceHelper.createFile(folder, "file2", buf.toString());
+
+		IPreferenceStore store= SearchPlugin.getDefault().getPreferenceStore();
+		store.setValue(SearchPreferencePage.TEXT_SEARCH_MATCH_LIMIT, 15);
+		FileTextSearchScope scope= FileTextSearchScope.newSearchScope(new IResource[] {fProject}, (String[]) null, false);
+		FileSearchQuery query= new FileSearchQuery("hello", false, true, scope);
+		try {
+			NewSearchUI.runQueryInForeground(null, query);
+			FileSearchResult result= (FileSearchResult) query.getSearchResult();
+			assertEquals(15, result.getMatchCount());
+			assertEquals(15, result.getMatchCount(file1) + result.getMatchCount(file2));
+			assertTrue(result.isMatchLimitReached());
+			assertTrue(result.getLabel().contains("15"));
+
+			// removed matches make room for new ones
+			IFile full= result.getMatchCount(file1) == 10 ? file1 : file2;
+			result.removeMatches(result.getMatches(full));
+			assertEquals(3, result.addMatches(full, new int[] { 0, 8, 16 }, new int[] { 5, 5, 5 }, 3));
+
+			store.setToDefault(SearchPreferencePage.TEXT_SEARCH_MATCH_LIMIT);
+			NewSearchUI.runQueryInForeground(null, query);
+			assertEquals(20, result.getMatchCount());
+			assertFalse(result.isMatchLimitReached());
+		} finally {
+			store.setToDefault(SearchPreferencePage.TEXT_SEARCH_MATCH_LIMIT);
+			NewSearchUI.removeQuery(query);
+		}
+	}
+
 	private void assertMatches(TestResult[] results, int expectedCount, IFile file, String fileContent, String string) {
 		int k= 0;
 		for (TestResult curr : results) {
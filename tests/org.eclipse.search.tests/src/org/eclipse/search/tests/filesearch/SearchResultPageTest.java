@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,8 +15,13 @@
 package org.eclipse.search.tests.filesearch;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Ignore;
@@ -30,12 +35,16 @@ import org.eclipse.swt.widgets.Widget;
 import org.eclipse.core.runtime.jobs.IJobManager;
 import org.eclipse.core.runtime.jobs.Job;
 
+import org.eclipse.core.resources.IFile;
+
 import org.eclipse.jface.viewers.AbstractTreeViewer;
+import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.TableViewer;
 
 import org.eclipse.search.internal.ui.text.FileSearchPage;
 import org.eclipse.search.internal.ui.text.FileSearchQuery;
+import org.eclipse.search.internal.ui.text.LineElement;
 import org.eclipse.search.tests.SearchTestUtil;
 import org.eclipse.search.ui.ISearchResultViewPart;
 import org.eclipse.search.ui.NewSearchUI;
@@ -110,6 +119,63 @@ public class SearchResultPageTest {
 		//page.setUpdateTracing(false);
 	}
 
+	@Test
+	public void testBatchedTreeUpdates() throws Exception {
+		NewSearchUI.runQueryInForeground(null, fQuery1);
+		ISearchResultViewPart view= NewSearchUI.getSearchResultView();
+		FileSearchPage page= (FileSearchPage) view.getActivePage();
+		page.setLayout(AbstractTextSearchViewPage.FLAG_LAYOUT_TREE);
+		AbstractTreeViewer viewer= (AbstractTreeViewer) page.getViewer();
+		AbstractTextSearchResult result= (AbstractTextSearchResult) fQuery1.getSearchResult();
+		consumeEvents(page);
+
+		List<Match> allMatches= new ArrayList<>();
+		Object[] elements= result.getElements();
+		for (Object element : elements) {
+			Collections.addAll(allMatches, result.getMatches(element));
+		}
+		result.removeAll();
+		consumeEvents(page);
+
+		// the changed elements of all matches are added to the viewer in one update
+		result.addMatches(allMatches.toArray(new Match[allMatches.size()]));
+		consumeEvents(page);
+
+		viewer.expandAll();
+		for (Object element : elements) {
+			assertTrue(viewer.testFindItem(element) instanceof Item);
+		}
+	}
+
+	@Test
+	public void testTreeLineMatches() throws Exception {
+		NewSearchUI.runQueryInForeground(null, fQuery1);
+		ISearchResultViewPart view= NewSearchUI.getSearchResultView();
+		FileSearchPage page= (FileSearchPage) view.getActivePage();
+		page.setLayout(AbstractTextSearchViewPage.FLAG_LAYOUT_TREE);
+		consumeEvents(page);
+
+		// the matches of this search are added in compact form while the tree is shown
+		FileSearchQuery query= new FileSearchQuery("Test", false, true, fQuery1.getSearchScope());
+		NewSearchUI.runQueryInForeground(null, query);
+		assertSame(page, view.getActivePage());
+		AbstractTreeViewer viewer= (AbstractTreeViewer) page.getViewer();
+		AbstractTextSearchResult result= (AbstractTextSearchResult) query.getSearchResult();
+		consumeEvents(page);
+
+		Object[] elements= result.getElements();
+		assertTrue(elements.length > 0);
+		IFile file= (IFile) elements[0];
+		viewer.expandToLevel(file, 1);
+		ITreeContentProvider contentProvider= (ITreeContentProvider) viewer.getContentProvider();
+		Object[] lines= contentProvider.getChildren(file);
+		assertTrue(lines.length > 0);
+		for (Object line : lines) {
+			assertTrue(line instanceof LineElement);
+			assertTrue(viewer.testFindItem(line) instanceof Item);
+		}
+	}
+
 	private void consumeEvents(FileSearchPage page) {
 		IJobManager manager= Job.getJobManager();
 		while (manager.find(page).length > 0) {
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.tests.filesearch;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.eclipse.search.internal.core.text.PatternConstructor;
+import org.eclipse.search.internal.core.text.TrigramIndex;
+
+public class TrigramIndexTest {
+
+	private static final String ALPHABET= "abcABC xyz.*?\\(|[]{}\néÉK";
+
+	@Rule
+	public TemporaryFolder fFolder= new TemporaryFolder();
+
+	@Test
+	public void testRequiredTrigrams() {
+		assertRequired("foobar", "foobar", false, false);
+		assertRequired("foobar", "fOObAr", false, false);
+		assertRequired("foo", "foo*ba", false, false);
+		assertRequired("foo", "fo?foo", false, false);
+		assertRequired("foobar", "foobar", false, true);
+		assertRequired("foo", "foo.*ba", true, false);
+		assertRequired("foo", "\\bfoo\\b", true, false);
+		assertRequired("foo", "(a|b)foo", true, false);
+		assertRequired("foo", "fooo?", true, false);
+		assertRequired("a.b", "a\\.b", true, false);
+		assertRequired("foo", "[xyz]+foo\\d", true, false);
+		assertRequired("foo", "\\x41foo", true, false);
+
+		assertNull(TrigramIndex.getRequiredTrigrams(PatternConstructor.createPattern("foo|bar", true, true)));
+		assertNull(TrigramIndex.getRequiredTrigrams(PatternConstructor.createPattern("fo.ba", true, true)));
+		assertNull(TrigramIndex.getRequiredTrigrams(PatternConstructor.createPattern("(?x)foo", true, true)));
+		assertNull(TrigramIndex.getRequiredTrigrams(PatternConstructor.createPattern("foo?", true, true)));
+		assertNull(TrigramIndex.getRequiredTrigrams(PatternConstructor.createPattern("", true, false)));
+	}
+
+	private void assertRequired(String expected, String pattern, boolean isRegex, boolean isWholeWord) {
+		int[] trigrams= TrigramIndex.getRequiredTrigrams(PatternConstructor.createPattern(pattern, isRegex, true, true, isWholeWord));
+		assertArrayEquals(pattern, TrigramIndex.getTrigrams(expected), trigrams);
+	}
+
+	@Test
+	public void testCandidatesContainAllMatches() {
+		Random random= new Random(17);
+		for (int round= 0; round < 200; round++) {
+			TrigramIndex index= new TrigramIndex();
+			List<String> contents= new ArrayList<>();
+			for (int i= 0; i < 20; i++) {
+				String content= randomText(random, random.nextInt(80));
+				contents.add(content);
+				index.put("/p/" + i, 0, 0, TrigramIndex.getTrigrams(content));
+			}
+			for (int k= 0; k < 10; k++) {
+				String content= contents.get(random.nextInt(contents.size()));
+				int start= random.nextInt(content.length() + 1);
+				String search= content.substring(start, Math.min(content.length(), start + random.nextInt(10)));
+				if (random.nextBoolean())
+					search= search.toUpperCase();
+				boolean isRegex= random.nextInt(4) == 0;
+				Pattern pattern;
+				try {
+					pattern= PatternConstructor.createPattern(search, isRegex, true, random.nextBoolean(), false);
+				} catch (RuntimeException e) {
+					continue; // invalid regular expression
+				}
+				int[] trigrams= TrigramIndex.getRequiredTrigrams(pattern);
+				if (trigrams == null)
+					continue;
+				Set<String> candidates= index.getCandidates(trigrams);
+				for (int i= 0; i < contents.size(); i++) {
+					if (pattern.matcher(contents.get(i)).find())
+						assertTrue(pattern + " in " + contents.get(i), candidates.contains("/p/" + i));
+				}
+			}
+		}
+	}
+
+	private static String randomText(Random random, int length) {
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < length; i++)
+			text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		return text.toString();
+	}
+
+	@Test
+	public void testUpdates() {
+		TrigramIndex index= new TrigramIndex();
+		for (int i= 0; i < 3000; i++)
+			index.put("/p/" + (i % 1000), i, i, TrigramIndex.getTrigrams("content " + i));
+
+		assertEquals(1000, index.getStatistics(0).getFileCount());
+		assertEquals(Set.of("/p/999"), index.getCandidates(TrigramIndex.getTrigrams("content 2999")));
+		assertTrue(index.getCandidates(TrigramIndex.getTrigrams("content 1999")).isEmpty());
+		assertTrue(index.isUpToDate("/p/999", 2999, 2999));
+		assertFalse(index.isUpToDate("/p/999", 1999, 1999));
+
+		index.remove("/p/999");
+		assertTrue(index.getCandidates(TrigramIndex.getTrigrams("content 2999")).isEmpty());
+		index.retainAll(Set.of("/p/1", "/p/2"));
+		assertEquals(Set.of("/p/1", "/p/2"), index.getFiles());
+		assertEquals(Set.of("/p/1", "/p/2"), index.getCandidates(TrigramIndex.getTrigrams("content 2")));
+	}
+
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		TrigramIndex index= new TrigramIndex();
+		for (int i= 0; i < 100; i++)
+			index.put("/p/" + i, i, -i, TrigramIndex.getTrigrams("file " + i + " content"));
+		index.remove("/p/50");
+		assertTrue(index.isChanged());
+
+		File file= new File(fFolder.getRoot(), "trigram.index");
+		index.save(file);
+		assertFalse(index.isChanged());
+
+		TrigramIndex loaded= TrigramIndex.load(file);
+		assertEquals(99, loaded.getStatistics(0).getFileCount());
+		assertEquals(file.length(), loaded.getStatistics(0).getIndexFileSize());
+		assertEquals(index.getFiles(), loaded.getFiles());
+		// a single removed file does not compact the index
+		assertEquals(index.getStatistics(0).getPostingCount(), loaded.getStatistics(0).getPostingCount());
+		assertTrue(loaded.isUpToDate("/p/42", 42, -42));
+		assertEquals(Set.of("/p/42"), loaded.getCandidates(TrigramIndex.getTrigrams("file 42 ")));
+		assertTrue(loaded.getCandidates(TrigramIndex.getTrigrams("file 50 ")).isEmpty());
+
+		loaded.put("/p/100", 0, 0, TrigramIndex.getTrigrams("file 100 content"));
+		assertEquals(Set.of("/p/100", "/p/10"), loaded.getCandidates(TrigramIndex.getTrigrams("file 10")));
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -2652,4 +2653,186 @@ public class ProjectionDocumentTest {
 			assertTrue(false);
 		}
 	}
+
+	private List<DocumentEvent> recordSlaveEvents() {
+		final List<DocumentEvent> receivedEvents= new ArrayList<>();
+		fSlaveDocument.addDocumentListener(new IDocumentListener() {
+			@Override
+			public void documentAboutToBeChanged(DocumentEvent event) {}
+			@Override
+			public void documentChanged(DocumentEvent event) {
+				receivedEvents.add(event);
+			}
+		});
+		return receivedEvents;
+	}
+
+	@Test
+	public void test30_1() {
+		// test replacing the master document ranges of an empty projection in one pass
+
+		List<DocumentEvent> receivedEvents= recordSlaveEvents();
+		try {
+			fSlaveDocument.replaceMasterDocumentRanges(new IRegion[] {
+				new Region(0, 20),
+				new Region(40, 20),
+				new Region(80, 20),
+				new Region(120, 20),
+				new Region(160, 20)
+			});
+		} catch (BadLocationException e) {
+			assertTrue(false);
+		}
+
+		assertSlaveContents(getProjectionASlaveContents());
+		Position[] expected= {
+			new Position(0, 20),
+			new Position(40, 20),
+			new Position(80, 20),
+			new Position(120, 20),
+			new Position(160, 20)
+		};
+		assertFragmentation(expected);
+
+		DocumentEvent[] actual= receivedEvents.toArray(new DocumentEvent[receivedEvents.size()]);
+		assertSlaveEvents(new DocumentEvent[] { new DocumentEvent(fSlaveDocument, 0, 0, getProjectionASlaveContents()) }, actual);
+	}
+
+	@Test
+	public void test30_2() {
+		// test that replacing the master document ranges only replaces the changed part of the projection
+
+		createIdenticalProjection();
+		List<DocumentEvent> receivedEvents= recordSlaveEvents();
+		try {
+			fSlaveDocument.replaceMasterDocumentRanges(new IRegion[] {
+				new Region(0, 20),
+				new Region(40, 20),
+				new Region(80, 20),
+				new Region(120, 20),
+				new Region(160, 20)
+			});
+		} catch (BadLocationException e) {
+			assertTrue(false);
+		}
+
+		assertSlaveContents(getProjectionASlaveContents());
+		DocumentEvent[] actual= receivedEvents.toArray(new DocumentEvent[receivedEvents.size()]);
+		DocumentEvent[] expected= { new DocumentEvent(fSlaveDocument, 20, 140, getProjectionASlaveContents().substring(20, 80)) };
+		assertSlaveEvents(expected, actual);
+
+		// unchanged ranges do not change the projection, adjacent ranges are joined
+		receivedEvents.clear();
+		try {
+			fSlaveDocument.replaceMasterDocumentRanges(new IRegion[] {
+				new Region(0, 20),
+				new Region(40, 10),
+				new Region(50, 10),
+				new Region(80, 20),
+				new Region(120, 20),
+				new Region(160, 20)
+			});
+		} catch (BadLocationException e) {
+			assertTrue(false);
+		}
+		assertTrue(receivedEvents.isEmpty());
+		assertSlaveContents(getProjectionASlaveContents());
+	}
+
+	@Test
+	public void test30_3() {
+		// test replacing all master document ranges by no range
+
+		createProjectionA();
+		try {
+			fSlaveDocument.replaceMasterDocumentRanges(new IRegion[0]);
+		} catch (BadLocationException e) {
+			assertTrue(false);
+		}
+		assertSlaveContents("");
+		assertFragmentation(new Position[] { new Position(0, 0) });
+
+		try {
+			fSlaveDocument.replaceMasterDocumentRanges(new IRegion[] { new Region(20, 20), new Region(10, 5) });
+			assertTrue(false);
+		} catch (IllegalArgumentException e) {
+			// expected
+		} catch (BadLocationException e) {
+			assertTrue(false);
+		}
+		assertSlaveContents("");
+	}
+
+	@Test
+	public void test30_4() throws BadLocationException {
+		// test that replacing the master document ranges in one pass is equivalent to adding and removing them one by one
+
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 500; i++)
+			text.append("line ").append(i).append('\n');
+		fMasterDocument.set(text.toString());
+		ProjectionDocument reference= (ProjectionDocument) fSlaveDocumentManager.createSlaveDocument(fMasterDocument);
+
+		Random random= new Random(17);
+		for (int i= 0; i < 20; i++) {
+			List<IRegion> ranges= new ArrayList<>();
+			int offset= random.nextInt(100);
+			while (offset < fMasterDocument.getLength()) {
+				int length= Math.min(1 + random.nextInt(200), fMasterDocument.getLength() - offset);
+				ranges.add(new Region(offset, length));
+				offset += length + 1 + random.nextInt(200);
+			}
+
+			fSlaveDocument.replaceMasterDocumentRanges(ranges.toArray(new IRegion[ranges.size()]));
+
+			reference.removeMasterDocumentRange(0, fMasterDocument.getLength());
+			for (IRegion range : ranges)
+				reference.addMasterDocumentRange(range.getOffset(), range.getLength());
+
+			assertSlaveContents(reference.get());
+			// adding and removing one by one may leave an empty fragment at the end
+			List<Position> expected= new ArrayList<>();
+			for (Position fragment : reference.getFragments2()) {
+				if (fragment.getLength() > 0)
+					expected.add(fragment);
+			}
+			assertFragmentation(expected.toArray(new Position[expected.size()]));
+
+			// the projection keeps following master document changes
+			fMasterDocument.replace(random.nextInt(fMasterDocument.getLength()), 3, "changed\n");
+			assertSlaveContents(reference.get());
+		}
+
+		fSlaveDocumentManager.freeSlaveDocument(reference);
+	}
+
+	@Test
+	public void test30_5() throws BadLocationException {
+		// test collapsing all folded regions of a large document
+
+		StringBuilder text= new StringBuilder();
+		StringBuilder collapsed= new StringBuilder();
+		List<IRegion> ranges= new ArrayList<>();
+		for (int i= 0; i < 10000; i++) {
+			String header= "void method" + i + "() {\n";
+			ranges.add(new Region(text.length(), header.length()));
+			collapsed.append(header);
+			text.append(header);
+			text.append("\tstatement();\n");
+			text.append("}\n");
+		}
+		fMasterDocument.set(text.toString());
+		createIdenticalProjection();
+
+		fSlaveDocument.replaceMasterDocumentRanges(ranges.toArray(new IRegion[ranges.size()]));
+
+		assertSlaveContents(collapsed.toString());
+		Assert.assertEquals(10000, fSlaveDocument.getFragments2().length);
+		Assert.assertEquals(3 * 9999, fSlaveDocument.getDocumentInformationMapping().toOriginLine(9999));
+		Assert.assertEquals(ranges.get(9999).getOffset(), fSlaveDocument.getDocumentInformationMapping().toOriginOffset(collapsed.length() - 1) - ranges.get(9999).getLength() + 1);
+
+		// expand all
+		fSlaveDocument.replaceMasterDocumentRanges(new IRegion[] { new Region(0, fMasterDocument.getLength()) });
+		assertSlaveContents(text.toString());
+	}
 }
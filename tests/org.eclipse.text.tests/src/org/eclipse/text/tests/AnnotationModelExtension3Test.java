@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+
+/**
+ * Tests the {@link org.eclipse.jface.text.source.IAnnotationModelExtension3} against a brute
+ * force search over all annotations of the model.
+ *
+ * @since 3.15
+ */
+public class AnnotationModelExtension3Test {
+
+	private IDocument fDocument;
+	private AnnotationModel fModel;
+	private Random fRandom;
+
+	@Before
+	public void setUp() {
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 200; i++)
+			text.append("line ").append(i).append('\n');
+		fDocument= new Document(text.toString());
+		fModel= new AnnotationModel();
+		fModel.connect(fDocument);
+		fRandom= new Random(42);
+	}
+
+	private Position randomPosition() {
+		int offset= fRandom.nextInt(fDocument.getLength());
+		int length= fRandom.nextInt(10) == 0 ? fRandom.nextInt(fDocument.getLength() - offset + 1) : fRandom.nextInt(Math.min(20, fDocument.getLength() - offset) + 1);
+		return new Position(offset, length);
+	}
+
+	private Set<Annotation> bruteForce(int offset, int length, boolean canStartBefore, boolean canEndAfter) {
+		Set<Annotation> result= new HashSet<>();
+		Position region= new Position(offset, length);
+		Iterator<Annotation> iter= fModel.getAnnotationIterator();
+		while (iter.hasNext()) {
+			Annotation annotation= iter.next();
+			Position p= fModel.getPosition(annotation);
+			if (p.isDeleted())
+				continue;
+			int start= p.getOffset();
+			int last= start + p.getLength() - (p.getLength() > 0 ? 1 : 0);
+			boolean inside;
+			if (canStartBefore && canEndAfter)
+				inside= region.overlapsWith(start, p.getLength());
+			else if (canStartBefore)
+				inside= region.includes(last);
+			else if (canEndAfter)
+				inside= region.includes(start);
+			else
+				inside= region.includes(start) && region.includes(last);
+			if (inside)
+				result.add(annotation);
+		}
+		return result;
+	}
+
+	private void assertQueries() {
+		for (int i= 0; i < 50; i++) {
+			Position region= randomPosition();
+			for (int flags= 0; flags < 4; flags++) {
+				boolean canStartBefore= (flags & 1) != 0;
+				boolean canEndAfter= (flags & 2) != 0;
+				List<Annotation> actual= fModel.getAnnotations(region.offset, region.length, canStartBefore, canEndAfter);
+				Set<Annotation> expected= bruteForce(region.offset, region.length, canStartBefore, canEndAfter);
+				assertEquals(expected.size(), actual.size());
+				assertEquals(expected, new HashSet<>(actual));
+
+				Set<Annotation> iterated= new HashSet<>();
+				fModel.getAnnotationIterator(region.offset, region.length, canStartBefore, canEndAfter).forEachRemaining(iterated::add);
+				assertEquals(expected, iterated);
+			}
+		}
+	}
+
+	@Test
+	public void testQueriesAfterAddAndRemove() {
+		List<Annotation> annotations= new ArrayList<>();
+		for (int i= 0; i < 300; i++) {
+			Annotation annotation= new Annotation(false);
+			fModel.addAnnotation(annotation, randomPosition());
+			annotations.add(annotation);
+		}
+		assertQueries();
+
+		for (int i= 0; i < 100; i++)
+			fModel.removeAnnotation(annotations.remove(fRandom.nextInt(annotations.size())));
+		assertQueries();
+
+		Map<Annotation, Position> added= new HashMap<>();
+		for (int i= 0; i < 100; i++)
+			added.put(new Annotation(false), randomPosition());
+		fModel.replaceAnnotations(annotations.subList(0, 50).toArray(new Annotation[50]), added);
+		assertQueries();
+	}
+
+	@Test
+	public void testQueriesAfterDocumentChanges() throws BadLocationException {
+		for (int i= 0; i < 300; i++)
+			fModel.addAnnotation(new Annotation(false), randomPosition());
+		assertQueries();
+
+		for (int i= 0; i < 30; i++) {
+			Position change= randomPosition();
+			fDocument.replace(change.offset, Math.min(change.length, 15), fRandom.nextBoolean() ? "" : "inserted text");
+			assertQueries();
+		}
+	}
+
+	@Test
+	public void testQueriesWhileTyping() throws BadLocationException {
+		for (int i= 0; i < 300; i++)
+			fModel.addAnnotation(new Annotation(false), randomPosition());
+		assertQueries();
+
+		// enough typing to grow the positions beyond the rebuild limit of the index
+		for (int i= 1; i <= 6000; i++) {
+			int offset= fRandom.nextInt(fDocument.getLength());
+			if (i % 10 == 0)
+				fDocument.replace(offset, Math.min(3, fDocument.getLength() - offset), "");
+			else
+				fDocument.replace(offset, 0, "x");
+			if (i % 500 == 0)
+				assertQueries();
+		}
+	}
+
+	@Test
+	public void testQueriesAfterModifyingPositions() {
+		List<Annotation> annotations= new ArrayList<>();
+		for (int i= 0; i < 200; i++) {
+			Annotation annotation= new Annotation(false);
+			fModel.addAnnotation(annotation, randomPosition());
+			annotations.add(annotation);
+		}
+		assertQueries();
+
+		Map<Annotation, Position> modified= new HashMap<>();
+		for (int i= 0; i < 50; i++)
+			modified.put(annotations.get(fRandom.nextInt(annotations.size())), randomPosition());
+		for (Map.Entry<Annotation, Position> entry : modified.entrySet())
+			fModel.modifyAnnotationPosition(entry.getKey(), entry.getValue());
+		assertQueries();
+	}
+
+	@Test
+	public void testAttachedModels() {
+		AnnotationModel attachment= new AnnotationModel();
+		fModel.addAnnotationModel("attachment", attachment);
+		for (int i= 0; i < 100; i++) {
+			fModel.addAnnotation(new Annotation(false), randomPosition());
+			attachment.addAnnotation(new Annotation(false), randomPosition());
+		}
+
+		Set<Annotation> expected= new HashSet<>();
+		fModel.getAnnotationIterator(0, fDocument.getLength(), true, true).forEachRemaining(expected::add);
+		assertEquals(200, expected.size());
+		assertEquals(expected, new HashSet<>(fModel.getAnnotations(0, fDocument.getLength(), true, true)));
+	}
+}
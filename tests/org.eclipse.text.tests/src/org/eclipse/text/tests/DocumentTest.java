@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2024 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -47,10 +47,19 @@ public class DocumentTest {
 
 	}
 
+	/**
+	 * Creates the document under test.
+	 *
+	 * @return the document under test
+	 */
+	protected Document createDocument() {
+		return new Document();
+	}
+
 	@Before
 	public void setUp() throws BadLocationException {
 
-		fDocument= new Document();
+		fDocument= createDocument();
 
 		String text=                          // 0
 		"package TestPackage;\n" +            // 21
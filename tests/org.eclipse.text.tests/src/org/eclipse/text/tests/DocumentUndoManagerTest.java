@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2010 IBM Corporation and others.
+ * Copyright (c) 2009, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -384,6 +384,84 @@ public class DocumentUndoManagerTest {
 
 	}
 
+	@Test
+	public void testUndoMemoryLimit() throws ExecutionException, BadLocationException {
+		final int CHANGE_COUNT = 20;
+		final IDocument document = new Document("");
+		createUndoManager(document);
+		final DocumentUndoManager undoManager = (DocumentUndoManager) fUndoManager;
+		assertTrue(undoManager.getUndoMemoryLimit() < 0);
+
+		String[] contents = new String[CHANGE_COUNT + 1];
+		contents[0] = document.get();
+		for (int i = 1; i <= CHANGE_COUNT; i++) {
+			document.replace(0, document.getLength(), createLines(i, 1000));
+			fUndoManager.commit();
+			contents[i] = document.get();
+		}
+
+		long memory = 0;
+		for (int i = 1; i <= CHANGE_COUNT; i++)
+			memory += 2 * (contents[i - 1].length() + contents[i].length());
+		assertEquals(memory, undoManager.getUndoMemory());
+
+		undoManager.setUndoMemoryLimit(memory / 4);
+		assertEquals(memory / 4, undoManager.getUndoMemoryLimit());
+		assertTrue(undoManager.getUndoMemory() <= memory / 4);
+
+		for (int i = CHANGE_COUNT - 1; i >= 0; i--) {
+			assertTrue(fUndoManager.undoable());
+			fUndoManager.undo();
+			assertEquals(contents[i], document.get());
+			assertTrue(undoManager.getUndoMemory() <= memory / 4);
+		}
+		assertFalse(fUndoManager.undoable());
+
+		for (int i = 1; i <= CHANGE_COUNT; i++) {
+			assertTrue(fUndoManager.redoable());
+			fUndoManager.redo();
+			assertEquals(contents[i], document.get());
+		}
+
+		undoManager.setUndoMemoryLimit(-1);
+		fUndoManager.undo();
+		assertEquals(contents[CHANGE_COUNT - 1], document.get());
+	}
+
+	@Test
+	public void testUndoMemoryLimitWithCompound() throws ExecutionException, BadLocationException {
+		final String original = createLines(0, 200) + "\uD800";
+		final IDocument document = new Document(original);
+		createUndoManager(document);
+		final DocumentUndoManager undoManager = (DocumentUndoManager) fUndoManager;
+		undoManager.setUndoMemoryLimit(0);
+
+		fUndoManager.beginCompoundChange();
+		for (int i = 0; i < 100; i++)
+			document.replace(i * 8, 4, "line\uDC00");
+		fUndoManager.endCompoundChange();
+		document.replace(0, 0, "x");
+		fUndoManager.commit();
+		final String changed = document.get();
+
+		assertTrue(undoManager.getUndoMemory() < 2 * 100 * 9);
+		fUndoManager.undo();
+		fUndoManager.undo();
+		assertEquals(original, document.get());
+		fUndoManager.redo();
+		fUndoManager.redo();
+		assertEquals(changed, document.get());
+	}
+
+	private static String createLines(int seed, int count) {
+		final StringBuilder buffer = new StringBuilder();
+
+		for (int i = 0; i < count; i++)
+			buffer.append("line ").append(i * seed).append('\n');
+
+		return buffer.toString();
+	}
+
 	private static String createRandomString(int length) {
 		final StringBuilder buffer = new StringBuilder();
 
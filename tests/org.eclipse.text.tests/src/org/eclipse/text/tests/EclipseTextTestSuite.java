@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2016 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -34,13 +34,16 @@ import org.eclipse.text.tests.templates.TemplatesTestSuite;
 		LineTrackerTest4.class,
 		DocumentExtensionTest.class,
 		LineTrackerTest3.class,
+		LineStartCacheLineTrackerTest.class,
 		DocumentTest.class,
+		IndexedPositionsDocumentTest.class,
 		FindReplaceDocumentAdapterTest.class,
 		PositionUpdatingCornerCasesTest.class,
 		ExclusivePositionUpdaterTest.class,
 		TextEditTests.class,
 		GapTextTest.class,
 		GapTextStoreTest.class,
+		PieceTableTextStoreTest.class,
 		ChildDocumentTest.class,
 		ProjectionTestSuite.class,
 		LinkTestSuite.class,
@@ -48,6 +51,7 @@ import org.eclipse.text.tests.templates.TemplatesTestSuite;
 		TextUtilitiesTest.class,
 		AnnotationModelStressTest.class,
 		AnnotationModelExtension2Test.class,
+		AnnotationModelExtension3Test.class,
 		TemplatesTestSuite.class
 })
 public class EclipseTextTestSuite {
@@ -27,10 +27,16 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import org.eclipse.text.undo.DocumentUndoManagerRegistry;
+import org.eclipse.text.undo.IDocumentUndoManager;
+
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.FindReplaceDocumentAdapter;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.Region;
 
 /**
@@ -503,4 +509,105 @@ public class FindReplaceDocumentAdapterTest {
 		}
 		fail();
 	}
+
+	@Test
+	public void testFindAll() throws Exception {
+		FindReplaceDocumentAdapter adapter= new FindReplaceDocumentAdapter(fDocument);
+
+		IRegion[] result= adapter.findAll(0, "public", true, false, false);
+		assertEquals(3, result.length);
+		for (int i= 0; i < result.length; i++) {
+			IRegion expected= adapter.find(i == 0 ? 0 : result[i - 1].getOffset() + 1, "public", true, true, false, false);
+			assertEquals(expected, result[i]);
+		}
+
+		assertArrayEquals(result, adapter.findAll(0, "PUBLIC", false, false, false));
+		assertArrayEquals(result, adapter.findAll(0, "pub.ic", true, false, true));
+		assertEquals(2, adapter.findAll(result[1].getOffset(), "public", true, true, false).length);
+		assertEquals(2, adapter.findAll(0, "comment\\d", true, false, true).length);
+		assertEquals(0, adapter.findAll(0, "x*", true, false, true).length);
+		assertEquals(0, adapter.findAll(0, "", true, false, false).length);
+
+		fDocument.set("aaaaa");
+		assertArrayEquals(new IRegion[] { new Region(0, 2), new Region(2, 2) }, adapter.findAll(0, "aa", true, false, false));
+		assertArrayEquals(new IRegion[] { new Region(0, 2), new Region(2, 2) }, adapter.findAll(0, "aa", true, false, true));
+
+		fDocument.set("baab");
+		assertArrayEquals(new IRegion[] { new Region(1, 2) }, adapter.findAll(0, "a*", true, false, true));
+		assertEquals(1, adapter.replaceAll(0, "a*", "c", true, false, true));
+		assertEquals("bcb", fDocument.get());
+	}
+
+	@Test
+	public void testReplaceAll() throws Exception {
+		FindReplaceDocumentAdapter adapter= new FindReplaceDocumentAdapter(fDocument);
+		String original= fDocument.get();
+
+		assertEquals(2, adapter.replaceAll(0, "// comment(\\d)", "/* remark$1 */", true, false, true));
+		assertEquals(original.replaceAll("// comment(\\d)", "/* remark$1 */"), fDocument.get());
+
+		assertEquals(3, adapter.replaceAll(0, "PUBLIC", "private", false, false, false));
+		assertEquals(original.replaceAll("// comment(\\d)", "/* remark$1 */").replace("public", "private"), fDocument.get());
+
+		assertEquals(0, adapter.replaceAll(0, "public", "private", true, false, false));
+		assertThrows(IllegalStateException.class, () -> adapter.replace("x", false));
+	}
+
+	@Test
+	public void testReplaceAllRegExInContext() throws Exception {
+		FindReplaceDocumentAdapter adapter= new FindReplaceDocumentAdapter(fDocument);
+		fDocument.set("aaa aaa");
+
+		assertEquals(4, adapter.replaceAll(0, "(?<=a)a", "b", true, false, true));
+		assertEquals("abb abb", fDocument.get());
+
+		assertEquals(2, adapter.replaceAll(0, "a(?=b)", "[$0]", true, false, true));
+		assertEquals("[a]bb [a]bb", fDocument.get());
+	}
+
+	@Test
+	public void testReplaceAllUndo() throws Exception {
+		DocumentUndoManagerRegistry.connect(fDocument);
+		try {
+			IDocumentUndoManager undoManager= DocumentUndoManagerRegistry.getDocumentUndoManager(fDocument);
+			undoManager.connect(this);
+			undoManager.setMaximalUndoLevel(10);
+			FindReplaceDocumentAdapter adapter= new FindReplaceDocumentAdapter(fDocument);
+			String original= fDocument.get();
+
+			assertEquals(5, adapter.replaceAll(0, "method|comment", "$0_\\t", true, false, true));
+			assertEquals(original.replaceAll("method|comment", "$0_\t"), fDocument.get());
+			assertTrue(undoManager.undoable());
+			undoManager.undo();
+			assertEquals(original, fDocument.get());
+			assertFalse(undoManager.undoable());
+			undoManager.disconnect(this);
+		} finally {
+			DocumentUndoManagerRegistry.disconnect(fDocument);
+		}
+	}
+
+	@Test
+	public void testReplaceAllCoalescesChanges() throws Exception {
+		Document document= new Document("a x a y a");
+		Position position= new Position(2, 1);
+		document.addPosition(position);
+		int[] events= { 0 };
+		document.addDocumentListener(new IDocumentListener() {
+			@Override
+			public void documentAboutToBeChanged(DocumentEvent event) {
+			}
+
+			@Override
+			public void documentChanged(DocumentEvent event) {
+				events[0]++;
+			}
+		});
+
+		assertEquals(3, new FindReplaceDocumentAdapter(document).replaceAll(0, "a", "bb", true, false, false));
+		assertEquals("bb x bb y bb", document.get());
+		// the last two replacements have no position between them
+		assertEquals(2, events[0]);
+		assertEquals(new Position(3, 1), position);
+	}
 }
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.BadPositionCategoryException;
+import org.eclipse.jface.text.DefaultPositionUpdater;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+
+/**
+ * Runs the {@link DocumentTest} with position indexing enabled and compares indexed and
+ * non-indexed documents.
+ */
+public class IndexedPositionsDocumentTest extends DocumentTest {
+
+	private static final String CATEGORY= "category";
+
+	@Override
+	protected Document createDocument() {
+		Document document= new Document();
+		document.setPositionIndexingEnabled(true);
+		return document;
+	}
+
+	@Test
+	public void testRandomEdits() throws Exception {
+		Random random= new Random(7);
+		Document expected= new Document();
+		Document actual= createDocument();
+		setUp(expected, actual, random, 2000);
+		expected.addPositionUpdater(new DefaultPositionUpdater(CATEGORY));
+		actual.addPositionUpdater(new DefaultPositionUpdater(CATEGORY));
+
+		for (int i= 0; i < 500; i++) {
+			int length= expected.getLength();
+			int offset= random.nextInt(length + 1);
+			int deleted= random.nextInt(4) == 0 ? random.nextInt(Math.min(40, length - offset) + 1) : 0;
+			String text= random.nextInt(3) == 0 ? "" : "abc\n".substring(random.nextInt(4));
+			expected.replace(offset, deleted, text);
+			actual.replace(offset, deleted, text);
+
+			if (i % 10 == 0)
+				addPositions(expected, actual, random, 20);
+			if (i % 25 == 0)
+				removePositions(expected, actual, random);
+			assertSameState(expected, actual, random);
+		}
+	}
+
+	@Test
+	public void testOtherUpdaters() throws Exception {
+		Random random= new Random(11);
+		Document expected= new Document();
+		Document actual= createDocument();
+		setUp(expected, actual, random, 500);
+
+		// a subclass of the default updater which does not delete positions
+		expected.addPositionUpdater(new NonDeletingUpdater());
+		actual.addPositionUpdater(new NonDeletingUpdater());
+		// an updater which is not a default updater
+		expected.addPositionUpdater(event -> {});
+		actual.addPositionUpdater(event -> {});
+
+		for (int i= 0; i < 200; i++) {
+			int length= expected.getLength();
+			int offset= random.nextInt(length + 1);
+			int deleted= random.nextInt(Math.min(40, length - offset) + 1);
+			String text= "xy".substring(random.nextInt(3) / 2);
+			expected.replace(offset, deleted, text);
+			actual.replace(offset, deleted, text);
+			assertSameState(expected, actual, random);
+		}
+	}
+
+	@Test
+	public void testToggleIndexing() throws Exception {
+		Random random= new Random(13);
+		Document expected= new Document();
+		Document actual= new Document();
+		setUp(expected, actual, random, 300);
+		expected.addPositionUpdater(new DefaultPositionUpdater(CATEGORY));
+		actual.addPositionUpdater(new DefaultPositionUpdater(CATEGORY));
+
+		for (int i= 0; i < 10; i++) {
+			actual.setPositionIndexingEnabled(i % 2 == 0);
+			assertEquals(i % 2 == 0, actual.isPositionIndexingEnabled());
+			expected.replace(i * 10, 5, "toggle");
+			actual.replace(i * 10, 5, "toggle");
+			addPositions(expected, actual, random, 10);
+			assertSameState(expected, actual, random);
+		}
+	}
+
+	@Test
+	public void testManyPositions() throws Exception {
+		Document document= createDocument();
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 100000; i++)
+			text.append("line\n");
+		document.set(text.toString());
+		for (int i= 0; i < 100000; i++)
+			document.addPosition(new Position(i * 5, 4));
+
+		for (int i= 0; i < 1000; i++)
+			document.replace(100000 + i, 0, "x");
+		document.replace(0, 0, "y");
+
+		assertEquals(100000, document.getPositions(IDocument.DEFAULT_CATEGORY).length);
+		assertEquals(new Position(1, 4), document.getPositions(IDocument.DEFAULT_CATEGORY)[0]);
+		assertEquals(new Position(101001, 4), document.getPositions(IDocument.DEFAULT_CATEGORY)[20000]);
+		assertEquals(new Position(101006, 4), document.getPositions(IDocument.DEFAULT_CATEGORY)[20001]);
+		assertEquals(20001, document.computeIndexInCategory(IDocument.DEFAULT_CATEGORY, 101006));
+		assertEquals(0, document.getPositions(IDocument.DEFAULT_CATEGORY, 100500, 10, true, true).length);
+		assertEquals(2, document.getPositions(IDocument.DEFAULT_CATEGORY, 101003, 4, true, true).length);
+		assertTrue(document.containsPosition(IDocument.DEFAULT_CATEGORY, 101006, 4));
+		assertFalse(document.containsPosition(IDocument.DEFAULT_CATEGORY, 101005, 4));
+	}
+
+	private static void setUp(Document expected, Document actual, Random random, int positions) throws BadLocationException {
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 5000; i++)
+			text.append((char) ('a' + random.nextInt(26)));
+		expected.set(text.toString());
+		actual.set(text.toString());
+		expected.addPositionCategory(CATEGORY);
+		actual.addPositionCategory(CATEGORY);
+		addPositions(expected, actual, random, positions);
+	}
+
+	private static void addPositions(Document expected, Document actual, Random random, int count) throws BadLocationException {
+		try {
+			for (int i= 0; i < count; i++) {
+				int length= expected.getLength();
+				int offset= random.nextInt(length + 1);
+				int positionLength= random.nextInt(3) == 0 ? 0 : random.nextInt(Math.min(200, length - offset) + 1);
+				String category= random.nextBoolean() ? CATEGORY : IDocument.DEFAULT_CATEGORY;
+				expected.addPosition(category, new Position(offset, positionLength));
+				actual.addPosition(category, new Position(offset, positionLength));
+			}
+		} catch (BadPositionCategoryException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static void removePositions(Document expected, Document actual, Random random) throws BadPositionCategoryException {
+		Position[] positions= actual.getPositions(CATEGORY);
+		for (int i= 0; i < positions.length / 10; i++) {
+			Position position= positions[random.nextInt(positions.length)];
+			actual.removePosition(CATEGORY, position);
+			for (Position candidate : expected.getPositions(CATEGORY)) {
+				if (candidate.equals(position)) {
+					expected.removePosition(CATEGORY, candidate);
+					break;
+				}
+			}
+		}
+	}
+
+	private static void assertSameState(Document expected, Document actual, Random random) throws Exception {
+		assertEquals(expected.get(), actual.get());
+		for (String category : new String[] { IDocument.DEFAULT_CATEGORY, CATEGORY }) {
+			assertArrayEquals(sort(expected.getPositions(category)), sort(actual.getPositions(category)));
+
+			for (int i= 0; i < 5; i++) {
+				int length= expected.getLength();
+				int offset= random.nextInt(length + 1);
+				int queryLength= random.nextInt(Math.min(300, length - offset) + 1);
+				assertEquals(expected.computeIndexInCategory(category, offset), actual.computeIndexInCategory(category, offset));
+				for (int flags= 0; flags < 4; flags++) {
+					boolean canStartBefore= (flags & 1) != 0;
+					boolean canEndAfter= (flags & 2) != 0;
+					Position[] positions= actual.getPositions(category, offset, queryLength, canStartBefore, canEndAfter);
+					assertArrayEquals(getPositions(actual.getPositions(category), offset, queryLength, canStartBefore, canEndAfter), sort(positions));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Selects the positions specified by
+	 * {@link Document#getPositions(String, int, int, boolean, boolean)} by looking at all positions.
+	 */
+	private static Position[] getPositions(Position[] positions, int offset, int length, boolean canStartBefore, boolean canEndAfter) {
+		Position region= new Position(offset, length);
+		return sort(Arrays.stream(positions).filter(p -> {
+			int start= p.getOffset();
+			int end= p.getLength() == 0 ? start : start + p.getLength() - 1;
+			if (canStartBefore && canEndAfter)
+				return region.overlapsWith(start, p.getLength());
+			if (canStartBefore)
+				return region.includes(end);
+			if (canEndAfter)
+				return region.includes(start);
+			return region.includes(start) && region.includes(start + p.getLength() - 1);
+		}).toArray(Position[]::new));
+	}
+
+	private static Position[] sort(Position[] positions) {
+		Arrays.sort(positions, Comparator.comparingInt(Position::getOffset).thenComparingInt(Position::getLength));
+		return positions;
+	}
+
+	private static final class NonDeletingUpdater extends DefaultPositionUpdater {
+		NonDeletingUpdater() {
+			super(CATEGORY);
+		}
+
+		@Override
+		protected boolean notDeleted() {
+			return true;
+		}
+	}
+}
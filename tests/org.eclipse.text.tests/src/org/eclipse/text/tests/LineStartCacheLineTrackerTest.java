@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.ConfigurableLineTracker;
+import org.eclipse.jface.text.DefaultLineTracker;
+import org.eclipse.jface.text.GapTextStore;
+import org.eclipse.jface.text.ILineTracker;
+
+/**
+ * Runs the {@link LineTrackerTest3} with the line start cache enabled and compares line trackers
+ * with and without the cache.
+ */
+public class LineStartCacheLineTrackerTest extends LineTrackerTest3 {
+
+	private static final String[] INSERTIONS= { "", "x", "xyz", "\n", "\r", "\r\n", "a\nb", "\n\n\n", "a\r\nb\rc\n", "\r\r\n\n" };
+
+	@Override
+	@Before
+	public void setUp() {
+		fText= new GapTextStore();
+		ConfigurableLineTracker tracker= new ConfigurableLineTracker(new String[] { "\n" });
+		tracker.setLineStartCacheEnabled(true);
+		fTracker= tracker;
+		set("x\nx\nx\nx\nx\n");
+	}
+
+	@Test
+	public void testRandomEdits() throws Exception {
+		Random random= new Random(31);
+		DefaultLineTracker expected= new DefaultLineTracker();
+		DefaultLineTracker actual= new DefaultLineTracker();
+		actual.setLineStartCacheEnabled(true);
+		assertTrue(actual.isLineStartCacheEnabled());
+
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 200; i++)
+			text.append(INSERTIONS[random.nextInt(INSERTIONS.length)]);
+		expected.set(text.toString());
+		actual.set(text.toString());
+
+		for (int i= 0; i < 2000; i++) {
+			int offset= random.nextInt(text.length() + 1);
+			int length= random.nextInt(4) == 0 ? random.nextInt(Math.min(30, text.length() - offset) + 1) : 0;
+			String insertion= random.nextInt(10) == 0 ? null : INSERTIONS[random.nextInt(INSERTIONS.length)];
+			// keep the edits local most of the time
+			if (i % 20 != 0)
+				offset= Math.min(text.length() - length, offset / 10);
+			expected.replace(offset, length, insertion);
+			actual.replace(offset, length, insertion);
+			text.replace(offset, offset + length, insertion == null ? "" : insertion);
+			assertSameLines(expected, actual, text.length(), random);
+		}
+	}
+
+	@Test
+	public void testToggleCache() throws Exception {
+		Random random= new Random(37);
+		DefaultLineTracker expected= new DefaultLineTracker();
+		DefaultLineTracker actual= new DefaultLineTracker();
+		int length= 0;
+		for (int i= 0; i < 20; i++) {
+			actual.setLineStartCacheEnabled(i % 3 != 0);
+			assertEquals(i % 3 != 0, actual.isLineStartCacheEnabled());
+			String insertion= INSERTIONS[random.nextInt(INSERTIONS.length)];
+			int offset= random.nextInt(length + 1);
+			expected.replace(offset, 0, insertion);
+			actual.replace(offset, 0, insertion);
+			length+= insertion.length();
+			assertSameLines(expected, actual, length, random);
+		}
+		actual.setLineStartCacheEnabled(false);
+		assertFalse(actual.isLineStartCacheEnabled());
+		assertSameLines(expected, actual, length, random);
+	}
+
+	private static void assertSameLines(ILineTracker expected, ILineTracker actual, int length, Random random) throws BadLocationException {
+		int lines= expected.getNumberOfLines();
+		assertEquals(lines, actual.getNumberOfLines());
+		for (int line= 0; line < lines; line++) {
+			assertEquals(expected.getLineOffset(line), actual.getLineOffset(line));
+			assertEquals(expected.getLineLength(line), actual.getLineLength(line));
+			assertEquals(expected.getLineDelimiter(line), actual.getLineDelimiter(line));
+			assertEquals(expected.getLineInformation(line), actual.getLineInformation(line));
+		}
+		for (int i= 0; i < 20; i++) {
+			int offset= random.nextInt(length + 1);
+			assertEquals(expected.getLineNumberOfOffset(offset), actual.getLineNumberOfOffset(offset));
+			assertEquals(expected.getLineInformationOfOffset(offset), actual.getLineInformationOfOffset(offset));
+			int queryLength= random.nextInt(length - offset + 1);
+			assertEquals(expected.getNumberOfLines(offset, queryLength), actual.getNumberOfLines(offset, queryLength));
+		}
+		try {
+			actual.getLineOffset(lines + 1);
+			fail();
+		} catch (BadLocationException e) {
+			// expected
+		}
+	}
+}
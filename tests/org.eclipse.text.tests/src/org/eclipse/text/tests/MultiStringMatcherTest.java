@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019, 2020 Thomas Wolf and others.
+ * Copyright (c) 2019, 2026 Thomas Wolf and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -10,13 +10,16 @@
  *******************************************************************************/
 package org.eclipse.text.tests;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -474,6 +477,47 @@ public class MultiStringMatcherTest {
 		assertEquals("Scanned too far", 5, text.getLastIndex());
 	}
 
+	@Test
+	public void findAll001() throws Exception {
+		MultiStringMatcher matcher = MultiStringMatcher.create("ab", "abc", "bcd", "d");
+		assertArrayEquals(new int[] { 0, 2, 0, 3, 1, 3, 3, 1, 4, 2, 4, 3 }, matcher.findAll("abcdabc", 0));
+		assertArrayEquals(new int[] { 0, 3, 3, 1, 4, 3 }, matcher.indexOfAll("abcdabc", 0));
+		assertArrayEquals(new int[] { 1, 3, 4, 3 }, matcher.indexOfAll("abcdabc", 1));
+		assertArrayEquals(new int[0], matcher.findAll("abcdabc", 7));
+		assertArrayEquals(new int[0], MultiStringMatcher.create().findAll("abcdabc", 0));
+	}
+
+	@Test
+	public void findAllLargeText() throws Exception {
+		Random random = new Random(41);
+		String[] needles = { "a", "ab", "bab", "aaaa", "abcabcabc", "ca" };
+		MultiStringMatcher matcher = MultiStringMatcher.create(needles);
+		for (int length : new int[] { 100, 70000, 300000 }) {
+			StringBuilder builder = new StringBuilder(length);
+			for (int i = 0; i < length; i++) {
+				builder.append((char) ('a' + random.nextInt(4)));
+			}
+			String text = builder.toString();
+			int offset = random.nextInt(50);
+
+			List<Integer> expected = new ArrayList<>();
+			matcher.find(text, offset, m -> {
+				expected.add(Integer.valueOf(m.getOffset()));
+				expected.add(Integer.valueOf(m.getText().length()));
+			});
+			assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), matcher.findAll(text, offset));
+
+			expected.clear();
+			Match m = matcher.indexOf(text, offset);
+			while (m != null) {
+				expected.add(Integer.valueOf(m.getOffset()));
+				expected.add(Integer.valueOf(m.getText().length()));
+				m = matcher.indexOf(text, m.getOffset() + m.getText().length());
+			}
+			assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), matcher.indexOfAll(text, offset));
+		}
+	}
+
 	private static class TestCharSequence implements CharSequence {
 
 		private final String value;
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.ITextStore;
+import org.eclipse.jface.text.ITextStoreFactory;
+import org.eclipse.jface.text.PieceTableTextStore;
+
+public class PieceTableTextStoreTest extends TextStoreTest {
+
+	@Override
+	protected ITextStore createTextStore() {
+		return new PieceTableTextStore();
+	}
+
+	@Test
+	public void testRandomEdits() {
+		Random random= new Random(4711);
+		PieceTableTextStore store= new PieceTableTextStore();
+		StringBuilder expected= new StringBuilder("initial content\nwith two lines\n");
+		store.set(expected.toString());
+		for (int i= 0; i < 5000; i++) {
+			int offset= random.nextInt(expected.length() + 1);
+			int length= random.nextInt(Math.min(10, expected.length() - offset) + 1);
+			String text= random.nextInt(10) == 0 ? "" : Integer.toString(random.nextInt(100000));
+			store.replace(offset, length, text);
+			expected.replace(offset, offset + length, text);
+
+			assertEquals(expected.length(), store.getLength());
+			int probe= random.nextInt(expected.length());
+			assertEquals(expected.charAt(probe), store.get(probe));
+			int end= probe + random.nextInt(expected.length() - probe + 1);
+			assertEquals(expected.substring(probe, end), store.get(probe, end - probe));
+		}
+		assertEquals(expected.toString(), store.get(0, store.getLength()));
+	}
+
+	@Test
+	public void testConcurrentReads() throws Exception {
+		Random random= new Random(42);
+		PieceTableTextStore store= new PieceTableTextStore();
+		StringBuilder expected= new StringBuilder("0123456789".repeat(1000));
+		store.set(expected.toString());
+		// many short pieces, so that the readers keep replacing the cached piece
+		for (int i= 0; i < 2000; i++) {
+			int offset= random.nextInt(expected.length() + 1);
+			String text= Integer.toString(random.nextInt(100));
+			store.replace(offset, 0, text);
+			expected.insert(offset, text);
+		}
+		String content= expected.toString();
+
+		AtomicReference<Throwable> failure= new AtomicReference<>();
+		Thread[] readers= new Thread[4];
+		for (int i= 0; i < readers.length; i++) {
+			Random readerRandom= new Random(i);
+			readers[i]= new Thread(() -> {
+				try {
+					for (int j= 0; j < 200000; j++) {
+						int offset= readerRandom.nextInt(content.length());
+						assertEquals(content.charAt(offset), store.get(offset));
+						int length= readerRandom.nextInt(Math.min(20, content.length() - offset) + 1);
+						assertEquals(content.substring(offset, offset + length), store.get(offset, length));
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			});
+			readers[i].start();
+		}
+		for (Thread reader : readers)
+			reader.join();
+		if (failure.get() != null)
+			throw new AssertionError(failure.get());
+	}
+
+	@Test
+	public void testTyping() {
+		PieceTableTextStore store= new PieceTableTextStore();
+		store.set("head tail");
+		String typed= "x".repeat(100000);
+		for (int i= 0; i < typed.length(); i++)
+			store.replace(5 + i, 0, typed.substring(i, i + 1));
+		assertEquals("head " + typed + "tail", store.get(0, store.getLength()));
+	}
+
+	@Test
+	public void testLargeInsertion() {
+		PieceTableTextStore store= new PieceTableTextStore();
+		String large= "0123456789".repeat(100000);
+		store.set("ab");
+		store.replace(1, 0, large);
+		assertEquals("a" + large + "b", store.get(0, store.getLength()));
+		assertEquals(large.substring(99, 12345), store.get(100, 12345 - 99));
+	}
+
+	@Test
+	public void testSubSequenceIsSnapshot() {
+		PieceTableTextStore store= new PieceTableTextStore();
+		store.set("hello world");
+		store.replace(5, 0, ",");
+		CharSequence view= store.subSequence(3, 6);
+		store.replace(0, store.getLength(), "changed");
+		assertEquals("lo, wo", view.toString());
+		assertEquals(6, view.length());
+		assertEquals(',', view.charAt(2));
+		assertEquals(", w", view.subSequence(2, 5).toString());
+		assertEquals("", store.subSequence(0, 0).toString());
+	}
+
+	@Test
+	public void testRelease() {
+		PieceTableTextStore store= new PieceTableTextStore();
+		StringBuilder content= new StringBuilder("0123456789".repeat(1000));
+		store.set((CharSequence) content);
+		store.replace(10, 5, "abc");
+		store.replace(5000, 0, "xyz");
+		String expected= store.get(0, store.getLength());
+
+		store.release(content);
+		content.setLength(0);
+		content.append("-".repeat(10000));
+		assertEquals(expected, store.get(0, store.getLength()));
+		assertEquals(expected.charAt(4711), store.get(4711));
+
+		store.replace(0, 3, "");
+		assertEquals(expected.substring(3), store.get(0, store.getLength()));
+	}
+
+	@Test
+	public void testDocument() throws Exception {
+		Document document= new Document("line 1\nline 2\n", ITextStoreFactory.PIECE_TABLE);
+		document.replace(7, 4, "row");
+		assertEquals("line 1\nrow 2\n", document.get());
+		assertEquals(1, document.getLineOfOffset(8));
+	}
+}
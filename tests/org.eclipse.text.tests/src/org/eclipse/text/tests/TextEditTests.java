@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,7 @@ import static org.junit.Assert.*;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -41,8 +42,11 @@ import org.eclipse.text.edits.TextEditCopier;
 import org.eclipse.text.edits.UndoEdit;
 
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Position;
 
 public class TextEditTests {
 
@@ -1385,6 +1389,168 @@ public class TextEditTests {
 		assertEquals(result, 2, 1);
 	}
 
+	@Test
+	public void testCoalesceChanges() throws Exception {
+		for (int seed= 0; seed < 50; seed++) {
+			StringBuilder text= new StringBuilder();
+			Random random= new Random(seed);
+			for (int i= 0; i < 2000; i++)
+				text.append((char) ('a' + random.nextInt(26)));
+			IDocument expected= new Document(text.toString());
+			IDocument actual= new Document(text.toString());
+			TextEdit expectedRoot= createRandomTree(new Random(seed), expected.getLength());
+			TextEdit actualRoot= createRandomTree(new Random(seed), actual.getLength());
+
+			UndoEdit expectedUndo= expectedRoot.apply(expected, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS);
+			UndoEdit actualUndo= actualRoot.apply(actual, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS | TextEdit.COALESCE_CHANGES);
+			Assert.assertEquals(expected.get(), actual.get());
+
+			List<TextEdit> expectedEdits= flatten(expectedRoot);
+			List<TextEdit> actualEdits= flatten(actualRoot);
+			Assert.assertEquals(expectedEdits.size(), actualEdits.size());
+			for (int i= 0; i < expectedEdits.size(); i++)
+				assertEquals(actualEdits.get(i), expectedEdits.get(i).getOffset(), expectedEdits.get(i).getLength());
+			assertEquals(actualUndo, expectedUndo.getOffset(), expectedUndo.getLength());
+			Assert.assertEquals(expectedUndo.getChildrenSize(), actualUndo.getChildrenSize());
+
+			actualUndo.apply(actual);
+			Assert.assertEquals(text.toString(), actual.get());
+		}
+	}
+
+	@Test
+	public void testCoalesceChangesEvents() throws Exception {
+		List<DocumentEvent> events= new ArrayList<>();
+		fDocument.addDocumentListener(new IDocumentListener() {
+			@Override
+			public void documentAboutToBeChanged(DocumentEvent event) {
+			}
+
+			@Override
+			public void documentChanged(DocumentEvent event) {
+				events.add(event);
+			}
+		});
+		fRoot.addChild(new InsertEdit(1, "xy"));
+		fRoot.addChild(new DeleteEdit(3, 2));
+		RangeMarker marker= new RangeMarker(6, 3);
+		marker.addChild(new ReplaceEdit(7, 1, "z"));
+		fRoot.addChild(marker);
+		UndoEdit undo= fRoot.apply(fDocument, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS | TextEdit.COALESCE_CHANGES);
+		Assert.assertEquals("0xy1256z89", fDocument.get());
+		Assert.assertEquals(1, events.size());
+		Assert.assertEquals(1, events.get(0).getOffset());
+		Assert.assertEquals(7, events.get(0).getLength());
+		assertEquals(marker, 6, 3);
+		doUndoRedo(undo, "0xy1256z89");
+	}
+
+	@Test
+	public void testCoalesceChangesPositions() throws Exception {
+		List<DocumentEvent> events= new ArrayList<>();
+		fDocument.addDocumentListener(new IDocumentListener() {
+			@Override
+			public void documentAboutToBeChanged(DocumentEvent event) {
+			}
+
+			@Override
+			public void documentChanged(DocumentEvent event) {
+				events.add(event);
+			}
+		});
+		Position between= new Position(3, 2);
+		fDocument.addPosition(between);
+		fRoot.addChild(new InsertEdit(1, "xy"));
+		fRoot.addChild(new DeleteEdit(6, 2));
+		fRoot.addChild(new ReplaceEdit(9, 1, "z"));
+		UndoEdit undo= fRoot.apply(fDocument, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS | TextEdit.COALESCE_CHANGES);
+		Assert.assertEquals("0xy123458z", fDocument.get());
+		// the position between the insertion and the deletion splits the changes
+		Assert.assertEquals(2, events.size());
+		Assert.assertFalse(between.isDeleted());
+		Assert.assertEquals(5, between.getOffset());
+		Assert.assertEquals(2, between.getLength());
+		doUndoRedo(undo, "0xy123458z");
+	}
+
+	@Test
+	public void testCoalesceChangesRandomPositions() throws Exception {
+		for (int seed= 0; seed < 50; seed++) {
+			StringBuilder text= new StringBuilder();
+			Random random= new Random(seed);
+			for (int i= 0; i < 2000; i++)
+				text.append((char) ('a' + random.nextInt(26)));
+			IDocument expected= new Document(text.toString());
+			IDocument actual= new Document(text.toString());
+			List<Position> expectedPositions= new ArrayList<>();
+			List<Position> actualPositions= new ArrayList<>();
+			for (int i= 0; i < 20; i++) {
+				int offset= random.nextInt(text.length());
+				int length= random.nextInt(Math.min(30, text.length() - offset) + 1);
+				expectedPositions.add(new Position(offset, length));
+				actualPositions.add(new Position(offset, length));
+				expected.addPosition(expectedPositions.get(i));
+				actual.addPosition(actualPositions.get(i));
+			}
+			TextEdit expectedRoot= createRandomTree(new Random(seed), expected.getLength());
+			TextEdit actualRoot= createRandomTree(new Random(seed), actual.getLength());
+
+			expectedRoot.apply(expected, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS);
+			actualRoot.apply(actual, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS | TextEdit.COALESCE_CHANGES);
+			Assert.assertEquals(expected.get(), actual.get());
+			for (int i= 0; i < expectedPositions.size(); i++) {
+				Position expectedPosition= expectedPositions.get(i);
+				Position actualPosition= actualPositions.get(i);
+				Assert.assertEquals(expectedPosition.isDeleted(), actualPosition.isDeleted());
+				Assert.assertEquals(expectedPosition.getOffset(), actualPosition.getOffset());
+				Assert.assertEquals(expectedPosition.getLength(), actualPosition.getLength());
+			}
+		}
+	}
+
+	@Test
+	public void testCoalesceChangesWithMove() throws Exception {
+		MoveSourceEdit source= new MoveSourceEdit(2, 2);
+		MoveTargetEdit target= new MoveTargetEdit(5, source);
+		fRoot.addChild(source);
+		fRoot.addChild(target);
+		fRoot.addChild(new InsertEdit(8, "x"));
+		UndoEdit undo= fRoot.apply(fDocument, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS | TextEdit.COALESCE_CHANGES);
+		Assert.assertEquals("01423567x89", fDocument.get());
+		doUndoRedo(undo, "01423567x89");
+	}
+
+	private static TextEdit createRandomTree(Random random, int length) {
+		MultiTextEdit root= new MultiTextEdit();
+		int offset= 0;
+		while (true) {
+			offset+= random.nextInt(40);
+			int editLength= random.nextInt(10);
+			if (offset + editLength > length)
+				break;
+			if (random.nextInt(5) == 0 && editLength > 0) {
+				// a range marker containing a change
+				RangeMarker marker= new RangeMarker(offset, editLength);
+				marker.addChild(new ReplaceEdit(offset + random.nextInt(editLength), 0, "marker"));
+				root.addChild(marker);
+			} else {
+				switch (random.nextInt(3)) {
+					case 0:
+						root.addChild(new InsertEdit(offset, "insert"));
+						editLength= 0;
+						break;
+					case 1:
+						root.addChild(new DeleteEdit(offset, editLength));
+						break;
+					default:
+						root.addChild(new ReplaceEdit(offset, editLength, "replace"));
+				}
+			}
+			offset+= editLength;
+		}
+		return root;
+	}
+
 	private void doUndoRedo(UndoEdit undo, String redoResult) throws Exception {
 		UndoEdit redo= undo.apply(fDocument);
 		assertBufferContent();
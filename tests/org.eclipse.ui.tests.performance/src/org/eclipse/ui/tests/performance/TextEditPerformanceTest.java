@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+
+/**
+ * Compares applying a large edit tree, as created by formatters and refactorings, change by
+ * change and with {@link TextEdit#COALESCE_CHANGES}. This test does not rely on the existence of
+ * the workbench.
+ */
+public final class TextEditPerformanceTest extends BasicPerformanceTest {
+
+	private static final int LINES = 200000;
+
+	private static final int RUNS = 5;
+
+	public TextEditPerformanceTest(final String name) {
+		super(name);
+	}
+
+	private static IDocument createDocument(boolean withPositions) throws BadLocationException {
+		final StringBuilder text = new StringBuilder();
+		for (int i = 0; i < LINES; i++) {
+			text.append("\tint field").append(i).append(" = ").append(i).append(";\n");
+		}
+		final IDocument document = new Document(text.toString());
+		if (withPositions) {
+			// one position every 50 lines, e.g. for markers
+			for (int line = 0; line < LINES; line += 50) {
+				document.addPosition(new Position(document.getLineOffset(line), 4));
+			}
+		}
+		return document;
+	}
+
+	/**
+	 * Replaces the indentation of every third line, like a formatter does.
+	 */
+	private static TextEdit createEdit(IDocument document) throws BadLocationException {
+		final MultiTextEdit root = new MultiTextEdit();
+		for (int line = 0; line < LINES; line += 3) {
+			root.addChild(new ReplaceEdit(document.getLineOffset(line), 1, "    "));
+		}
+		return root;
+	}
+
+	private void measureApply(boolean withPositions, int style) throws BadLocationException {
+		for (int i = 0; i < RUNS; i++) {
+			final IDocument document = createDocument(withPositions);
+			final TextEdit edit = createEdit(document);
+			startMeasuring();
+			edit.apply(document, style);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public final void testApplyEdits() throws BadLocationException {
+		measureApply(false, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS);
+	}
+
+	public final void testApplyCoalescedEdits() throws BadLocationException {
+		measureApply(false, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS | TextEdit.COALESCE_CHANGES);
+	}
+
+	public final void testApplyEditsWithPositions() throws BadLocationException {
+		measureApply(true, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS);
+	}
+
+	public final void testApplyCoalescedEditsWithPositions() throws BadLocationException {
+		measureApply(true, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS | TextEdit.COALESCE_CHANGES);
+	}
+}
@@ -43,6 +43,7 @@ public class UIPerformanceTestSuite extends FilteredTestSuite {
 		addTest(new JUnit4TestAdapter(OpenMultipleEditorTest.class));
 		addTest(new JUnit4TestAdapter(EditorSwitchTest.class));
 		addTestSuite(CommandsPerformanceTest.class);
+		addTestSuite(TextEditPerformanceTest.class);
 		addTest(new JUnit4TestAdapter(LabelProviderTest.class));
 		addTestSuite(ProgressReportingTest.class);
 		addTestSuite(OpenProjectExplorerFolderTest.class);
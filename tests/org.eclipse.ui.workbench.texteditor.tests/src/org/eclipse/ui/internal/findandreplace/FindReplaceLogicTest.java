@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2023 Vector Informatik GmbH and others.
+ * Copyright (c) 2023, 2026 Vector Informatik GmbH and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -45,6 +45,9 @@ import org.eclipse.swt.widgets.Shell;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IFindReplaceTarget;
 import org.eclipse.jface.text.IFindReplaceTargetExtension3;
+import org.eclipse.jface.text.IMultiTextSelection;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextSelection;
 import org.eclipse.jface.text.TextViewer;
 
@@ -215,6 +218,18 @@ public class FindReplaceLogicTest {
 				+ "^");
 	}
 
+	@Test
+	public void testPerformReplaceAllFindsOccurrencesBeforeReplacing() {
+		TextViewer textViewer= setupTextViewer("aaa aaa");
+		IFindReplaceLogic findReplaceLogic= setupFindReplaceLogicObject(textViewer);
+		findReplaceLogic.activate(SearchOptions.REGEX);
+
+		setFindAndReplaceString(findReplaceLogic, "(?<=a)a", "b");
+		findReplaceLogic.performReplaceAll();
+		assertThat(textViewer.getDocument().get(), equalTo("abb abb"));
+		expectStatusIsReplaceAllWithCount(findReplaceLogic, 4);
+	}
+
 	@Test
 	public void testPerformSelectAndReplace() {
 		TextViewer textViewer= setupTextViewer("Hello<replace>World<replace>!");
@@ -525,6 +540,25 @@ public class FindReplaceLogicTest {
 	}
 
 
+	@Test
+	public void testPerformSelectAllSelectsAllOccurrences() {
+		TextViewer textViewer= setupTextViewer("Ab ab Ab");
+		IFindReplaceLogic findReplaceLogic= setupFindReplaceLogicObject(textViewer);
+		findReplaceLogic.activate(SearchOptions.CASE_SENSITIVE);
+
+		findReplaceLogic.setFindString("Ab");
+		findReplaceLogic.performSelectAll();
+		expectStatusIsFindAllWithCount(findReplaceLogic, 2);
+		IRegion[] regions= ((IMultiTextSelection) textViewer.getSelection()).getRegions();
+		assertThat(regions, equalTo(new IRegion[] { new Region(0, 2), new Region(6, 2) }));
+
+		findReplaceLogic.deactivate(SearchOptions.CASE_SENSITIVE);
+		findReplaceLogic.performSelectAll();
+		expectStatusIsFindAllWithCount(findReplaceLogic, 3);
+		regions= ((IMultiTextSelection) textViewer.getSelection()).getRegions();
+		assertThat(regions, equalTo(new IRegion[] { new Region(0, 2), new Region(3, 2), new Region(6, 2) }));
+	}
+
 	@Test
 	public void testPerformSelectAllBackward() {
 		TextViewer textViewer= setupTextViewer("AbAbAbAb");
@@ -14,16 +14,24 @@
 package org.eclipse.ui.workbench.texteditor.tests;
 
 import static org.eclipse.jface.text.DocumentRewriteSessionType.SEQUENTIAL;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.source.ILineDiffInfo;
 
 import org.eclipse.ui.internal.texteditor.quickdiff.DocumentLineDiffer;
 
+import org.eclipse.ui.texteditor.ITextEditor;
+import org.eclipse.ui.texteditor.quickdiff.IQuickDiffReferenceProvider;
+
 /**
  * Tests for the {@link DocumentLineDiffer}.
  */
@@ -169,4 +177,91 @@ public class DocumentLineDifferTest {
 		assertFalse(fLineDiffer.isSuspended());
 	}
 
+	/**
+	 * Test that the line information of a synchronized {@link DocumentLineDiffer line differ}
+	 * follows small edits spread over a large document.
+	 *
+	 * @throws Exception unexpected exception
+	 */
+	@Test
+	public void lineInfoFollowsEditsInLargeDocument() throws Exception {
+		// given
+		StringBuilder text= new StringBuilder();
+		for (int i= 0; i < 20000; i++)
+			text.append("line ").append(i).append('\n');
+		fDocument.set(text.toString());
+		fLineDiffer.setReferenceProvider(new ReferenceProvider(new Document(text.toString())));
+		fLineDiffer.connect(fDocument);
+		long timeout= System.currentTimeMillis() + 10000;
+		while (!fLineDiffer.isSynchronized() && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		assertTrue(fLineDiffer.isSynchronized());
+
+		// when
+		for (int line= 100; line < 20000; line+= 1000) {
+			IRegion region= fDocument.getLineInformation(line);
+			fDocument.replace(region.getOffset(), region.getLength(), "changed " + line);
+		}
+		for (int line= 19500; line > 0; line-= 1000)
+			fDocument.replace(fDocument.getLineOffset(line), 0, "added\n");
+
+		// then
+		int changed= 0;
+		int added= 0;
+		for (int line= 0; line < fDocument.getNumberOfLines() - 1; line++) {
+			ILineDiffInfo info= fLineDiffer.getLineInfo(line);
+			String content= fDocument.get(fDocument.getLineOffset(line), fDocument.getLineLength(line));
+			if (content.startsWith("changed")) {
+				assertEquals(ILineDiffInfo.CHANGED, info.getChangeType());
+				changed++;
+			} else if (content.startsWith("added")) {
+				assertEquals(ILineDiffInfo.ADDED, info.getChangeType());
+				added++;
+			} else {
+				assertEquals(ILineDiffInfo.UNCHANGED, info.getChangeType());
+			}
+		}
+		assertEquals(20, changed);
+		assertEquals(20, added);
+	}
+
+	/**
+	 * A reference provider answering a fixed reference document.
+	 */
+	private static class ReferenceProvider implements IQuickDiffReferenceProvider {
+
+		private final IDocument fReference;
+
+		ReferenceProvider(IDocument reference) {
+			fReference= reference;
+		}
+
+		@Override
+		public IDocument getReference(IProgressMonitor monitor) {
+			return fReference;
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public String getId() {
+			return "test";
+		}
+
+		@Override
+		public void setActiveEditor(ITextEditor editor) {
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public void setId(String id) {
+		}
+	}
+
 }